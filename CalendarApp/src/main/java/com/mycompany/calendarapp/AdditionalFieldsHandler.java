@@ -3,6 +3,7 @@ package com.mycompany.calendarapp;
 // Import statements for file I/O operations
 import java.io.*;  // Provides basic input/output classes for file handling
 import java.nio.charset.StandardCharsets;  // For UTF-8 character encoding
+import java.util.ArrayList;  // For empty results
 import java.util.List;  // For working with lists of objects
 
 /**
@@ -21,7 +22,7 @@ import java.util.List;  // For working with lists of objects
 public class AdditionalFieldsHandler {
     
     // Constants
-    private static final String ADDITIONAL_CSV = "additional.csv";  // The CSV file name for storing additional fields
+    static final String ADDITIONAL_CSV = "additional.csv";  // The CSV file name for storing additional fields
     
     /**
      * Save additional fields for all events to additional.csv
@@ -32,35 +33,74 @@ public class AdditionalFieldsHandler {
      * @param manager The EventManager containing all events whose additional fields need to be saved
      */
     public static void saveAdditionalFields(EventManager manager) {
-        // Try-with-resources statement - automatically closes the writer when done
-        // BufferedWriter + OutputStreamWriter provides efficient writing with proper character encoding (UTF-8)
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(ADDITIONAL_CSV), StandardCharsets.UTF_8))) {
-            
-            // Write the CSV header row (column names)
-            writer.write("eventId,location,category,priority");
-            writer.newLine();  // Move to the next line
-            
-            // Loop through all events in the manager and write their additional fields
-            for (MainEvent event : manager.getAllEvents()) {
-                // Get each additional field, using default values if null
-                String location = event.getLocation() != null ? event.getLocation() : "";  // Empty string if no location
-                String category = event.getCategory() != null ? event.getCategory() : "General";  // Default to "General"
-                String priority = event.getPriority() != null ? event.getPriority() : "MEDIUM";  // Default to "MEDIUM"
-                
-                // Format and write the CSV line with escaped values (handles commas and quotes)
-                writer.write(String.format("%d,%s,%s,%s",
-                    event.getEventId(),  // Event's unique identifier
-                    escapeCsv(location),  // Location with special characters escaped
-                    escapeCsv(category),  // Category with special characters escaped
-                    escapeCsv(priority)));  // Priority with special characters escaped
-                writer.newLine();  // Move to next line for next event
-            }
-            
+        saveAdditionalFields(manager.getAllEvents());
+    }
+    
+    /**
+     * Save additional fields for a list of events to additional.csv
+     * 
+     * @param events The events whose additional fields need to be saved
+     * @return true if the file was written
+     */
+    public static boolean saveAdditionalFields(List<MainEvent> events) {
+        // The data goes to additional.csv.tmp and is renamed into place once complete
+        try (AtomicFile file = new AtomicFile(ADDITIONAL_CSV)) {
+            writeAdditionalFields(events, file.stream());
+            file.commit();  // Sync to disk, then replace the old file
         } catch (IOException e) {
             // If file writing fails, print error message to standard error stream
             System.err.println("Error saving additional fields: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Save additional fields for a list of events to additional.csv, as
+     * one file of a set replaced together (see CSVHandlerCompliant.saveEvents)
+     * 
+     * @param events The events whose additional fields need to be saved
+     * @param files The set the file is replaced in
+     * @return true if the file was written
+     */
+    static boolean saveAdditionalFields(List<MainEvent> events, AtomicFileSet files) {
+        try (OutputStream out = files.add(ADDITIONAL_CSV)) {
+            writeAdditionalFields(events, out);
+        } catch (IOException e) {
+            System.err.println("Error saving additional fields: " + e.getMessage());
+            return false;
         }
+        return true;
+    }
+    
+    /**
+     * Write the additional.csv rows for a list of events
+     * 
+     * @param events The events whose additional fields need to be saved
+     * @param out Where to write (flushed, not closed)
+     * @throws IOException If writing fails
+     */
+    private static void writeAdditionalFields(List<MainEvent> events, OutputStream out) throws IOException {
+        // BufferedWriter + OutputStreamWriter provides efficient writing with proper character encoding (UTF-8)
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        
+        // Write the CSV header row (column names)
+        writer.write("eventId,location,category,priority");
+        writer.newLine();  // Move to the next line
+        
+        // Loop through all events and write their additional fields
+        for (MainEvent event : events) {
+            // Format and write the CSV line with escaped values (handles commas and quotes;
+            // a field that is not set stays null, written apart from an empty one)
+            writer.write(String.format("%d,%s,%s,%s",
+                event.getEventId(),  // Event's unique identifier
+                escapeCsv(event.getLocation()),  // Location with special characters escaped
+                escapeCsv(event.getCategory()),  // Category with special characters escaped
+                escapeCsv(event.getPriority())));  // Priority with special characters escaped
+            writer.newLine();  // Move to next line for next event
+        }
+        
+        writer.flush();  // The stream belongs to the caller, so it is not closed here
     }
     
     /**
@@ -73,46 +113,77 @@ public class AdditionalFieldsHandler {
      * @param manager The EventManager whose events will receive the additional field values
      */
     public static void loadAdditionalFields(EventManager manager) {
+        applyAdditionalFields(manager, readAdditionalFields());
+    }
+    
+    /**
+     * Read additional.csv without touching any events
+     * 
+     * @return The rows in file order (empty if the file doesn't exist or can't be read)
+     */
+    static List<FieldRow> readAdditionalFields() {
         // Create a File object to check if the CSV file exists
         File file = new File(ADDITIONAL_CSV);
         if (!file.exists()) {
             // If the file doesn't exist yet, there's nothing to load - exit gracefully
-            return; // File doesn't exist yet, skip loading
+            return new ArrayList<>(); // File doesn't exist yet, skip loading
         }
         
-        // Try-with-resources for automatic file closing after reading
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
-            
-            String line = reader.readLine(); // Skip the first line (header row)
-            
-            // Read each subsequent line containing event data
-            while ((line = reader.readLine()) != null) {
-                // Parse the CSV line, handling quoted values and commas
-                String[] parts = parseCsvLine(line);
-                if (parts.length >= 4) {  // Ensure we have all required fields
-                    // Extract the data from the CSV columns
-                    int eventId = Integer.parseInt(parts[0]);  // Column 1: Event ID
-                    String location = parts[1];  // Column 2: Location
-                    String category = parts[2];  // Column 3: Category
-                    String priority = parts[3];  // Column 4: Priority
-                    
-                    // Find the matching event by ID and update its additional fields
-                    for (MainEvent event : manager.getAllEvents()) {
-                        if (event.getEventId() == eventId) {
-                            // Apply the loaded values to the event
-                            event.setLocation(location);
-                            event.setCategory(category);
-                            event.setPriority(priority);
-                            break;  // Found and updated the event, exit the inner loop
-                        }
-                    }
-                }
-            }
-            
+        try {
+            // Skip the header row, then keep each complete row (large files are read in parallel chunks)
+            return ChunkedCsvReader.readRows(file, StandardCharsets.UTF_8, AdditionalFieldsHandler::parseRow);
         } catch (IOException e) {
             // Handle file reading errors
             System.err.println("Error loading additional fields: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Apply rows read by readAdditionalFields to the manager's events
+     * 
+     * @param manager The EventManager whose events will receive the values
+     * @param rows The rows, in file order (a later row for the same event wins)
+     */
+    static void applyAdditionalFields(EventManager manager, List<FieldRow> rows) {
+        for (FieldRow row : rows) {
+            // Find the matching event through the manager's ID index and update its additional fields
+            MainEvent event = manager.findEventById(row.eventId);
+            if (event != null) {
+                // Apply the loaded values to the event
+                event.setLocation(row.location);
+                event.setCategory(row.category);
+                event.setPriority(row.priority);
+            }
+        }
+    }
+    
+    /**
+     * Read one row of additional.csv (header skipped)
+     * 
+     * @return The row, or null if it is incomplete
+     */
+    static FieldRow parseRow(CsvTokenizer.Row row) {
+        if (row.size() < 4) return null;  // Ensure we have all required fields
+        // Column 1: Event ID (parsed without a String), then location, category, priority (null if not set)
+        return new FieldRow(row.getInt(0), row.getNullableString(1), row.getNullableString(2),
+                            row.getNullableString(3));
+    }
+    
+    /**
+     * One row of additional.csv
+     */
+    static final class FieldRow {
+        final int eventId;  // Column 1: Event ID
+        final String location;  // Column 2: Location
+        final String category;  // Column 3: Category
+        final String priority;  // Column 4: Priority
+        
+        FieldRow(int eventId, String location, String category, String priority) {
+            this.eventId = eventId;
+            this.location = location;
+            this.category = category;
+            this.priority = priority;
         }
     }
     
@@ -122,12 +193,15 @@ public class AdditionalFieldsHandler {
      * This method handles special characters in CSV values:
      * - Wraps values containing commas, quotes, or newlines in double quotes
      * - Escapes existing double quotes by doubling them (" becomes "")
+     * - Writes null as an empty field and an empty string as "" (see
+     *   CsvTokenizer.Row.getNullableString)
      * 
      * @param value The string value to escape
      * @return The escaped CSV-safe string
      */
     private static String escapeCsv(String value) {
-        if (value == null) return "";  // Null values become empty strings
+        if (value == null) return "";  // Null values become empty fields
+        if (value.isEmpty()) return "\"\"";  // Quoted, so an empty string reads back apart from null
         // Check if the value contains special CSV characters
         if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
             // Wrap in quotes and escape internal quotes by doubling them
@@ -135,47 +209,4 @@ public class AdditionalFieldsHandler {
         }
         return value;  // No special characters, return as-is
     }
-    
-    /**
-     * Parse a CSV line handling quoted values
-     * 
-     * This method correctly parses CSV lines that may contain:
-     * - Comma-separated values
-     * - Values wrapped in quotes
-     * - Escaped quotes (doubled quotes "")
-     * 
-     * @param line The CSV line to parse
-     * @return Array of parsed string values
-     */
-    private static String[] parseCsvLine(String line) {
-        // Create a list to store the parsed values
-        java.util.List<String> result = new java.util.ArrayList<>();
-        StringBuilder current = new StringBuilder();  // Builds the current field value
-        boolean inQuotes = false;  // Tracks whether we're inside quoted text
-        
-        // Process each character in the line
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);  // Get the current character
-            
-            if (c == '"') {  // Handle quote characters
-                // Check if this is an escaped quote (two quotes in a row)
-                if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
-                    current.append('"');  // Add a single quote to the result
-                    i++; // Skip the next quote (we've already processed it)
-                } else {
-                    // Toggle the inQuotes flag (entering or leaving quoted section)
-                    inQuotes = !inQuotes;
-                }
-            } else if (c == ',' && !inQuotes) {  // Comma outside quotes = field separator
-                result.add(current.toString());  // Add the completed field to results
-                current = new StringBuilder();  // Reset for the next field
-            } else {
-                current.append(c);  // Regular character - add to current field
-            }
-        }
-        result.add(current.toString());  // Add the last field
-        
-        // Convert the list to an array and return
-        return result.toArray(new String[0]);
-    }
 }
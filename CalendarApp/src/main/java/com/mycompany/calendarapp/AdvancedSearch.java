@@ -0,0 +1,176 @@
+package com.mycompany.calendarapp;
+
+import java.time.LocalDate;  // For date handling
+import java.time.LocalDateTime;  // For date and time handling
+import java.time.LocalTime;  // For time-of-day filters
+import java.util.ArrayList;  // For result lists
+import java.util.Iterator;  // For lazily walking occurrences
+import java.util.List;  // List interface
+
+/**
+ * AdvancedSearch Class
+ * 
+ * The multi-criteria filter behind the GUI's Advanced Search dialog, kept
+ * apart from the JavaFX code so it can be called (and benchmarked) on its own.
+ * 
+ * Criteria:
+ * - Title, description and location text (case-insensitive "contains")
+ * - Date range and time-of-day range of the start time
+ * - Reminders only
+ * - Exact category and priority
+ */
+public class AdvancedSearch {
+
+    /**
+     * Filter the calendar's occurrences with every advanced search criterion
+     * 
+     * Null or empty criteria are ignored. Uses the columnar store when the
+     * manager has one, otherwise walks the occurrences in the date window.
+     * 
+     * @param manager The events to search
+     * @param titleQuery Text the title must contain (case-insensitive)
+     * @param descQuery Text the description must contain (case-insensitive)
+     * @param startDate First start date to include
+     * @param endDate Last start date to include
+     * @param startTime Earliest start time of day
+     * @param endTime Latest start time of day
+     * @param remindersOnly Only keep occurrences that have a reminder
+     * @param locationQuery Text the location must contain (case-insensitive)
+     * @param categoryFilter Exact category to match
+     * @param priorityFilter Exact priority to match
+     * @return The matching occurrences, sorted by start time
+     */
+    public static List<MainEvent> filter(EventManager manager, String titleQuery, String descQuery,
+                                         LocalDate startDate, LocalDate endDate,
+                                         LocalTime startTime, LocalTime endTime,
+                                         boolean remindersOnly,
+                                         String locationQuery, String categoryFilter, String priorityFilter) {
+        EventColumns columns = manager.getColumns();
+        if (columns != null) {
+            return filter(columns, titleQuery, descQuery, startDate, endDate, startTime, endTime,
+                          remindersOnly, locationQuery, categoryFilter, priorityFilter);
+        }
+
+        List<MainEvent> results = new ArrayList<>();
+
+        // Only expand the occurrences inside the selected date range (if any)
+        LocalDateTime windowStart = startDate != null ? startDate.atStartOfDay() : LocalDateTime.MIN;
+        LocalDateTime windowEnd = endDate != null ? endDate.plusDays(1).atStartOfDay() : LocalDateTime.MAX;
+        Iterator<MainEvent> candidates = manager.occurrencesBetween(windowStart, windowEnd);
+
+        while (candidates.hasNext()) {
+            MainEvent event = candidates.next();
+            boolean match = true;
+
+            if (titleQuery != null && !titleQuery.isEmpty()) {
+                match &= event.getTitle().toLowerCase().contains(titleQuery.toLowerCase());
+            }
+
+            if (descQuery != null && !descQuery.isEmpty()) {
+                match &= event.getDescription() != null && event.getDescription().toLowerCase().contains(descQuery.toLowerCase());
+            }
+
+            LocalDate eventDate = event.getStartDateTime().toLocalDate();
+            LocalTime eventTime = event.getStartDateTime().toLocalTime();
+
+            if (startDate != null && eventDate.isBefore(startDate)) {
+                match = false;
+            }
+            if (endDate != null && eventDate.isAfter(endDate)) {
+                match = false;
+            }
+
+            if (startTime != null && eventTime.isBefore(startTime)) {
+                match = false;
+            }
+            if (endTime != null && eventTime.isAfter(endTime)) {
+                match = false;
+            }
+
+            if (remindersOnly && event.getReminder() == null) {
+                match = false;
+            }
+
+            // Additional field filters
+            if (locationQuery != null && !locationQuery.isEmpty()) {
+                match &= event.getLocation() != null && event.getLocation().toLowerCase().contains(locationQuery.toLowerCase());
+            }
+
+            if (categoryFilter != null) {
+                match &= event.getCategory() != null && event.getCategory().equals(categoryFilter);
+            }
+
+            if (priorityFilter != null) {
+                match &= event.getPriority() != null && event.getPriority().equals(priorityFilter);
+            }
+
+            if (match) {
+                results.add(event);
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Same filter as above, run on the columnar store
+     * 
+     * Date, time, reminder, category and priority are checked on the
+     * primitive columns; only rows that pass those are turned back into
+     * events for the text filters.
+     */
+    private static List<MainEvent> filter(EventColumns columns, String titleQuery, String descQuery,
+                                         LocalDate startDate, LocalDate endDate,
+                                         LocalTime startTime, LocalTime endTime,
+                                         boolean remindersOnly,
+                                         String locationQuery, String categoryFilter, String priorityFilter) {
+        List<MainEvent> results = new ArrayList<>();
+
+        // Rows starting on the selected dates (all rows if no dates are set)
+        long fromMinute = startDate != null ? EventColumns.toEpochMinute(startDate.atStartOfDay()) : Long.MIN_VALUE;
+        long toMinute = endDate != null ? EventColumns.toEpochMinute(endDate.plusDays(1).atStartOfDay()) : Long.MAX_VALUE;
+        int[] rows = columns.rowsStartingBetween(fromMinute, toMinute);
+
+        // Time-of-day bounds as minutes of the day (event times are whole minutes)
+        int firstMinute = startTime != null ? (startTime.toSecondOfDay() + 59) / 60
+                                              + (startTime.getNano() > 0 && startTime.getSecond() == 0 ? 1 : 0) : 0;
+        int lastMinute = endTime != null ? endTime.toSecondOfDay() / 60 : 24 * 60;
+
+        // Unknown category/priority names match nothing
+        int categoryCode = categoryFilter != null ? columns.categoryCode(categoryFilter) : EventColumns.NONE;
+        int priorityCode = priorityFilter != null ? columns.priorityCode(priorityFilter) : EventColumns.NONE;
+        if ((categoryFilter != null && categoryCode == EventColumns.NONE)
+                || (priorityFilter != null && priorityCode == EventColumns.NONE)) {
+            return results;
+        }
+
+        for (int row : rows) {
+            int minuteOfDay = (int) Math.floorMod(columns.getStartMinute(row), 1440L);
+            if (minuteOfDay < firstMinute || minuteOfDay > lastMinute) continue;
+            if (remindersOnly && !columns.hasReminder(row)) continue;
+            if (categoryFilter != null && columns.getCategoryCode(row) != categoryCode) continue;
+            if (priorityFilter != null && columns.getPriorityCode(row) != priorityCode) continue;
+
+            MainEvent event = columns.getEvent(row);
+            boolean match = true;
+
+            if (titleQuery != null && !titleQuery.isEmpty()) {
+                match &= event.getTitle().toLowerCase().contains(titleQuery.toLowerCase());
+            }
+
+            if (descQuery != null && !descQuery.isEmpty()) {
+                match &= event.getDescription() != null && event.getDescription().toLowerCase().contains(descQuery.toLowerCase());
+            }
+
+            if (locationQuery != null && !locationQuery.isEmpty()) {
+                match &= event.getLocation() != null && event.getLocation().toLowerCase().contains(locationQuery.toLowerCase());
+            }
+
+            if (match) {
+                results.add(event);
+            }
+        }
+
+        return results;
+    }
+}
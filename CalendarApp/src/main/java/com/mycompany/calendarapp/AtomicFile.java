@@ -0,0 +1,176 @@
+package com.mycompany.calendarapp;
+
+import java.io.Closeable;  // Used in try-with-resources
+import java.io.File;  // The temporary file
+import java.io.FileOutputStream;  // Writes the temporary file
+import java.io.FilterOutputStream;  // Stream that prepares the file when closed
+import java.io.IOException;  // For write errors
+import java.io.OutputStream;  // Where callers write
+import java.nio.channels.FileChannel;  // For callers that write at positions, and for fsync
+import java.nio.file.AtomicMoveNotSupportedException;  // Rename fallback
+import java.nio.file.Files;  // For renaming
+import java.nio.file.Path;  // File locations
+import java.nio.file.Paths;  // For building paths
+import java.nio.file.StandardCopyOption;  // Rename options
+import java.nio.file.StandardOpenOption;  // For opening the directory
+
+/**
+ * AtomicFile Class
+ *
+ * Replaces a file so that a crash never leaves it half-written: readers see
+ * either the old contents or the complete new ones.
+ *
+ * How It Works:
+ * 1. Everything is written to "name.tmp" next to the file
+ * 2. commit() flushes the data to the disk (fsync), then renames the
+ *    temporary file over the real one in a single step
+ * 3. Closing without commit() deletes the temporary file and leaves the
+ *    real file as it was
+ *
+ * Several files that must change together are replaced through an
+ * AtomicFileSet, which syncs each of them (prepare()) before renaming any.
+ *
+ * Usage:
+ *   try (AtomicFile file = new AtomicFile("event.csv")) {
+ *       ... write to file.stream() and flush any writer on top of it ...
+ *       file.commit();
+ *   }
+ */
+final class AtomicFile implements Closeable {
+
+    private final Path target;  // The file being replaced
+    private final File temp;  // Where the new contents are written
+    private final FileOutputStream out;  // Open stream on temp
+    private boolean prepared;  // The temporary file is synced and closed
+    private boolean committed;  // commit() succeeded
+
+    /**
+     * Constructor - Start writing a new version of a file
+     *
+     * @param name The file to replace (relative to the working directory)
+     * @throws IOException If the temporary file cannot be created
+     */
+    AtomicFile(String name) throws IOException {
+        this.target = Paths.get(name).toAbsolutePath();
+        this.temp = tempFile(name);
+        this.out = new FileOutputStream(temp);
+    }
+
+    /** @return The stream to write the new contents to */
+    OutputStream stream() {
+        return out;
+    }
+
+    /**
+     * Get a stream on the temporary file whose close() is prepare(), for a
+     * writer that closes its stream before the file is put in place (see
+     * AtomicFileSet)
+     *
+     * @return The stream
+     */
+    OutputStream preparingStream() {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);  // Not byte by byte, as FilterOutputStream would
+            }
+
+            @Override
+            public void close() throws IOException {
+                prepare();
+            }
+        };
+    }
+
+    /** @return A channel on the same temporary file (for positioned writes) */
+    FileChannel channel() {
+        return out.getChannel();
+    }
+
+    /**
+     * Make the new contents durable and put them in place
+     *
+     * Any writer wrapped around stream() must be flushed first.
+     *
+     * @throws IOException If the data cannot be synced or the file renamed
+     */
+    void commit() throws IOException {
+        install();
+        syncDirectory(target.getParent());
+    }
+
+    /**
+     * commit() without syncing the directory, for a set of files that
+     * syncs it once after the last rename (see AtomicFileSet)
+     */
+    void install() throws IOException {
+        prepare();
+        moveIntoPlace(temp, target);
+        committed = true;
+    }
+
+    /**
+     * Make the new contents durable without putting them in place yet
+     *
+     * Any writer wrapped around stream() must be flushed first. Calling it
+     * again does nothing.
+     *
+     * @throws IOException If the data cannot be synced
+     */
+    void prepare() throws IOException {
+        if (prepared) return;
+        out.flush();
+        out.getFD().sync();  // The data is on the disk before the rename makes it visible
+        out.close();
+        prepared = true;
+    }
+
+    /**
+     * Get the temporary file a new version of a file is written to
+     *
+     * @param name The file being replaced
+     * @return "name.tmp"
+     */
+    static File tempFile(String name) {
+        return new File(name + ".tmp");
+    }
+
+    /**
+     * Rename a finished temporary file over the real one in a single step,
+     * where the file system allows it
+     */
+    static void moveIntoPlace(File temp, Path target) throws IOException {
+        try {
+            Files.move(temp.toPath(), target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Discard the temporary file unless commit() succeeded
+     */
+    @Override
+    public void close() {
+        if (committed) return;
+        try {
+            out.close();
+        } catch (IOException e) {
+            // Nothing useful to do: the file is deleted next
+        }
+        temp.delete();
+    }
+
+    /**
+     * Flush the rename itself to the disk, where the system allows it
+     * (directories cannot be opened this way on Windows)
+     */
+    static void syncDirectory(Path directory) {
+        if (directory == null) return;
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            // Best effort only
+        }
+    }
+}
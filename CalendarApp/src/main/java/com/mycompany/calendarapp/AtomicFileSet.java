@@ -0,0 +1,208 @@
+package com.mycompany.calendarapp;
+
+import java.io.BufferedReader;  // Reads the marker
+import java.io.BufferedWriter;  // Writes the marker
+import java.io.Closeable;  // Used in try-with-resources
+import java.io.File;  // Temporary files
+import java.io.FileInputStream;  // Opens the marker
+import java.io.IOException;  // For read and write errors
+import java.io.InputStreamReader;  // Byte to character conversion
+import java.io.OutputStream;  // Where callers write
+import java.io.OutputStreamWriter;  // Character to byte conversion
+import java.nio.charset.StandardCharsets;  // The marker is UTF-8
+import java.nio.file.Path;  // File locations
+import java.nio.file.Paths;  // For building paths
+import java.util.ArrayList;  // Files in the set
+import java.util.List;  // List interface
+
+/**
+ * AtomicFileSet Class
+ *
+ * Replaces several files as one: after a crash readers see either all the
+ * old files or all the new ones, never some of each. AtomicFile does this
+ * for a single file; renaming four files one after another does not.
+ *
+ * How It Works:
+ * 1. Each file is written to its own "name.tmp" (add()) and synced when
+ *    its stream is closed
+ * 2. commit() writes the marker file, listing every file of the set and
+ *    the set's generation number, and syncs it: from here on the new set
+ *    is the saved one
+ * 3. Each temporary file is renamed over its file
+ * 4. The marker is rewritten with the generation alone
+ *
+ * A crash before step 2 leaves the old files and an unlisted temporary
+ * file or two, which the next save overwrites. A crash after it leaves the
+ * list in the marker: recover() (run before the files are read, and before
+ * the next set is written) finishes the renames.
+ *
+ * The generation counts the sets committed, so other files can record which
+ * version of the set they belong to (see EventJournal).
+ *
+ * Marker Format:
+ *   generation,12
+ *   event.csv        <- only while the renames are in progress
+ *   recurrent.csv
+ *
+ * Usage:
+ *   try (AtomicFileSet files = new AtomicFileSet("calendar.commit")) {
+ *       ... write files.add("a.csv") and files.add("b.csv") and close them ...
+ *       files.commit(AtomicFileSet.generation("calendar.commit") + 1);
+ *   }
+ */
+final class AtomicFileSet implements Closeable {
+
+    private final String marker;  // Name of the marker file
+    private final List<AtomicFile> files = new ArrayList<>();  // The files being replaced, in add() order
+    private final List<String> names = new ArrayList<>();  // Their names, as listed in the marker
+
+    /**
+     * Constructor - Start replacing a set of files
+     *
+     * Finishes any set whose renames were cut short first, so its list
+     * in the marker never names the temporary files of this one.
+     *
+     * @param marker The marker file (relative to the working directory)
+     */
+    AtomicFileSet(String marker) {
+        this.marker = marker;
+        recover(marker);
+    }
+
+    /**
+     * Start writing the new version of one file of the set
+     *
+     * Closing the stream syncs the file; commit() puts it in place.
+     *
+     * @param name The file to replace (relative to the working directory)
+     * @return The stream to write the new contents to
+     * @throws IOException If the temporary file cannot be created
+     */
+    OutputStream add(String name) throws IOException {
+        AtomicFile file = new AtomicFile(name);
+        files.add(file);
+        names.add(name);
+        return file.preparingStream();
+    }
+
+    /**
+     * Make the new set durable and put every file in place
+     *
+     * @param generation The generation number of the new set
+     * @throws IOException If a file cannot be synced, the marker cannot be
+     *         written, or a file cannot be renamed (the next recover() then
+     *         tries again)
+     */
+    void commit(long generation) throws IOException {
+        for (AtomicFile file : files) {
+            file.prepare();  // Nothing to do for a file whose stream was closed
+        }
+        writeMarker(marker, generation, names);  // The commit point
+        for (AtomicFile file : files) {
+            file.install();
+        }
+        AtomicFile.syncDirectory(Paths.get(marker).toAbsolutePath().getParent());
+        writeMarker(marker, generation, List.of());
+    }
+
+    /**
+     * Discard the temporary files unless commit() succeeded
+     */
+    @Override
+    public void close() {
+        for (AtomicFile file : files) {
+            file.close();
+        }
+    }
+
+    /**
+     * Get the generation of the set last committed
+     *
+     * @param marker The marker file
+     * @return The generation, or 0 if no set was ever committed
+     */
+    static long generation(String marker) {
+        Marker read = readMarker(marker);
+        return read != null ? read.generation : 0;
+    }
+
+    /**
+     * Finish the renames of a set that was committed but not fully put in
+     * place
+     *
+     * Errors are reported on the console; the renames are tried again next
+     * time.
+     *
+     * @param marker The marker file
+     */
+    static void recover(String marker) {
+        Marker read = readMarker(marker);
+        if (read == null || read.pending.isEmpty()) return;
+        try {
+            for (String name : read.pending) {
+                File temp = AtomicFile.tempFile(name);
+                if (temp.exists()) {  // Not renamed yet
+                    Path target = Paths.get(name).toAbsolutePath();
+                    AtomicFile.moveIntoPlace(temp, target);
+                }
+            }
+            AtomicFile.syncDirectory(Paths.get(marker).toAbsolutePath().getParent());
+            writeMarker(marker, read.generation, List.of());
+            System.out.println("Finished saving " + read.pending + " after an interrupted save");
+        } catch (IOException ex) {
+            System.err.println("Error finishing an interrupted save: " + ex.getMessage());
+        }
+    }
+
+    // ----- Marker file -----
+
+    /** Contents of the marker file */
+    private static final class Marker {
+        final long generation;  // Generation of the last committed set
+        final List<String> pending;  // Files whose renames may not have happened
+
+        Marker(long generation, List<String> pending) {
+            this.generation = generation;
+            this.pending = pending;
+        }
+    }
+
+    private static void writeMarker(String marker, long generation, List<String> pending) throws IOException {
+        try (AtomicFile file = new AtomicFile(marker);
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(file.stream(), StandardCharsets.UTF_8))) {
+            writer.write("generation," + generation);
+            writer.newLine();
+            for (String name : pending) {
+                writer.write(name);
+                writer.newLine();
+            }
+            writer.flush();
+            file.commit();
+        }
+    }
+
+    /**
+     * @return The marker's contents, or null if there is none or it cannot
+     *         be read (reported on the console)
+     */
+    private static Marker readMarker(String marker) {
+        File file = new File(marker);
+        if (!file.exists()) return null;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String first = reader.readLine();
+            if (first == null || !first.startsWith("generation,")) {
+                throw new IOException("no generation line");
+            }
+            long generation = Long.parseLong(first.substring("generation,".length()).trim());
+            List<String> pending = new ArrayList<>();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.isEmpty()) pending.add(line);
+            }
+            return new Marker(generation, pending);
+        } catch (IOException | NumberFormatException ex) {
+            System.err.println("Error reading " + marker + ": " + ex.getMessage());
+            return null;
+        }
+    }
+}
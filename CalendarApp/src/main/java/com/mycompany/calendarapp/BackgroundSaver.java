@@ -0,0 +1,180 @@
+package com.mycompany.calendarapp;
+
+import java.util.concurrent.ExecutionException;  // Failed saves
+import java.util.concurrent.Executors;  // Creates the saver thread
+import java.util.concurrent.Future;  // A save that was asked for
+import java.util.concurrent.ScheduledExecutorService;  // Runs saves after a delay
+import java.util.concurrent.TimeUnit;  // Delay unit
+
+/**
+ * BackgroundSaver Class
+ *
+ * Saves the events to an EventStore on a background thread whenever they
+ * change, so the JavaFX thread never waits for the disk. Used when the
+ * journal is turned off (see EventJournal.isEnabled) or the store has none.
+ *
+ * Purpose:
+ * - Take full saves off the UI thread
+ * - Turn a burst of edits into a single save
+ * - Let exit (and backups) wait until everything is on disk
+ *
+ * How It Works:
+ * 1. The saver listens to the EventManager; the first change schedules a
+ *    save SAVE_DELAY_MILLIS later, and further changes in that time join it
+ * 2. The save reads a snapshot of the events (EventManager.snapshot) and
+ *    writes it with EventStore.save; the CSV stores' files are crash-safe
+ *    (each is written to a temporary file, synced and renamed; see AtomicFile,
+ *    and AtomicFileSet for the four files of the csv store)
+ * 3. A change made while a save is running schedules another one
+ * 4. flush() runs any outstanding save at once and waits for it; a save is
+ *    skipped when the version on disk is already the current one
+ */
+public class BackgroundSaver implements EventManager.ChangeListener, EventStore.Session {
+
+    /** How long after a change the save starts (later changes join it) */
+    public static final long SAVE_DELAY_MILLIS = 500;
+
+    private final EventManager manager;  // The events being saved
+    private final EventStore store;  // Where they are saved
+    private final ScheduledExecutorService executor;  // The single saver thread
+    private Future<?> pending;  // Scheduled save that has not started (null if none)
+    private volatile long savedVersion;  // Manager version last written to disk
+
+    /**
+     * Constructor - Start saving an EventManager's changes
+     *
+     * The events are assumed to match the store they were loaded from.
+     *
+     * @param manager The EventManager to watch
+     * @param store Where to save the events
+     */
+    public BackgroundSaver(EventManager manager, EventStore store) {
+        this.manager = manager;
+        this.store = store;
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "background-saver");
+            thread.setDaemon(true);  // Exit goes through flush() or close()
+            return thread;
+        });
+        this.savedVersion = manager.getVersion();
+        manager.setChangeListener(this);
+    }
+
+    // ----- Change notifications (called with the manager's lock held) -----
+
+    @Override
+    public void eventSaved(MainEvent event) {
+        requestSave();
+    }
+
+    @Override
+    public void eventRemoved(int eventId) {
+        requestSave();
+    }
+
+    @Override
+    public void eventsCleared() {
+        requestSave();
+    }
+
+    /**
+     * Save every event at the next save, even if the manager has not
+     * changed since this saver started
+     *
+     * For a saver taking over from one that lost changes (see EventJournal).
+     */
+    void saveEverything() {
+        savedVersion = Long.MIN_VALUE;
+        requestSave();
+    }
+
+    /**
+     * Schedule a save unless one is already waiting
+     */
+    public synchronized void requestSave() {
+        if (pending == null && !executor.isShutdown()) {
+            pending = executor.schedule(this::save, SAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Write the current events if they differ from what is on disk
+     *
+     * Runs on the saver thread only.
+     */
+    private void save() {
+        synchronized (this) {
+            pending = null;  // Changes from now on need another save
+        }
+        EventSnapshot snapshot = manager.snapshot();
+        if (snapshot.getVersion() == savedVersion) {
+            return;  // Already on disk
+        }
+        if (store.save(snapshot.getAllEvents())) {
+            savedVersion = snapshot.getVersion();
+        }
+        // On failure savedVersion stays behind, so the next change or flush() tries again
+    }
+
+    /**
+     * Save any outstanding changes now and wait until they are on disk
+     *
+     * @return true if the store holds the current events
+     */
+    @Override
+    public boolean flush() {
+        synchronized (this) {
+            if (pending != null) {
+                pending.cancel(false);  // Replaced by the save below
+                pending = null;
+            }
+        }
+        long version = manager.getVersion();
+        if (!executor.isShutdown()) {
+            try {
+                executor.submit(this::save).get();  // Runs after any save already in progress
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                System.err.println("Error saving events: " + e.getCause());
+            }
+        }
+        return savedVersion >= version;
+    }
+
+    /**
+     * Save any outstanding changes, then stop watching the manager
+     *
+     * @return true if the store holds the current events
+     */
+    @Override
+    public boolean close() {
+        manager.setChangeListener(null);
+        boolean saved = flush();
+        executor.shutdown();
+        return saved;
+    }
+
+    /**
+     * Stop watching the manager without saving
+     *
+     * For when the files are about to be replaced as a whole (restoring a
+     * backup): an outstanding save must not write the old events over them.
+     */
+    @Override
+    public void discard() {
+        manager.setChangeListener(null);
+        synchronized (this) {
+            if (pending != null) {
+                pending.cancel(false);
+                pending = null;
+            }
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);  // Let a save in progress finish first
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,455 @@
+package com.mycompany.calendarapp;
+
+import java.io.BufferedWriter;  // Buffers the catalog as it is written
+import java.io.File;  // Backups and the catalog
+import java.io.FileInputStream;  // Reads the catalog
+import java.io.IOException;  // For read and write errors
+import java.io.InputStreamReader;  // Decodes the catalog
+import java.io.OutputStreamWriter;  // Encodes the catalog
+import java.io.PrintWriter;  // Writes catalog rows
+import java.nio.ByteBuffer;  // Checksum buffer
+import java.nio.channels.FileChannel;  // Reads backups for their checksum
+import java.nio.charset.StandardCharsets;  // The catalog is UTF-8
+import java.nio.file.Files;  // Lists backups
+import java.nio.file.Path;  // Names backups relative to the directory
+import java.nio.file.StandardOpenOption;  // Opens backups for reading
+import java.time.LocalDateTime;  // Span of a backup's events
+import java.util.ArrayList;  // For entry lists
+import java.util.HashMap;  // Entries by file name
+import java.util.HashSet;  // Files that are not chain backups
+import java.util.List;  // List interface
+import java.util.Map;  // Map interface
+import java.util.Set;  // Set interface
+import java.util.stream.Collectors;  // Collects walked files
+import java.util.stream.Stream;  // Walked files
+import java.util.zip.CRC32C;  // File checksums
+
+/**
+ * BackupCatalog Class
+ *
+ * A small index of the backups in a directory (catalog.csv next to them),
+ * so they can be listed, filtered and described without opening any of
+ * them.
+ *
+ * Purpose:
+ * - Let the restore dialog show hundreds of backups at once: when each was
+ *   taken, how many events it holds, the dates they span, its size and
+ *   its parent
+ * - Give each backup a checksum of the whole file (CRC32C), computed as it
+ *   was written (or, for a backup found on disk, when it was catalogued),
+ *   and check a backup against it before a restore (verify)
+ * - Tell BackupScheduler which backups each differential backup needs
+ *   without reading their manifests again
+ *
+ * How It Works:
+ * - Each row holds what a backup's manifest says (see BackupChain.Manifest)
+ *   plus the file's size, modification time and checksum
+ * - add() catalogues a backup just written; refresh() brings the catalog in
+ *   line with the directory, dropping files that are gone and reading the
+ *   manifest of any chain backup that is new or was changed (only the
+ *   first section of the file is decompressed)
+ * - The catalog only speeds things up: a lost or damaged catalog.csv is
+ *   rebuilt by the next refresh()
+ * - Entries can be read from any thread; add() and refresh() run on one
+ *   thread at a time (the backup thread)
+ */
+public final class BackupCatalog {
+
+    /** Name of the catalog in the backups directory */
+    public static final String CATALOG_FILE = "catalog.csv";
+
+    private static final String HEADER =
+        "file,id,parentId,parent,created,depth,events,changed,deleted,first,last,size,modified,crc32c";
+
+    private final File directory;  // Where the backups are
+    private final Path root;  // The directory, absolute, for naming entries
+    private final Map<String, Entry> entries = new HashMap<>();  // By file name relative to the directory
+    private final Set<String> others = new HashSet<>();  // Files seen that are not chain backups (name|size|time)
+
+    /**
+     * Constructor - Read the catalog of a backups directory
+     *
+     * A missing or unreadable catalog starts empty.
+     *
+     * @param directory Where the backups are (e.g. backups/)
+     */
+    public BackupCatalog(File directory) {
+        this.directory = directory;
+        this.root = directory.toPath().toAbsolutePath().normalize();
+        load();
+    }
+
+    /**
+     * What the catalog knows about one backup
+     */
+    public static final class Entry {
+        private final String file;
+        private final long id;
+        private final long parentId;
+        private final String parent;
+        private final long created;
+        private final int depth;
+        private final int eventCount;
+        private final int changedCount;
+        private final int deletedCount;
+        private final LocalDateTime first;
+        private final LocalDateTime last;
+        private final long size;
+        private final long modified;
+        private final int checksum;
+
+        Entry(String file, long id, long parentId, String parent, long created, int depth,
+              int eventCount, int changedCount, int deletedCount, LocalDateTime first, LocalDateTime last,
+              long size, long modified, int checksum) {
+            this.file = file;
+            this.id = id;
+            this.parentId = parentId;
+            this.parent = parent;
+            this.created = created;
+            this.depth = depth;
+            this.eventCount = eventCount;
+            this.changedCount = changedCount;
+            this.deletedCount = deletedCount;
+            this.first = first;
+            this.last = last;
+            this.size = size;
+            this.modified = modified;
+            this.checksum = checksum;
+        }
+
+        /** @return The backup's file, relative to the backups directory ('/' separated) */
+        public String getFile() {
+            return file;
+        }
+
+        /** @return The backup's ID */
+        public long getId() {
+            return id;
+        }
+
+        /** @return The parent's ID, or 0 for a full backup */
+        public long getParentId() {
+            return parentId;
+        }
+
+        /** @return The parent's file, relative to this backup's directory ("" for a full backup) */
+        public String getParent() {
+            return parent;
+        }
+
+        /** @return When the backup was taken (epoch milliseconds) */
+        public long getCreated() {
+            return created;
+        }
+
+        /** @return Differential backups between this one and its full backup (0 for a full backup) */
+        public int getDepth() {
+            return depth;
+        }
+
+        /** @return true if the backup holds every event */
+        public boolean isFull() {
+            return parentId == 0;
+        }
+
+        /** @return Number of events in the calendar when the backup was taken */
+        public int getEventCount() {
+            return eventCount;
+        }
+
+        /** @return Number of events the backup holds */
+        public int getChangedCount() {
+            return changedCount;
+        }
+
+        /** @return Number of events deleted since the parent */
+        public int getDeletedCount() {
+            return deletedCount;
+        }
+
+        /** @return When the first event started, or null if unknown (no events, or an older backup) */
+        public LocalDateTime getFirst() {
+            return first;
+        }
+
+        /** @return When the last event ended, or null as for getFirst */
+        public LocalDateTime getLast() {
+            return last;
+        }
+
+        /** @return The file's size in bytes */
+        public long getSize() {
+            return size;
+        }
+
+        /** @return CRC32C of the whole file when it was catalogued */
+        public int getChecksum() {
+            return checksum;
+        }
+    }
+
+    // ----- Reading the catalog -----
+
+    /**
+     * @return Every backup catalogued, newest first
+     */
+    public synchronized List<Entry> getEntries() {
+        List<Entry> list = new ArrayList<>(entries.values());
+        list.sort((a, b) -> Long.compare(b.getCreated(), a.getCreated()));
+        return list;
+    }
+
+    /**
+     * @param backup A backup file
+     * @return Its entry, or null if it is not catalogued
+     */
+    public synchronized Entry find(File backup) {
+        return entries.get(name(backup.toPath()));
+    }
+
+    /**
+     * @param entry A catalogued backup
+     * @return Its file
+     */
+    public File fileOf(Entry entry) {
+        return root.resolve(entry.getFile()).toFile();
+    }
+
+    /**
+     * @param entry A catalogued differential backup
+     * @return The entry of the backup it was taken against, or null for a
+     *         full backup or a parent that is not catalogued
+     */
+    public synchronized Entry parentOf(Entry entry) {
+        if (entry.isFull()) return null;
+        Path parent = root.resolve(entry.getFile()).getParent().resolve(entry.getParent());
+        Entry found = entries.get(name(parent));
+        return found != null && found.getId() == entry.getParentId() ? found : null;
+    }
+
+    /**
+     * Find the backups taken directly against a file
+     *
+     * Replacing that file would leave them unrestorable (see
+     * BackupChain.read), whatever is written in its place.
+     *
+     * @param backup A backup file (in the directory or not)
+     * @return The entries of the differential backups whose parent is that
+     *         file, by name (empty if none)
+     */
+    public synchronized List<Entry> childrenOf(File backup) {
+        Path file = backup.toPath().toAbsolutePath().normalize();
+        List<Entry> children = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.isFull()) continue;
+            Path parent = root.resolve(entry.getFile()).getParent().resolve(entry.getParent()).normalize();
+            if (parent.equals(file)) children.add(entry);
+        }
+        return children;
+    }
+
+    private void load() {
+        File catalog = new File(directory, CATALOG_FILE);
+        if (!catalog.exists()) return;
+        try (InputStreamReader reader = new InputStreamReader(new FileInputStream(catalog), StandardCharsets.UTF_8)) {
+            new CsvTokenizer(reader).skipHeader().forEachRow(row -> {
+                if (row.size() < 14) return;  // Damaged row: the file is catalogued again by refresh()
+                Entry entry = new Entry(row.getString(0), Long.parseLong(row.getString(1)),
+                                        Long.parseLong(row.getString(2)), row.getString(3),
+                                        Long.parseLong(row.getString(4)), row.getInt(5), row.getInt(6),
+                                        row.getInt(7), row.getInt(8),
+                                        row.isEmpty(9) ? null : row.getDateTime(9),
+                                        row.isEmpty(10) ? null : row.getDateTime(10),
+                                        Long.parseLong(row.getString(11)), Long.parseLong(row.getString(12)),
+                                        Integer.parseUnsignedInt(row.getString(13), 16));
+                entries.put(entry.getFile(), entry);
+            });
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Rebuilding backup catalog: " + e.getMessage());
+            entries.clear();
+        }
+    }
+
+    // ----- Keeping it up to date -----
+
+    /**
+     * Catalogue a backup that was just written
+     *
+     * @param backup The backup file
+     * @param manifest Its manifest, as written
+     * @return Its entry, or null if the backup is outside the directory or
+     *         could not be read (the error is reported)
+     */
+    public Entry add(File backup, BackupChain.Manifest manifest) {
+        String name = name(backup.toPath());
+        if (name.startsWith("../")) return null;
+        try {
+            Entry entry = entry(name, backup, manifest);
+            synchronized (this) {
+                entries.put(name, entry);
+                save();
+            }
+            return entry;
+        } catch (IOException e) {
+            System.err.println("Could not catalogue backup " + backup.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Bring the catalog in line with the backups in the directory
+     *
+     * Errors are reported; a backup that cannot be read is left out.
+     */
+    public void refresh() {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(file -> file.toString().endsWith(BackupFile.EXTENSION))
+                        .collect(Collectors.toList());
+        } catch (IOException e) {
+            if (directory.exists()) {
+                System.err.println("Could not list backups: " + e.getMessage());
+            }
+            return;
+        }
+        Map<String, Entry> current;
+        synchronized (this) {
+            current = new HashMap<>(entries);
+        }
+        Map<String, Entry> fresh = new HashMap<>();
+        Set<String> seenOthers = new HashSet<>();
+        boolean changed = false;
+        for (Path path : files) {
+            File file = path.toFile();
+            String name = name(path);
+            Entry entry = current.get(name);
+            if (entry != null && entry.size == file.length() && entry.modified == file.lastModified()) {
+                fresh.put(name, entry);
+                continue;
+            }
+            String other = name + '|' + file.length() + '|' + file.lastModified();
+            if (others.contains(other)) {
+                seenOthers.add(other);
+                continue;
+            }
+            changed = true;
+            try {
+                if (BackupChain.isChainBackup(file)) {
+                    fresh.put(name, entry(name, file, BackupChain.readManifest(file)));
+                } else {
+                    seenOthers.add(other);  // A copy of the data files or a text backup: nothing to catalogue
+                }
+            } catch (IOException e) {
+                System.err.println("Could not catalogue backup " + file.getName() + ": " + e.getMessage());
+            }
+        }
+        others.retainAll(seenOthers);
+        others.addAll(seenOthers);
+        if (changed || fresh.size() != current.size()) {
+            synchronized (this) {
+                entries.clear();
+                entries.putAll(fresh);
+                save();
+            }
+        }
+    }
+
+    private static Entry entry(String name, File backup, BackupChain.Manifest manifest) throws IOException {
+        long size = backup.length();
+        long modified = backup.lastModified();
+        // A backup just written comes with its checksum; one found on disk is read for it
+        int checksum = manifest.hasFileChecksum() ? manifest.getFileChecksum() : checksum(backup);
+        return new Entry(name, manifest.getId(), manifest.getParentId(), manifest.getParent(),
+                         manifest.getCreated(), manifest.getDepth(), manifest.getEventCount(),
+                         manifest.getChangedCount(), manifest.getDeletedCount(),
+                         manifest.getFirst(), manifest.getLast(), size, modified, checksum);
+    }
+
+    /**
+     * Check a catalogued backup against its checksum before it is used
+     *
+     * A backup that is not catalogued, or changed since (refresh() will
+     * catalogue it again), is not checked.
+     *
+     * @param backup The backup file
+     * @throws IOException If the file cannot be read or no longer matches
+     *         its checksum
+     */
+    public void verify(File backup) throws IOException {
+        Entry entry = find(backup);
+        if (entry == null || entry.size != backup.length() || entry.modified != backup.lastModified()) return;
+        if (checksum(backup) != entry.checksum) {
+            throw new IOException(backup.getName() + " does not match the checksum in the catalog (damaged)");
+        }
+    }
+
+    /**
+     * Compute the CRC32C of a whole file
+     *
+     * @param file The file
+     * @return Its checksum
+     * @throws IOException If the file cannot be read
+     */
+    public static int checksum(File file) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Write the catalog (called with the lock held)
+     */
+    private void save() {
+        if (!directory.isDirectory()) return;
+        try (AtomicFile file = new AtomicFile(new File(directory, CATALOG_FILE).getPath());
+             PrintWriter pw = new PrintWriter(new BufferedWriter(
+                     new OutputStreamWriter(file.stream(), StandardCharsets.UTF_8)))) {
+            pw.println(HEADER);
+            for (Entry e : entries.values()) {
+                pw.print(CSVHandlerCompliant.escapeCsvValue(e.file));
+                pw.print(',');
+                pw.print(e.id);
+                pw.print(',');
+                pw.print(e.parentId);
+                pw.print(',');
+                pw.print(CSVHandlerCompliant.escapeCsvValue(e.parent));
+                pw.print(',');
+                pw.print(e.created);
+                pw.print(',');
+                pw.print(e.depth);
+                pw.print(',');
+                pw.print(e.eventCount);
+                pw.print(',');
+                pw.print(e.changedCount);
+                pw.print(',');
+                pw.print(e.deletedCount);
+                pw.print(',');
+                pw.print(e.first == null ? "" : e.first.toString());
+                pw.print(',');
+                pw.print(e.last == null ? "" : e.last.toString());
+                pw.print(',');
+                pw.print(e.size);
+                pw.print(',');
+                pw.print(e.modified);
+                pw.print(',');
+                pw.print(String.format("%08x", e.checksum));
+                pw.println();
+            }
+            if (pw.checkError()) throw new IOException("write failed");  // PrintWriter hides its errors
+            file.commit();
+        } catch (IOException e) {
+            System.err.println("Error saving " + CATALOG_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private String name(Path file) {
+        return root.relativize(file.toAbsolutePath().normalize()).toString().replace(File.separatorChar, '/');
+    }
+}
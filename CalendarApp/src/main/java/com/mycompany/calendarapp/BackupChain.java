@@ -0,0 +1,782 @@
+package com.mycompany.calendarapp;
+
+import java.io.ByteArrayOutputStream;  // Builds each section in memory
+import java.io.DataInputStream;  // Reads manifests
+import java.io.DataOutputStream;  // Writes manifests
+import java.io.File;  // Backups and their directory
+import java.io.IOException;  // For read and write errors
+import java.io.InputStream;  // Section contents
+import java.nio.channels.Channels;  // Encodes events into a byte array
+import java.time.LocalDateTime;  // For event times
+import java.time.ZoneOffset;  // Times are hashed as UTC epoch seconds
+import java.util.ArrayList;  // For event and chain lists
+import java.util.Arrays;  // For sorting by ID and trimming arrays
+import java.util.Comparator;  // Orders events by ID
+import java.util.List;  // List interface
+import java.util.concurrent.ThreadLocalRandom;  // Backup IDs
+
+/**
+ * BackupChain Class
+ *
+ * Full and differential backups of the events themselves (rather than of
+ * the store's files), written in the BackupFile format.
+ *
+ * Purpose:
+ * - Make frequent backups cheap: a differential backup holds only the
+ *   events added or changed since the backup before it (its parent), found
+ *   by comparing per-event content hashes, so an hourly backup of a large
+ *   calendar in which a few events changed takes kilobytes, not megabytes
+ * - Restore any backup in a chain to exactly the events it was taken of
+ * - Back up from a list of events (an EventSnapshot's), so a backup can be
+ *   taken on any thread without waiting for the store's files
+ *
+ * Layout (sections of a BackupFile):
+ * - "manifest", always first: format version, the backup's ID, its parent's
+ *   ID and file name (0 and "" for a full backup), when it was taken, its
+ *   depth in the chain (0 for a full backup), the number of events in the
+ *   calendar at that point and the dates they span (version 2), the ID and
+ *   content hash of every event it holds, and the IDs of the events
+ *   deleted since its parent
+ * - "events/0", "events/1", ...: the events it holds, CHUNK_SIZE to a
+ *   section, each section a count followed by the events encoded as in
+ *   calendar.snapshot (see SnapshotFile)
+ *
+ * How It Works:
+ * - write() hashes every event (contentHash) and compares the hashes, in ID
+ *   order, with those of the last backup written to the directory (the
+ *   head). The head's hashes are kept in memory, or rebuilt from the
+ *   manifests of its chain (only the first section of each file is read).
+ * - A full backup is written instead when there is no usable head, the
+ *   chain is -Dcalendar.backup.chain backups deep (default 24), more than
+ *   half the events changed, or the new backup would replace a file of the
+ *   head's chain
+ * - writeAgainst() takes the backup against a given backup instead of the
+ *   head, so a series of backups can all need the same full backup and
+ *   nothing else
+ * - read() resolves a chain in one pass, newest backup first: each event ID
+ *   is decided by the newest backup that holds or deletes it, and the full
+ *   backup at the root supplies the rest, so every file is read once
+ * - Each backup records its parent's ID and depth, so a parent that was
+ *   deleted, or replaced by another file of the same name, stops a restore
+ *   instead of being mixed in
+ */
+public final class BackupChain {
+
+    /** Name of the first section of every backup written here */
+    public static final String MANIFEST = "manifest";
+
+    private static final String EVENTS = "events/";  // Prefix of the event sections
+    private static final int MANIFEST_VERSION = 2;  // Version written at the start of the manifest (1 had no span)
+    private static final long NO_TIME = Long.MIN_VALUE;  // Span of a backup with no events (or of version 1)
+    private static final long NO_CHECKSUM = -1;  // File checksum of a manifest that was read back
+    static final int CHUNK_SIZE = 4096;  // Events per section
+
+    private final File directory;  // Where the head is looked for
+    private final int maxDepth;  // Differential backups before the next full one
+    private Head head;  // Last backup written here (null until one is needed)
+
+    /**
+     * Constructor - Back up into a directory
+     *
+     * @param directory Where backups are written (e.g. backups/)
+     */
+    public BackupChain(File directory) {
+        this.directory = directory;
+        this.maxDepth = Math.max(0, Integer.getInteger("calendar.backup.chain", 24));
+    }
+
+    /**
+     * What one backup holds: its first section
+     */
+    public static final class Manifest {
+        private final long id;
+        private final long parentId;
+        private final String parent;
+        private final long created;
+        private final int depth;
+        private final int eventCount;
+        private final LocalDateTime first;
+        private final LocalDateTime last;
+        final int[] ids;  // IDs of the events held, ascending
+        final long[] hashes;  // Their content hashes
+        final int[] deleted;  // IDs deleted since the parent, ascending
+        private final long checksum;  // CRC32C of the whole file as written (NO_CHECKSUM if read back)
+
+        Manifest(long id, long parentId, String parent, long created, int depth, int eventCount,
+                 LocalDateTime first, LocalDateTime last, int[] ids, long[] hashes, int[] deleted) {
+            this(id, parentId, parent, created, depth, eventCount, first, last, ids, hashes, deleted, NO_CHECKSUM);
+        }
+
+        private Manifest(long id, long parentId, String parent, long created, int depth, int eventCount,
+                         LocalDateTime first, LocalDateTime last, int[] ids, long[] hashes, int[] deleted,
+                         long checksum) {
+            this.id = id;
+            this.parentId = parentId;
+            this.parent = parent;
+            this.created = created;
+            this.depth = depth;
+            this.eventCount = eventCount;
+            this.first = first;
+            this.last = last;
+            this.ids = ids;
+            this.hashes = hashes;
+            this.deleted = deleted;
+            this.checksum = checksum;
+        }
+
+        /**
+         * @return The same manifest, knowing the checksum of the file it
+         *         was written to
+         */
+        private Manifest written(int fileChecksum) {
+            return new Manifest(id, parentId, parent, created, depth, eventCount, first, last, ids, hashes, deleted,
+                                Integer.toUnsignedLong(fileChecksum));
+        }
+
+        /** @return The backup's ID (random, never 0) */
+        public long getId() {
+            return id;
+        }
+
+        /** @return The parent's ID, or 0 for a full backup */
+        public long getParentId() {
+            return parentId;
+        }
+
+        /** @return The parent's file, relative to this backup's directory ("" for a full backup) */
+        public String getParent() {
+            return parent;
+        }
+
+        /** @return When the backup was taken (epoch milliseconds) */
+        public long getCreated() {
+            return created;
+        }
+
+        /** @return Differential backups between this one and its full backup (0 for a full backup) */
+        public int getDepth() {
+            return depth;
+        }
+
+        /** @return true if the backup holds every event */
+        public boolean isFull() {
+            return parentId == 0;
+        }
+
+        /** @return Number of events in the calendar when the backup was taken */
+        public int getEventCount() {
+            return eventCount;
+        }
+
+        /** @return When the first event in the calendar started (null if there were none, or for a version 1 backup) */
+        public LocalDateTime getFirst() {
+            return first;
+        }
+
+        /** @return When the last event in the calendar ended, its recurrences included (null as for getFirst) */
+        public LocalDateTime getLast() {
+            return last;
+        }
+
+        /** @return Number of events the backup holds */
+        public int getChangedCount() {
+            return ids.length;
+        }
+
+        /** @return Number of events deleted since the parent */
+        public int getDeletedCount() {
+            return deleted.length;
+        }
+
+        /** @return true if getFileChecksum is known (the backup was written by write(), not read back) */
+        public boolean hasFileChecksum() {
+            return checksum != NO_CHECKSUM;
+        }
+
+        /** @return CRC32C of the whole file, computed as it was written */
+        public int getFileChecksum() {
+            return (int) checksum;
+        }
+
+        byte[] encode() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + ids.length * 12 + deleted.length * 4);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MANIFEST_VERSION);
+            out.writeLong(id);
+            out.writeLong(parentId);
+            out.writeUTF(parent);
+            out.writeLong(created);
+            out.writeInt(depth);
+            out.writeInt(eventCount);
+            out.writeLong(epochSecond(first));
+            out.writeLong(epochSecond(last));
+            out.writeInt(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                out.writeInt(ids[i]);
+                out.writeLong(hashes[i]);
+            }
+            out.writeInt(deleted.length);
+            for (int id : deleted) {
+                out.writeInt(id);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+
+        static Manifest decode(InputStream contents, File backup) throws IOException {
+            DataInputStream in = new DataInputStream(contents);
+            int version = in.readInt();
+            if (version != MANIFEST_VERSION && version != 1) {
+                throw new IOException(backup.getName() + " has manifest version " + version
+                                      + ", expected " + MANIFEST_VERSION);
+            }
+            long id = in.readLong();
+            long parentId = in.readLong();
+            String parent = in.readUTF();
+            long created = in.readLong();
+            int depth = in.readInt();
+            int eventCount = in.readInt();
+            LocalDateTime first = version == 1 ? null : dateTime(in.readLong());
+            LocalDateTime last = version == 1 ? null : dateTime(in.readLong());
+            int[] ids = new int[count(in.readInt(), backup)];
+            long[] hashes = new long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = in.readInt();
+                hashes[i] = in.readLong();
+            }
+            int[] deleted = new int[count(in.readInt(), backup)];
+            for (int i = 0; i < deleted.length; i++) {
+                deleted[i] = in.readInt();
+            }
+            return new Manifest(id, parentId, parent, created, depth, eventCount, first, last, ids, hashes, deleted);
+        }
+
+        private static long epochSecond(LocalDateTime time) {
+            return time == null ? NO_TIME : time.toEpochSecond(ZoneOffset.UTC);
+        }
+
+        private static LocalDateTime dateTime(long epochSecond) {
+            return epochSecond == NO_TIME ? null : LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        }
+
+        private static int count(int count, File backup) throws IOException {
+            if (count < 0) throw new IOException(backup.getName() + " has a damaged manifest");
+            return count;
+        }
+    }
+
+    /**
+     * The last backup written: its chain, and the hash of every event in
+     * the calendar it was taken of
+     */
+    private static final class Head {
+        final Manifest manifest;
+        final List<File> chain;  // The head first, its full backup last
+        final long[] modified;  // lastModified of each file when it was read or written
+        final int[] ids;  // Every event ID at that point, ascending
+        final long[] hashes;  // Their content hashes
+
+        Head(Manifest manifest, List<File> chain, int[] ids, long[] hashes) {
+            this.manifest = manifest;
+            this.chain = chain;
+            this.modified = new long[chain.size()];
+            for (int i = 0; i < modified.length; i++) {
+                modified[i] = chain.get(i).lastModified();
+            }
+            this.ids = ids;
+            this.hashes = hashes;
+        }
+
+        /** @return true if no file of the chain was deleted or replaced since */
+        boolean isCurrent() {
+            for (int i = 0; i < modified.length; i++) {
+                if (modified[i] == 0 || chain.get(i).lastModified() != modified[i]) return false;
+            }
+            return true;
+        }
+
+        boolean contains(File file) {
+            for (File member : chain) {
+                if (member.getAbsoluteFile().equals(file.getAbsoluteFile())) return true;
+            }
+            return false;
+        }
+    }
+
+    // ----- Writing -----
+
+    /**
+     * Back up a list of events: differentially against the last backup if
+     * there is a usable one, otherwise in full
+     *
+     * @param backup Where to write the backup (replaced once complete)
+     * @param events Every event in the calendar (e.g. EventSnapshot.getAllEvents)
+     * @return The backup's manifest
+     * @throws IOException If the backup cannot be written
+     */
+    public synchronized Manifest write(String backup, List<MainEvent> events) throws IOException {
+        return write(backup, events, false);
+    }
+
+    /**
+     * Back up every event, starting a new chain
+     *
+     * @param backup Where to write the backup (replaced once complete)
+     * @param events Every event in the calendar
+     * @return The backup's manifest
+     * @throws IOException If the backup cannot be written
+     */
+    public synchronized Manifest writeFull(String backup, List<MainEvent> events) throws IOException {
+        return write(backup, events, true);
+    }
+
+    /**
+     * Back up a list of events differentially against a given backup
+     * rather than the last one written, so the new backup needs only that
+     * backup's chain to be restored (BackupScheduler takes each automatic
+     * backup against the day's full backup, keeping every chain one deep)
+     *
+     * @param backup Where to write the backup (replaced once complete)
+     * @param events Every event in the calendar
+     * @param base The backup to take it against, or null for a full backup
+     *        (also written if base cannot be read or would be replaced)
+     * @return The backup's manifest
+     * @throws IOException If the backup cannot be written
+     */
+    public synchronized Manifest writeAgainst(String backup, List<MainEvent> events, File base) throws IOException {
+        Head parent = null;
+        if (base != null) {
+            try {
+                parent = readHead(base);
+            } catch (IOException e) {
+                System.err.println("Taking a full backup: " + e.getMessage());
+            }
+        }
+        if (parent != null && parent.contains(new File(backup))) parent = null;
+        return write(backup, events, parent);
+    }
+
+    private Manifest write(String backup, List<MainEvent> events, boolean full) throws IOException {
+        return write(backup, events, full ? null : head(new File(backup)));
+    }
+
+    /**
+     * @param parent The backup to take a differential backup against, or
+     *        null for a full backup
+     */
+    private Manifest write(String backup, List<MainEvent> events, Head parent) throws IOException {
+        File file = new File(backup);
+        MainEvent[] sorted = events.toArray(new MainEvent[0]);
+        Arrays.sort(sorted, Comparator.comparingInt(MainEvent::getEventId));  // Linear when already in ID order
+        int n = sorted.length;
+        int[] ids = new int[n];
+        long[] hashes = new long[n];
+        LocalDateTime first = null;
+        LocalDateTime last = null;
+        for (int i = 0; i < n; i++) {
+            MainEvent event = sorted[i];
+            ids[i] = event.getEventId();
+            hashes[i] = contentHash(event);
+            LocalDateTime end = event instanceof RecurringEvent
+                ? ((RecurringEvent) event).lastOccurrenceEnd() : null;
+            if (end == null) end = event.getEndDateTime();
+            if (first == null || event.getStartDateTime().isBefore(first)) first = event.getStartDateTime();
+            if (last == null || end.isAfter(last)) last = end;
+        }
+
+        List<MainEvent> held = new ArrayList<>();
+        int[] heldIds;
+        long[] heldHashes;
+        int[] deleted;
+        if (parent != null) {
+            // Merge the two ID-ordered hash lists: new or changed events are held, missing ones deleted
+            int[] changed = new int[n];
+            int changedCount = 0;
+            int[] gone = new int[parent.ids.length];
+            int goneCount = 0;
+            int i = 0;
+            int j = 0;
+            while (i < n || j < parent.ids.length) {
+                if (j == parent.ids.length || (i < n && ids[i] < parent.ids[j])) {
+                    changed[changedCount++] = i++;
+                } else if (i == n || parent.ids[j] < ids[i]) {
+                    gone[goneCount++] = parent.ids[j++];
+                } else {
+                    if (hashes[i] != parent.hashes[j]) changed[changedCount++] = i;
+                    i++;
+                    j++;
+                }
+            }
+            heldIds = new int[changedCount];
+            heldHashes = new long[changedCount];
+            for (int k = 0; k < changedCount; k++) {
+                held.add(sorted[changed[k]]);
+                heldIds[k] = ids[changed[k]];
+                heldHashes[k] = hashes[changed[k]];
+            }
+            deleted = Arrays.copyOf(gone, goneCount);
+            if ((long) changedCount + goneCount > n / 2) {
+                parent = null;  // Nearly everything changed: a full backup is about as big and ends the chain
+            }
+        } else {
+            heldIds = null;
+            heldHashes = null;
+            deleted = null;
+        }
+        if (parent == null) {
+            held = Arrays.asList(sorted);
+            heldIds = ids;
+            heldHashes = hashes;
+            deleted = new int[0];
+        }
+
+        Manifest manifest = new Manifest(newId(),
+                                         parent == null ? 0 : parent.manifest.getId(),
+                                         parent == null ? "" : relativeName(file, parent.chain.get(0)),
+                                         System.currentTimeMillis(),
+                                         parent == null ? 0 : parent.manifest.getDepth() + 1,
+                                         n, first, last, heldIds, heldHashes, deleted);
+        try (BackupFile.Writer writer = new BackupFile.Writer(backup)) {
+            byte[] encoded = manifest.encode();
+            writer.section(MANIFEST, encoded, 0, encoded.length);
+            Bytes bytes = new Bytes();
+            for (int from = 0, chunk = 0; from < held.size(); from += CHUNK_SIZE, chunk++) {
+                List<MainEvent> part = held.subList(from, Math.min(held.size(), from + CHUNK_SIZE));
+                bytes.reset();
+                SnapshotFile.Output out = new SnapshotFile.Output(Channels.newChannel(bytes));
+                out.varint(part.size());
+                SnapshotFile.writeEvents(out, part);
+                out.finish();
+                writer.section(EVENTS + chunk, bytes.array(), 0, bytes.size());
+            }
+            writer.finish();
+            manifest = manifest.written(writer.getChecksum());  // Saves the catalog reading the file again
+        }
+
+        List<File> chain = new ArrayList<>();
+        chain.add(file);
+        if (parent != null) chain.addAll(parent.chain);
+        head = new Head(manifest, chain, ids, hashes);
+        return manifest;
+    }
+
+    /**
+     * Find the backup a new differential backup can be based on
+     *
+     * @param target The file about to be written
+     * @return The head, or null for a full backup
+     */
+    private Head head(File target) {
+        if (head == null || !head.isCurrent()) {
+            head = findHead();
+        }
+        if (head == null || head.manifest.getDepth() >= maxDepth || head.contains(target)) {
+            return null;
+        }
+        return head;
+    }
+
+    /**
+     * Rebuild the head from the newest readable chain in the directory
+     *
+     * @return The head, or null if there is none
+     */
+    private Head findHead() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(BackupFile.EXTENSION));
+        if (files == null) return null;
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
+        for (File file : files) {
+            try {
+                if (isChainBackup(file)) return readHead(file);
+            } catch (IOException e) {
+                System.err.println("Skipping backup " + file.getName() + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Rebuild the hashes of every event a backup was taken of from the
+     * manifests of its chain
+     *
+     * @param file A backup written by this class
+     * @return The backup as a head
+     * @throws IOException If a backup in the chain is missing, replaced or unreadable
+     */
+    private static Head readHead(File file) throws IOException {
+        List<File> chain = new ArrayList<>();
+        List<Manifest> manifests = manifests(file, chain);
+        // Start from the full backup's hashes and apply each differential backup after it
+        Manifest root = manifests.get(manifests.size() - 1);
+        int[] ids = root.ids;
+        long[] hashes = root.hashes;
+        for (int k = manifests.size() - 2; k >= 0; k--) {
+            Manifest diff = manifests.get(k);
+            int[] mergedIds = new int[ids.length + diff.ids.length];
+            long[] mergedHashes = new long[mergedIds.length];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            int d = 0;
+            while (i < ids.length || j < diff.ids.length) {
+                if (j == diff.ids.length || (i < ids.length && ids[i] < diff.ids[j])) {
+                    while (d < diff.deleted.length && diff.deleted[d] < ids[i]) d++;
+                    if (d == diff.deleted.length || diff.deleted[d] != ids[i]) {
+                        mergedIds[count] = ids[i];
+                        mergedHashes[count++] = hashes[i];
+                    }
+                    i++;
+                } else {
+                    if (i < ids.length && ids[i] == diff.ids[j]) i++;  // Changed
+                    mergedIds[count] = diff.ids[j];
+                    mergedHashes[count++] = diff.hashes[j++];
+                }
+            }
+            ids = Arrays.copyOf(mergedIds, count);
+            hashes = Arrays.copyOf(mergedHashes, count);
+        }
+        return new Head(manifests.get(0), chain, ids, hashes);
+    }
+
+    private static long newId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return id;
+    }
+
+    private static String relativeName(File backup, File parent) {
+        return backup.getAbsoluteFile().getParentFile().toPath()
+                     .relativize(parent.getAbsoluteFile().toPath())
+                     .toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * ByteArrayOutputStream that hands out its array instead of a copy
+     */
+    private static final class Bytes extends ByteArrayOutputStream {
+        Bytes() {
+            super(256 * 1024);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+
+    // ----- Reading -----
+
+    /**
+     * Check whether a file is a backup written by this class
+     *
+     * @param backup The file
+     * @return true if it is a BackupFile whose first section is a manifest
+     * @throws IOException If the file cannot be read
+     */
+    public static boolean isChainBackup(File backup) throws IOException {
+        if (!BackupFile.isBackupFile(backup)) return false;
+        BackupFile.Section first = BackupFile.readFirst(backup, (section, contents) -> { });
+        return first != null && MANIFEST.equals(first.getName());
+    }
+
+    /**
+     * Read a backup's manifest without reading its events
+     *
+     * @param backup The backup file
+     * @return Its manifest
+     * @throws IOException If the file cannot be read or is not a backup written here
+     */
+    public static Manifest readManifest(File backup) throws IOException {
+        Manifest[] manifest = new Manifest[1];
+        BackupFile.readFirst(backup, (section, contents) -> {
+            if (MANIFEST.equals(section.getName())) {
+                manifest[0] = Manifest.decode(contents, backup);
+            }
+        });
+        if (manifest[0] == null) {
+            throw new IOException(backup.getName() + " is not a differential backup");
+        }
+        return manifest[0];
+    }
+
+    /**
+     * Read the manifests of a backup and every parent up to its full backup
+     *
+     * @param backup The newest backup
+     * @param chain Receives each file, newest first
+     * @return The manifests, newest first
+     * @throws IOException If a parent is missing, replaced or unreadable
+     */
+    private static List<Manifest> manifests(File backup, List<File> chain) throws IOException {
+        List<Manifest> manifests = new ArrayList<>();
+        File file = backup;
+        Manifest child = null;
+        while (true) {
+            Manifest manifest = readManifest(file);
+            checkParent(child, manifest, file);
+            manifests.add(manifest);
+            chain.add(file);
+            if (manifest.isFull()) return manifests;
+            child = manifest;
+            file = parentFile(file, manifest);
+        }
+    }
+
+    private static File parentFile(File backup, Manifest manifest) throws IOException {
+        File parent = new File(backup.getAbsoluteFile().getParentFile(), manifest.getParent());
+        if (!parent.exists()) {
+            throw new IOException(backup.getName() + " needs " + manifest.getParent() + ", which is missing");
+        }
+        return parent;
+    }
+
+    private static void checkParent(Manifest child, Manifest parent, File file) throws IOException {
+        if (child != null && (parent.getId() != child.getParentId() || parent.getDepth() != child.getDepth() - 1)) {
+            throw new IOException(file.getName() + " is not the backup its differential backups were taken against"
+                                  + " (it was replaced)");
+        }
+    }
+
+    /**
+     * Add the events of a backup to a manager, resolving its chain
+     *
+     * @param backup Any backup written by this class
+     * @param manager The EventManager to fill (normally a new, empty one)
+     * @throws IOException If a backup in the chain is missing, damaged or replaced
+     */
+    public static void load(File backup, EventManager manager) throws IOException {
+        List<MainEvent> loaded = read(backup);
+        int maxId = 0;
+        for (MainEvent event : loaded) {
+            maxId = Math.max(maxId, event.getEventId());
+        }
+        manager.addEvents(loaded);
+        manager.setNextEventId(maxId + 1);
+    }
+
+    /**
+     * Read the events a backup was taken of, in one pass over its chain
+     *
+     * Newest backup first; an event ID that a newer backup held or deleted
+     * is skipped in the older ones, and the full backup at the root
+     * supplies every event no differential backup touched.
+     *
+     * @param backup Any backup written by this class
+     * @return The events, in ID order
+     * @throws IOException If a backup in the chain is missing, damaged or replaced
+     */
+    public static List<MainEvent> read(File backup) throws IOException {
+        IntObjectMap<Boolean> decided = new IntObjectMap<>();  // IDs a newer backup held or deleted
+        List<MainEvent> events = new ArrayList<>();
+        Manifest[] current = new Manifest[1];
+        File file = backup;
+        Manifest child = null;
+        int expected = -1;  // Events the newest backup was taken of
+        while (true) {
+            current[0] = null;
+            File reading = file;
+            Manifest parentOf = child;
+            BackupFile.read(file, (section, contents) -> {
+                if (MANIFEST.equals(section.getName())) {
+                    Manifest manifest = Manifest.decode(contents, reading);
+                    checkParent(parentOf, manifest, reading);
+                    current[0] = manifest;
+                    if (!manifest.isFull()) {
+                        for (int id : manifest.deleted) {
+                            decided.put(id, Boolean.TRUE);
+                        }
+                    }
+                } else if (section.getName().startsWith(EVENTS)) {
+                    if (current[0] == null) {
+                        throw new IOException(reading.getName() + " has events before its manifest");
+                    }
+                    SnapshotFile.Input in = new SnapshotFile.Input(contents.readAllBytes(), 0);
+                    boolean full = current[0].isFull();
+                    for (MainEvent event : SnapshotFile.readEvents(in, (int) in.varint())) {
+                        boolean newer = full ? decided.containsKey(event.getEventId())
+                                             : decided.put(event.getEventId(), Boolean.TRUE) != null;
+                        if (!newer) events.add(event);
+                    }
+                }
+            });
+            Manifest manifest = current[0];
+            if (manifest == null) {
+                throw new IOException(file.getName() + " is not a differential backup");
+            }
+            if (expected < 0) expected = manifest.getEventCount();
+            if (manifest.isFull()) break;
+            child = manifest;
+            file = parentFile(file, manifest);
+        }
+
+        if (events.size() != expected) {
+            throw new IOException(backup.getName() + " should restore " + expected + " events but its chain holds "
+                                  + events.size());
+        }
+        events.sort(Comparator.comparingInt(MainEvent::getEventId));
+        return events;
+    }
+
+    // ----- Hashing -----
+
+    /**
+     * Hash everything a backup keeps of an event
+     *
+     * Two events with the same hash are taken to be the same, so a
+     * differential backup leaves out an event whose hash did not change.
+     * 64 bits make a missed change (two different versions of one event
+     * with the same hash) about as likely as a disk error.
+     *
+     * @param event The event
+     * @return Its content hash
+     */
+    static long contentHash(MainEvent event) {
+        long h = 0xcbf29ce484222325L;  // FNV-1a offset basis
+        RecurringEvent recurring = event instanceof RecurringEvent ? (RecurringEvent) event : null;
+        h = mix(h, recurring != null ? 1 : 0);
+        h = mix(h, event.getTitle());
+        h = mix(h, event.getDescription());
+        h = mix(h, event.getStartDateTime());
+        h = mix(h, event.getEndDateTime());
+        if (recurring != null) {
+            h = mix(h, recurring.getRecurrenceType());
+            h = mix(h, recurring.getOccurrences());
+        }
+        h = mix(h, event.getReminder() != null ? event.getReminder().getMinutesBefore() : Long.MIN_VALUE);
+        h = mix(h, event.getLocation());
+        h = mix(h, event.getCategory());
+        h = mix(h, event.getPriority());
+        return finish(h);
+    }
+
+    private static long mix(long h, long value) {
+        return (h ^ finish(value)) * 0x100000001b3L;  // FNV-1a prime
+    }
+
+    private static long mix(long h, String value) {
+        if (value == null) return mix(h, -1L);
+        h = mix(h, value.length());
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static long mix(long h, LocalDateTime value) {
+        if (value == null) return mix(h, Long.MAX_VALUE);
+        return mix(mix(h, value.toEpochSecond(ZoneOffset.UTC)), value.getNano());
+    }
+
+    /**
+     * Spread every bit of a value over the whole result (MurmurHash3's finaliser)
+     */
+    private static long finish(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
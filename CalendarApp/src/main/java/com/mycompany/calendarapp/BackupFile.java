@@ -0,0 +1,511 @@
+package com.mycompany.calendarapp;
+
+import java.io.BufferedInputStream;  // Buffers the compressed input
+import java.io.BufferedOutputStream;  // Buffers the compressed output
+import java.io.Closeable;  // A Writer releases its file
+import java.io.DataInputStream;  // Reads the section headers
+import java.io.DataOutputStream;  // Writes the section headers
+import java.io.EOFException;  // A backup that ends too early
+import java.io.File;  // The backed-up files
+import java.io.FileInputStream;  // Reads a backup
+import java.io.FilterInputStream;  // Base of the section stream
+import java.io.IOException;  // For read and write errors
+import java.io.InputStream;  // Section contents
+import java.io.OutputStream;  // Where backups are written
+import java.nio.ByteBuffer;  // For reading the backed-up files
+import java.nio.channels.Channels;  // Streams over a channel
+import java.nio.channels.FileChannel;  // A fixed view of each backed-up file
+import java.nio.charset.StandardCharsets;  // Section names are UTF-8
+import java.nio.file.StandardOpenOption;  // Opens the backed-up files
+import java.util.ArrayList;  // For the section list
+import java.util.Arrays;  // For checking the magic number
+import java.util.List;  // List interface
+import java.util.zip.CRC32C;  // Checksum of each section
+import java.util.zip.CheckedOutputStream;  // Checksum of a whole backup as it is written
+import java.util.zip.Deflater;  // Compresses the backup
+import java.util.zip.DeflaterOutputStream;  // Compressing stream
+import java.util.zip.Inflater;  // Decompresses the backup
+import java.util.zip.InflaterInputStream;  // Decompressing stream
+import java.util.zip.ZipException;  // Damaged compressed data
+
+/**
+ * BackupFile Class
+ *
+ * The backup format: named sections, compressed into a single file
+ * (".calbak" in backups/). A section is either one of the store's files
+ * (write()) or built in memory (Writer; see BackupChain, whose backups hold
+ * events rather than files).
+ *
+ * Purpose:
+ * - Keep backups of large calendars small (CSV text compresses well)
+ * - Never hold a whole backup, or a whole section, in memory: backing up
+ *   and restoring both stream the data through a small buffer
+ * - Let a restore prove the backup is complete and undamaged before it
+ *   touches any live file
+ *
+ * Layout:
+ * - "CALB" and the format version (int), uncompressed
+ * - Then one deflate stream holding, for each section: the name (unsigned
+ *   short length and UTF-8 bytes), the length of the contents (long), their
+ *   CRC32C (int), then the contents as they were on disk
+ * - An end marker (a name length of 0) and the number of sections (int)
+ *
+ * A section header is written before its contents, so each file is read
+ * twice while backing up: once for the checksum, once to compress it. Both
+ * reads go through the same open channel and stop at the length taken when
+ * it was opened, so a save that replaces the file meanwhile cannot make the
+ * contents disagree with the header.
+ *
+ * Backups made before this format (plain text with "--- name ---" lines)
+ * are recognised by isBackupFile() returning false.
+ */
+public final class BackupFile {
+
+    /** File name ending for backups in this format */
+    public static final String EXTENSION = ".calbak";
+
+    /** Version written after the magic number; other versions are not read */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final byte[] MAGIC = {'C', 'A', 'L', 'B'};
+    private static final int BUFFER_SIZE = 64 * 1024;  // Bytes read or written at a time
+
+    private BackupFile() {
+    }
+
+    /**
+     * One section of a backup, as described by its header
+     */
+    public static final class Section {
+        private final String name;
+        private final long length;
+        private final int checksum;
+
+        Section(String name, long length, int checksum) {
+            this.name = name;
+            this.length = length;
+            this.checksum = checksum;
+        }
+
+        /** @return The file the section was made from */
+        public String getName() {
+            return name;
+        }
+
+        /** @return Length of the contents in bytes (uncompressed) */
+        public long getLength() {
+            return length;
+        }
+
+        /** @return CRC32C of the contents */
+        public int getChecksum() {
+            return checksum;
+        }
+    }
+
+    /**
+     * Receives the sections of a backup as it is read
+     */
+    public interface SectionReader {
+        /**
+         * Read one section
+         *
+         * The stream ends with the section; anything left unread is skipped
+         * (and still checked) once this returns.
+         *
+         * @param section The section's header
+         * @param contents Its contents
+         * @throws IOException If reading or handling the contents fails
+         */
+        void read(Section section, InputStream contents) throws IOException;
+    }
+
+    /**
+     * Hands every section of a backup to a reader, in order
+     *
+     * Lets a store parse a backup (see EventStore.loadBackup) without
+     * caring whether it comes from a file in this format (source()) or
+     * from an older text backup.
+     */
+    public interface Source {
+        /**
+         * @param reader Receives each section
+         * @throws IOException If the backup cannot be read or the reader fails
+         */
+        void readSections(SectionReader reader) throws IOException;
+    }
+
+    // ----- Writing -----
+
+    /**
+     * Write a backup of some files
+     *
+     * The backup is written next to its final name and renamed into place
+     * once complete (see AtomicFile). A file that does not exist gets no
+     * section.
+     *
+     * @param backup Where to write the backup
+     * @param files The files to back up, in order
+     * @return The sections written
+     * @throws IOException If a file cannot be read or the backup cannot be written
+     */
+    public static List<Section> write(String backup, List<String> files) throws IOException {
+        try (Writer writer = new Writer(backup)) {
+            for (String name : files) {
+                if (!new File(name).exists()) continue;
+                try (FileChannel channel = FileChannel.open(new File(name).toPath(), StandardOpenOption.READ)) {
+                    writer.section(name, channel);
+                }
+            }
+            return writer.finish();
+        }
+    }
+
+    /**
+     * Writes a backup one section at a time
+     *
+     * For backups whose sections are built in memory (see BackupChain); write()
+     * uses it for files. Closing without finish() leaves no backup behind.
+     */
+    public static final class Writer implements Closeable {
+        private final AtomicFile file;
+        private final CRC32C fileCrc = new CRC32C();  // Of every byte written to the file
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);  // About twice as fast as the default level, output a quarter larger
+        private final OutputStream raw;  // The file, uncompressed
+        private final DeflaterOutputStream deflated;  // Everything after the version
+        private final DataOutputStream out;  // Section headers and contents
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private final List<Section> sections = new ArrayList<>();
+        private long length;  // Uncompressed bytes of every section so far
+
+        /**
+         * Start a backup
+         *
+         * @param backup Where to write it
+         * @throws IOException If the file cannot be created
+         */
+        public Writer(String backup) throws IOException {
+            file = new AtomicFile(backup);
+            try {
+                raw = new BufferedOutputStream(new CheckedOutputStream(file.stream(), fileCrc), BUFFER_SIZE);
+                raw.write(MAGIC);
+                new DataOutputStream(raw).writeInt(FORMAT_VERSION);
+                deflated = new DeflaterOutputStream(raw, deflater, BUFFER_SIZE);
+                out = new DataOutputStream(deflated);
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        /**
+         * Add a section held in memory
+         *
+         * @param name The section's name
+         * @param contents Its contents
+         * @param offset Where they start in the array
+         * @param count Their length
+         * @return The section written
+         * @throws IOException If the backup cannot be written
+         */
+        public Section section(String name, byte[] contents, int offset, int count) throws IOException {
+            CRC32C crc = new CRC32C();
+            crc.update(contents, offset, count);
+            header(name, count, (int) crc.getValue());
+            out.write(contents, offset, count);
+            return added(new Section(name, count, (int) crc.getValue()));
+        }
+
+        /**
+         * Add a file's contents, as far as its length when this is called
+         */
+        Section section(String name, FileChannel channel) throws IOException {
+            long size = channel.size();
+            int checksum = checksum(channel, size);
+            header(name, size, checksum);
+            copy(channel, size, out, buffer);
+            return added(new Section(name, size, checksum));
+        }
+
+        private void header(String name, long size, int checksum) throws IOException {
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            out.writeShort(nameBytes.length);
+            out.write(nameBytes);
+            out.writeLong(size);
+            out.writeInt(checksum);
+        }
+
+        private Section added(Section section) {
+            sections.add(section);
+            length += section.length;
+            return section;
+        }
+
+        /** @return Uncompressed bytes of every section written so far */
+        public long getLength() {
+            return length;
+        }
+
+        /**
+         * @return CRC32C of the whole file, as BackupCatalog.checksum would
+         *         compute it (complete once finish() returned)
+         */
+        public int getChecksum() {
+            return (int) fileCrc.getValue();
+        }
+
+        /**
+         * Write the end of the backup and put it in place
+         *
+         * @return The sections written
+         * @throws IOException If the backup cannot be written
+         */
+        public List<Section> finish() throws IOException {
+            out.writeShort(0);  // End marker
+            out.writeInt(sections.size());
+            deflated.finish();
+            raw.flush();
+            file.commit();
+            return sections;
+        }
+
+        /**
+         * Release the compressor, and the backup unless finish() succeeded
+         */
+        @Override
+        public void close() {
+            deflater.end();
+            file.close();
+        }
+    }
+
+    private static int checksum(FileChannel channel, long length) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = 0;
+        while (position < length) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), length - position));
+            int n = channel.read(buffer, position);
+            if (n < 0) throw new EOFException("file ended while it was being backed up");
+            buffer.flip();
+            crc.update(buffer);
+            position += n;
+        }
+        return (int) crc.getValue();
+    }
+
+    private static void copy(FileChannel channel, long length, OutputStream out, byte[] buffer) throws IOException {
+        InputStream in = Channels.newInputStream(channel.position(0));
+        long remaining = length;
+        while (remaining > 0) {
+            int n = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (n < 0) throw new EOFException("file ended while it was being backed up");
+            out.write(buffer, 0, n);
+            remaining -= n;
+        }
+    }
+
+    // ----- Reading -----
+
+    /**
+     * Check whether a file is a backup in this format
+     *
+     * @param backup The file
+     * @return true if it starts with this format's magic number
+     * @throws IOException If the file cannot be read
+     */
+    public static boolean isBackupFile(File backup) throws IOException {
+        try (InputStream in = new FileInputStream(backup)) {
+            byte[] magic = in.readNBytes(MAGIC.length);
+            return Arrays.equals(magic, MAGIC);
+        }
+    }
+
+    /**
+     * Read a whole backup and check every section against its header
+     *
+     * Nothing is kept, so this is cheap on memory however large the backup is.
+     *
+     * @param backup The backup file
+     * @return The sections, in order
+     * @throws IOException If the backup cannot be read, is damaged or incomplete
+     */
+    public static List<Section> verify(File backup) throws IOException {
+        return read(backup, (section, contents) -> { });
+    }
+
+    /**
+     * Stream the sections of a backup to a reader
+     *
+     * Each section's checksum is checked as its last byte is read, so a
+     * reader that writes live files as it goes should still only be used on
+     * a backup verify() has accepted.
+     *
+     * @param backup The backup file
+     * @param reader Receives each section
+     * @return The sections, in order
+     * @throws IOException If the backup cannot be read, is damaged or incomplete,
+     *                     or the reader fails
+     */
+    public static List<Section> read(File backup, SectionReader reader) throws IOException {
+        return read(backup, reader, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Read only the first section of a backup
+     *
+     * Its checksum is checked; the rest of the backup is not read, so this
+     * costs the same however large the backup is.
+     *
+     * @param backup The backup file
+     * @param reader Receives the first section
+     * @return The first section, or null if the backup has none
+     * @throws IOException If the backup cannot be read, or its start is damaged
+     */
+    public static Section readFirst(File backup, SectionReader reader) throws IOException {
+        List<Section> sections = read(backup, reader, 1);
+        return sections.isEmpty() ? null : sections.get(0);
+    }
+
+    private static List<Section> read(File backup, SectionReader reader, int limit) throws IOException {
+        List<Section> sections = new ArrayList<>();
+        Inflater inflater = new Inflater();
+        try (InputStream raw = new BufferedInputStream(new FileInputStream(backup), BUFFER_SIZE)) {
+            DataInputStream header = new DataInputStream(raw);
+            byte[] magic = header.readNBytes(MAGIC.length);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException(backup.getName() + " is not a calendar backup");
+            }
+            int version = header.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException(backup.getName() + " has backup format version " + version
+                                      + ", expected " + FORMAT_VERSION);
+            }
+
+            DataInputStream in = new DataInputStream(new InflaterInputStream(raw, inflater, BUFFER_SIZE));
+            while (true) {
+                int nameLength = in.readUnsignedShort();
+                if (nameLength == 0) break;  // End marker
+                String name = new String(in.readNBytes(nameLength), StandardCharsets.UTF_8);
+                if (name.length() == 0 || name.indexOf('\0') >= 0) {
+                    throw new IOException("damaged section header");
+                }
+                Section section = new Section(name, in.readLong(), in.readInt());
+                if (section.length < 0) {
+                    throw new IOException("damaged section header for " + name);
+                }
+
+                SectionStream contents = new SectionStream(in, section);
+                reader.read(section, contents);
+                contents.skipRest();
+                contents.check();  // Only needed for an empty section; others were checked at their last byte
+                sections.add(section);
+                if (sections.size() == limit) {
+                    return sections;  // The rest is not read (or checked)
+                }
+            }
+            if (in.readInt() != sections.size()) {
+                throw new IOException("backup is damaged (section count mismatch)");
+            }
+            return sections;
+        } catch (EOFException e) {
+            throw new IOException(backup.getName() + " is incomplete", e);
+        } catch (ZipException e) {
+            throw new IOException(backup.getName() + " is damaged: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Get a backup file as a Source
+     *
+     * Each readSections() call reads the file again, checking it as it goes
+     * (see read()).
+     *
+     * @param backup The backup file
+     * @return A source reading its sections
+     */
+    public static Source source(File backup) {
+        return reader -> read(backup, reader);
+    }
+
+    /**
+     * One section's contents: stops at the section's length and keeps the
+     * checksum of everything read (or skipped)
+     *
+     * The checksum is compared as the last byte is read, so a reader that
+     * reads a section to its end never gets the end of a damaged one (it
+     * gets an IOException instead).
+     */
+    private static final class SectionStream extends FilterInputStream {
+        private final Section section;
+        private final CRC32C crc = new CRC32C();
+        private long remaining;  // Bytes of the section not read yet
+
+        SectionStream(InputStream in, Section section) {
+            super(in);
+            this.section = section;
+            this.remaining = section.length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining == 0) return -1;
+            int b = in.read();
+            if (b < 0) throw new EOFException();
+            crc.update(b);
+            if (--remaining == 0) check();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining == 0) return -1;
+            int n = in.read(buffer, offset, (int) Math.min(length, remaining));
+            if (n < 0) throw new EOFException();
+            crc.update(buffer, offset, n);
+            remaining -= n;
+            if (remaining == 0) check();
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] buffer = new byte[(int) Math.min(BUFFER_SIZE, Math.max(n, 1))];
+            long skipped = 0;
+            while (skipped < n) {
+                int r = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (r < 0) break;
+                skipped += r;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+
+        @Override
+        public void close() {
+            // The backup stream stays open for the next section
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        void skipRest() throws IOException {
+            skip(remaining);
+        }
+
+        void check() throws IOException {
+            if ((int) crc.getValue() != section.checksum) {
+                throw new IOException("section " + section.name + " is damaged (checksum mismatch)");
+            }
+        }
+    }
+}
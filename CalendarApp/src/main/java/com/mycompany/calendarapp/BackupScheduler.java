@@ -0,0 +1,464 @@
+package com.mycompany.calendarapp;
+
+import java.io.File;  // Backups and their directory
+import java.io.IOException;  // For write and delete errors
+import java.io.UncheckedIOException;  // Carries write errors out of requested backups
+import java.nio.file.Files;  // Deletes backups
+import java.nio.file.Path;  // Identifies backups across a chain
+import java.time.Clock;  // Time of automatic backups
+import java.time.LocalDate;  // Day of an automatic backup
+import java.time.LocalDateTime;  // When automatic backups were taken
+import java.time.YearMonth;  // Monthly retention
+import java.time.ZoneId;  // Converts file times to local time
+import java.time.format.DateTimeFormatter;  // Names automatic backups
+import java.time.format.DateTimeParseException;  // Files named auto-* by hand
+import java.time.temporal.ChronoUnit;  // Hourly retention
+import java.util.ArrayDeque;  // Parents still to follow
+import java.util.ArrayList;  // For file lists
+import java.util.Deque;  // Deque interface
+import java.util.HashSet;  // Backups kept
+import java.util.List;  // List interface
+import java.util.Set;  // Set interface
+import java.util.concurrent.CompletableFuture;  // A backup that was asked for
+import java.util.concurrent.Executors;  // Creates the backup thread
+import java.util.concurrent.ScheduledExecutorService;  // Runs backups on a timer
+import java.util.concurrent.TimeUnit;  // Delay unit
+import java.util.function.Function;  // Retention buckets
+
+/**
+ * BackupScheduler Class
+ *
+ * Takes backups of an EventManager on a background thread: automatically
+ * every -Dcalendar.backup.every minutes (default 60, 0 turns it off), and
+ * whenever one is asked for (the Create Backup button), so the JavaFX
+ * thread never waits for a backup to be written.
+ *
+ * Purpose:
+ * - Keep recent backups without anyone remembering to take them
+ * - Keep the backups directory from growing without limit: automatic
+ *   backups are thinned out to the newest one in each of the last
+ *   -Dcalendar.backup.hourly hours (default 24), and the newest full one
+ *   in each of the last -Dcalendar.backup.daily days (default 7) and
+ *   -Dcalendar.backup.monthly months (default 12)
+ * - Report how long the last backup took and how big it was
+ *
+ * How It Works:
+ * 1. Each backup reads a snapshot of the events (EventManager.snapshot),
+ *    which is consistent however the events change meanwhile, and writes it
+ *    with BackupChain, normally as a small differential backup. An
+ *    automatic backup is skipped when nothing changed since the last one.
+ * 2. Automatic backups are named auto-yyyyMMdd-HHmmss.calbak; the first one
+ *    is due an interval after the newest of them (or after startup)
+ * 3. The first automatic backup of each day is a full backup, and the
+ *    day's later ones are differential backups against it
+ *    (BackupChain.writeAgainst), so each needs only that one file to be
+ *    restored. Backups asked for are taken against the last backup written.
+ * 4. After each automatic backup, the auto-* files outside the retention
+ *    policy are deleted, except the newest one and any backup that a kept
+ *    differential backup (automatic or not) needs to be restored. The daily
+ *    and monthly backups kept are full ones, so they need nothing else,
+ *    and an hourly one needs only its day's full backup. Backups named by
+ *    hand are never deleted.
+ * 5. Every backup written is added to the BackupCatalog, which is also
+ *    brought up to date when the scheduler starts and around each prune;
+ *    the parents of each backup are taken from it
+ * 6. A backup is never written over a file that a catalogued differential
+ *    backup was taken against, as that backup could not be restored any
+ *    more; backup() fails instead
+ */
+public final class BackupScheduler {
+
+    /** Prefix of the backups taken automatically (the only ones deleted) */
+    public static final String AUTO_PREFIX = "auto-";
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final EventManager manager;  // The events backed up
+    private final File directory;  // Where automatic backups are written and pruned
+    private final BackupChain chain;  // Writes every backup taken here
+    private final long intervalMinutes;  // Between automatic backups (0 if off)
+    private final int keepHourly;  // Hours with a backup kept
+    private final int keepDaily;  // Days with a backup kept
+    private final int keepMonthly;  // Months with a backup kept
+    private final ScheduledExecutorService executor;  // The single backup thread
+    private final Clock clock;  // Names automatic backups and buckets them for retention
+    private final BackupCatalog catalog;  // What each backup holds and needs (kept up to date here)
+    private long backedUpVersion = -1;  // Manager version of the last backup (backup thread only)
+
+    private volatile File lastBackup;  // Last backup written (null if none yet)
+    private volatile long lastTime;  // When it was finished (epoch milliseconds)
+    private volatile long lastDurationMillis;  // How long the write took
+    private volatile long lastSize;  // Its size in bytes
+    private volatile String lastError;  // Why the last backup failed (null if it did not)
+    private volatile int lastPruned;  // Backups deleted after the last automatic backup
+
+    /**
+     * Constructor - Back up an EventManager into a directory
+     *
+     * Nothing is scheduled until start() is called.
+     *
+     * @param manager The EventManager to back up
+     * @param directory Where backups are written (e.g. backups/)
+     */
+    public BackupScheduler(EventManager manager, File directory) {
+        this(manager, directory, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructor - Back up an EventManager into a directory, on a given
+     * clock (for the tests)
+     *
+     * @param manager The EventManager to back up
+     * @param directory Where backups are written
+     * @param clock The time automatic backups are taken at
+     */
+    BackupScheduler(EventManager manager, File directory, Clock clock) {
+        this.manager = manager;
+        this.clock = clock;
+        this.directory = directory;
+        this.chain = new BackupChain(directory);
+        this.catalog = new BackupCatalog(directory);
+        this.intervalMinutes = Math.max(0, Long.getLong("calendar.backup.every", 60));
+        this.keepHourly = Math.max(0, Integer.getInteger("calendar.backup.hourly", 24));
+        this.keepDaily = Math.max(0, Integer.getInteger("calendar.backup.daily", 7));
+        this.keepMonthly = Math.max(0, Integer.getInteger("calendar.backup.monthly", 12));
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "backup-scheduler");
+            thread.setDaemon(true);  // Exit goes through close()
+            thread.setPriority(Thread.MIN_PRIORITY);  // Behind the JavaFX thread and the saver
+            return thread;
+        });
+    }
+
+    /**
+     * Bring the catalog up to date, then start taking automatic backups
+     * (unless they are turned off)
+     */
+    public void start() {
+        executor.execute(catalog::refresh);  // Catalogues backups from before the catalog, or copied in
+        if (intervalMinutes == 0) return;
+        long interval = TimeUnit.MINUTES.toMillis(intervalMinutes);
+        long delay = interval;
+        LocalDateTime newest = null;
+        for (File file : autoBackups()) {
+            LocalDateTime taken = takenAt(file);
+            if (newest == null || taken.isAfter(newest)) newest = taken;
+        }
+        if (newest != null) {
+            long since = newest.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            delay = Math.max(0, Math.min(interval, since + interval - clock.millis()));
+        }
+        executor.scheduleWithFixedDelay(this::backupAutomatically, delay, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Take a backup on the backup thread
+     *
+     * @param backup Where to write it (replaced once complete, unless a
+     *        differential backup was taken against it)
+     * @return Completes with the backup's manifest, or with an
+     *         UncheckedIOException if it could not be written
+     */
+    public CompletableFuture<BackupChain.Manifest> backup(String backup) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return write(new File(backup), manager.snapshot(), false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Bring the catalog in line with the backups directory on the backup
+     * thread (e.g. for the restore dialog, after backups were copied in or
+     * deleted by hand)
+     *
+     * @return Completes with the catalog's entries, newest first
+     */
+    public CompletableFuture<List<BackupCatalog.Entry>> refreshCatalog() {
+        return CompletableFuture.supplyAsync(() -> {
+            catalog.refresh();
+            return catalog.getEntries();
+        }, executor);
+    }
+
+    /**
+     * Stop taking backups, letting one in progress finish
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ----- Metrics -----
+
+    /** @return The catalog of the backups directory */
+    public BackupCatalog getCatalog() {
+        return catalog;
+    }
+
+    /** @return Minutes between automatic backups (0 if they are turned off) */
+    public long getIntervalMinutes() {
+        return intervalMinutes;
+    }
+
+    /** @return The last backup written (automatic or asked for), or null if none yet */
+    public File getLastBackup() {
+        return lastBackup;
+    }
+
+    /** @return When the last backup finished (epoch milliseconds, 0 if none yet) */
+    public long getLastTime() {
+        return lastTime;
+    }
+
+    /** @return How long the last backup took to write (the snapshot before it not included) */
+    public long getLastDurationMillis() {
+        return lastDurationMillis;
+    }
+
+    /** @return Size of the last backup in bytes */
+    public long getLastSize() {
+        return lastSize;
+    }
+
+    /** @return Why the last backup failed, or null if it did not */
+    public String getLastError() {
+        return lastError;
+    }
+
+    /** @return Backups deleted by the retention policy after the last automatic backup */
+    public int getLastPruned() {
+        return lastPruned;
+    }
+
+    // ----- Backing up (backup thread only) -----
+
+    /**
+     * Take an automatic backup and prune, unless nothing changed
+     *
+     * Errors are reported and the schedule goes on. Package-private so the
+     * tests can run a schedule without waiting for it.
+     */
+    void backupAutomatically() {
+        try {
+            EventSnapshot snapshot = manager.snapshot();
+            if (snapshot.getVersion() == backedUpVersion) {
+                return;  // The last backup already holds these events
+            }
+            String name = AUTO_PREFIX + NAME_FORMAT.format(LocalDateTime.now(clock)) + BackupFile.EXTENSION;
+            write(new File(directory, name), snapshot, true);
+            lastPruned = prune();
+        } catch (IOException | RuntimeException e) {
+            // Caught here: an exception would cancel the schedule
+            lastError = e.getMessage();
+            System.err.println("Error taking automatic backup: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @param automatic true for an automatic backup, taken against the
+     *        day's full backup (or full, if it is the first of the day)
+     */
+    private BackupChain.Manifest write(File backup, EventSnapshot snapshot, boolean automatic) throws IOException {
+        long start = System.nanoTime();
+        try {
+            checkNotNeeded(backup);
+            File parent = backup.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                Files.createDirectories(parent.toPath());
+            }
+            BackupChain.Manifest manifest = automatic
+                ? chain.writeAgainst(backup.getPath(), snapshot.getAllEvents(), dayBase(takenAt(backup).toLocalDate()))
+                : chain.write(backup.getPath(), snapshot.getAllEvents());
+            backedUpVersion = snapshot.getVersion();
+            lastBackup = backup;
+            lastTime = System.currentTimeMillis();
+            lastDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            lastSize = backup.length();
+            lastError = null;
+            catalog.add(backup, manifest);  // Its checksum was computed as it was written
+            return manifest;
+        } catch (IOException e) {
+            lastError = e.getMessage();
+            throw e;
+        }
+    }
+
+    /**
+     * Refuse to replace a backup that a catalogued differential backup was
+     * taken against
+     *
+     * The differential backup could no longer be restored (its parent's ID
+     * would not match), whatever was written in the parent's place.
+     *
+     * @param backup The file about to be written
+     * @throws IOException If a catalogued backup needs the file
+     */
+    private void checkNotNeeded(File backup) throws IOException {
+        if (!backup.exists()) return;
+        long id;
+        try {
+            if (!BackupChain.isChainBackup(backup)) return;
+            id = BackupChain.readManifest(backup).getId();
+        } catch (IOException e) {
+            return;  // Unreadable: no backup can be restored from it anyway
+        }
+        catalog.refresh();  // Picks up backups written by anything else
+        for (BackupCatalog.Entry child : catalog.childrenOf(backup)) {
+            if (child.getParentId() == id) {
+                throw new IOException(backup.getName() + " is needed to restore " + child.getFile()
+                                      + "; choose another name");
+            }
+        }
+    }
+
+    /**
+     * Find the full backup the day's automatic backups are taken against
+     *
+     * @param day The day
+     * @return The newest full automatic backup taken that day, or null if
+     *         there is none yet
+     */
+    private File dayBase(LocalDate day) {
+        File base = null;
+        for (File file : autoBackups()) {
+            if (!takenAt(file).toLocalDate().equals(day) || !isFull(file)) continue;
+            if (base == null || takenAt(file).isAfter(takenAt(base))) base = file;
+        }
+        return base;
+    }
+
+    /**
+     * @return true if the catalog has a backup as a full one
+     */
+    private boolean isFull(File backup) {
+        BackupCatalog.Entry entry = catalog.find(backup);
+        return entry != null && entry.isFull();
+    }
+
+    // ----- Retention (backup thread only) -----
+
+    /**
+     * Delete the automatic backups the retention policy does not keep
+     *
+     * @return Number of backups deleted
+     */
+    private int prune() {
+        catalog.refresh();  // Picks up backups written or copied in by anything else
+        List<File> autos = autoBackups();
+        autos.sort((a, b) -> takenAt(b).compareTo(takenAt(a)));  // Newest first
+        Set<Path> keep = new HashSet<>();
+        if (!autos.isEmpty()) {
+            keep.add(path(autos.get(0)));  // The next differential backup is taken against it
+        }
+        keepNewest(autos, keepHourly, taken -> taken.truncatedTo(ChronoUnit.HOURS), keep);
+        // Older backups are kept as full ones, which need no other file
+        List<File> fulls = new ArrayList<>();
+        for (File file : autos) {
+            if (isFull(file)) fulls.add(file);
+        }
+        keepNewest(fulls, keepDaily, LocalDateTime::toLocalDate, keep);
+        keepNewest(fulls, keepMonthly, YearMonth::from, keep);
+
+        // Every backup named by hand is kept, then the parents of everything kept
+        Set<Path> deletable = new HashSet<>();
+        for (File file : autos) {
+            deletable.add(path(file));
+        }
+        Deque<BackupCatalog.Entry> pending = new ArrayDeque<>();
+        for (BackupCatalog.Entry entry : catalog.getEntries()) {
+            Path file = path(catalog.fileOf(entry));
+            if (keep.contains(file) || !deletable.contains(file)) pending.add(entry);
+        }
+        Set<Path> needed = new HashSet<>(keep);
+        Set<BackupCatalog.Entry> followed = new HashSet<>();
+        while (!pending.isEmpty()) {
+            BackupCatalog.Entry entry = pending.pop();
+            if (!followed.add(entry)) continue;
+            needed.add(path(catalog.fileOf(entry)));
+            BackupCatalog.Entry parent = catalog.parentOf(entry);
+            if (parent != null) pending.push(parent);
+        }
+
+        int deleted = 0;
+        for (File file : autos) {
+            if (needed.contains(path(file))) continue;
+            try {
+                Files.deleteIfExists(file.toPath());
+                deleted++;
+            } catch (IOException e) {
+                System.err.println("Could not delete old backup " + file.getName() + ": " + e.getMessage());
+            }
+        }
+        if (deleted > 0) {
+            catalog.refresh();  // Drops the deleted backups
+        }
+        return deleted;
+    }
+
+    /**
+     * Keep the newest backup in each of the most recent buckets that have one
+     *
+     * @param autos Automatic backups, newest first
+     * @param limit Number of buckets to keep a backup from
+     * @param bucket The bucket (hour, day or month) a backup falls in
+     * @param keep Receives the backups kept
+     */
+    private static void keepNewest(List<File> autos, int limit, Function<LocalDateTime, Object> bucket,
+                                   Set<Path> keep) {
+        Object last = null;
+        int kept = 0;
+        for (File file : autos) {
+            if (kept == limit) return;
+            Object current = bucket.apply(takenAt(file));
+            if (!current.equals(last)) {
+                keep.add(path(file));
+                kept++;
+                last = current;
+            }
+        }
+    }
+
+    private List<File> autoBackups() {
+        List<File> autos = new ArrayList<>();
+        File[] files = directory.listFiles();
+        if (files == null) return autos;
+        for (File file : files) {
+            if (isAuto(file)) autos.add(file);
+        }
+        return autos;
+    }
+
+    /**
+     * @param file A file in the backups directory
+     * @return true if it was named by this class (and so may be deleted)
+     */
+    private static boolean isAuto(File file) {
+        String name = file.getName();
+        if (!name.startsWith(AUTO_PREFIX) || !name.endsWith(BackupFile.EXTENSION)) return false;
+        try {
+            NAME_FORMAT.parse(stamp(name));
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;  // Named by hand
+        }
+    }
+
+    private static LocalDateTime takenAt(File file) {
+        return LocalDateTime.parse(stamp(file.getName()), NAME_FORMAT);
+    }
+
+    private static String stamp(String name) {
+        return name.substring(AUTO_PREFIX.length(), name.length() - BackupFile.EXTENSION.length());
+    }
+
+    private static Path path(File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+}
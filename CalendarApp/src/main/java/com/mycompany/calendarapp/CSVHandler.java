@@ -1,8 +1,11 @@
 package com.mycompany.calendarapp;
 
 import java.io.*;  // For file input/output operations
+import java.nio.charset.Charset;  // events.csv uses the platform encoding
 import java.time.LocalDateTime;  // For date and time handling
-import java.time.format.DateTimeFormatter;  // For parsing and formatting dates
+import java.util.ArrayList;  // For the loaded events
+import java.util.List;  // List interface
+import java.util.function.Consumer;  // Receives scanned events
 
 /**
  * CSVHandler Class (Legacy)
@@ -19,12 +22,13 @@ import java.time.format.DateTimeFormatter;  // For parsing and formatting dates
  * event data into multiple CSV files (event.csv, recurrent.csv, additional.csv) as
  * per the assignment specification.
  * 
- * This class is kept for reference and potential migration purposes.
+ * This class is kept for reference and potential migration purposes; it is
+ * still used by the console MainMenu, through LegacyCsvEventStore.
  */
 public class CSVHandler {
 
-    private static final String FILE_NAME = "events.csv";  // Single CSV file for all data
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");  // Date format
+    static final String FILE_NAME = "events.csv";  // Single CSV file for all data
+    // Dates are "yyyy-MM-dd HH:mm", read and written by DateTimeCodec
 
     /**
      * Save all events to events.csv
@@ -35,10 +39,22 @@ public class CSVHandler {
      * @param manager The EventManager containing all events to save
      */
     public static void saveEvents(EventManager manager) {
-        // Try-with-resources ensures the file is properly closed
-        try (PrintWriter pw = new PrintWriter(new FileWriter(FILE_NAME))) {
+        saveEvents(manager.getAllEvents());
+    }
+
+    /**
+     * Save a list of events to events.csv
+     * 
+     * @param events The events to save
+     * @return true if the file was written
+     */
+    public static boolean saveEvents(List<MainEvent> events) {
+        // Written to events.csv.tmp and renamed into place, so a crash never leaves a half-written file
+        try (AtomicFile file = new AtomicFile(FILE_NAME);
+             PrintWriter pw = new PrintWriter(new BufferedWriter(
+                     new OutputStreamWriter(file.stream(), Charset.defaultCharset())))) {
             // Loop through all events
-            for (MainEvent e : manager.getAllEvents()) {
+            for (MainEvent e : events) {
                 // Determine event type
                 String type = e instanceof RecurringEvent ? "RECURRING" : "NORMAL";
                 String extra = "";  // Extra fields for recurring events
@@ -53,10 +69,14 @@ public class CSVHandler {
                 
                 // Write CSV line: id,type,title,description,start,end,[recurrence],[occurrences],[reminder]
                 pw.println(e.getEventId() + "," + type + "," + e.getTitle() + "," + e.getDescription() + "," +
-                        e.getStartDateTime().format(formatter) + "," + e.getEndDateTime().format(formatter) + extra + reminder);
+                        DateTimeCodec.formatSpaced(e.getStartDateTime()) + "," + DateTimeCodec.formatSpaced(e.getEndDateTime()) + extra + reminder);
             }
+            if (pw.checkError()) throw new IOException("write failed");  // PrintWriter hides its errors
+            file.commit();
+            return true;
         } catch (IOException ex) {
             System.out.println("Error saving CSV: " + ex.getMessage());
+            return false;
         }
     }
 
@@ -69,58 +89,110 @@ public class CSVHandler {
      * @param manager The EventManager to add loaded events to
      */
     public static void loadEvents(EventManager manager) {
+        List<MainEvent> loaded = new ArrayList<>();
+        scanEvents(loaded::add);
+        
+        int maxId = 0;  // Track the highest event ID
+        for (MainEvent event : loaded) {
+            if (event.getEventId() > maxId) maxId = event.getEventId();
+        }
+        manager.addEvents(loaded);  // Add the events to the manager
+        
+        // Set the next ID to be one higher than the highest ID we found
+        manager.setNextEventId(maxId + 1);
+    }
+
+    /**
+     * Hand every event in events.csv to an action, one line at a time
+     * 
+     * @param action Called once per event, in file order
+     * @return Number of events handed to the action
+     */
+    public static int scanEvents(Consumer<? super MainEvent> action) {
         File file = new File(FILE_NAME);
-        if (!file.exists()) return;  // Exit if file doesn't exist
+        if (!file.exists()) return 0;  // Exit if file doesn't exist
 
+        int count = 0;
         try (BufferedReader br = new BufferedReader(new FileReader(FILE_NAME))) {
             String line;
-            int maxId = 0;  // Track the highest event ID
             
             // Read each line from the file
             while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");  // Split by comma
-                
-                // Parse common fields (present in all events)
-                int id = Integer.parseInt(parts[0]);  // Event ID
-                String type = parts[1];  // Event type (NORMAL or RECURRING)
-                String title = parts[2];  // Title
-                String desc = parts[3];  // Description
-                LocalDateTime start = LocalDateTime.parse(parts[4], formatter);  // Start date/time
-                LocalDateTime end = LocalDateTime.parse(parts[5], formatter);  // End date/time
+                action.accept(parseEvent(line));
+                count++;
+            }
+        } catch (IOException ex) {
+            System.out.println("Error loading CSV: " + ex.getMessage());
+        }
+        return count;
+    }
 
-                MainEvent event;
-                
-                // Create appropriate event type based on the type field
-                if ("RECURRING".equals(type)) {
-                    // Recurring event - has additional fields
-                    String recurrenceType = parts[6];  // e.g., "DAILY", "WEEKLY"
-                    int occurrences = Integer.parseInt(parts[7]);  // Number of times it repeats
-                    event = new RecurringEvent(id, title, desc, start, end, recurrenceType, occurrences);
-                    
-                    // Reminder is at index 8 for recurring events
-                    if (parts.length > 8 && !parts[8].isEmpty()) {
-                        int reminderMinutes = Integer.parseInt(parts[8]);
-                        event.setReminder(new Reminder(reminderMinutes));
-                    }
-                } else {
-                    // Normal event
-                    event = new MainEvent(id, title, desc, start, end);
-                    
-                    // Reminder is at index 6 for normal events
-                    if (parts.length > 6 && !parts[6].isEmpty()) {
-                        int reminderMinutes = Integer.parseInt(parts[6]);
-                        event.setReminder(new Reminder(reminderMinutes));
-                    }
-                }
+    /**
+     * Add the events held in a backup of events.csv to a manager
+     * 
+     * The section is parsed as it streams in; no file is written.
+     * 
+     * @param backup The backup's sections (sections for other files are skipped)
+     * @param manager The EventManager to add the events to (normally a new one)
+     * @throws IOException If the backup cannot be read
+     */
+    static void loadBackup(BackupFile.Source backup, EventManager manager) throws IOException {
+        List<MainEvent> loaded = new ArrayList<>();
+        backup.readSections((section, contents) -> {
+            if (!FILE_NAME.equals(section.getName())) return;
+            BufferedReader br = new BufferedReader(new InputStreamReader(contents, Charset.defaultCharset()));
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (!line.isEmpty()) loaded.add(parseEvent(line));  // Text backups end sections with a blank line
+            }
+        });
+        
+        int maxId = 0;
+        for (MainEvent event : loaded) {
+            if (event.getEventId() > maxId) maxId = event.getEventId();
+        }
+        manager.addEvents(loaded);
+        manager.setNextEventId(maxId + 1);
+    }
+
+    /**
+     * Build the event described by one line of events.csv
+     */
+    private static MainEvent parseEvent(String line) {
+        String[] parts = line.split(",");  // Split by comma
+        
+        // Parse common fields (present in all events)
+        int id = Integer.parseInt(parts[0]);  // Event ID
+        String type = parts[1];  // Event type (NORMAL or RECURRING)
+        String title = parts[2];  // Title
+        String desc = parts[3];  // Description
+        LocalDateTime start = DateTimeCodec.parseSpaced(parts[4]);  // Start date/time
+        LocalDateTime end = DateTimeCodec.parseSpaced(parts[5]);  // End date/time
 
-                manager.addEvent(event);  // Add the event to the manager
-                if (id > maxId) maxId = id;  // Track highest ID
+        MainEvent event;
+        
+        // Create appropriate event type based on the type field
+        if ("RECURRING".equals(type)) {
+            // Recurring event - has additional fields
+            String recurrenceType = parts[6];  // e.g., "DAILY", "WEEKLY"
+            int occurrences = Integer.parseInt(parts[7]);  // Number of times it repeats
+            event = new RecurringEvent(id, title, desc, start, end, recurrenceType, occurrences);
+            
+            // Reminder is at index 8 for recurring events
+            if (parts.length > 8 && !parts[8].isEmpty()) {
+                int reminderMinutes = Integer.parseInt(parts[8]);
+                event.setReminder(new Reminder(reminderMinutes));
             }
+        } else {
+            // Normal event
+            event = new MainEvent(id, title, desc, start, end);
             
-            // Set the next ID to be one higher than the highest ID we found
-            manager.setNextEventId(maxId + 1);
-        } catch (IOException ex) {
-            System.out.println("Error loading CSV: " + ex.getMessage());
+            // Reminder is at index 6 for normal events
+            if (parts.length > 6 && !parts[6].isEmpty()) {
+                int reminderMinutes = Integer.parseInt(parts[6]);
+                event.setReminder(new Reminder(reminderMinutes));
+            }
         }
+        return event;
     }
 }
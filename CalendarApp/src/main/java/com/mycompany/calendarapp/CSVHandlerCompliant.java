@@ -1,12 +1,17 @@
 package com.mycompany.calendarapp;
 
 import java.io.*;  // For file input/output
+import java.nio.charset.Charset;  // event.csv and recurrent.csv use the platform encoding
+import java.nio.charset.StandardCharsets;  // additional.csv and reminders.csv are UTF-8
 import java.time.LocalDate;  // For date handling
-import java.time.LocalDateTime;  // For date and time handling
-import java.time.format.DateTimeFormatter;  // For parsing/formatting dates
 import java.time.temporal.ChronoUnit;  // For date calculations
-import java.util.HashMap;  // For hash maps
-import java.util.Map;  // For map interface
+import java.util.ArrayList;  // For lists
+import java.util.Comparator;  // For saving in eventId order
+import java.util.List;  // For list interface
+import java.util.function.Consumer;  // Receives scanned events
+import java.util.function.Supplier;  // Makes a row mapper per chunk
+import java.util.function.IntFunction;  // Looks up side rows by eventId
+import java.util.function.ObjIntConsumer;  // Applies a backed-up side row to its event
 
 /**
  * CSVHandlerCompliant Class
@@ -16,6 +21,13 @@ import java.util.Map;  // For map interface
  * - event.csv: Core event data (eventId, title, description, startDateTime, endDateTime)
  * - recurrent.csv: Recurrence data (eventId, recurrentInterval, recurrentTimes, recurrentEndDate)
  * - additional.csv: Extra fields (eventId, location, category, priority)
+ * - reminders.csv: Reminders and when they next fire (eventId, minutesBefore, nextFire)
+ * - calendar.snapshot: Binary copy of all of the above (see SnapshotFile),
+ *   used instead of the CSV files at startup while it is newer than them
+ * - calendar.pages: The same events cut into months (see EventPageFile),
+ *   so startup can load only the months around today (see EventPager)
+ * - calendar.commit: Generation of the four CSV files, which are replaced
+ *   together (see AtomicFileSet)
  * 
  * Purpose:
  * - Separate concerns by splitting data into multiple CSV files
@@ -25,17 +37,21 @@ import java.util.Map;  // For map interface
  * How It Works:
  * 1. When saving: Splits each event's data across multiple CSV files
  * 2. When loading: Reads all CSV files and reconstructs complete events
- * 3. Uses HashMap to efficiently link related data across files
+ * 3. Every file is written in eventId order, so loading can stream the
+ *    other files alongside event.csv and link related data with a merge
+ *    join (IdJoin), falling back to an int-keyed hash map (IntObjectMap)
+ *    for files that may be out of order
  * 
- * This is the ACTIVE CSV handler used by the application.
+ * This is the ACTIVE CSV handler used by the application, through
+ * CsvEventStore (see EventStore).
  */
 public class CSVHandlerCompliant {
 
     // Constants for file names
-    private static final String EVENT_FILE = "event.csv";  // Core event data
-    private static final String RECURRENT_FILE = "recurrent.csv";  // Recurrence data
-    // ISO format: "2025-12-31T14:30:00" (includes T separator)
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    static final String EVENT_FILE = "event.csv";  // Core event data
+    static final String RECURRENT_FILE = "recurrent.csv";  // Recurrence data
+    static final String COMMIT_FILE = "calendar.commit";  // Generation of the four files, and renames in progress
+    // Dates are ISO format: "2025-12-31T14:30" (T separator), read and written by DateTimeCodec
 
     /**
      * Save all events to CSV files
@@ -46,9 +62,85 @@ public class CSVHandlerCompliant {
      * @param manager The EventManager containing all events to save
      */
     public static void saveEvents(EventManager manager) {
-        saveEventCSV(manager);  // Save core event data to event.csv
-        saveRecurrentCSV(manager);  // Save recurrence data to recurrent.csv
-        AdditionalFieldsHandler.saveAdditionalFields(manager);  // Save additional fields to additional.csv
+        saveEvents(manager.getAllEvents());
+    }
+
+    /**
+     * Save a list of events to the CSV files
+     * 
+     * Lets a snapshot be written on another thread (see EventJournal).
+     * The saved events replace any changes in the journal, which are older
+     * (see EventJournal.savedOutside).
+     * 
+     * @param events The events to save
+     * @return true if all four CSV files were written
+     */
+    public static boolean saveEvents(List<MainEvent> events) {
+        long generation;
+        try {
+            generation = EventJournal.nextGeneration();
+        } catch (IOException ex) {
+            System.out.println("Error reading the journal: " + ex.getMessage());
+            return false;
+        }
+        if (!saveEvents(events, generation)) {
+            return false;
+        }
+        EventJournal.savedOutside(generation);
+        return true;
+    }
+
+    /**
+     * Save a list of events to the CSV files with a given generation
+     * 
+     * The four CSV files are replaced as one (see AtomicFileSet), so a
+     * crash never leaves some of them new and some old. The binary snapshot
+     * is written last, and only if every CSV file was saved, so it is newer
+     * than the CSV files it copies and the next start can load it instead.
+     * Every file lists the events in eventId order, not the order they
+     * were added in, so that is also the order they load in.
+     * 
+     * @param events The events to save
+     * @param generation The generation of the saved files (see EventJournal)
+     * @return true if all four CSV files were written
+     */
+    static boolean saveEvents(List<MainEvent> events, long generation) {
+        events = inIdOrder(events);  // Lets loadEvents merge the files instead of hashing them
+        // The four files replace the old ones together or not at all
+        try (AtomicFileSet files = new AtomicFileSet(COMMIT_FILE)) {
+            boolean saved = saveEventCSV(events, files);  // Save core event data to event.csv
+            saved &= saveRecurrentCSV(events, files);  // Save recurrence data to recurrent.csv
+            saved &= AdditionalFieldsHandler.saveAdditionalFields(events, files);  // Save additional fields to additional.csv
+            saved &= ReminderFileHandler.saveReminders(events, files);  // Save reminders to reminders.csv
+            if (!saved) {
+                return false;  // No copies of a save that did not happen: the old ones still match the old files
+            }
+            files.commit(generation);
+        } catch (IOException ex) {
+            System.out.println("Error saving the CSV files: " + ex.getMessage());
+            return false;
+        }
+        SnapshotFile.write(events);  // Binary copy for fast startup (the CSV files stay the reference)
+        if (EventPager.isEnabled()) {
+            EventPageFile.write(events);  // Written last, so it is newer than everything it copies
+        }
+        return true;
+    }
+
+    /**
+     * Get the events sorted by eventId
+     * 
+     * @return The same list if it is already in order, otherwise a sorted copy
+     */
+    private static List<MainEvent> inIdOrder(List<MainEvent> events) {
+        for (int i = 1; i < events.size(); i++) {
+            if (events.get(i).getEventId() < events.get(i - 1).getEventId()) {
+                List<MainEvent> sorted = new ArrayList<>(events);
+                sorted.sort(Comparator.comparingInt(MainEvent::getEventId));
+                return sorted;
+            }
+        }
+        return events;
     }
 
     /**
@@ -60,24 +152,38 @@ public class CSVHandlerCompliant {
      * 
      * Format: eventId, title, description, startDateTime, endDateTime
      * 
-     * @param manager The EventManager containing events to save
+     * @param events The events to save
+     * @param files The set the file is replaced in
+     * @return true if the file was written
      */
-    private static void saveEventCSV(EventManager manager) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(EVENT_FILE))) {
+    private static boolean saveEventCSV(List<MainEvent> events, AtomicFileSet files) {
+        // Written to event.csv.tmp and renamed into place with the other files, so a crash never leaves a half-written file
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(
+                     new OutputStreamWriter(files.add(EVENT_FILE), Charset.defaultCharset())))) {
             // Write header row
             pw.println("eventId,title,description,startDateTime,endDateTime");
             
+            char[] date = new char[DateTimeCodec.MAX_LENGTH];  // Reused for every date written
+            
             // Write each event
-            for (MainEvent e : manager.getAllEvents()) {
+            for (MainEvent e : events) {
                 // Save all events (including recurring) with their first occurrence times
-                pw.println(e.getEventId() + "," + 
-                          escapeCsvValue(e.getTitle()) + "," +  // Escape special chars in title
-                          escapeCsvValue(e.getDescription()) + "," +  // Escape special chars in description
-                          e.getStartDateTime().format(formatter) + "," + 
-                          e.getEndDateTime().format(formatter));
+                pw.print(e.getEventId());
+                pw.print(',');
+                pw.print(escapeCsvValue(e.getTitle()));  // Escape special chars in title
+                pw.print(',');
+                pw.print(escapeCsvValue(e.getDescription()));  // Escape special chars in description
+                pw.print(',');
+                pw.write(date, 0, DateTimeCodec.writeIso(e.getStartDateTime(), date, 0));
+                pw.print(',');
+                pw.write(date, 0, DateTimeCodec.writeIso(e.getEndDateTime(), date, 0));
+                pw.println();
             }
+            if (pw.checkError()) throw new IOException("write failed");  // PrintWriter hides its errors
+            return true;
         } catch (IOException ex) {
             System.out.println("Error saving event.csv: " + ex.getMessage());
+            return false;
         }
     }
 
@@ -89,15 +195,18 @@ public class CSVHandlerCompliant {
      * 
      * Format: eventId, recurrentInterval, recurrentTimes, recurrentEndDate
      * 
-     * @param manager The EventManager containing events
+     * @param events The events to save
+     * @param files The set the file is replaced in
+     * @return true if the file was written
      */
-    private static void saveRecurrentCSV(EventManager manager) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(RECURRENT_FILE))) {
+    private static boolean saveRecurrentCSV(List<MainEvent> events, AtomicFileSet files) {
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(
+                     new OutputStreamWriter(files.add(RECURRENT_FILE), Charset.defaultCharset())))) {
             // Write header row
             pw.println("eventId,recurrentInterval,recurrentTimes,recurrentEndDate");
             
             // Loop through all events and filter for recurring ones
-            for (MainEvent e : manager.getAllEvents()) {
+            for (MainEvent e : events) {
                 if (e instanceof RecurringEvent) {  // Only process recurring events
                     RecurringEvent re = (RecurringEvent) e;  // Cast to RecurringEvent
                     
@@ -110,8 +219,11 @@ public class CSVHandlerCompliant {
                     pw.println(e.getEventId() + "," + interval + "," + times + "," + endDate);
                 }
             }
+            if (pw.checkError()) throw new IOException("write failed");  // PrintWriter hides its errors
+            return true;
         } catch (IOException ex) {
             System.out.println("Error saving recurrent.csv: " + ex.getMessage());
+            return false;
         }
     }
 
@@ -122,120 +234,440 @@ public class CSVHandlerCompliant {
      * data from multiple CSV files and reconstructs complete events.
      * 
      * Process:
-     * 1. Load basic events from event.csv
-     * 2. Load recurrence data from recurrent.csv
-     * 3. Merge the data to create complete RecurringEvent objects
-     * 4. Load additional fields from additional.csv
+     * 0. Finish the renames of a save that was cut short (see AtomicFileSet).
+     *    If paging is on and calendar.pages is newer than every CSV file, load
+     *    only the recurring events and the months around today from it and
+     *    stop (the manager reads the other months when they are needed).
+     *    Otherwise, if calendar.snapshot is newer than every CSV file, read
+     *    it instead of steps 1-2
+     * 1. Stream event.csv (in parallel chunks if it is large), and with each
+     *    chunk stream recurrent.csv, additional.csv and reminders.csv from
+     *    the matching eventId on, building each complete event from its row
+     *    and the matching side rows (see SideFiles)
+     * 2. If a side file turned out not to be in eventId order, do step 1
+     *    again with that file read into a hash map first
+     * 3. Add all events to the manager in one step
      * 
      * @param manager The EventManager to add loaded events to
      */
     public static void loadEvents(EventManager manager) {
-        // First load basic events from event.csv
-        Map<Integer, MainEvent> basicEvents = loadEventCSV();
-        
-        // Then load recurrent data and link to events
-        Map<Integer, RecurrentEventData> recurrentData = loadRecurrentCSV();
-        
-        // Merge events with recurrent data
-        int maxId = 0;
-        for (Map.Entry<Integer, MainEvent> entry : basicEvents.entrySet()) {
-            int eventId = entry.getKey();
-            MainEvent event = entry.getValue();
-            
-            if (recurrentData.containsKey(eventId)) {
-                // This is a recurring event
-                RecurrentEventData rd = recurrentData.get(eventId);
-                String recurrenceType = convertIntervalToRecurrenceType(rd.getRecurrentInterval());
-                int occurrences = rd.getRecurrentTimes();
-                
-                // Create RecurringEvent from basic event data
-                RecurringEvent recurringEvent = new RecurringEvent(
-                    eventId,
-                    event.getTitle(),
-                    event.getDescription(),
-                    event.getStartDateTime(),
-                    event.getEndDateTime(),
-                    recurrenceType,
-                    occurrences
-                );
-                
-                // Copy reminder if exists
-                if (event.getReminder() != null) {
-                    recurringEvent.setReminder(event.getReminder());
-                }
-                
-                manager.addEvent(recurringEvent);
-            } else {
-                // Normal event
-                manager.addEvent(event);
+        AtomicFileSet.recover(COMMIT_FILE);
+        EventPageFile pages = EventPager.isEnabled()
+            ? EventPageFile.openIfNewer(EVENT_FILE, RECURRENT_FILE, AdditionalFieldsHandler.ADDITIONAL_CSV,
+                                        ReminderFileHandler.REMINDER_CSV)
+            : null;
+        if (pages != null) {
+            if (manager.startPaging(pages)) {
+                return;  // Also moves the ID counter past every event in the file
             }
-            
-            if (eventId > maxId) maxId = eventId;
+            pages.close();  // The manager was not empty; load everything instead
+        }
+
+        List<MainEvent> loaded = readSnapshot();
+        if (loaded == null) {
+            // event.csv, joining the side files as each row is read
+            loaded = loadEventCSV();
         }
         
+        int maxId = 0;
+        for (MainEvent event : loaded) {
+            maxId = Math.max(maxId, event.getEventId());
+        }
+        manager.addEvents(loaded);  // One lock and version bump for the whole file
         manager.setNextEventId(maxId + 1);
-        
-        // Load additional fields after all events are loaded
-        AdditionalFieldsHandler.loadAdditionalFields(manager);
     }
 
     /**
-     * Load events from event.csv
+     * Hand every saved event to an action, one at a time
+     * 
+     * Reads the same data as loadEvents, but event.csv is streamed row by
+     * row and no event is kept, so only the snapshot (when it is used) or
+     * any side file that may be out of order is held in memory.
+     * 
+     * @param action Called once per event, in file order
+     * @return Number of events handed to the action
      */
-    private static Map<Integer, MainEvent> loadEventCSV() {
-        Map<Integer, MainEvent> events = new HashMap<>();
+    public static int scanEvents(Consumer<? super MainEvent> action) {
+        AtomicFileSet.recover(COMMIT_FILE);
+        List<MainEvent> snapshot = readSnapshot();
+        if (snapshot != null) {
+            snapshot.forEach(action);
+            return snapshot.size();
+        }
+
         File file = new File(EVENT_FILE);
-        if (!file.exists()) return events;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(EVENT_FILE))) {
-            String line = br.readLine(); // Skip header
-            while ((line = br.readLine()) != null) {
-                String[] parts = parseCsvLine(line);
-                if (parts.length >= 5) {
-                    int id = Integer.parseInt(parts[0]);
-                    String title = parts[1];
-                    String desc = parts[2];
-                    LocalDateTime start = LocalDateTime.parse(parts[3], formatter);
-                    LocalDateTime end = LocalDateTime.parse(parts[4], formatter);
-                    
-                    MainEvent event = new MainEvent(id, title, desc, start, end);
-                    events.put(id, event);
+        if (!file.exists()) return 0;
+        
+        SideFiles sides = new SideFiles(false);
+        ChunkedCsvReader.RowMapper<MainEvent> mapper = sides.mappers().get();
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), Charset.defaultCharset())) {
+            int[] count = new int[1];
+            new CsvTokenizer(reader).skipHeader().forEachRow(row -> {
+                MainEvent event = mapper.map(row);
+                if (event != null) {
+                    action.accept(event);
+                    count[0]++;
                 }
+            });
+            if (sides.foundOutOfOrder()) {
+                // The events have been handed on already; loadEvents would read the file again
+                System.out.println("Warning: a CSV file changed since the last save is not in eventId order;"
+                                   + " some events were scanned without all of their data");
             }
+            return count[0];
         } catch (IOException ex) {
-            System.out.println("Error loading event.csv: " + ex.getMessage());
+            System.out.println("Error scanning event.csv: " + ex.getMessage());
+            return 0;
+        } finally {
+            mapper.finish();
         }
-        
-        return events;
     }
 
     /**
-     * Load recurring event data from recurrent.csv
+     * Read calendar.snapshot if it is newer than every CSV file
+     * 
+     * @return The events, or null if the CSV files must be read
      */
-    private static Map<Integer, RecurrentEventData> loadRecurrentCSV() {
-        Map<Integer, RecurrentEventData> recurrentData = new HashMap<>();
-        File file = new File(RECURRENT_FILE);
-        if (!file.exists()) return recurrentData;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(RECURRENT_FILE))) {
-            String line = br.readLine(); // Skip header
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length >= 4) {
-                    int eventId = Integer.parseInt(parts[0]);
-                    String interval = parts[1];
-                    int times = Integer.parseInt(parts[2]);
-                    String endDate = parts[3];
-                    
-                    RecurrentEventData rd = new RecurrentEventData(eventId, interval, times, endDate);
-                    recurrentData.put(eventId, rd);
-                }
+    private static List<MainEvent> readSnapshot() {
+        return SnapshotFile.readIfNewer(EVENT_FILE, RECURRENT_FILE,
+                                        AdditionalFieldsHandler.ADDITIONAL_CSV,
+                                        ReminderFileHandler.REMINDER_CSV);
+    }
+
+    /**
+     * SideFiles Class
+     * 
+     * recurrent.csv, additional.csv and reminders.csv, ready to be joined
+     * to event.csv by eventId as it is read (see IdJoin).
+     * 
+     * How It Works:
+     * - A side file no newer than calendar.commit was written by saveEvents,
+     *   in eventId order, and is streamed alongside event.csv; any other
+     *   side file (saved on its own, or edited by hand) may be out of order
+     *   and is read into a hash map on the common pool instead
+     * - Nothing waits for the side files before event.csv is read: streamed
+     *   files are read by the same tasks as the event.csv chunks, and
+     *   hashed ones by other pool threads at the same time
+     * - Each mapper builds a complete event from one event.csv row and the
+     *   matching side rows, in its final form (MainEvent or RecurringEvent,
+     *   with its additional fields and reminder), with its own cursors
+     */
+    private static final class SideFiles {
+        private final IdJoin<RecurrentEventData> recurrent;
+        private final IdJoin<AdditionalFieldsHandler.FieldRow> additional;
+        private final IdJoin<ReminderFileHandler.ReminderRow> reminders;
+        private final boolean useNextFire;  // Whether the reminders' saved next fire times can be trusted
+
+        /**
+         * Constructor - Start reading the side files
+         * 
+         * @param parallel true if event.csv will be read in parallel chunks
+         */
+        SideFiles(boolean parallel) {
+            this(join(RECURRENT_FILE, Charset.defaultCharset(), CSVHandlerCompliant::parseRecurrentRow, parallel),
+                 join(AdditionalFieldsHandler.ADDITIONAL_CSV, StandardCharsets.UTF_8,
+                      AdditionalFieldsHandler::parseRow, parallel),
+                 join(ReminderFileHandler.REMINDER_CSV, StandardCharsets.UTF_8,
+                      ReminderFileHandler::parseRow, parallel));
+        }
+
+        private SideFiles(IdJoin<RecurrentEventData> recurrent,
+                          IdJoin<AdditionalFieldsHandler.FieldRow> additional,
+                          IdJoin<ReminderFileHandler.ReminderRow> reminders) {
+            this.recurrent = recurrent;
+            this.additional = additional;
+            this.reminders = reminders;
+            this.useNextFire = remindersAreCurrent();
+        }
+
+        private static <T> IdJoin<T> join(String name, Charset charset,
+                                          ChunkedCsvReader.RowMapper<T> parser, boolean parallel) {
+            File file = new File(name);
+            return savedInIdOrder(file) ? IdJoin.streamed(file, charset, parser, parallel)
+                                        : IdJoin.hashed(file, charset, parser);
+        }
+
+        /** @return true if a streamed side file turned out not to be in eventId order */
+        boolean foundOutOfOrder() {
+            return recurrent.foundOutOfOrder() || additional.foundOutOfOrder() || reminders.foundOutOfOrder();
+        }
+
+        /** @return The same files, with any found out of order read into hash maps */
+        SideFiles hashOutOfOrder() {
+            return new SideFiles(recurrent.foundOutOfOrder() ? recurrent.hashed() : recurrent,
+                                 additional.foundOutOfOrder() ? additional.hashed() : additional,
+                                 reminders.foundOutOfOrder() ? reminders.hashed() : reminders);
+        }
+
+        /**
+         * Make the row mappers for event.csv
+         * 
+         * @return Makes a new mapper (one per thread or chunk)
+         */
+        Supplier<ChunkedCsvReader.RowMapper<MainEvent>> mappers() {
+            return () -> {
+                IdJoin<RecurrentEventData>.Cursor recurrentRows = recurrent.cursor();
+                IdJoin<AdditionalFieldsHandler.FieldRow>.Cursor additionalRows = additional.cursor();
+                IdJoin<ReminderFileHandler.ReminderRow>.Cursor reminderRows = reminders.cursor();
+                return new ChunkedCsvReader.RowMapper<MainEvent>() {
+                    @Override
+                    public MainEvent map(CsvTokenizer.Row row) {
+                        return buildEvent(row, recurrentRows::find, additionalRows::find, reminderRows::find,
+                                          useNextFire);
+                    }
+
+                    @Override
+                    public void finish() {
+                        recurrentRows.close();
+                        additionalRows.close();
+                        reminderRows.close();
+                    }
+                };
+            };
+        }
+    }
+
+    /**
+     * Check whether a side file was last written by saveEvents
+     * 
+     * saveEvents writes calendar.commit after every file of the set, so a
+     * file no newer than it is the one saveEvents wrote, in eventId order.
+     */
+    private static boolean savedInIdOrder(File file) {
+        long committed = new File(COMMIT_FILE).lastModified();
+        return committed != 0 && file.lastModified() <= committed;
+    }
+
+    /**
+     * Build a complete event from its event.csv row and its side rows
+     * 
+     * @param row The event.csv row (header skipped)
+     * @param recurrent Finds an eventId's recurrent.csv row (null if none)
+     * @param additional Finds an eventId's additional.csv row (null if none)
+     * @param reminders Finds an eventId's reminders.csv row (null if none)
+     * @param useNextFire Whether the reminders' saved next fire times can be trusted
+     * @return The event, in its final form, or null if the row is incomplete
+     */
+    private static MainEvent buildEvent(CsvTokenizer.Row row, IntFunction<RecurrentEventData> recurrent,
+                                        IntFunction<AdditionalFieldsHandler.FieldRow> additional,
+                                        IntFunction<ReminderFileHandler.ReminderRow> reminders,
+                                        boolean useNextFire) {
+        if (row.size() < 5) return null;
+        // ID and times are parsed straight from the read buffer
+        int eventId = row.getInt(0);
+        RecurrentEventData rd = recurrent.apply(eventId);
+        MainEvent event;
+        if (rd != null) {
+            // This is a recurring event
+            event = new RecurringEvent(eventId, row.getString(1), row.getString(2),
+                                       row.getDateTime(3), row.getDateTime(4),
+                                       convertIntervalToRecurrenceType(rd.getRecurrentInterval()),
+                                       rd.getRecurrentTimes());
+        } else {
+            event = new MainEvent(eventId, row.getString(1), row.getString(2),
+                                  row.getDateTime(3), row.getDateTime(4));
+        }
+        addSideRows(event, additional.apply(eventId), reminders.apply(eventId), useNextFire);
+        return event;
+    }
+
+    /**
+     * Give an event its rows from additional.csv and reminders.csv
+     * 
+     * @param event The event, built from its event.csv row
+     * @param fields Its additional fields (null if none)
+     * @param reminder Its reminder (null if none)
+     * @param useNextFire Whether the reminder's saved next fire time can be trusted
+     */
+    private static void addSideRows(MainEvent event, AdditionalFieldsHandler.FieldRow fields,
+                                    ReminderFileHandler.ReminderRow reminder, boolean useNextFire) {
+        if (fields != null) {
+            event.setLocation(fields.location);
+            event.setCategory(fields.category);
+            event.setPriority(fields.priority);
+        }
+        if (reminder != null) {
+            event.setReminder(new Reminder(reminder.minutesBefore));
+            if (useNextFire) {
+                event.savedReminderFire = reminder.nextFire;  // Indexed without expanding the event
+            }
+        }
+    }
+
+    /**
+     * Check whether reminders.csv was written with (or after) the other CSV files
+     * 
+     * Only then do its next fire times match the events; if event.csv or
+     * recurrent.csv was changed afterwards, the reminders are kept but their
+     * next fire times are worked out again.
+     */
+    private static boolean remindersAreCurrent() {
+        long written = new File(ReminderFileHandler.REMINDER_CSV).lastModified();
+        return written != 0 && written >= new File(EVENT_FILE).lastModified()
+                             && written >= new File(RECURRENT_FILE).lastModified();
+    }
+
+    /**
+     * Load every event from event.csv, joined to its side files
+     * 
+     * Large files are parsed in parallel chunks (see ChunkedCsvReader), each
+     * chunk with its own mapper. The events keep their file order.
+     */
+    private static List<MainEvent> loadEventCSV() {
+        File file = new File(EVENT_FILE);
+        if (!file.exists()) return new ArrayList<>();
+
+        Charset charset = Charset.defaultCharset();
+        SideFiles sides = new SideFiles(ChunkedCsvReader.readsInParallel(file, charset));
+        try {
+            List<MainEvent> events = ChunkedCsvReader.readRows(file, charset, sides.mappers());
+            if (sides.foundOutOfOrder()) {
+                // Rows may have been passed over; join those files through hash maps instead
+                sides = sides.hashOutOfOrder();
+                events = ChunkedCsvReader.readRows(file, charset, sides.mappers());
             }
+            return events;
         } catch (IOException ex) {
-            System.out.println("Error loading recurrent.csv: " + ex.getMessage());
+            System.out.println("Error loading event.csv: " + ex.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Read one row of recurrent.csv (header skipped)
+     * 
+     * @return The row, or null if it is incomplete
+     */
+    private static RecurrentEventData parseRecurrentRow(CsvTokenizer.Row row) {
+        if (row.size() < 4) return null;
+        return new RecurrentEventData(row.getInt(0), row.getString(1), row.getInt(2), row.getString(3));
+    }
+
+    /**
+     * Add the events held in a backup of these files to a manager
+     * 
+     * Each section is parsed as it streams in, and nothing is kept but the
+     * events (no file is written or read besides the backup):
+     * - event.csv (the first section of a backup of getFiles()) is built
+     *   row by row into events in the manager
+     * - Sections after it are applied to the stored events by eventId: a
+     *   recurrent.csv row puts a RecurringEvent in place of its event (see
+     *   EventManager.replaceEvent), and additional.csv and reminders.csv
+     *   rows set the event's fields
+     * - A side file listed before event.csv (older text backups come in any
+     *   order) is held in a hash map by eventId until event.csv is read, and
+     *   its rows are joined as each event is built (see buildEvent)
+     * 
+     * Reminder next fire times are worked out again rather than taken from
+     * the backup, which may be old.
+     * 
+     * @param backup The backup's sections (sections for other files are skipped)
+     * @param manager The EventManager to add the events to (normally a new one)
+     * @throws IOException If the backup cannot be read
+     */
+    static void loadBackup(BackupFile.Source backup, EventManager manager) throws IOException {
+        BackupParser parser = new BackupParser(manager);
+        backup.readSections(parser);
+        manager.setNextEventId(parser.maxId + 1);
+    }
+
+    /**
+     * Parses each backed-up file into the manager (see loadBackup)
+     */
+    private static final class BackupParser implements BackupFile.SectionReader {
+        private final EventManager manager;  // Receives the events
+        private boolean eventsRead;  // Whether event.csv has been read (side rows go to the manager then)
+        private int maxId;  // Highest eventId read
+        // Side rows read before event.csv, by eventId
+        private final IntObjectMap<RecurrentEventData> recurrent = new IntObjectMap<>();
+        private final IntObjectMap<AdditionalFieldsHandler.FieldRow> additional = new IntObjectMap<>();
+        private final IntObjectMap<ReminderFileHandler.ReminderRow> reminders = new IntObjectMap<>();
+
+        BackupParser(EventManager manager) {
+            this.manager = manager;
+        }
+
+        @Override
+        public void read(BackupFile.Section section, InputStream contents) throws IOException {
+            switch (section.getName()) {
+                case EVENT_FILE:
+                    readEvents(contents);
+                    break;
+                case RECURRENT_FILE:
+                    readRows(contents, Charset.defaultCharset(), CSVHandlerCompliant::parseRecurrentRow,
+                             recurrent, this::applyRecurrence);
+                    break;
+                case AdditionalFieldsHandler.ADDITIONAL_CSV:
+                    readRows(contents, StandardCharsets.UTF_8, AdditionalFieldsHandler::parseRow, additional,
+                             (fields, id) -> manager.update(id, event -> addSideRows(event, fields, null, false)));
+                    break;
+                case ReminderFileHandler.REMINDER_CSV:
+                    readRows(contents, StandardCharsets.UTF_8, ReminderFileHandler::parseRow, reminders,
+                             (reminder, id) -> manager.update(id, event -> addSideRows(event, null, reminder, false)));
+                    break;
+                default:
+                    break;  // Not one of these files
+            }
+        }
+
+        /**
+         * Build each event.csv row into an event, joined to the side rows
+         * read so far, and add them all to the manager
+         */
+        private void readEvents(InputStream contents) throws IOException {
+            List<MainEvent> loaded = new ArrayList<>();
+            rows(contents, Charset.defaultCharset()).forEachRow(row -> {
+                MainEvent event = buildEvent(row, recurrent::get, additional::get, reminders::get, false);
+                if (event != null) {
+                    loaded.add(event);
+                    maxId = Math.max(maxId, event.getEventId());
+                }
+            });
+            manager.addEvents(loaded);
+            eventsRead = true;
+            recurrent.clear();  // Joined now; later sections go straight to the manager
+            additional.clear();
+            reminders.clear();
+        }
+
+        /**
+         * Parse a side file's rows: into a map by eventId before event.csv
+         * has been read, straight onto the stored events after (either way
+         * a later row for the same ID wins, as in IdJoin)
+         */
+        private <T> void readRows(InputStream contents, Charset charset, ChunkedCsvReader.RowMapper<T> parser,
+                                  IntObjectMap<T> held, ObjIntConsumer<T> apply) throws IOException {
+            rows(contents, charset).forEachRow(row -> {
+                T value = parser.map(row);
+                if (value == null) return;
+                if (eventsRead) {
+                    apply.accept(value, row.getInt(0));
+                } else {
+                    held.put(row.getInt(0), value);
+                }
+            });
+        }
+
+        /**
+         * Make a stored event recurring, keeping its position and details
+         */
+        private void applyRecurrence(RecurrentEventData rd, int eventId) {
+            MainEvent event = manager.findEventById(eventId);
+            if (event == null) return;
+            RecurringEvent series = new RecurringEvent(eventId, event.getTitle(), event.getDescription(),
+                                                       event.getStartDateTime(), event.getEndDateTime(),
+                                                       convertIntervalToRecurrenceType(rd.getRecurrentInterval()),
+                                                       rd.getRecurrentTimes());
+            series.setLocation(event.getLocation());
+            series.setCategory(event.getCategory());
+            series.setPriority(event.getPriority());
+            series.setReminder(event.getReminder());
+            manager.replaceEvent(event, series);
+        }
+
+        private static CsvTokenizer rows(InputStream contents, Charset charset) {
+            return new CsvTokenizer(new InputStreamReader(contents, charset)).skipHeader();
         }
-        
-        return recurrentData;
     }
 
     /**
@@ -261,37 +693,17 @@ public class CSVHandlerCompliant {
     }
 
     /**
-     * Escape CSV values that contain commas or quotes
+     * Escape CSV values that contain commas, quotes or line breaks
+     * 
+     * null is written as an empty field and an empty string as "", so the
+     * two read back apart (see CsvTokenizer.Row.getNullableString).
      */
-    private static String escapeCsvValue(String value) {
+    static String escapeCsvValue(String value) {
         if (value == null) return "";
-        if (value.contains(",") || value.contains("\"")) {
+        if (value.isEmpty()) return "\"\"";
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
             return "\"" + value.replace("\"", "\"\"") + "\"";
         }
         return value;
     }
-
-    /**
-     * Parse CSV line handling quoted values
-     */
-    private static String[] parseCsvLine(String line) {
-        java.util.List<String> values = new java.util.ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder current = new StringBuilder();
-        
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                values.add(current.toString());
-                current = new StringBuilder();
-            } else {
-                current.append(c);
-            }
-        }
-        values.add(current.toString());
-        
-        return values.toArray(new String[0]);
-    }
 }
@@ -9,6 +9,7 @@ import javafx.stage.Stage;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -17,6 +18,9 @@ import java.util.Map;
 
 public class CalendarAppGUI extends Application {
     private EventManager manager;
+    private EventStore store;  // Where the events are kept (picked with -Dcalendar.store)
+    private EventStore.Session session;  // Saves each change to the store
+    private BackupScheduler backups;  // Takes backups into backups/ on its own thread
     private DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
     private CalendarView calendarView;
     private SearchEvent searchEvent;
@@ -31,7 +35,11 @@ public class CalendarAppGUI extends Application {
     @Override
     public void start(Stage primaryStage) {
         manager = new EventManager();
-        CSVHandlerCompliant.loadEvents(manager);
+        store = EventStore.fromSystemProperty();
+        store.load(manager);
+        startSaving();
+        backups = new BackupScheduler(manager, new java.io.File("backups"));
+        backups.start();
         calendarView = new CalendarView();
         searchEvent = new SearchEvent();
 
@@ -85,7 +93,11 @@ public class CalendarAppGUI extends Application {
 
         Button btnExit = createStyledButton("🚪 Save & Exit", "#f44336");
         btnExit.setOnAction(e -> {
-            CSVHandlerCompliant.saveEvents(manager);
+            if (!session.close()) {  // Waits for the last change to reach the disk
+                showAlert(Alert.AlertType.ERROR, "Save & Exit",
+                          "Not every change could be saved; see the console for the error.");
+            }
+            backups.close();  // Lets a backup in progress finish
             stage.close();
         });
 
@@ -583,9 +595,6 @@ public class CalendarAppGUI extends Application {
         dialog.setResultConverter(dialogButton -> {
             if (dialogButton == ButtonType.OK) {
                 try {
-                    event.setTitle(titleField.getText());
-                    event.setDescription(descField.getText());
-
                     LocalDate startDate = startDatePicker.getValue();
                     LocalDate endDate = endDatePicker.getValue();
                     LocalTime startTime = startTimePicker.getValue();
@@ -593,9 +602,16 @@ public class CalendarAppGUI extends Application {
                     if (startDate == null || endDate == null || startTime == null || endTime == null) {
                         throw new IllegalArgumentException("Please choose start/end date and time.");
                     }
+                    LocalDateTime start = LocalDateTime.of(startDate, startTime);
+                    LocalDateTime end = LocalDateTime.of(endDate, endTime);
 
-                    event.setStartDateTime(LocalDateTime.of(startDate, startTime));
-                    event.setEndDateTime(LocalDateTime.of(endDate, endTime));
+                    // All four fields change as one edit, so saves and backups never see half of it
+                    manager.update(event.getEventId(), e -> {
+                        e.setTitle(titleField.getText());
+                        e.setDescription(descField.getText());
+                        e.setStartDateTime(start);
+                        e.setEndDateTime(end);
+                    });
 
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Event updated successfully!");
                     return true;
@@ -681,7 +697,8 @@ public class CalendarAppGUI extends Application {
     }
 
     private void showClashingEventsDialog() {
-        List<MainEvent> clashingEvents = manager.findAllClashingEvents();
+        ClashSweep sweep = manager.findClashes();
+        List<MainEvent> clashingEvents = sweep.getClashingEvents();
         
         if (clashingEvents.isEmpty()) {
             showAlert(Alert.AlertType.INFORMATION, "No Clashes", "✅ Great! You have no clashing events.");
@@ -699,7 +716,10 @@ public class CalendarAppGUI extends Application {
         Label info = new Label("The following events have time conflicts with other events:");
         info.setWrapText(true);
         info.setStyle("-fx-font-weight: bold; -fx-text-fill: " + TEXT_PRIMARY + ";");
-        content.getChildren().add(info);
+        Label summary = new Label(clashingEvents.size() + " event(s), " + sweep.getPairCount() +
+                                  " clashing pair(s) in " + sweep.getClashGroups().size() + " group(s)");
+        summary.setStyle("-fx-text-fill: " + TEXT_MUTED + ";");
+        content.getChildren().addAll(info, summary);
 
         for (MainEvent event : clashingEvents) {
             VBox eventBox = new VBox(5);
@@ -713,7 +733,7 @@ public class CalendarAppGUI extends Application {
             eventTime.setStyle("-fx-text-fill: " + TEXT_MUTED + ";");
             
             // Find what it clashes with
-            List<MainEvent> clashes = manager.findClashingEvents(event);
+            List<MainEvent> clashes = sweep.getClashesOf(event);
             Label clashInfo = new Label("⚠️ Clashes with: " + clashes.size() + " event(s)");
             clashInfo.setStyle("-fx-text-fill: " + ACCENT + ";");
             
@@ -846,9 +866,9 @@ public class CalendarAppGUI extends Application {
         int lastDayOfMonth = firstDay.lengthOfMonth();
         int startDayOfWeek = firstDay.getDayOfWeek().getValue() % 7; // 0 = Sunday
 
-        // Map events by date for quick lookup
+        // Map events by date for quick lookup (only this month's occurrences are expanded)
         java.util.Map<Integer, List<MainEvent>> eventsByDate = new java.util.HashMap<>();
-        for (MainEvent event : manager.getAllEventsExpanded()) {
+        for (MainEvent event : manager.getOccurrencesInMonth(YearMonth.of(year, month))) {
             if (event.getStartDateTime().getYear() == year && event.getStartDateTime().getMonthValue() == month) {
                 int day = event.getStartDateTime().getDayOfMonth();
                 eventsByDate.computeIfAbsent(day, k -> new ArrayList<>()).add(event);
@@ -983,6 +1003,9 @@ public class CalendarAppGUI extends Application {
 
         String[] dayNames = {"Sunday", "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
         LocalDate currentDay = weekStart;
+        // One query for the whole week; each day picks the occurrences starting on it
+        List<MainEvent> weekEvents = manager.getOccurrencesBetween(
+            weekStart.atStartOfDay(), weekEnd.plusDays(1).atStartOfDay());
 
         for (int i = 0; i < 7; i++) {
             VBox dayBox = new VBox(8);
@@ -994,7 +1017,7 @@ public class CalendarAppGUI extends Application {
             dayBox.getChildren().add(dayLabel);
 
             boolean hasEvent = false;
-            for (MainEvent event : manager.getAllEventsExpanded()) {
+            for (MainEvent event : weekEvents) {
                 if (event.getStartDateTime().toLocalDate().equals(finalCurrentDay)) {
                     VBox eventItemBox = new VBox(3);
                     eventItemBox.setPadding(new Insets(5, 0, 0, 20));
@@ -1069,7 +1092,7 @@ public class CalendarAppGUI extends Application {
         content.getChildren().add(dateLabel);
 
         List<MainEvent> dailyEvents = new ArrayList<>();
-        for (MainEvent event : manager.getAllEventsExpanded()) {
+        for (MainEvent event : manager.getOccurrencesBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
             if (event.getStartDateTime().toLocalDate().equals(date)) {
                 dailyEvents.add(event);
             }
@@ -1160,7 +1183,7 @@ public class CalendarAppGUI extends Application {
         content.getChildren().add(monthLabel);
 
         List<MainEvent> monthlyEvents = new ArrayList<>();
-        for (MainEvent event : manager.getAllEventsExpanded()) {
+        for (MainEvent event : manager.getOccurrencesInMonth(YearMonth.of(year, month))) {
             if (event.getStartDateTime().getYear() == year && event.getStartDateTime().getMonthValue() == month) {
                 monthlyEvents.add(event);
             }
@@ -1296,7 +1319,7 @@ public class CalendarAppGUI extends Application {
         textArea.setWrapText(true);
 
         java.util.List<MainEvent> results = new java.util.ArrayList<>();
-        for (MainEvent event : manager.getAllEventsExpanded()) {
+        for (MainEvent event : manager.getOccurrencesBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
             if (event.getStartDateTime().toLocalDate().equals(date)) {
                 results.add(event);
             }
@@ -1362,10 +1385,20 @@ public class CalendarAppGUI extends Application {
         textArea.setWrapText(true);
 
         java.util.List<MainEvent> results = new java.util.ArrayList<>();
-        for (MainEvent event : manager.getAllEventsExpanded()) {
-            LocalDate eventDate = event.getStartDateTime().toLocalDate();
-            if (!eventDate.isBefore(startDate) && !eventDate.isAfter(endDate)) {
-                results.add(event);
+        EventColumns columns = manager.getColumns();
+        if (columns != null) {
+            // Binary search on the start column, then materialise only the matches
+            int[] rows = columns.rowsStartingBetween(EventColumns.toEpochMinute(startDate.atStartOfDay()),
+                                                     EventColumns.toEpochMinute(endDate.plusDays(1).atStartOfDay()));
+            results.addAll(columns.getEvents(rows));
+        } else {
+            java.util.Iterator<MainEvent> rangeOccurrences = manager.occurrencesBetween(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+            while (rangeOccurrences.hasNext()) {
+                MainEvent event = rangeOccurrences.next();
+                LocalDate eventDate = event.getStartDateTime().toLocalDate();
+                if (!eventDate.isBefore(startDate) && !eventDate.isAfter(endDate)) {
+                    results.add(event);
+                }
             }
         }
 
@@ -1527,7 +1560,7 @@ public class CalendarAppGUI extends Application {
                     String categoryFilter = categoryBox.getValue().equals("All Categories") ? null : categoryBox.getValue();
                     String priorityFilter = priorityBox.getValue().equals("All Priorities") ? null : priorityBox.getValue();
 
-                    java.util.List<MainEvent> results = filterAdvanced(titleQuery, descQuery, startDate, endDate, 
+                    java.util.List<MainEvent> results = AdvancedSearch.filter(manager, titleQuery, descQuery, startDate, endDate, 
                                                                        startTime, endTime, remindersOnly.isSelected(),
                                                                        locationQuery, categoryFilter, priorityFilter);
                     showAdvancedSearchResults(results, titleQuery, descQuery, startDate, endDate, startTime, endTime, remindersOnly.isSelected());
@@ -1542,66 +1575,6 @@ public class CalendarAppGUI extends Application {
         dialog.showAndWait();
     }
 
-    private java.util.List<MainEvent> filterAdvanced(String titleQuery, String descQuery,
-                                                     LocalDate startDate, LocalDate endDate,
-                                                     LocalTime startTime, LocalTime endTime,
-                                                     boolean remindersOnly,
-                                                     String locationQuery, String categoryFilter, String priorityFilter) {
-        java.util.List<MainEvent> results = new java.util.ArrayList<>();
-
-        for (MainEvent event : manager.getAllEventsExpanded()) {
-            boolean match = true;
-
-            if (titleQuery != null && !titleQuery.isEmpty()) {
-                match &= event.getTitle().toLowerCase().contains(titleQuery.toLowerCase());
-            }
-
-            if (descQuery != null && !descQuery.isEmpty()) {
-                match &= event.getDescription() != null && event.getDescription().toLowerCase().contains(descQuery.toLowerCase());
-            }
-
-            LocalDate eventDate = event.getStartDateTime().toLocalDate();
-            LocalTime eventTime = event.getStartDateTime().toLocalTime();
-
-            if (startDate != null && eventDate.isBefore(startDate)) {
-                match = false;
-            }
-            if (endDate != null && eventDate.isAfter(endDate)) {
-                match = false;
-            }
-
-            if (startTime != null && eventTime.isBefore(startTime)) {
-                match = false;
-            }
-            if (endTime != null && eventTime.isAfter(endTime)) {
-                match = false;
-            }
-
-            if (remindersOnly && event.getReminder() == null) {
-                match = false;
-            }
-
-            // Additional field filters
-            if (locationQuery != null && !locationQuery.isEmpty()) {
-                match &= event.getLocation() != null && event.getLocation().toLowerCase().contains(locationQuery.toLowerCase());
-            }
-
-            if (categoryFilter != null) {
-                match &= event.getCategory() != null && event.getCategory().equals(categoryFilter);
-            }
-
-            if (priorityFilter != null) {
-                match &= event.getPriority() != null && event.getPriority().equals(priorityFilter);
-            }
-
-            if (match) {
-                results.add(event);
-            }
-        }
-
-        return results;
-    }
-
     private void showAdvancedSearchResults(java.util.List<MainEvent> results, String titleQuery, String descQuery,
                                            LocalDate startDate, LocalDate endDate,
                                            LocalTime startTime, LocalTime endTime,
@@ -1779,7 +1752,8 @@ public class CalendarAppGUI extends Application {
                                 break;
                         }
 
-                        event.setReminder(new Reminder(minutesBefore));
+                        Reminder reminder = new Reminder(minutesBefore);
+                        manager.update(event.getEventId(), e -> e.setReminder(reminder));
                         showAlert(Alert.AlertType.INFORMATION, "Success", "Reminder set for '" + event.getTitle() + "'");
                         return true;
                     } else {
@@ -1890,7 +1864,7 @@ public class CalendarAppGUI extends Application {
                     MainEvent event = manager.findEventById(eventId);
                     if (event != null) {
                         if (event.getReminder() != null) {
-                            event.setReminder(null);
+                            manager.update(event.getEventId(), e -> e.setReminder(null));
                             showAlert(Alert.AlertType.INFORMATION, "Success", "Reminder removed from '" + event.getTitle() + "'");
                             return true;
                         } else {
@@ -2035,9 +2009,11 @@ public class CalendarAppGUI extends Application {
 
         try {
             if (viewType.equals("Weekly List View")) {
-                calendarView.displayWeeklyList(manager.getAllEventsExpanded(), date);
+                LocalDate weekStart = date.minusDays(date.getDayOfWeek().getValue() % 7);
+                calendarView.displayWeeklyList(manager.getOccurrencesBetween(
+                    weekStart.atStartOfDay(), weekStart.plusDays(7).atStartOfDay()), date);
             } else if (viewType.equals("Monthly Calendar View")) {
-                calendarView.displayMonthlyView(manager.getAllEventsExpanded(), 
+                calendarView.displayMonthlyView(manager.getOccurrencesInMonth(YearMonth.from(date)),
                     date.getYear(), date.getMonthValue());
             }
             
@@ -2070,6 +2046,9 @@ public class CalendarAppGUI extends Application {
         Button btnCreateBackup = createStyledButton("📦 Create Backup", "#4CAF50");
         btnCreateBackup.setOnAction(e -> createBackup());
 
+        Label lastBackup = new Label(describeLastBackup());
+        lastBackup.setStyle("-fx-font-size: 14; -fx-text-fill: " + TEXT_MUTED + ";");
+
         Button btnRestoreBackup = createStyledButton("♻️ Restore from Backup", "#2196F3");
         btnRestoreBackup.setOnAction(e -> restoreBackup());
 
@@ -2079,7 +2058,7 @@ public class CalendarAppGUI extends Application {
             stage.centerOnScreen();
         });
 
-        vbox.getChildren().addAll(notificationBanner, title, new Separator(), btnCreateBackup, btnRestoreBackup, btnBack);
+        vbox.getChildren().addAll(notificationBanner, title, lastBackup, new Separator(), btnCreateBackup, btnRestoreBackup, btnBack);
 
         StackPane root = new StackPane(vbox);
         root.setStyle(APP_GRADIENT);
@@ -2090,75 +2069,204 @@ public class CalendarAppGUI extends Application {
         stage.centerOnScreen();
     }
 
+    /**
+     * Describe the automatic backups and the last backup taken, for the
+     * Backup & Restore menu
+     */
+    private String describeLastBackup() {
+        String schedule = backups.getIntervalMinutes() == 0
+            ? "Automatic backups are off"
+            : "Automatic backups every " + backups.getIntervalMinutes() + " min";
+        if (backups.getLastError() != null) {
+            return schedule + " — last backup failed: " + backups.getLastError();
+        }
+        if (backups.getLastBackup() == null) {
+            return schedule + " — none taken since the app started";
+        }
+        LocalDateTime taken = LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(backups.getLastTime()),
+                                                      java.time.ZoneId.systemDefault());
+        return schedule + " — last: " + backups.getLastBackup().getName() + " at " + taken.format(dateTimeFormatter)
+               + " (" + Math.max(1, backups.getLastSize() / 1024) + " KB in " + backups.getLastDurationMillis() + " ms"
+               + (backups.getLastPruned() > 0 ? ", " + backups.getLastPruned() + " old backups removed" : "") + ")";
+    }
+
+    /**
+     * Start saving changes to the store (for the CSV store, through the
+     * journal; see CsvEventStore.open), warning the user if that stops
+     * working
+     */
+    private void startSaving() {
+        session = store.open(manager);
+        session.setErrorHandler(message -> javafx.application.Platform.runLater(
+                () -> showAlert(Alert.AlertType.WARNING, "Saving Changes", message)));
+    }
+
     private void createBackup() {
-        TextInputDialog dialog = new TextInputDialog("backup_" + java.time.LocalDate.now().toString() + ".txt");
+        TextInputDialog dialog = new TextInputDialog("backup_"  // To the minute, so a second backup today does not replace the first
+            + java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd_HHmm"))
+            + BackupFile.EXTENSION);
         dialog.setTitle("Create Backup");
         dialog.setHeaderText("Create Backup File");
         dialog.setContentText("Enter backup filename:");
 
         java.util.Optional<String> result = dialog.showAndWait();
         result.ifPresent(filename -> {
-            try {
-                // First save current state to CSV files
-                CSVHandlerCompliant.saveEvents(manager);
-                
-                // Create backup directory if it doesn't exist
-                java.io.File backupDir = new java.io.File("backups");
-                if (!backupDir.exists()) {
-                    backupDir.mkdir();
-                }
-                
-                String backupPath = "backups/" + filename;
-                
-                // Create backup using BackupManager (copy from root folder logic)
-                java.nio.file.Path backup = java.nio.file.Paths.get(backupPath);
-                if (backup.getParent() != null) {
-                    java.nio.file.Files.createDirectories(backup.getParent());
+            String backupPath = "backups/" + filename;
+
+            // Only the events changed since the last backup, unless a full one is due; written off the UI thread
+            backups.backup(backupPath).whenComplete((written, error) -> {
+                if (error != null) {
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    javafx.application.Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Backup Failed", 
+                             "Error creating backup: " + cause.getMessage()));
+                    return;
                 }
+                String kind = written.isFull()
+                    ? "Full backup of " + written.getEventCount() + " events"
+                    : "Differential backup: " + written.getChangedCount() + " changed, "
+                      + written.getDeletedCount() + " deleted since " + written.getParent();
+                String message = "Backup successfully created at: " + backupPath
+                    + " (" + new java.io.File(backupPath).length() / 1024 + " KB)\n" + kind;
+                javafx.application.Platform.runLater(() -> showAlert(Alert.AlertType.INFORMATION, "Backup Created", message));
+            });
+        });
+    }
 
-                try (java.io.BufferedWriter writer = java.nio.file.Files.newBufferedWriter(backup, java.nio.charset.StandardCharsets.UTF_8)) {
-                    writer.write("--- event.csv ---\n");
-                    copyFileToBackup("event.csv", writer);
-                    writer.write("\n--- recurrent.csv ---\n");
-                    copyFileToBackup("recurrent.csv", writer);
-                    writer.write("\n--- additional.csv ---\n");
-                    copyFileToBackup("additional.csv", writer);
-                    writer.flush();
+    /**
+     * Let the user pick a backup from the catalog (listed and filtered
+     * without opening any backup), or any other file
+     *
+     * @return The backup chosen, or null if none
+     */
+    private java.io.File chooseBackup() {
+        BackupCatalog catalog = backups.getCatalog();
+        Dialog<java.io.File> dialog = new Dialog<>();
+        dialog.setTitle("Select Backup");
+        dialog.setHeaderText("Choose a backup to restore");
+
+        DateTimeFormatter dayFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        javafx.collections.ObservableList<BackupCatalog.Entry> entries =
+            javafx.collections.FXCollections.observableArrayList(catalog.getEntries());
+        javafx.collections.transformation.FilteredList<BackupCatalog.Entry> shown =
+            new javafx.collections.transformation.FilteredList<>(entries);
+
+        TableView<BackupCatalog.Entry> table = new TableView<>(shown);
+        table.setPrefHeight(320);
+        table.setPrefWidth(820);
+
+        TableColumn<BackupCatalog.Entry, String> takenCol = new TableColumn<>("Taken");
+        takenCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(
+            backupTime(data.getValue()).format(dateTimeFormatter)));
+        takenCol.setPrefWidth(140);
+
+        TableColumn<BackupCatalog.Entry, String> fileCol = new TableColumn<>("File");
+        fileCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getFile()));
+        fileCol.setPrefWidth(220);
+
+        TableColumn<BackupCatalog.Entry, String> kindCol = new TableColumn<>("Type");
+        kindCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(
+            data.getValue().isFull() ? "Full" : "Differential (" + data.getValue().getDepth() + ")"));
+        kindCol.setPrefWidth(110);
+
+        TableColumn<BackupCatalog.Entry, Integer> eventsCol = new TableColumn<>("Events");
+        eventsCol.setCellValueFactory(data -> new javafx.beans.property.SimpleObjectProperty<>(data.getValue().getEventCount()));
+        eventsCol.setPrefWidth(80);
+
+        TableColumn<BackupCatalog.Entry, String> spanCol = new TableColumn<>("Events span");
+        spanCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(
+            data.getValue().getFirst() == null ? "-"
+                : data.getValue().getFirst().format(dayFormatter) + " to " + data.getValue().getLast().format(dayFormatter)));
+        spanCol.setPrefWidth(180);
+
+        TableColumn<BackupCatalog.Entry, String> sizeCol = new TableColumn<>("Size");
+        sizeCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(
+            Math.max(1, data.getValue().getSize() / 1024) + " KB"));
+        sizeCol.setPrefWidth(80);
+
+        table.getColumns().setAll(Arrays.asList(takenCol, fileCol, kindCol, eventsCol, spanCol, sizeCol));
+
+        // Filter by file name or the day a backup was taken or covers
+        TextField filterField = new TextField();
+        filterField.setPromptText("Filter by name or date (yyyy-MM-dd)");
+        CheckBox fullOnly = new CheckBox("Full backups only");
+        Runnable applyFilter = () -> {
+            String query = filterField.getText().trim().toLowerCase();
+            shown.setPredicate(entry -> {
+                if (fullOnly.isSelected() && !entry.isFull()) return false;
+                if (query.isEmpty()) return true;
+                if (entry.getFile().toLowerCase().contains(query)
+                    || backupTime(entry).format(dateTimeFormatter).contains(query)) return true;
+                try {
+                    LocalDate day = LocalDate.parse(query);
+                    return entry.getFirst() != null && !day.isBefore(entry.getFirst().toLocalDate())
+                           && !day.isAfter(entry.getLast().toLocalDate());
+                } catch (java.time.format.DateTimeParseException ex) {
+                    return false;
                 }
-                
-                showAlert(Alert.AlertType.INFORMATION, "Backup Created", 
-                         "Backup successfully created at: " + backupPath);
-            } catch (Exception ex) {
-                showAlert(Alert.AlertType.ERROR, "Backup Failed", 
-                         "Error creating backup: " + ex.getMessage());
+            });
+        };
+        filterField.textProperty().addListener((obs, oldV, newV) -> applyFilter.run());
+        fullOnly.selectedProperty().addListener((obs, oldV, newV) -> applyFilter.run());
+
+        // Preview of the selected backup, from the catalog alone
+        Label preview = new Label(catalog.getEntries().isEmpty()
+            ? "No backups catalogued yet; use \"Other File...\" for older backups" : "Select a backup to see its details");
+        preview.setWrapText(true);
+
+        // Shown from the catalog at once, then again once it is brought up to date on the backup thread
+        backups.refreshCatalog().thenAccept(refreshed -> javafx.application.Platform.runLater(() -> {
+            entries.setAll(refreshed);
+            if (!refreshed.isEmpty() && table.getSelectionModel().getSelectedItem() == null) {
+                preview.setText("Select a backup to see its details");
             }
+        }));
+        table.getSelectionModel().selectedItemProperty().addListener((obs, oldV, entry) -> {
+            if (entry == null) return;
+            preview.setText(entry.getEventCount() + " events"
+                + (entry.isFull() ? " (full backup)"
+                                  : ", " + entry.getChangedCount() + " changed and " + entry.getDeletedCount()
+                                    + " deleted since " + entry.getParent())
+                + "\nTaken " + backupTime(entry).format(dateTimeFormatter)
+                + ", " + entry.getSize() + " bytes, CRC32C " + String.format("%08x", entry.getChecksum()));
         });
-    }
 
-    private void copyFileToBackup(String sourceFile, java.io.BufferedWriter writer) throws java.io.IOException {
-        java.nio.file.Path path = java.nio.file.Paths.get(sourceFile);
-        if (!java.nio.file.Files.exists(path)) {
-            writer.write("# (file missing)\n");
-            return;
-        }
-        try (java.io.BufferedReader reader = java.nio.file.Files.newBufferedReader(path, java.nio.charset.StandardCharsets.UTF_8)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                writer.write(line);
-                writer.write('\n');
+        HBox filters = new HBox(10, filterField, fullOnly);
+        filters.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
+        VBox content = new VBox(10, filters, table, preview);
+        content.setPadding(new Insets(10));
+        dialog.getDialogPane().setContent(content);
+
+        ButtonType restoreType = new ButtonType("Restore", ButtonBar.ButtonData.OK_DONE);
+        ButtonType otherType = new ButtonType("Other File...", ButtonBar.ButtonData.LEFT);
+        dialog.getDialogPane().getButtonTypes().addAll(restoreType, otherType, ButtonType.CANCEL);
+        dialog.getDialogPane().lookupButton(restoreType).disableProperty().bind(
+            table.getSelectionModel().selectedItemProperty().isNull());
+
+        dialog.setResultConverter(btn -> {
+            if (btn == restoreType) {
+                return catalog.fileOf(table.getSelectionModel().getSelectedItem());
             }
-        }
+            if (btn == otherType) {
+                javafx.stage.FileChooser fileChooser = new javafx.stage.FileChooser();
+                fileChooser.setTitle("Select Backup File");
+                fileChooser.setInitialDirectory(new java.io.File("backups"));
+                fileChooser.getExtensionFilters().add(
+                    new javafx.stage.FileChooser.ExtensionFilter("Backup Files", "*" + BackupFile.EXTENSION, "*.txt")
+                );
+                return fileChooser.showOpenDialog(null);
+            }
+            return null;
+        });
+
+        return dialog.showAndWait().orElse(null);
+    }
+
+    private LocalDateTime backupTime(BackupCatalog.Entry entry) {
+        return LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(entry.getCreated()), java.time.ZoneId.systemDefault());
     }
 
     private void restoreBackup() {
-        javafx.stage.FileChooser fileChooser = new javafx.stage.FileChooser();
-        fileChooser.setTitle("Select Backup File");
-        fileChooser.setInitialDirectory(new java.io.File("backups"));
-        fileChooser.getExtensionFilters().add(
-            new javafx.stage.FileChooser.ExtensionFilter("Backup Files", "*.txt")
-        );
-        
-        java.io.File selectedFile = fileChooser.showOpenDialog(null);
+        java.io.File selectedFile = chooseBackup();
         if (selectedFile != null) {
             // Create dialog with Append/Overwrite options
             Dialog<String> restoreDialog = new Dialog<>();
@@ -2197,41 +2305,51 @@ public class CalendarAppGUI extends Application {
                 boolean appendMode = mode.get().equals("APPEND");
                 
                 try {
-                    // Extract sections from backup file
-                    java.util.List<String> allLines = java.nio.file.Files.readAllLines(
-                        selectedFile.toPath(), java.nio.charset.StandardCharsets.UTF_8);
-                    
-                    java.util.Map<String, java.util.List<String>> sections = extractSectionsFromBackup(allLines);
+                    // Parse the whole backup (recurrence, reminders and additional fields included)
+                    // into a staging manager; the current events are not touched until it has been read
+                    EventManager staging = new EventManager();
+                    if (BackupChain.isChainBackup(selectedFile)) {
+                        // Full or differential backup of the events: checked against its catalogued
+                        // checksum, then resolved through its chain, each file checked as it is read
+                        backups.getCatalog().verify(selectedFile);
+                        BackupChain.load(selectedFile, staging);
+                    } else if (BackupFile.isBackupFile(selectedFile)) {
+                        // Copy of the store's files: checked in full first
+                        BackupFile.verify(selectedFile);
+                        store.loadBackup(BackupFile.source(selectedFile), staging);
+                    } else {
+                        // Older text backups are read into memory as before
+                        java.util.List<String> allLines = java.nio.file.Files.readAllLines(
+                            selectedFile.toPath(), java.nio.charset.StandardCharsets.UTF_8);
+                        store.loadBackup(textSections(extractSectionsFromBackup(allLines)), staging);
+                    }
                     
+                    String message;
                     if (appendMode) {
-                        // APPEND MODE: Merge with existing events
-                        appendBackupToExisting(sections);
+                        // APPEND MODE: Merge with existing events, numbered after them
+                        int added = manager.addAll(staging, false);  // Saved through the session like any new events
+                        message = added + " backup events successfully appended to current events!";
                     } else {
                         // OVERWRITE MODE: Replace all events
-                        // Write event.csv
-                        java.util.List<String> eventLines = sections.getOrDefault("event.csv", java.util.Collections.emptyList());
-                        java.nio.file.Files.write(java.nio.file.Paths.get("event.csv"), eventLines, 
-                                                java.nio.charset.StandardCharsets.UTF_8);
-                        
-                        // Write recurrent.csv
-                        java.util.List<String> recurrentLines = sections.getOrDefault("recurrent.csv", java.util.Collections.emptyList());
-                        java.nio.file.Files.write(java.nio.file.Paths.get("recurrent.csv"), recurrentLines, 
-                                                java.nio.charset.StandardCharsets.UTF_8);
-                        
-                        // Write additional.csv
-                        java.util.List<String> additionalLines = sections.getOrDefault("additional.csv", java.util.Collections.emptyList());
-                        if (!additionalLines.isEmpty()) {
-                            java.nio.file.Files.write(java.nio.file.Paths.get("additional.csv"), additionalLines, 
-                                                    java.nio.charset.StandardCharsets.UTF_8);
+                        // Changes made before the restore must not be replayed or saved over the restored events
+                        session.discard();
+                        boolean saved;
+                        try {
+                            manager.clear();
+                            manager.addAll(staging, true);
+                            saved = store.save(manager.getAllEvents());  // Rewrites every file of the store
+                        } finally {
+                            startSaving();
                         }
-                        
-                        // Reload events from restored CSV files
-                        manager.getAllEvents().clear();
-                        CSVHandlerCompliant.loadEvents(manager);
+                        if (!saved) {
+                            showAlert(Alert.AlertType.WARNING, "Restore Not Saved", 
+                                     "The backup was restored but could not be saved; see the console for details.");
+                            return;
+                        }
+                        message = "Events successfully restored from backup!";
                     }
                     
-                    showAlert(Alert.AlertType.INFORMATION, "Restore Complete", 
-                             "Events successfully restored from backup!");
+                    showAlert(Alert.AlertType.INFORMATION, "Restore Complete", message);
                 } catch (Exception ex) {
                     showAlert(Alert.AlertType.ERROR, "Restore Failed", 
                              "Error restoring backup: " + ex.getMessage());
@@ -2240,6 +2358,21 @@ public class CalendarAppGUI extends Application {
         }
     }
 
+    /**
+     * Hand the sections of a text backup to a store as if they came from a
+     * compressed one (see EventStore.loadBackup)
+     */
+    private BackupFile.Source textSections(java.util.Map<String, java.util.List<String>> sections) {
+        return reader -> {
+            for (java.util.Map.Entry<String, java.util.List<String>> section : sections.entrySet()) {
+                byte[] contents = (String.join("\n", section.getValue()) + "\n")
+                    .getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                reader.read(new BackupFile.Section(section.getKey(), contents.length, 0),
+                            new java.io.ByteArrayInputStream(contents));
+            }
+        };
+    }
+
     private java.util.Map<String, java.util.List<String>> extractSectionsFromBackup(java.util.List<String> lines) {
         java.util.Map<String, java.util.List<String>> sections = new java.util.HashMap<>();
         String currentSection = null;
@@ -2264,70 +2397,17 @@ public class CalendarAppGUI extends Application {
         return sections;
     }
 
-    private void appendBackupToExisting(java.util.Map<String, java.util.List<String>> backupSections) throws java.io.IOException {
-        // Load backup data into a temporary EventManager
-        EventManager tempManager = new EventManager();
-        
-        // Write backup to temporary CSV files
-        java.nio.file.Path tempEventPath = java.nio.file.Paths.get("temp_event.csv");
-        java.nio.file.Path tempRecurrentPath = java.nio.file.Paths.get("temp_recurrent.csv");
-        java.nio.file.Path tempAdditionalPath = java.nio.file.Paths.get("temp_additional.csv");
-        
-        try {
-            // Write temporary files
-            java.util.List<String> eventLines = backupSections.getOrDefault("event.csv", java.util.Collections.emptyList());
-            java.nio.file.Files.write(tempEventPath, eventLines, java.nio.charset.StandardCharsets.UTF_8);
-            
-            java.util.List<String> recurrentLines = backupSections.getOrDefault("recurrent.csv", java.util.Collections.emptyList());
-            java.nio.file.Files.write(tempRecurrentPath, recurrentLines, java.nio.charset.StandardCharsets.UTF_8);
-            
-            java.util.List<String> additionalLines = backupSections.getOrDefault("additional.csv", java.util.Collections.emptyList());
-            if (!additionalLines.isEmpty()) {
-                java.nio.file.Files.write(tempAdditionalPath, additionalLines, java.nio.charset.StandardCharsets.UTF_8);
-            }
-            
-            // Load from temporary files using CSVHandlerCompliant logic
-            java.io.BufferedReader eventReader = new java.io.BufferedReader(
-                new java.io.FileReader(tempEventPath.toFile()));
-            eventReader.readLine(); // Skip header
-            
-            String line;
-            while ((line = eventReader.readLine()) != null) {
-                String[] parts = line.split(",", 5);
-                if (parts.length >= 5) {
-                    int eventId = Integer.parseInt(parts[0]);
-                    String title = parts[1];
-                    String description = parts[2];
-                    LocalDateTime start = LocalDateTime.parse(parts[3]);
-                    LocalDateTime end = LocalDateTime.parse(parts[4]);
-                    
-                    MainEvent event = new MainEvent(manager.generateEventId(), title, description, start, end);
-                    manager.addEvent(event);
-                }
-            }
-            eventReader.close();
-            
-            showAlert(Alert.AlertType.INFORMATION, "Append Complete", 
-                     "Backup events successfully appended to current events!");
-            
-        } finally {
-            // Clean up temporary files
-            java.nio.file.Files.deleteIfExists(tempEventPath);
-            java.nio.file.Files.deleteIfExists(tempRecurrentPath);
-            java.nio.file.Files.deleteIfExists(tempAdditionalPath);
-        }
-    }
-
     private void showEventStatisticsDialog() {
         Dialog<Void> dialog = new Dialog<>();
         dialog.setTitle("📊 Event Statistics");
         dialog.setHeaderText("Event Analytics & Insights");
         
-        // Get all expanded events for accurate statistics
-        List<MainEvent> allEvents = manager.getAllEventsExpanded();
-        
-        // Generate statistics report
-        String report = EventStatistics.generateStatisticsReport(allEvents);
+        // Statistics cover every expanded occurrence; the columnar store is
+        // scanned when available, otherwise the event objects are
+        EventColumns columns = manager.getColumns();
+        String report = columns != null
+            ? EventStatistics.generateStatisticsReport(columns)
+            : EventStatistics.generateStatisticsReport(manager.getAllEventsExpanded());
         
         // Create TextArea to display statistics
         TextArea statsArea = new TextArea(report);
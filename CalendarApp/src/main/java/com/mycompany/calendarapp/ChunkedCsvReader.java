@@ -0,0 +1,339 @@
+package com.mycompany.calendarapp;
+
+import java.io.EOFException;  // File shrank while being read
+import java.io.File;  // The CSV file
+import java.io.FileInputStream;  // Small files are read in one pass
+import java.io.IOException;  // For read errors
+import java.io.InputStreamReader;  // Decodes small files
+import java.io.Reader;  // Character source for small files
+import java.io.UncheckedIOException;  // Carries read errors out of pool tasks
+import java.nio.ByteBuffer;  // Bytes read from the file
+import java.nio.CharBuffer;  // Decoded chunk
+import java.nio.channels.FileChannel;  // For positional reads
+import java.nio.charset.Charset;  // File encoding
+import java.nio.charset.CodingErrorAction;  // Same bad-byte handling as FileReader
+import java.nio.charset.StandardCharsets;  // Known ASCII-compatible encodings
+import java.nio.file.StandardOpenOption;  // For opening the channel
+import java.util.ArrayList;  // For result lists
+import java.util.Arrays;  // For comparing encoded bytes
+import java.util.List;  // List interface
+import java.util.concurrent.Callable;  // Pool tasks
+import java.util.concurrent.ExecutionException;  // Failed pool tasks
+import java.util.concurrent.ForkJoinPool;  // Runs the chunks in parallel
+import java.util.concurrent.Future;  // Pool task results
+import java.util.function.Supplier;  // Makes one mapper per chunk
+
+/**
+ * ChunkedCsvReader Class
+ *
+ * Reads a large CSV file on several cores. The file is cut into chunks at
+ * line breaks, and each chunk is read, decoded and tokenized on the common
+ * ForkJoinPool. The rows come back in file order.
+ *
+ * How It Works:
+ * 1. The file is split into equal byte ranges, and the quote characters in
+ *    each range are counted in parallel
+ * 2. From those counts, every range knows whether it starts inside a quoted
+ *    field, so each chunk boundary is moved forward to the first line break
+ *    that is outside quotes (quoted line breaks stay inside their row)
+ * 3. Each chunk is decoded and handed to a CsvTokenizer in parallel; a
+ *    RowMapper turns its rows into objects
+ * 4. The per-chunk lists are joined in chunk order
+ *
+ * The file is read with positional FileChannel reads into heap buffers rather
+ * than memory-mapped: a mapping stays open until the garbage collector frees
+ * it, and on Windows an open mapping stops the file being replaced by the
+ * next save (see AtomicFile).
+ *
+ * Files smaller than PARALLEL_THRESHOLD, and encodings where a byte 0x0A or
+ * 0x22 might be part of another character, are read on the calling thread
+ * through an InputStreamReader instead, with the same results.
+ */
+public final class ChunkedCsvReader {
+
+    /**
+     * Turns a CSV row into an object
+     *
+     * @param <T> The object type
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        /**
+         * Map one row (called on pool threads for large files)
+         *
+         * @param row The current row (only valid during this call)
+         * @return The object, or null to leave the row out
+         */
+        T map(CsvTokenizer.Row row);
+
+        /**
+         * Called once after the mapper's last row, on the same thread, so it
+         * can release anything it holds open (such as IdJoin cursors)
+         */
+        default void finish() {
+        }
+    }
+
+    /** Files at least this big (in bytes) are read in parallel */
+    public static final long PARALLEL_THRESHOLD = 4L * 1024 * 1024;
+
+    private static final long TARGET_CHUNK_SIZE = 8L * 1024 * 1024;  // Bytes per chunk before rounding to a line
+    private static final int MAX_CHUNKS_PER_THREAD = 4;  // More chunks than threads keeps every core busy
+    private static final int SCAN_BLOCK_SIZE = 64 * 1024;  // Bytes read at a time when looking for quotes and line breaks
+
+    private ChunkedCsvReader() {
+    }
+
+    /**
+     * Read every row after the header of a CSV file
+     *
+     * @param file The CSV file
+     * @param charset The file's encoding
+     * @param mapper Turns each row into an object
+     * @return The objects, in file order
+     * @throws IOException If the file cannot be read
+     */
+    public static <T> List<T> readRows(File file, Charset charset, RowMapper<T> mapper) throws IOException {
+        return readRows(file, charset, () -> mapper);
+    }
+
+    /**
+     * Read every row after the header of a CSV file, with a separate mapper
+     * for each chunk
+     *
+     * For mappers that keep state between rows (such as an IdJoin cursor):
+     * each mapper only sees the rows of one chunk, in file order, on one thread.
+     *
+     * @param file The CSV file
+     * @param charset The file's encoding
+     * @param mappers Makes a new mapper (called once per chunk)
+     * @return The objects, in file order
+     * @throws IOException If the file cannot be read
+     */
+    public static <T> List<T> readRows(File file, Charset charset, Supplier<RowMapper<T>> mappers) throws IOException {
+        if (!readsInParallel(file, charset)) {
+            List<T> rows = new ArrayList<>();
+            RowMapper<T> mapper = mappers.get();
+            try (Reader reader = new InputStreamReader(new FileInputStream(file), charset)) {
+                new CsvTokenizer(reader).skipHeader().forEachRow(row -> addMapped(row, mapper, rows));
+            } finally {
+                mapper.finish();
+            }
+            return rows;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            int threads = ForkJoinPool.getCommonPoolParallelism();
+            long[] bounds = chunkBounds(channel, (int) Math.max(1, Math.min((long) threads * MAX_CHUNKS_PER_THREAD,
+                                                                             channel.size() / TARGET_CHUNK_SIZE)));
+            List<Callable<List<T>>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long from = bounds[i];
+                long to = bounds[i + 1];
+                boolean first = i == 0;
+                if (to > from) {
+                    tasks.add(() -> readChunk(channel, from, to, first, charset, mappers.get()));
+                }
+            }
+
+            List<T> rows = new ArrayList<>();
+            for (List<T> chunkRows : runAll(tasks)) {
+                rows.addAll(chunkRows);
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Check whether readRows reads a file in parallel chunks
+     *
+     * @param file The CSV file
+     * @param charset The file's encoding
+     * @return true if the file is big enough and can be cut on raw bytes
+     */
+    static boolean readsInParallel(File file, Charset charset) {
+        return file.length() >= PARALLEL_THRESHOLD && isAsciiCompatible(charset);
+    }
+
+    /**
+     * Find row starts spread through a file, for readers that jump into the
+     * middle of it (see IdJoin)
+     *
+     * Quoted line breaks are handled as readRows handles them. Only valid
+     * for encodings that readsInParallel accepts.
+     *
+     * @param file The CSV file
+     * @param spacing Roughly how many bytes apart the rows should be
+     * @return Byte offsets in increasing order (some may repeat): the first is
+     *         0 (the header), the last is the file size
+     * @throws IOException If the file cannot be read
+     */
+    static long[] rowStarts(File file, long spacing) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return chunkBounds(channel, (int) Math.max(1, Math.min(Integer.MAX_VALUE - 1, channel.size() / spacing)));
+        }
+    }
+
+    /**
+     * Work out where the chunks start and end
+     *
+     * @param chunks Number of chunks
+     * @return Chunk boundaries: chunk i is [bounds[i], bounds[i + 1])
+     */
+    private static long[] chunkBounds(FileChannel channel, int chunks) throws IOException {
+        long size = channel.size();
+        long[] bounds = new long[chunks + 1];
+        for (int i = 0; i <= chunks; i++) {
+            bounds[i] = size * i / chunks;
+        }
+
+        // 1. Quotes per raw range, in parallel
+        List<Callable<Integer>> counts = new ArrayList<>();
+        for (int i = 0; i < chunks; i++) {
+            long from = bounds[i];
+            long to = bounds[i + 1];
+            counts.add(() -> countQuotes(channel, from, to));
+        }
+        List<Integer> quoteCounts = runAll(counts);
+
+        // 2. Move each inner boundary to the next line break outside quotes
+        boolean inQuotes = false;
+        for (int i = 1; i < chunks; i++) {
+            inQuotes ^= (quoteCounts.get(i - 1) & 1) != 0;
+            long end = nextRowStart(channel, bounds[i], size, inQuotes);
+            bounds[i] = Math.max(end, bounds[i - 1]);
+        }
+        return bounds;
+    }
+
+    /**
+     * Find the start of the first row at or after a position
+     *
+     * @param inQuotes Whether the position is inside a quoted field
+     * @return Index just after the first unquoted '\n' at or after from, or size
+     */
+    private static long nextRowStart(FileChannel channel, long from, long size, boolean inQuotes) throws IOException {
+        long pos = from;
+        ByteBuffer bytes = ByteBuffer.allocate(SCAN_BLOCK_SIZE);
+        while (pos < size) {
+            long to = Math.min(size, pos + SCAN_BLOCK_SIZE);
+            read(channel, pos, to, bytes);
+            for (int i = 0; i < bytes.limit(); i++) {
+                byte b = bytes.get(i);
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if (b == '\n' && !inQuotes) {
+                    return pos + i + 1;
+                }
+            }
+            pos = to;
+        }
+        return size;
+    }
+
+    /**
+     * Decode and tokenize one chunk
+     */
+    private static <T> List<T> readChunk(FileChannel channel, long from, long to, boolean first,
+                                         Charset charset, RowMapper<T> mapper) {
+        try {
+            CharBuffer chars = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    .decode(read(channel, from, to, ByteBuffer.allocate((int) (to - from))));
+            int start = chars.arrayOffset() + chars.position();
+            CsvTokenizer tokenizer = new CsvTokenizer(chars.array(), start, start + chars.remaining());
+            if (first) {
+                tokenizer.skipHeader();
+            }
+            List<T> rows = new ArrayList<>();
+            tokenizer.forEachRow(row -> addMapped(row, mapper, rows));
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            mapper.finish();
+        }
+    }
+
+    private static <T> void addMapped(CsvTokenizer.Row row, RowMapper<T> mapper, List<T> rows) {
+        T value = mapper.map(row);
+        if (value != null) {
+            rows.add(value);
+        }
+    }
+
+    private static int countQuotes(FileChannel channel, long from, long to) throws IOException {
+        int quotes = 0;
+        ByteBuffer bytes = ByteBuffer.allocate((int) Math.min(SCAN_BLOCK_SIZE, to - from));
+        for (long pos = from; pos < to; pos += bytes.limit()) {
+            read(channel, pos, Math.min(to, pos + bytes.capacity()), bytes);
+            byte[] array = bytes.array();
+            for (int i = 0; i < bytes.limit(); i++) {
+                if (array[i] == '"') {
+                    quotes++;
+                }
+            }
+        }
+        return quotes;
+    }
+
+    /**
+     * Read a byte range of the file into a buffer
+     *
+     * Positional reads leave the channel's own position alone, so pool
+     * threads can read different ranges of one channel at the same time.
+     *
+     * @param bytes Buffer with room for the range (cleared first)
+     * @return The buffer, flipped for reading
+     * @throws IOException If reading fails or the file ends early
+     */
+    private static ByteBuffer read(FileChannel channel, long from, long to, ByteBuffer bytes) throws IOException {
+        bytes.clear().limit((int) (to - from));
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes, from + bytes.position()) < 0) {
+                throw new EOFException("File shrank while being read");
+            }
+        }
+        bytes.flip();
+        return bytes;
+    }
+
+    /**
+     * Run tasks on the common pool and collect their results in order
+     *
+     * Exceptions thrown by a task are rethrown here unwrapped.
+     */
+    private static <T> List<T> runAll(List<Callable<T>> tasks) throws IOException {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) throw ((UncheckedIOException) cause).getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IOException(cause);
+        }
+        return results;
+    }
+
+    /**
+     * Check that line breaks, quotes and commas are single bytes that never
+     * appear inside other characters, so the file can be cut on raw bytes
+     */
+    static boolean isAsciiCompatible(Charset charset) {
+        if (charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)
+                || charset.equals(StandardCharsets.ISO_8859_1)) {
+            return true;
+        }
+        return charset.canEncode() && charset.newEncoder().maxBytesPerChar() == 1
+                && Arrays.equals("\n\",".getBytes(charset), new byte[] {'\n', '"', ','});
+    }
+}
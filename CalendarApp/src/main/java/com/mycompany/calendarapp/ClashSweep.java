@@ -0,0 +1,371 @@
+package com.mycompany.calendarapp;
+
+import java.time.LocalDateTime;  // For date and time handling
+import java.time.temporal.ChronoUnit;  // For event durations
+import java.util.ArrayList;  // For creating array lists
+import java.util.Arrays;  // For sorting primitive arrays
+import java.util.IdentityHashMap;  // For finding an event's position
+import java.util.List;  // List interface
+import java.util.Map;  // Map interface
+
+/**
+ * ClashSweep Class
+ *
+ * Finds every scheduling conflict in a list of events in one pass.
+ * Each occurrence of each event becomes one time interval; the intervals are
+ * sorted by start time and swept from earliest to latest while keeping the
+ * intervals that are still running.
+ *
+ * Purpose:
+ * - Report every event that clashes with another event
+ * - Report every clashing pair of events (each pair once)
+ * - Group events into clash groups: events that are linked through a chain
+ *   of clashes end up in the same group
+ *
+ * How It Works:
+ * - Sorting the intervals costs O(m log m) for m occurrences
+ * - When an interval starts, the running intervals that have already ended
+ *   are dropped; every one that is left overlaps the new interval
+ * - So the sweep costs O(m log m + k), where k is the number of clashing
+ *   occurrence pairs, instead of comparing every event with every other one
+ * - A union-find structure joins the two events of every clashing pair,
+ *   which gives the clash groups
+ *
+ * Two occurrences clash when s1 < e2 and s2 < e1 (events that only touch do
+ * not clash). Occurrences of the same event never clash with each other.
+ * Times are compared as epoch seconds.
+ */
+public class ClashSweep {
+
+    private final List<MainEvent> events;  // The swept events, in their original order
+    private final long[] pairs;  // Clashing pairs as (lower index << 32 | higher index), sorted
+    private final int[] parent;  // Union-find parent of each event index
+    private final int[] adjacencyStart;  // adjacency[adjacencyStart[i] .. adjacencyStart[i + 1]) = partners of i
+    private final int[] adjacency;  // Partner indices, grouped by event
+    private Map<MainEvent, Integer> positions;  // Event -> index, built on first getClashesOf call
+
+    /**
+     * Constructor - Sweeps the given events for clashes
+     *
+     * Recurring events are expanded into all of their occurrences. Events
+     * without start or end times are ignored.
+     *
+     * @param events The events to check against each other
+     */
+    public ClashSweep(List<MainEvent> events) {
+        this(events, expand(events));
+    }
+
+    /**
+     * Constructor - Sweeps intervals that were already worked out
+     *
+     * @param events The events the intervals belong to
+     * @param intervals One interval per occurrence; owners are indexes into events
+     */
+    ClashSweep(List<MainEvent> events, Intervals intervals) {
+        this.events = new ArrayList<>(events);
+        int n = this.events.size();
+
+        // 1. Sweep in start order, collecting clashing event pairs
+        int[] order = intervals.sortedByStart();
+        int[] active = new int[16];
+        int activeCount = 0;
+        long[] found = new long[16];
+        int foundCount = 0;
+
+        for (int x : order) {
+            long start = intervals.starts[x];
+            long end = intervals.ends[x];
+            int owner = intervals.owners[x];
+
+            int kept = 0;
+            for (int a = 0; a < activeCount; a++) {
+                int y = active[a];
+                if (intervals.ends[y] <= start) {
+                    continue;  // Ended before x starts, so it cannot clash with anything later either
+                }
+                active[kept++] = y;
+                int other = intervals.owners[y];
+                if (other != owner && intervals.starts[y] < end) {
+                    if (foundCount == found.length) found = Arrays.copyOf(found, foundCount * 2);
+                    found[foundCount++] = pack(other, owner);
+                }
+            }
+            activeCount = kept;
+
+            if (end > start) {  // Zero-length intervals cannot clash with anything starting later
+                if (activeCount == active.length) active = Arrays.copyOf(active, activeCount * 2);
+                active[activeCount++] = x;
+            }
+        }
+
+        // 2. Each event pair once (recurring events can clash many times)
+        Arrays.sort(found, 0, foundCount);
+        int unique = 0;
+        for (int i = 0; i < foundCount; i++) {
+            if (unique == 0 || found[unique - 1] != found[i]) {
+                found[unique++] = found[i];
+            }
+        }
+        this.pairs = Arrays.copyOf(found, unique);
+
+        // 3. Clash groups and per-event partner lists
+        this.parent = new int[n];
+        int[] size = new int[n];
+        int[] degree = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+        for (long pair : pairs) {
+            int a = first(pair);
+            int b = second(pair);
+            union(a, b, size);
+            degree[a]++;
+            degree[b]++;
+        }
+
+        this.adjacencyStart = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            adjacencyStart[i + 1] = adjacencyStart[i] + degree[i];
+        }
+        this.adjacency = new int[adjacencyStart[n]];
+        int[] fill = Arrays.copyOf(adjacencyStart, n);
+        for (long pair : pairs) {  // Pairs are sorted, so every partner list comes out sorted
+            int a = first(pair);
+            int b = second(pair);
+            adjacency[fill[a]++] = b;
+            adjacency[fill[b]++] = a;
+        }
+    }
+
+    /**
+     * Get every event that clashes with at least one other event
+     *
+     * @return The clashing events, in the order they were given
+     */
+    public List<MainEvent> getClashingEvents() {
+        List<MainEvent> clashing = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            if (adjacencyStart[i + 1] > adjacencyStart[i]) {
+                clashing.add(events.get(i));
+            }
+        }
+        return clashing;
+    }
+
+    /**
+     * Get every pair of events that clash
+     *
+     * Each pair is reported once, as a two-element array with the event that
+     * came first in the input list first.
+     *
+     * @return List of clashing pairs
+     */
+    public List<MainEvent[]> getClashingPairs() {
+        List<MainEvent[]> result = new ArrayList<>(pairs.length);
+        for (long pair : pairs) {
+            result.add(new MainEvent[] {events.get(first(pair)), events.get(second(pair))});
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of clashing pairs
+     *
+     * @return How many pairs of events clash
+     */
+    public int getPairCount() {
+        return pairs.length;
+    }
+
+    /**
+     * Get the events a given event clashes with
+     *
+     * @param event One of the swept events
+     * @return The events it clashes with, in input order (empty if none or not swept)
+     */
+    public List<MainEvent> getClashesOf(MainEvent event) {
+        if (positions == null) {
+            positions = new IdentityHashMap<>();
+            for (int i = 0; i < events.size(); i++) {
+                positions.put(events.get(i), i);
+            }
+        }
+        List<MainEvent> result = new ArrayList<>();
+        Integer index = positions.get(event);
+        if (index != null) {
+            for (int p = adjacencyStart[index]; p < adjacencyStart[index + 1]; p++) {
+                result.add(events.get(adjacency[p]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the clash groups (connected components of the clash graph)
+     *
+     * Events A and B are in the same group when A clashes with B, or A
+     * clashes with something that is (directly or indirectly) in B's group.
+     * Events without clashes are not part of any group.
+     *
+     * @return The groups, ordered by their first event; events inside a group keep input order
+     */
+    public List<List<MainEvent>> getClashGroups() {
+        int n = events.size();
+        int[] groupOfRoot = new int[n];
+        Arrays.fill(groupOfRoot, -1);
+        List<List<MainEvent>> groups = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (adjacencyStart[i + 1] == adjacencyStart[i]) {
+                continue;  // No clashes
+            }
+            int root = find(i);
+            if (groupOfRoot[root] < 0) {
+                groupOfRoot[root] = groups.size();
+                groups.add(new ArrayList<>());
+            }
+            groups.get(groupOfRoot[root]).add(events.get(i));
+        }
+        return groups;
+    }
+
+    /**
+     * 1. One interval per occurrence of every event
+     */
+    private static Intervals expand(List<MainEvent> events) {
+        Intervals intervals = new Intervals();
+        for (int e = 0; e < events.size(); e++) {
+            addOccurrences(events.get(e), e, intervals);
+        }
+        return intervals;
+    }
+
+    /**
+     * Add one interval per occurrence of an event
+     *
+     * Uses the same times as RecurringEvent.generateOccurrences: the first
+     * occurrence keeps the event's own end, later ones last the same whole
+     * number of minutes.
+     */
+    private static void addOccurrences(MainEvent event, int owner, Intervals intervals) {
+        LocalDateTime start = event.getStartDateTime();
+        LocalDateTime end = event.getEndDateTime();
+        if (start == null || end == null) {
+            return;
+        }
+        if (event instanceof RecurringEvent && ((RecurringEvent) event).getOccurrences() <= 0) {
+            return;  // A series with no occurrences takes up no time
+        }
+        intervals.add(EventIntervalIndex.toEpochSecond(start), EventIntervalIndex.toEpochSecond(end), owner);
+        if (!(event instanceof RecurringEvent)) {
+            return;
+        }
+
+        RecurringEvent recurring = (RecurringEvent) event;
+        long duration = ChronoUnit.MINUTES.between(start, end) * 60;
+        LocalDateTime current = start;
+        for (int i = 1; i < recurring.getOccurrences(); i++) {
+            current = recurring.getNextOccurrence(current);
+            long occurrenceStart = EventIntervalIndex.toEpochSecond(current);
+            intervals.add(occurrenceStart, occurrenceStart + duration, owner);
+        }
+    }
+
+    // ----- Union-find -----
+
+    private int find(int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];  // Path halving
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private void union(int a, int b, int[] size) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra == rb) return;
+        if (size[ra] < size[rb]) {
+            int t = ra;
+            ra = rb;
+            rb = t;
+        }
+        parent[rb] = ra;
+        size[ra] += size[rb];
+    }
+
+    // ----- Pair packing -----
+
+    private static long pack(int a, int b) {
+        int lo = Math.min(a, b);
+        int hi = Math.max(a, b);
+        return ((long) lo << 32) | hi;
+    }
+
+    private static int first(long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    private static int second(long pair) {
+        return (int) pair;
+    }
+
+    /**
+     * Growable parallel arrays of occurrence intervals (times in epoch
+     * seconds, owner = index of the event in the swept list)
+     */
+    static final class Intervals {
+        long[] starts = new long[16];
+        long[] ends = new long[16];
+        int[] owners = new int[16];
+        int size;
+
+        Intervals() {
+        }
+
+        Intervals(int capacity) {
+            starts = new long[Math.max(16, capacity)];
+            ends = new long[starts.length];
+            owners = new int[starts.length];
+        }
+
+        void add(long start, long end, int owner) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                owners = Arrays.copyOf(owners, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            owners[size] = owner;
+            size++;
+        }
+
+        /**
+         * Interval numbers ordered by start time (a stable merge sort on
+         * plain int arrays, so no boxing)
+         */
+        int[] sortedByStart() {
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) order[i] = i;
+            int[] buffer = new int[size];
+            for (int width = 1; width < size; width *= 2) {
+                for (int lo = 0; lo < size; lo += 2 * width) {
+                    int mid = Math.min(lo + width, size);
+                    int hi = Math.min(lo + 2 * width, size);
+                    int i = lo, j = mid, k = lo;
+                    while (i < mid && j < hi) {
+                        buffer[k++] = starts[order[j]] < starts[order[i]] ? order[j++] : order[i++];
+                    }
+                    while (i < mid) buffer[k++] = order[i++];
+                    while (j < hi) buffer[k++] = order[j++];
+                }
+                int[] t = order;
+                order = buffer;
+                buffer = t;
+            }
+            return order;
+        }
+    }
+}
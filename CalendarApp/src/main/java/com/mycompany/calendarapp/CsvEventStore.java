@@ -0,0 +1,92 @@
+package com.mycompany.calendarapp;
+
+import java.io.IOException;  // The journal could not be read or opened
+import java.util.List;  // List interface
+import java.util.function.Consumer;  // Receives scanned events
+
+/**
+ * CsvEventStore Class
+ *
+ * The default EventStore: event.csv, recurrent.csv, additional.csv and
+ * reminders.csv, read and written by CSVHandlerCompliant (with
+ * calendar.snapshot as a faster copy for startup).
+ *
+ * Changes are saved through the journal (EventJournal) unless it is turned
+ * off or cannot be opened; then every change rewrites the CSV files in the
+ * background (BackgroundSaver). Changes still in the journal are part of the
+ * stored events: load() replays them on top of the CSV files and scan()
+ * includes them. save() replaces them along with everything else, so a
+ * journal left by an earlier run is never replayed over newer files.
+ */
+public class CsvEventStore implements EventStore {
+
+    @Override
+    public String getName() {
+        return "csv";
+    }
+
+    @Override
+    public List<String> getFiles() {
+        return List.of(CSVHandlerCompliant.EVENT_FILE, CSVHandlerCompliant.RECURRENT_FILE,
+                       AdditionalFieldsHandler.ADDITIONAL_CSV, ReminderFileHandler.REMINDER_CSV);
+    }
+
+    @Override
+    public void load(EventManager manager) {
+        CSVHandlerCompliant.loadEvents(manager);
+        try {
+            EventJournal.replay(manager);
+        } catch (IOException ex) {
+            System.err.println("Error replaying the journal: " + ex.getMessage());
+        }
+    }
+
+    @Override
+    public void loadBackup(BackupFile.Source backup, EventManager manager) throws IOException {
+        CSVHandlerCompliant.loadBackup(backup, manager);
+    }
+
+    @Override
+    public boolean save(List<MainEvent> events) {
+        return CSVHandlerCompliant.saveEvents(events);
+    }
+
+    @Override
+    public int scan(Consumer<? super MainEvent> action) {
+        boolean journaled;
+        try {
+            journaled = EventJournal.hasChanges();
+        } catch (IOException ex) {
+            System.err.println("Error reading the journal: " + ex.getMessage());
+            journaled = true;  // load() reports it again and reads what it can
+        }
+        if (!journaled) {
+            return CSVHandlerCompliant.scanEvents(action);  // Streams the files
+        }
+        // Journal records can change any event, so the result has to be built first
+        EventManager loaded = new EventManager();
+        load(loaded);
+        List<MainEvent> events = loaded.getAllEvents();
+        events.forEach(action);
+        int count = events.size();
+        loaded.clear();  // Releases calendar.pages if it was loaded a page at a time
+        return count;
+    }
+
+    /**
+     * Start saving changes: through the journal (folding it first if it is
+     * damaged), or,
+     * when it is turned off or cannot be opened, through a background saver
+     */
+    @Override
+    public Session open(EventManager manager) {
+        if (EventJournal.isEnabled()) {
+            try {
+                return EventJournal.open(manager);
+            } catch (IOException ex) {
+                System.err.println("Journal unavailable, saving by rewriting the CSV files: " + ex.getMessage());
+            }
+        }
+        return new BackgroundSaver(manager, this);
+    }
+}
@@ -0,0 +1,357 @@
+package com.mycompany.calendarapp;
+
+import java.io.IOException;  // For read errors
+import java.io.Reader;  // The character source
+import java.time.LocalDateTime;  // For date and time fields
+import java.util.Arrays;  // For growing buffers
+
+/**
+ * CsvTokenizer Class
+ *
+ * A streaming CSV reader shared by the CSV handlers. It reads characters in
+ * large blocks into one reusable buffer and splits them into rows and fields
+ * without building a String, list or array per line.
+ *
+ * Format:
+ * - Fields are separated by commas, rows by \n, \r\n or \r
+ * - A field may be wrapped in double quotes; inside quotes, commas and line
+ *   breaks are part of the value and "" stands for one quote character
+ * - An empty field without quotes can stand for null, and "" for an empty
+ *   string (see getNullableString)
+ * - Blank lines are skipped
+ *
+ * How It Works:
+ * - Each row is handed to a RowHandler (or returned by next()) as a Row,
+ *   which only records where every field starts and ends in the buffer
+ * - Quoted fields are unescaped in place, so they are also plain slices
+ * - getInt and getDateTime parse straight from the slice; only getString
+ *   creates a String
+ * - A Row is only valid during the handler call, or until the next call to
+ *   next() (the buffer is reused)
+ */
+public final class CsvTokenizer {
+
+    /**
+     * Receives the rows of a CSV file, one at a time
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * Handle one row
+         *
+         * @param row The current row (only valid during this call)
+         */
+        void row(Row row);
+    }
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;  // Characters read per block
+
+    private final Reader reader;  // Where the characters come from (null for in-memory input)
+    private char[] buffer;  // Characters of the current block (and any row carried over)
+    private int limit;  // Number of valid characters in buffer
+    private int pos;  // Next character to read
+    private int rowStart;  // Where the current row starts in buffer
+    private int fieldStart;  // Where the field being read starts in buffer
+    private int write;  // Where the next unescaped character of the field goes
+    private int[] fieldStarts = new int[8];  // Start of each field of the current row
+    private int[] fieldEnds = new int[8];  // End (exclusive) of each field of the current row
+    private boolean[] fieldQuoted = new boolean[8];  // Whether each field of the current row had quotes
+    private boolean quoted;  // The field being read has had quotes
+    private int fieldCount;  // Number of fields in the current row
+    private boolean eof;  // The reader has no more characters
+    private boolean skipHeader;  // Drop the first row
+    private final Row row = new Row();  // Reused view of the current row
+
+    /**
+     * Constructor - Tokenize characters from a reader
+     *
+     * @param reader The source (not closed by the tokenizer)
+     */
+    public CsvTokenizer(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor - Tokenize characters from a reader with a given block size
+     *
+     * @param reader The source (not closed by the tokenizer)
+     * @param bufferSize Characters read per block (grows if a row is longer)
+     */
+    public CsvTokenizer(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[Math.max(16, bufferSize)];
+    }
+
+    /**
+     * Constructor - Tokenize characters that are already in memory
+     *
+     * Quoted fields are unescaped in place, so the array is overwritten.
+     *
+     * @param chars The characters
+     * @param start Index of the first character
+     * @param end Index just after the last character
+     */
+    public CsvTokenizer(char[] chars, int start, int end) {
+        this.reader = null;
+        this.buffer = chars;
+        this.pos = start;
+        this.limit = end;
+        this.eof = true;  // Nothing more to read
+    }
+
+    /**
+     * Drop the first row instead of handing it to the handler
+     *
+     * @return This tokenizer, for chaining
+     */
+    public CsvTokenizer skipHeader() {
+        skipHeader = true;
+        return this;
+    }
+
+    /**
+     * Read every remaining row
+     *
+     * @param handler Called once per row
+     * @return Number of rows handed to the handler
+     * @throws IOException If the reader fails
+     */
+    public int forEachRow(RowHandler handler) throws IOException {
+        int rows = 0;
+        for (Row current = next(); current != null; current = next()) {
+            handler.row(current);
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * Read the next row, for callers that pull rows one at a time (such as
+     * an IdJoin cursor)
+     *
+     * @return The row (only valid until the next call), or null at the end
+     *         of the input
+     * @throws IOException If the reader fails
+     */
+    public Row next() throws IOException {
+        while (nextRow()) {
+            if (skipHeader) {
+                skipHeader = false;
+                continue;
+            }
+            return row;
+        }
+        return null;
+    }
+
+    /**
+     * Split the next non-blank row into fields
+     *
+     * @return false at the end of the input
+     */
+    private boolean nextRow() throws IOException {
+        while (true) {
+            rowStart = fieldStart = write = pos;
+            fieldCount = 0;
+            quoted = false;
+            boolean inQuotes = false;
+            boolean blank = true;  // Nothing but the line break so far
+
+            while (true) {
+                if (pos == limit && !fill()) {
+                    break;  // End of input
+                }
+                char c = buffer[pos++];
+                if (c == '"') {
+                    blank = false;
+                    quoted = true;
+                    if (inQuotes && peek() == '"') {
+                        buffer[write++] = '"';  // "" inside quotes is one quote
+                        pos++;
+                    } else {
+                        inQuotes = !inQuotes;
+                    }
+                } else if (inQuotes) {
+                    buffer[write++] = c;
+                } else if (c == ',') {
+                    blank = false;
+                    addField(fieldStart, write);
+                    fieldStart = write = pos;
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r' && peek() == '\n') {
+                        pos++;
+                    }
+                    break;
+                } else {
+                    blank = false;
+                    buffer[write++] = c;
+                }
+            }
+
+            if (!blank) {
+                addField(fieldStart, write);
+                return true;
+            }
+            if (pos == limit && eof) {
+                return false;
+            }
+            // Blank line: try the next one
+        }
+    }
+
+    /**
+     * Look at the next character without consuming it, reading more if needed
+     *
+     * @return The next character, or -1 at the end of the input
+     */
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos];
+    }
+
+    /**
+     * Record a field of the current row
+     */
+    private void addField(int start, int end) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+            fieldQuoted = Arrays.copyOf(fieldQuoted, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldQuoted[fieldCount] = quoted;
+        fieldCount++;
+        quoted = false;
+    }
+
+    /**
+     * Read the next block of characters
+     *
+     * The current row is moved to the start of the buffer first (and the
+     * buffer doubled if the row fills it); every position inside the row is
+     * moved down with it.
+     *
+     * @return false if there was nothing more to read
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        int shift = rowStart;
+        if (shift > 0) {
+            System.arraycopy(buffer, shift, buffer, 0, limit - shift);
+            limit -= shift;
+            pos -= shift;
+            rowStart = 0;
+            fieldStart -= shift;
+            write -= shift;
+            for (int i = 0; i < fieldCount; i++) {
+                fieldStarts[i] -= shift;
+                fieldEnds[i] -= shift;
+            }
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read = reader.read(buffer, limit, buffer.length - limit);
+        if (read <= 0) {
+            eof = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    /**
+     * Row Class
+     *
+     * A view of the current row's fields in the tokenizer's buffer.
+     */
+    public final class Row {
+
+        private Row() {
+        }
+
+        /** @return Number of fields in the row */
+        public int size() {
+            return fieldCount;
+        }
+
+        /** @return Length of a field in characters */
+        public int length(int field) {
+            return fieldEnds[field] - fieldStarts[field];
+        }
+
+        /** @return true if a field has no characters */
+        public boolean isEmpty(int field) {
+            return fieldEnds[field] == fieldStarts[field];
+        }
+
+        /**
+         * Get a field as text
+         *
+         * @param field Field number (0-based)
+         * @return The unescaped field value
+         */
+        public String getString(int field) {
+            return new String(buffer, fieldStarts[field], length(field));
+        }
+
+        /**
+         * Get a field as text that may be null
+         *
+         * For fields written by CSVHandlerCompliant.escapeCsvValue, which
+         * writes null as an empty field and an empty string as "".
+         *
+         * @param field Field number (0-based)
+         * @return The unescaped field value, or null if the field is empty
+         *         and had no quotes
+         */
+        public String getNullableString(int field) {
+            return isEmpty(field) && !fieldQuoted[field] ? null : getString(field);
+        }
+
+        /**
+         * Get a field as an int, without creating a String
+         *
+         * @param field Field number (0-based)
+         * @return The value
+         * @throws NumberFormatException If the field is not a whole number
+         */
+        public int getInt(int field) {
+            int start = fieldStarts[field];
+            int end = fieldEnds[field];
+            boolean negative = end > start && buffer[start] == '-';
+            int i = negative ? start + 1 : start;
+            if (i == end || end - i > 9) {
+                return Integer.parseInt(getString(field));  // Empty or possibly too big: let parseInt decide
+            }
+            int value = 0;
+            for (; i < end; i++) {
+                int digit = buffer[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new NumberFormatException("For input string: \"" + getString(field) + "\"");
+                }
+                value = value * 10 + digit;
+            }
+            return negative ? -value : value;
+        }
+
+        /**
+         * Get a field as an ISO date-time (yyyy-MM-ddTHH:mm[:ss[.fraction]])
+         *
+         * The fixed-width layouts are read straight from the buffer by
+         * DateTimeCodec; anything else goes through the general parser.
+         *
+         * @param field Field number (0-based)
+         * @return The value
+         * @throws java.time.DateTimeException If the field is not a valid date-time
+         */
+        public LocalDateTime getDateTime(int field) {
+            return DateTimeCodec.parseIso(buffer, fieldStarts[field], length(field));
+        }
+    }
+}
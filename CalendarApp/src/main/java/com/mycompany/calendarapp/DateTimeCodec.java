@@ -0,0 +1,209 @@
+package com.mycompany.calendarapp;
+
+import java.time.DateTimeException;  // Invalid field values
+import java.time.LocalDateTime;  // For date and time handling
+import java.time.format.DateTimeFormatter;  // Fallback for unusual layouts
+
+/**
+ * DateTimeCodec Class
+ *
+ * Reads and writes the fixed-width date-time layouts used in the CSV files
+ * by hand, instead of going through the general DateTimeFormatter engine:
+ * - ISO: "yyyy-MM-ddTHH:mm:ss" (event.csv; same text as
+ *   DateTimeFormatter.ISO_LOCAL_DATE_TIME), also read without the seconds
+ * - Spaced: "yyyy-MM-dd HH:mm" (the legacy events.csv)
+ *
+ * Purpose:
+ * - Parse straight from a char buffer (e.g. a CsvTokenizer field) without
+ *   creating a String
+ * - Write into a caller's reusable char buffer without creating a String
+ *
+ * Anything outside the fixed layouts (years outside 0000-9999, fractions of
+ * a second, odd field values) falls back to the general formatter, so the
+ * results are always the same as DateTimeFormatter's.
+ */
+public final class DateTimeCodec {
+
+    /** Room a write buffer needs for any date-time, including fallbacks */
+    public static final int MAX_LENGTH = 40;
+
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_LOCAL_DATE_TIME;  // Fallback for ISO
+    private static final DateTimeFormatter SPACED = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");  // Fallback for spaced
+
+    private DateTimeCodec() {
+    }
+
+    // ----- Parsing -----
+
+    /**
+     * Parse an ISO date-time from part of a char array
+     *
+     * @param chars The characters
+     * @param start Index of the first character
+     * @param length Number of characters
+     * @return The date-time
+     * @throws DateTimeException If the text is not a valid ISO date-time
+     */
+    public static LocalDateTime parseIso(char[] chars, int start, int length) {
+        LocalDateTime fast = parseFixed(chars, start, length, 'T', true);
+        return fast != null ? fast : LocalDateTime.parse(new String(chars, start, length), ISO);
+    }
+
+    /**
+     * Parse an ISO date-time ("yyyy-MM-ddTHH:mm[:ss]")
+     *
+     * @param text The text
+     * @return The date-time
+     * @throws DateTimeException If the text is not a valid ISO date-time
+     */
+    public static LocalDateTime parseIso(String text) {
+        LocalDateTime fast = parseFixed(text.toCharArray(), 0, text.length(), 'T', true);
+        return fast != null ? fast : LocalDateTime.parse(text, ISO);
+    }
+
+    /**
+     * Parse a spaced date-time ("yyyy-MM-dd HH:mm")
+     *
+     * @param text The text
+     * @return The date-time
+     * @throws DateTimeException If the text does not match the layout
+     */
+    public static LocalDateTime parseSpaced(String text) {
+        LocalDateTime fast = parseFixed(text.toCharArray(), 0, text.length(), ' ', false);
+        // "yyyy" is the year of the era, so year 0000 means 1 BC: leave that to the formatter
+        return fast != null && fast.getYear() > 0 ? fast : LocalDateTime.parse(text, SPACED);
+    }
+
+    /**
+     * Read the fixed layout "yyyy-MM-dd?HH:mm[:ss]" (? = separator)
+     *
+     * @return The date-time, or null if the text needs the general parser
+     */
+    private static LocalDateTime parseFixed(char[] c, int s, int length, char separator, boolean allowSeconds) {
+        if (!(length == 16 || (allowSeconds && length == 19))
+                || c[s + 4] != '-' || c[s + 7] != '-' || c[s + 10] != separator
+                || c[s + 13] != ':' || (length == 19 && c[s + 16] != ':')) {
+            return null;
+        }
+        int year = digits(c, s, 4);
+        int month = digits(c, s + 5, 2);
+        int day = digits(c, s + 8, 2);
+        int hour = digits(c, s + 11, 2);
+        int minute = digits(c, s + 14, 2);
+        int second = length == 19 ? digits(c, s + 17, 2) : 0;
+        if ((year | month | day | hour | minute | second) < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second);
+        } catch (DateTimeException e) {
+            return null;  // Let the general parser decide (and word the error)
+        }
+    }
+
+    /**
+     * Read a run of decimal digits
+     *
+     * @return The value, or -1 if any character is not a digit
+     */
+    private static int digits(char[] c, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = c[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    // ----- Writing -----
+
+    /**
+     * Write a date-time in ISO layout ("yyyy-MM-ddTHH:mm:ss"), exactly as
+     * ISO_LOCAL_DATE_TIME would
+     *
+     * @param dateTime The date-time
+     * @param out Buffer with at least MAX_LENGTH chars free after offset
+     * @param offset Where to start writing
+     * @return Index just after the last char written
+     */
+    public static int writeIso(LocalDateTime dateTime, char[] out, int offset) {
+        int year = dateTime.getYear();
+        if (year < 0 || year > 9999 || dateTime.getNano() != 0) {
+            return writeString(ISO.format(dateTime), out, offset);
+        }
+        int i = writeDateAndMinutes(dateTime, year, 'T', out, offset);
+        out[i++] = ':';
+        return pad2(dateTime.getSecond(), out, i);
+    }
+
+    /**
+     * Write a date-time in spaced layout ("yyyy-MM-dd HH:mm"; seconds are dropped)
+     *
+     * @param dateTime The date-time
+     * @param out Buffer with at least MAX_LENGTH chars free after offset
+     * @param offset Where to start writing
+     * @return Index just after the last char written
+     */
+    public static int writeSpaced(LocalDateTime dateTime, char[] out, int offset) {
+        int year = dateTime.getYear();
+        if (year < 1 || year > 9999) {  // "yyyy" is the year of the era
+            return writeString(SPACED.format(dateTime), out, offset);
+        }
+        return writeDateAndMinutes(dateTime, year, ' ', out, offset);
+    }
+
+    /**
+     * Format a date-time in ISO layout
+     *
+     * @param dateTime The date-time
+     * @return The same text as dateTime.format(ISO_LOCAL_DATE_TIME)
+     */
+    public static String formatIso(LocalDateTime dateTime) {
+        char[] out = new char[MAX_LENGTH];
+        return new String(out, 0, writeIso(dateTime, out, 0));
+    }
+
+    /**
+     * Format a date-time in spaced layout
+     *
+     * @param dateTime The date-time
+     * @return The same text as dateTime.format(ofPattern("yyyy-MM-dd HH:mm"))
+     */
+    public static String formatSpaced(LocalDateTime dateTime) {
+        char[] out = new char[MAX_LENGTH];
+        return new String(out, 0, writeSpaced(dateTime, out, 0));
+    }
+
+    /**
+     * Write "yyyy-MM-dd?HH:mm" (? = separator) for a four-digit year
+     */
+    private static int writeDateAndMinutes(LocalDateTime dateTime, int year, char separator, char[] out, int i) {
+        i = pad2(year / 100, out, i);
+        i = pad2(year % 100, out, i);
+        out[i++] = '-';
+        i = pad2(dateTime.getMonthValue(), out, i);
+        out[i++] = '-';
+        i = pad2(dateTime.getDayOfMonth(), out, i);
+        out[i++] = separator;
+        i = pad2(dateTime.getHour(), out, i);
+        out[i++] = ':';
+        return pad2(dateTime.getMinute(), out, i);
+    }
+
+    /**
+     * Write a value 0-99 as two digits
+     */
+    private static int pad2(int value, char[] out, int i) {
+        out[i] = (char) ('0' + value / 10);
+        out[i + 1] = (char) ('0' + value % 10);
+        return i + 2;
+    }
+
+    private static int writeString(String text, char[] out, int offset) {
+        text.getChars(0, text.length(), out, offset);
+        return offset + text.length();
+    }
+}
@@ -0,0 +1,272 @@
+package com.mycompany.calendarapp;
+
+import java.time.LocalDateTime;  // For date and time handling
+import java.time.ZoneOffset;  // For converting times to epoch minutes
+import java.util.ArrayList;  // For the dictionaries
+import java.util.Arrays;  // For trimming result arrays
+import java.util.HashMap;  // For dictionary lookups while building
+import java.util.List;  // List interface
+import java.util.Map;  // Map interface
+
+/**
+ * EventColumns Class
+ *
+ * A column-by-column copy of a list of events (normally every expanded
+ * occurrence in the calendar), kept in plain arrays instead of objects:
+ * - long[] start and end times, in minutes since 1970-01-01 00:00
+ * - int[] event IDs
+ * - int[] category and priority, stored as codes into small dictionaries
+ * - byte[] flags (has a reminder, is a recurring event)
+ *
+ * Purpose:
+ * - Let statistics, date-range filters and the clash sweep scan millions of
+ *   rows without following two LocalDateTime objects per event
+ * - Only turn a row back into a MainEvent when it is part of a result
+ *
+ * How It Works:
+ * - EventManager.getColumns() builds the columns from its cached expansion
+ *   and keeps them until an event changes
+ * - Rows keep the order of the source list; when the source is sorted by
+ *   start time (as the expansion is), date ranges are found by binary search
+ * - Times are whole minutes, so columns are only exact when no event time
+ *   has seconds; isExact() tells, and EventManager only hands out exact columns
+ */
+public class EventColumns {
+
+    /** Code used for a missing (null) category or priority */
+    public static final int NONE = -1;
+
+    private static final byte REMINDER = 1;  // Flag: row has a reminder
+    private static final byte RECURRING = 2;  // Flag: row is a RecurringEvent
+
+    private final List<MainEvent> source;  // The rows as objects, for materialising results
+    private final int size;  // Number of rows
+    private final int[] ids;  // Event ID of each row
+    private final long[] startMinutes;  // Start of each row (epoch minutes)
+    private final long[] endMinutes;  // End of each row (epoch minutes)
+    private final int[] categories;  // Category code of each row
+    private final int[] priorities;  // Priority code of each row
+    private final byte[] flags;  // REMINDER / RECURRING bits of each row
+    private final List<String> categoryNames = new ArrayList<>();  // Category code -> name
+    private final List<String> priorityNames = new ArrayList<>();  // Priority code -> name
+    private final Map<String, Integer> categoryCodes = new HashMap<>();  // Category name -> code
+    private final Map<String, Integer> priorityCodes = new HashMap<>();  // Priority name -> code
+    private final boolean sorted;  // Rows ordered by start time
+    private final boolean exact;  // No time had seconds
+
+    /**
+     * Constructor - Copies the given events into columns
+     *
+     * @param events The events (or occurrences) to store, one row each
+     */
+    public EventColumns(List<MainEvent> events) {
+        this.source = events;
+        this.size = events.size();
+        this.ids = new int[size];
+        this.startMinutes = new long[size];
+        this.endMinutes = new long[size];
+        this.categories = new int[size];
+        this.priorities = new int[size];
+        this.flags = new byte[size];
+
+        boolean isSorted = true;
+        boolean isExact = true;
+
+        for (int row = 0; row < size; row++) {
+            MainEvent event = events.get(row);
+            LocalDateTime start = event.getStartDateTime();
+            LocalDateTime end = event.getEndDateTime();
+            isExact &= isWholeMinute(start) && isWholeMinute(end);
+
+            ids[row] = event.getEventId();
+            startMinutes[row] = toEpochMinute(start);
+            endMinutes[row] = toEpochMinute(end);
+            categories[row] = encode(event.getCategory(), categoryCodes, categoryNames);
+            priorities[row] = encode(event.getPriority(), priorityCodes, priorityNames);
+            byte f = 0;
+            if (event.getReminder() != null) f |= REMINDER;
+            if (event instanceof RecurringEvent) f |= RECURRING;
+            flags[row] = f;
+
+            if (row > 0 && startMinutes[row] < startMinutes[row - 1]) {
+                isSorted = false;
+            }
+        }
+        this.sorted = isSorted;
+        this.exact = isExact;
+    }
+
+    // ----- Row access -----
+
+    /** @return Number of rows */
+    public int size() { return size; }
+
+    /** @return Event ID of a row */
+    public int getEventId(int row) { return ids[row]; }
+
+    /** @return Start of a row, in minutes since 1970-01-01 00:00 */
+    public long getStartMinute(int row) { return startMinutes[row]; }
+
+    /** @return End of a row, in minutes since 1970-01-01 00:00 */
+    public long getEndMinute(int row) { return endMinutes[row]; }
+
+    /** @return Category code of a row (NONE if the event has no category) */
+    public int getCategoryCode(int row) { return categories[row]; }
+
+    /** @return Priority code of a row (NONE if the event has no priority) */
+    public int getPriorityCode(int row) { return priorities[row]; }
+
+    /** @return true if the row has a reminder */
+    public boolean hasReminder(int row) { return (flags[row] & REMINDER) != 0; }
+
+    /** @return true if the row is a RecurringEvent (not an expanded occurrence) */
+    public boolean isRecurring(int row) { return (flags[row] & RECURRING) != 0; }
+
+    /**
+     * Get the event object behind a row
+     *
+     * @param row The row number
+     * @return The event (or occurrence) the row was copied from
+     */
+    public MainEvent getEvent(int row) {
+        return source.get(row);
+    }
+
+    /**
+     * Turn a set of rows back into events
+     *
+     * @param rows Row numbers, e.g. from rowsStartingBetween
+     * @return The events for those rows, in the same order
+     */
+    public List<MainEvent> getEvents(int[] rows) {
+        List<MainEvent> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(source.get(row));
+        }
+        return result;
+    }
+
+    // ----- Dictionaries -----
+
+    /**
+     * Find the code of a category
+     *
+     * @param category The category name
+     * @return Its code, or NONE if no row has that category
+     */
+    public int categoryCode(String category) {
+        return category == null ? NONE : categoryCodes.getOrDefault(category, NONE);
+    }
+
+    /**
+     * Find the code of a priority
+     *
+     * @param priority The priority name
+     * @return Its code, or NONE if no row has that priority
+     */
+    public int priorityCode(String priority) {
+        return priority == null ? NONE : priorityCodes.getOrDefault(priority, NONE);
+    }
+
+    /** @return The category name for a code */
+    public String getCategoryName(int code) { return code == NONE ? null : categoryNames.get(code); }
+
+    /** @return The priority name for a code */
+    public String getPriorityName(int code) { return code == NONE ? null : priorityNames.get(code); }
+
+    // ----- Scans -----
+
+    /**
+     * Find the rows that start in [fromMinute, toMinute)
+     *
+     * Uses binary search when the rows are sorted by start time, otherwise a
+     * single pass over the start column.
+     *
+     * @param fromMinute First minute of the range (inclusive)
+     * @param toMinute End of the range (exclusive)
+     * @return The matching row numbers, in row order
+     */
+    public int[] rowsStartingBetween(long fromMinute, long toMinute) {
+        if (sorted) {
+            int first = lowerBound(fromMinute);
+            int last = Math.max(first, lowerBound(toMinute));
+            int[] rows = new int[last - first];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = first + i;
+            }
+            return rows;
+        }
+        int[] rows = new int[16];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            long start = startMinutes[row];
+            if (start >= fromMinute && start < toMinute) {
+                if (count == rows.length) rows = Arrays.copyOf(rows, count * 2);
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Check whether the rows are ordered by start time
+     *
+     * @return true if every row starts no earlier than the one before it
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * Check whether the minute columns hold the exact event times
+     *
+     * @return false if any start or end time had seconds (which the columns drop)
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Convert a LocalDateTime to minutes since 1970-01-01 00:00 (seconds are dropped)
+     *
+     * @param dateTime The time to convert
+     * @return The epoch minute
+     */
+    public static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * First row whose start is at or after a minute (rows must be sorted)
+     */
+    private int lowerBound(long minute) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (startMinutes[mid] < minute) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static boolean isWholeMinute(LocalDateTime dateTime) {
+        return dateTime.getSecond() == 0 && dateTime.getNano() == 0;
+    }
+
+    private static int encode(String value, Map<String, Integer> codes, List<String> names) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = names.size();
+            codes.put(value, code);
+            names.add(value);
+        }
+        return code;
+    }
+}
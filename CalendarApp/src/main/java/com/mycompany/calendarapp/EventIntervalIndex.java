@@ -0,0 +1,416 @@
+package com.mycompany.calendarapp;
+
+import java.time.LocalDateTime;  // For date and time handling
+import java.time.ZoneOffset;  // For converting times to epoch seconds
+import java.time.temporal.ChronoUnit;  // For event durations
+import java.util.Arrays;  // For sorting nodes in a bulk build
+import java.util.IdentityHashMap;  // For finding the node that belongs to an event
+import java.util.List;  // List interface
+import java.util.Map;  // Map interface
+
+/**
+ * EventIntervalIndex Class
+ *
+ * An augmented interval tree over the events stored in an EventManager.
+ * Each event is stored as one interval covering everything it occupies:
+ * a normal event covers its start to its end, a recurring event covers the
+ * start of its first occurrence to the end of its last occurrence.
+ *
+ * Purpose:
+ * - Answer "which events overlap this time range?" without scanning every event
+ * - Avoid expanding recurring events that are nowhere near the queried range
+ *
+ * How It Works:
+ * - The tree is a treap (a binary search tree balanced by random priorities)
+ *   ordered by interval start
+ * - Every node also remembers the largest interval end found in its subtree,
+ *   so whole subtrees that end before the query can be skipped
+ * - A query therefore costs O(log n + k), where k is the number of events
+ *   whose interval reaches the queried range
+ *
+ * Times are kept as epoch seconds (treating LocalDateTime as UTC) so the
+ * comparisons in the tree never allocate.
+ */
+public class EventIntervalIndex {
+
+    /**
+     * One tree node - one indexed event
+     */
+    private static final class Node {
+        final MainEvent event;  // The indexed event
+        final long lo;  // Start of the first occurrence (epoch seconds)
+        final long hi;  // Latest instant any occurrence reaches (epoch seconds)
+        final long seq;  // Insertion sequence, breaks ties between equal starts
+        final int priority;  // Random heap priority that keeps the treap balanced
+        long maxHi;  // Largest hi in this node's subtree
+        Node left;
+        Node right;
+
+        Node(MainEvent event, long lo, long hi, long seq, int priority) {
+            this.event = event;
+            this.lo = lo;
+            this.hi = hi;
+            this.seq = seq;
+            this.priority = priority;
+            this.maxHi = hi;
+        }
+    }
+
+    private Node root;  // Root of the treap (null when empty)
+    private final Map<MainEvent, Node> nodes = new IdentityHashMap<>();  // Event -> its node, for removal
+    private long nextSeq = 0;  // Sequence counter for tie-breaking
+    private int seed = 0x2545F491;  // Xorshift state for node priorities
+
+    /**
+     * Add an event to the index, or re-index it if it is already present
+     *
+     * Must be called again whenever the event's times or recurrence change.
+     *
+     * @param event The event to index
+     */
+    public void insert(MainEvent event) {
+        remove(event);  // Drop the old interval first (no-op if not indexed)
+
+        if (event.getStartDateTime() == null || event.getEndDateTime() == null) {
+            return;  // Nothing to index without times
+        }
+        if (event instanceof RecurringEvent && ((RecurringEvent) event).getOccurrences() <= 0) {
+            return;  // A series with no occurrences never clashes
+        }
+
+        long lo = toEpochSecond(event.getStartDateTime());
+        long hi = seriesHigh(event);
+        Node node = new Node(event, lo, hi, nextSeq++, nextPriority());
+        nodes.put(event, node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Add many new events to the index at once
+     * 
+     * When there are at least as many new events as indexed ones (loading
+     * a file, appending a backup), the tree is built again from all of them
+     * sorted by start (O(n log n) for the sort, then one O(n) pass) instead
+     * of n separate inserts; indexed events keep their nodes. Otherwise the
+     * events are inserted one by one.
+     * 
+     * @param events Events that are not in the index yet
+     */
+    public void insertAll(List<? extends MainEvent> events) {
+        if (events.size() < nodes.size()) {
+            for (MainEvent event : events) {
+                insert(event);
+            }
+            return;
+        }
+
+        Node[] sorted = new Node[nodes.size() + events.size()];
+        int count = 0;
+        for (Node node : nodes.values()) {
+            node.left = null;
+            node.right = null;
+            sorted[count++] = node;
+        }
+        for (MainEvent event : events) {
+            if (event.getStartDateTime() == null || event.getEndDateTime() == null
+                    || (event instanceof RecurringEvent && ((RecurringEvent) event).getOccurrences() <= 0)) {
+                continue;  // Same events insert() leaves out
+            }
+            Node node = new Node(event, toEpochSecond(event.getStartDateTime()), seriesHigh(event),
+                                 nextSeq++, nextPriority());
+            if (nodes.put(event, node) != null) {
+                throw new IllegalArgumentException("Event " + event.getEventId() + " is listed twice");
+            }
+            sorted[count++] = node;
+        }
+        Arrays.parallelSort(sorted, 0, count, EventIntervalIndex::compare);
+
+        // Nodes in key order: keep a stack of the right spine and hang each
+        // new node below the last spine node with a higher priority
+        Node[] spine = new Node[Math.max(1, count)];
+        int top = 0;
+        for (int i = 0; i < count; i++) {
+            Node node = sorted[i];
+            Node last = null;
+            while (top > 0 && spine[top - 1].priority < node.priority) {
+                last = spine[--top];
+            }
+            node.left = last;
+            if (top > 0) {
+                spine[top - 1].right = node;
+            }
+            spine[top++] = node;
+        }
+        root = top > 0 ? spine[0] : null;
+        updateAll(root);
+    }
+
+    /**
+     * Remove an event from the index
+     *
+     * @param event The event to remove
+     */
+    public void remove(MainEvent event) {
+        Node node = nodes.remove(event);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    /**
+     * Remove every event from the index
+     */
+    public void clear() {
+        root = null;
+        nodes.clear();
+    }
+
+    /**
+     * Collect events with at least one occurrence overlapping [start, end)
+     *
+     * An occurrence overlaps when it starts before the range ends and the
+     * range starts before it ends:
+     * - Event: 9:00-10:00, Range: 9:30-10:30 → OVERLAP
+     * - Event: 9:00-10:00, Range: 10:00-11:00 → NO OVERLAP (touching is fine)
+     *
+     * Results are added in order of their first start time.
+     *
+     * @param start Start of the queried range
+     * @param end End of the queried range
+     * @param skipEventId Event ID to ignore (the event being checked itself)
+     * @param out List receiving the overlapping events
+     */
+    public void findOverlapping(LocalDateTime start, LocalDateTime end, int skipEventId, List<MainEvent> out) {
+        collect(root, toEpochSecond(start), toEpochSecond(end), skipEventId, out);
+    }
+
+    /**
+     * Walk the tree, skipping subtrees that cannot reach the queried range
+     */
+    private void collect(Node node, long qStart, long qEnd, int skipEventId, List<MainEvent> out) {
+        if (node == null || node.maxHi <= qStart) {
+            return;  // Everything in this subtree is over before the range begins
+        }
+        collect(node.left, qStart, qEnd, skipEventId, out);
+        if (node.lo >= qEnd) {
+            return;  // This node and its right subtree start after the range ends
+        }
+        if (node.hi > qStart
+                && node.event.getEventId() != skipEventId
+                && anyOccurrenceOverlaps(node.event, qStart, qEnd)) {
+            out.add(node.event);
+        }
+        collect(node.right, qStart, qEnd, skipEventId, out);
+    }
+
+    /**
+     * Collect events whose time span reaches the window [from, to)
+     *
+     * Unlike findOverlapping this only looks at each event's whole span
+     * (first start to last end) and does not check individual occurrences;
+     * it is used to pick the series that need expanding for a window.
+     * Events are added in order of their first start time.
+     *
+     * @param from Start of the window (epoch seconds)
+     * @param to End of the window (epoch seconds)
+     * @param out List receiving the candidate events
+     */
+    public void findSpanning(long from, long to, List<MainEvent> out) {
+        collectSpanning(root, from, to, out);
+    }
+
+    private void collectSpanning(Node node, long from, long to, List<MainEvent> out) {
+        if (node == null || node.maxHi < from) {
+            return;
+        }
+        collectSpanning(node.left, from, to, out);
+        if (node.lo >= to) {
+            return;
+        }
+        if (node.hi >= from) {
+            out.add(node.event);
+        }
+        collectSpanning(node.right, from, to, out);
+    }
+
+    /**
+     * Check whether any occurrence of an event overlaps [qStart, qEnd)
+     *
+     * For recurring events the only candidate occurrence is found with
+     * RecurringEvent's occurrence arithmetic, so no occurrence objects are
+     * created and the cost does not depend on the number of occurrences.
+     */
+    private static boolean anyOccurrenceOverlaps(MainEvent event, long qStart, long qEnd) {
+        long start = toEpochSecond(event.getStartDateTime());
+        long end = toEpochSecond(event.getEndDateTime());
+
+        // The first occurrence keeps the event's own end time
+        if (start < qEnd && qStart < end) {
+            return true;
+        }
+        if (!(event instanceof RecurringEvent)) {
+            return false;
+        }
+
+        RecurringEvent recurring = (RecurringEvent) event;
+        int count = recurring.getOccurrences();
+        long duration = durationSeconds(event);  // Later occurrences use the whole-minute duration
+
+        // Occurrence i (i >= 1) overlaps when qStart - duration < start_i < qEnd,
+        // so only the first occurrence starting after qStart - duration can match
+        int i = Math.max(1, recurring.indexOnOrAfter(fromEpochSecond(qStart - duration), true));
+        for (; i < count; i++) {
+            long occurrenceStart = toEpochSecond(recurring.occurrenceAt(i));
+            if (occurrenceStart >= qEnd) {
+                return false;
+            }
+            if (qStart < occurrenceStart + duration) {
+                return true;
+            }
+            if (i > 1 && occurrenceStart == toEpochSecond(recurring.occurrenceAt(i - 1))) {
+                return false;  // Unknown recurrence type: every later occurrence is the same
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Latest instant reached by any occurrence of the event
+     */
+    private static long seriesHigh(MainEvent event) {
+        long start = toEpochSecond(event.getStartDateTime());
+        long high = Math.max(start, toEpochSecond(event.getEndDateTime()));
+        if (!(event instanceof RecurringEvent)) {
+            return high;
+        }
+
+        RecurringEvent recurring = (RecurringEvent) event;
+        int count = recurring.getOccurrences();
+        if (count <= 1) {
+            return high;
+        }
+
+        long lastStart = toEpochSecond(recurring.occurrenceAt(count - 1));
+        long lastEnd = toEpochSecond(recurring.lastOccurrenceEnd());
+        return Math.max(high, Math.max(lastStart, lastEnd));
+    }
+
+    /**
+     * Length of the event in seconds, rounded down to whole minutes
+     * (RecurringEvent copies this duration onto every later occurrence)
+     */
+    private static long durationSeconds(MainEvent event) {
+        return ChronoUnit.MINUTES.between(event.getStartDateTime(), event.getEndDateTime()) * 60;
+    }
+
+    /**
+     * Convert a LocalDateTime to epoch seconds
+     */
+    static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Convert epoch seconds back to a LocalDateTime (clamped to the supported range)
+     */
+    static LocalDateTime fromEpochSecond(long epochSecond) {
+        long min = toEpochSecond(LocalDateTime.MIN);
+        long max = toEpochSecond(LocalDateTime.MAX);
+        return LocalDateTime.ofEpochSecond(Math.max(min, Math.min(max, epochSecond)), 0, ZoneOffset.UTC);
+    }
+
+    // ----- Treap maintenance -----
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) node = rotateRight(node);
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) node = rotateLeft(node);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node delete(Node node, Node removed) {
+        if (node == null) {
+            return null;
+        }
+        if (node == removed) {
+            return merge(node.left, node.right);
+        }
+        if (compare(removed, node) < 0) {
+            node.left = delete(node.left, removed);
+        } else {
+            node.right = delete(node.right, removed);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /**
+     * Recompute maxHi for a whole subtree (children first)
+     */
+    private static void updateAll(Node node) {
+        if (node == null) {
+            return;
+        }
+        updateAll(node.left);
+        updateAll(node.right);
+        update(node);
+    }
+
+    private static void update(Node node) {
+        long max = node.hi;
+        if (node.left != null && node.left.maxHi > max) max = node.left.maxHi;
+        if (node.right != null && node.right.maxHi > max) max = node.right.maxHi;
+        node.maxHi = max;
+    }
+
+    private static int compare(Node a, Node b) {
+        if (a.lo != b.lo) return Long.compare(a.lo, b.lo);
+        return Long.compare(a.seq, b.seq);
+    }
+
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+}
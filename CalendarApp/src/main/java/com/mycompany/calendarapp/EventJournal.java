@@ -0,0 +1,907 @@
+package com.mycompany.calendarapp;
+
+import java.io.BufferedReader;  // Reads a journal file's first record
+import java.io.BufferedWriter;  // Buffers each record before it is flushed
+import java.io.File;  // The journal files
+import java.io.FileInputStream;  // For replaying the journal
+import java.io.FileOutputStream;  // Appends to the journal
+import java.io.IOException;  // For read and write errors
+import java.io.InputStreamReader;  // Decodes the journal
+import java.io.OutputStreamWriter;  // Encodes the journal
+import java.io.RandomAccessFile;  // For checking the last byte of the journal
+import java.io.Reader;  // Character source for replay
+import java.io.Writer;  // The open journal
+import java.nio.channels.FileChannel;  // For syncing the journal to the disk
+import java.nio.charset.StandardCharsets;  // The journal is always UTF-8
+import java.time.LocalDateTime;  // For event times
+import java.util.ArrayList;  // Holds the rotation started by flush()
+import java.util.List;  // List interface
+import java.util.concurrent.CompletableFuture;  // Work queued for the writer thread
+import java.util.concurrent.ExecutionException;  // Failed compactions
+import java.util.concurrent.ExecutorService;  // Runs writes and compactions in the background
+import java.util.concurrent.Executors;  // Creates the writer and compaction threads
+import java.util.concurrent.Future;  // The running compaction
+import java.util.function.Consumer;  // Told when the journal stops working
+import java.util.function.Supplier;  // Work run after the queued records
+
+/**
+ * EventJournal Class
+ *
+ * Saves changes to the events by appending one short record per change to
+ * journal.log, instead of rewriting every CSV file. Saving then costs as
+ * much as the change itself, not as much as the whole calendar.
+ *
+ * Purpose:
+ * - Make every add, edit (including reminder and additional-field changes)
+ *   and delete durable moments after it happens, without the edit waiting
+ * - Fold the journal back into the CSV files now and then, in the background
+ * - Rebuild the events at startup from the CSV files plus the journal
+ *
+ * Record Format (one CSV row each, ending in a "#" field):
+ * - G,generation,#
+ *   First record of every journal file: the generation of the CSV files
+ *   (see AtomicFileSet) that its changes were made on top of
+ * - E,id,title,description,start,end,recurrenceType,occurrences,reminder,location,category,priority,#
+ *   The whole event as it is after the change (recurrenceType, occurrences
+ *   and reminder are empty when not used); replaces any event with that ID
+ * - D,id,#   The event with that ID was deleted
+ * - C,#      Every event was removed
+ *
+ * Every record holds the full result of its change, so replaying a record
+ * twice, or over CSV files that already include it, gives the same events.
+ * Replaying it over CSV files saved by someone else (e.g. a run with the
+ * journal turned off) would undo their changes, so a journal file is only
+ * replayed if its generation is at least that of the CSV files: every save
+ * made outside the journal gets a generation above all journal files
+ * (nextGeneration), while a fold writes the generation of the journal file
+ * started at the same moment.
+ *
+ * How It Works:
+ * 1. Loading (CsvEventStore.load) reads the CSV files, then replay() applies
+ *    journal.log.old and journal.log on top, skipping a file older than the
+ *    CSV files; open() then deletes such files and starts listening to the
+ *    manager
+ * 2. Each change is queued as a record while the manager's lock is held,
+ *    so records are in the same order as the changes, and the JavaFX
+ *    thread never waits for the disk; the journal-writer thread writes
+ *    everything queued so far in one go, flushes it and syncs it to the
+ *    disk (unless -Dcalendar.journal.sync=false, see isSyncing). flush()
+ *    and close() wait until the queue is written
+ * 3. After COMPACT_AFTER_RECORDS records a snapshot is taken, and the
+ *    writer thread renames journal.log to journal.log.old after the
+ *    records queued up to that moment and starts a new journal.log with
+ *    the next generation; a background thread writes the snapshot to the
+ *    CSV files with that generation and then deletes journal.log.old
+ * 4. A crash during that write leaves journal.log.old behind, so the next
+ *    start replays it and open() folds everything into the CSV files again.
+ *    While journal.log.old is still there (the write failed), compactions
+ *    fold without renaming journal.log, so its records are never deleted
+ *    before they are in the CSV files
+ * 5. Replay stops at the first damaged record (e.g. the half-written last
+ *    line after a crash); open() folds the good part into the CSV files at
+ *    once so new records are never appended after a damaged one
+ * 6. If journal.log cannot be written, the journal stops, tells the error
+ *    handler (see EventStore.Session.setErrorHandler) and hands the manager
+ *    to a BackgroundSaver, which saves every event to the CSV files at once
+ *    and after each later change
+ */
+public class EventJournal implements EventManager.ChangeListener, EventStore.Session {
+
+    /** Records written before the journal is folded into the CSV files */
+    public static final int COMPACT_AFTER_RECORDS = 10_000;
+
+    private static final String JOURNAL_FILE = "journal.log";  // Changes since the last compaction
+    private static final String OLD_JOURNAL_FILE = "journal.log.old";  // Changes being folded in
+    private static final String END_OF_RECORD = "#";  // Last field of every complete record
+
+    private static EventJournal opened;  // The journal open in this process (null if none)
+
+    private final EventManager manager;  // The events being journaled
+    private final ExecutorService writerThread;  // The single thread that writes journal.log
+    private final ExecutorService compactor;  // Background thread for compactions
+    private final boolean sync;  // Sync every write to the disk
+    private final StringBuilder queued = new StringBuilder();  // Records not yet handed to the writer thread
+    private boolean writeScheduled;  // The writer thread will take the queued records
+    private boolean stopped;  // Closed, or failed: changes are no longer queued
+    private boolean failing;  // failed() has run
+    private Writer writer;  // The open journal.log (null once closed or failed; writer thread only)
+    private FileChannel channel;  // Channel under writer, for syncing
+    private Consumer<String> errorHandler;  // Told if the journal stops working (null if no one listens)
+    private volatile BackgroundSaver fallback;  // Saves the changes once the journal failed (null until then)
+    private long generation;  // Generation written at the start of journal.log (writer thread only)
+    private int records;  // Records queued since journal.log was started or rotated
+    private Future<?> compaction;  // The last compaction started (null if none)
+
+    private EventJournal(EventManager manager) {
+        this.manager = manager;
+        this.sync = isSyncing();
+        this.writerThread = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "journal-writer");
+            thread.setDaemon(true);  // Exit goes through close()
+            return thread;
+        });
+        this.compactor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "journal-compaction");
+            thread.setDaemon(true);  // Never keeps the application running
+            return thread;
+        });
+    }
+
+    /**
+     * Check whether the journal should be used
+     *
+     * On by default; start with -Dcalendar.journal=false to save by
+     * rewriting the CSV files instead.
+     *
+     * @return true to use the journal
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("calendar.journal", "true"));
+    }
+
+    /**
+     * Check whether each write of records is synced to the disk
+     *
+     * On by default, so a change survives a power cut as soon as the writer
+     * thread has written it; start with -Dcalendar.journal.sync=false to
+     * only hand the records to the operating system (a crash of the
+     * application still loses nothing written, a power cut may lose the
+     * last changes).
+     *
+     * @return true to sync every write
+     */
+    public static boolean isSyncing() {
+        return Boolean.parseBoolean(System.getProperty("calendar.journal.sync", "true"));
+    }
+
+    /**
+     * Check whether there are changes that are not in the CSV files yet
+     *
+     * @return true if a journal file that replay() would apply holds any
+     *         records
+     * @throws IOException If a journal file cannot be read
+     */
+    public static boolean hasChanges() throws IOException {
+        long base = csvGeneration();
+        return hasRecords(new File(OLD_JOURNAL_FILE), base) || hasRecords(new File(JOURNAL_FILE), base);
+    }
+
+    /**
+     * Get the generation for CSV files saved outside the journal
+     *
+     * It is above the generation of the CSV files and of every journal
+     * file, so no journal record written so far is replayed over them.
+     *
+     * @return The generation to save with
+     * @throws IOException If a journal file cannot be read
+     */
+    static long nextGeneration() throws IOException {
+        long generation = csvGeneration();
+        generation = Math.max(generation, generationOf(new File(OLD_JOURNAL_FILE)));
+        generation = Math.max(generation, generationOf(new File(JOURNAL_FILE)));
+        return generation + 1;
+    }
+
+    /**
+     * Drop the journal's records after the CSV files were saved outside it
+     *
+     * The records are older than the saved events. A journal open in this
+     * process starts again from the new generation; otherwise the journal
+     * files are deleted (replay would skip them anyway).
+     *
+     * @param generation The generation the CSV files were saved with
+     */
+    static void savedOutside(long generation) {
+        EventJournal journal;
+        synchronized (EventJournal.class) {
+            journal = opened;
+        }
+        if (journal != null) {
+            journal.restart(generation);
+        } else {
+            delete(new File(OLD_JOURNAL_FILE));
+            delete(new File(JOURNAL_FILE));
+        }
+    }
+
+    /**
+     * Replay the journal onto freshly loaded events
+     *
+     * Applies journal.log.old, then journal.log, stopping at the first
+     * damaged record and skipping a file whose generation is below that of
+     * the CSV files. Nothing on disk is changed (open() repairs a damaged
+     * journal and deletes skipped files), so this is safe for read-only
+     * loads too.
+     *
+     * @param manager The EventManager, already loaded from the CSV files
+     * @return Number of records applied
+     * @throws IOException If a journal file cannot be read
+     */
+    public static int replay(EventManager manager) throws IOException {
+        long base = csvGeneration();
+        Replay replay = new Replay(manager);
+        replay.read(new File(OLD_JOURNAL_FILE), base);
+        replay.read(new File(JOURNAL_FILE), base);
+
+        if (replay.maxId > 0) {
+            manager.reserveEventId(replay.maxId);  // New events must not reuse a journaled ID
+        }
+        return replay.records;
+    }
+
+    /**
+     * Start journaling a manager's changes
+     *
+     * The manager must already hold the journal's changes (see replay). If
+     * the journal is damaged, or a compaction was cut short, everything is
+     * folded into the CSV files first and the journal starts empty. Journal
+     * files older than the CSV files are deleted.
+     *
+     * @param manager The EventManager, loaded from the CSV files and the journal
+     * @return The open journal
+     * @throws IOException If the journal cannot be read or opened
+     */
+    public static EventJournal open(EventManager manager) throws IOException {
+        EventJournal journal = new EventJournal(manager);
+        File old = new File(OLD_JOURNAL_FILE);
+        File current = new File(JOURNAL_FILE);
+
+        long base = csvGeneration();
+        Replay check = new Replay(null);  // Reads the records without applying them again
+        boolean oldApplies = check.read(old, base);
+        boolean currentApplies = check.read(current, base);
+
+        if (check.damaged || oldApplies) {
+            // Start again from clean CSV files
+            long generation = nextGeneration();
+            if (!CSVHandlerCompliant.saveEvents(manager.snapshot().getAllEvents(), generation)) {  // Every event, even months not in memory
+                throw new IOException("Could not fold the journal into the CSV files");
+            }
+            delete(old);
+            delete(current);
+            journal.start(generation);
+        } else {
+            delete(old);  // Older than the CSV files, if it is there at all
+            if (currentApplies) {
+                journal.generation = generationOf(current);
+                journal.records = check.records;
+                journal.openForAppend(current);
+            } else {
+                delete(current);
+                journal.start(base);
+            }
+        }
+
+        synchronized (EventJournal.class) {
+            opened = journal;
+        }
+        manager.setChangeListener(journal);
+        return journal;
+    }
+
+    /**
+     * Replay Class
+     *
+     * Reads journal files in order, applying each record to a manager (or,
+     * with no manager, only checking it), until the first damaged record.
+     * A file's first record must be its generation (G), or, in a file
+     * written before journals had one, a change.
+     */
+    private static final class Replay {
+        private final EventManager manager;  // Where records are applied (null to only check them)
+        private int records;  // Good records read so far
+        private int maxId;  // Highest ID added or changed by the records
+        private boolean damaged;  // A damaged record was met; nothing after it is read
+        private boolean first;  // The next row is the first of its file
+
+        private Replay(EventManager manager) {
+            this.manager = manager;
+        }
+
+        /**
+         * Read one journal file, unless it is older than the CSV files
+         *
+         * @param file The journal file
+         * @param base Generation of the CSV files
+         * @return false if the file does not exist or is older than the CSV
+         *         files, and so was skipped
+         */
+        private boolean read(File file, long base) throws IOException {
+            if (!file.exists() || generationOf(file) < base) return false;
+            if (damaged) return true;  // Applies, but nothing after a damaged record can be trusted
+            first = true;
+            try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+                new CsvTokenizer(reader).forEachRow(row -> {
+                    if (damaged) return;  // Nothing after a damaged record can be trusted
+                    if (first) {
+                        first = false;
+                        if (isGeneration(row)) return;  // Read by generationOf
+                    }
+                    try {
+                        damaged = !apply(row);
+                    } catch (RuntimeException e) {
+                        damaged = true;  // Bad number, date or record type
+                    }
+                    if (!damaged) records++;
+                });
+            }
+            if (!damaged && !endsWithLineBreak(file)) {
+                damaged = true;  // The last record was cut off after its "#"
+            }
+            return true;
+        }
+
+        /**
+         * Apply (or only parse) one record
+         *
+         * @return false if the record is incomplete
+         */
+        private boolean apply(CsvTokenizer.Row row) {
+            int size = row.size();
+            if (size < 2 || !END_OF_RECORD.equals(row.getString(size - 1))) {
+                return false;
+            }
+            switch (row.getString(0)) {
+                case "E":
+                    if (size != 13) return false;
+                    MainEvent event = readEvent(row);
+                    maxId = Math.max(maxId, event.getEventId());
+                    if (manager != null) {
+                        manager.deleteEvent(event.getEventId());
+                        manager.addEvent(event);
+                    }
+                    return true;
+                case "D":
+                    if (size != 3) return false;
+                    int id = row.getInt(1);
+                    if (manager != null) manager.deleteEvent(id);
+                    return true;
+                case "C":
+                    if (size != 2) return false;
+                    if (manager != null) manager.clear();
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    /**
+     * @return true if a row is a G record
+     */
+    private static boolean isGeneration(CsvTokenizer.Row row) {
+        return row.size() == 3 && "G".equals(row.getString(0)) && END_OF_RECORD.equals(row.getString(2));
+    }
+
+    /**
+     * Build the event described by an E record
+     */
+    private static MainEvent readEvent(CsvTokenizer.Row row) {
+        int id = row.getInt(1);
+        String title = row.getString(2);
+        String description = row.getString(3);
+        LocalDateTime start = row.getDateTime(4);
+        LocalDateTime end = row.getDateTime(5);
+
+        MainEvent event;
+        if (row.isEmpty(6)) {
+            event = new MainEvent(id, title, description, start, end);
+        } else {
+            event = new RecurringEvent(id, title, description, start, end, row.getString(6), row.getInt(7));
+        }
+        if (!row.isEmpty(8)) {
+            event.setReminder(new Reminder(row.getInt(8)));
+        }
+        event.setLocation(row.getNullableString(9));
+        event.setCategory(row.getNullableString(10));
+        event.setPriority(row.getNullableString(11));
+        return event;
+    }
+
+    // ----- Queueing (called by the manager while its lock is held) -----
+
+    @Override
+    public void eventSaved(MainEvent event) {
+        queue(record(new StringBuilder(128), event).append(END_OF_RECORD).append('\n'), 1);
+    }
+
+    /**
+     * Queue one record per event in a single batch, so adding a whole
+     * backup's events costs one write instead of one per event
+     */
+    @Override
+    public void eventsSaved(List<? extends MainEvent> events) {
+        StringBuilder batch = new StringBuilder(128 * events.size());
+        for (MainEvent event : events) {
+            record(batch, event).append(END_OF_RECORD).append('\n');
+        }
+        queue(batch, events.size());
+    }
+
+    private static StringBuilder record(StringBuilder record, MainEvent event) {
+        record.append("E,").append(event.getEventId()).append(',');
+        record.append(CSVHandlerCompliant.escapeCsvValue(event.getTitle())).append(',');
+        record.append(CSVHandlerCompliant.escapeCsvValue(event.getDescription())).append(',');
+        appendDateTime(record, event.getStartDateTime()).append(',');
+        appendDateTime(record, event.getEndDateTime()).append(',');
+        if (event instanceof RecurringEvent) {
+            RecurringEvent recurring = (RecurringEvent) event;
+            record.append(CSVHandlerCompliant.escapeCsvValue(recurring.getRecurrenceType())).append(',');
+            record.append(recurring.getOccurrences()).append(',');
+        } else {
+            record.append(",,");
+        }
+        if (event.getReminder() != null) {
+            record.append(event.getReminder().getMinutesBefore());
+        }
+        record.append(',');
+        record.append(CSVHandlerCompliant.escapeCsvValue(event.getLocation())).append(',');
+        record.append(CSVHandlerCompliant.escapeCsvValue(event.getCategory())).append(',');
+        return record.append(CSVHandlerCompliant.escapeCsvValue(event.getPriority())).append(',');
+    }
+
+    @Override
+    public void eventRemoved(int eventId) {
+        queue(new StringBuilder(16).append("D,").append(eventId).append(",#\n"), 1);
+    }
+
+    @Override
+    public void eventsCleared() {
+        queue("C,#\n", 1);
+    }
+
+    private static StringBuilder appendDateTime(StringBuilder record, LocalDateTime dateTime) {
+        char[] date = new char[DateTimeCodec.MAX_LENGTH];
+        return record.append(date, 0, DateTimeCodec.writeIso(dateTime, date, 0));
+    }
+
+    /**
+     * Add finished records to the queue and make sure the writer thread
+     * will write them, compacting once there are enough
+     *
+     * @param records The records, each ending in a line break
+     * @param count How many records there are
+     */
+    private synchronized void queue(CharSequence records, int count) {
+        if (stopped) return;  // Closed, or the fallback saves everything
+        queued.append(records);
+        if (!writeScheduled) {
+            writeScheduled = true;
+            writerThread.execute(this::writeQueued);
+        }
+        this.records += count;
+        if (this.records >= COMPACT_AFTER_RECORDS && (compaction == null || compaction.isDone())) {
+            startCompaction();
+        }
+    }
+
+    /**
+     * Take everything queued so far; records queued later go to the next
+     * write
+     */
+    private synchronized String takeQueued() {
+        String batch = queued.toString();
+        queued.setLength(0);
+        writeScheduled = false;
+        return batch;
+    }
+
+    /**
+     * Run an action on the writer thread once every record queued so far
+     * is written
+     *
+     * Records queued after this call are written after the action, so an
+     * action that renames journal.log splits the records at this moment.
+     *
+     * @return The action's result, once it has run
+     */
+    private synchronized <T> CompletableFuture<T> afterQueued(Supplier<T> action) {
+        String batch = takeQueued();
+        return CompletableFuture.supplyAsync(() -> {
+            write(batch);
+            return action.get();
+        }, writerThread);
+    }
+
+    // ----- Writing (on the writer thread only) -----
+
+    private void writeQueued() {
+        write(takeQueued());
+    }
+
+    /**
+     * Write records to journal.log, flush them, and sync them to the disk
+     * unless syncing is off
+     *
+     * All records queued while the last write was running go out in one
+     * write and one sync.
+     */
+    private void write(String batch) {
+        if (writer == null || batch.isEmpty()) return;  // Closed or failed, or nothing to write
+        try {
+            writer.write(batch);
+            writeThrough();
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    private void writeThrough() throws IOException {
+        writer.flush();
+        if (sync) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Stop journaling after journal.log could not be written, and save by
+     * rewriting the CSV files instead
+     *
+     * The change that failed, and any other not yet on the disk, are in
+     * the manager, so the first save writes every event. Called on the
+     * writer thread, never with the manager's lock or this journal's held.
+     *
+     * @param e What went wrong
+     */
+    void failed(IOException e) {
+        Consumer<String> handler;
+        synchronized (this) {
+            if (failing) return;  // Already handed over
+            failing = true;
+            stopped = true;
+            queued.setLength(0);  // The fallback saves these changes with every other
+            handler = errorHandler;
+        }
+        String message = "Could not write " + JOURNAL_FILE + " (" + e.getMessage()
+                         + "); saving changes by rewriting the CSV files instead";
+        System.err.println(message);
+        try {
+            if (writer != null) writer.close();
+        } catch (IOException closing) {
+            // Already failed
+        }
+        writer = null;
+        synchronized (EventJournal.class) {
+            if (opened == this) opened = null;  // Its next full save deletes the journal files
+        }
+        BackgroundSaver saver = new BackgroundSaver(manager, new CsvEventStore());  // Replaces this listener
+        saver.saveEverything();
+        fallback = saver;
+        if (handler != null) handler.accept(message);
+    }
+
+    @Override
+    public synchronized void setErrorHandler(Consumer<String> handler) {
+        errorHandler = handler;
+    }
+
+    // ----- Compaction -----
+
+    /**
+     * Split journal.log at this moment and snapshot the events, then write
+     * the snapshot to the CSV files in the background
+     *
+     * Must be called while the manager's lock and this journal's are held,
+     * so no change falls between the snapshot and the split.
+     */
+    private void startCompaction() {
+        EventSnapshot snapshot = manager.snapshot();
+        compaction = rotateAfterQueued()
+            .thenAcceptAsync(folded -> fold(snapshot.getAllEvents(), folded), compactor);
+    }
+
+    /**
+     * Rotate journal.log on the writer thread once the records queued so
+     * far are in it
+     *
+     * @return The generation of the journal.log open after the rotation
+     */
+    private synchronized CompletableFuture<Long> rotateAfterQueued() {
+        records = 0;
+        return afterQueued(this::rotate);
+    }
+
+    /**
+     * Move journal.log to journal.log.old and start an empty journal.log
+     * with the next generation
+     *
+     * Records keep going to the same journal.log if journal.log.old is
+     * still there (its fold failed, so its records are only in that file)
+     * or journal.log cannot be renamed. Either way the fold that follows
+     * writes the generation of the journal.log that is open afterwards, so
+     * that journal.log is still replayed over the folded files.
+     *
+     * @return The generation of the journal.log now open
+     */
+    private long rotate() {
+        File current = new File(JOURNAL_FILE);
+        File old = new File(OLD_JOURNAL_FILE);
+        if (writer == null || old.exists()) return generation;
+        boolean rotated = false;
+        try {
+            writer.close();
+            rotated = current.renameTo(old);
+            if (!rotated) {
+                System.err.println("Could not rename " + JOURNAL_FILE + " to " + OLD_JOURNAL_FILE);
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing journal.log: " + e.getMessage());
+        }
+        try {
+            if (rotated) {
+                start(generation + 1);
+            } else {
+                openForAppend(current);
+            }
+        } catch (IOException e) {
+            failed(e);
+        }
+        return generation;
+    }
+
+    /**
+     * Start a new journal.log, beginning with its generation
+     */
+    private void start(long generation) throws IOException {
+        openForAppend(new File(JOURNAL_FILE));
+        writer.append("G,").append(Long.toString(generation)).append(',').append(END_OF_RECORD).append('\n');
+        writeThrough();
+        this.generation = generation;
+    }
+
+    /**
+     * Throw away both journal files and start again on CSV files saved
+     * outside the journal (see savedOutside)
+     *
+     * Records queued before this call are dropped with the files; later
+     * ones go to the new journal.log.
+     */
+    private void restart(long generation) {
+        CompletableFuture<Void> restarted;
+        synchronized (this) {
+            if (stopped) return;  // Closed, or the fallback saves everything
+            records = 0;
+            Future<?> running = compaction;  // Its rotation was queued before this task
+            restarted = afterQueued(() -> {
+                awaitCompaction(running);  // Its fold must not land on top of the new files
+                if (writer == null) return null;  // Failed
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing journal.log: " + e.getMessage());
+                }
+                delete(new File(OLD_JOURNAL_FILE));
+                delete(new File(JOURNAL_FILE));
+                try {
+                    start(generation);
+                } catch (IOException e) {
+                    failed(e);
+                }
+                return null;
+            });
+        }
+        await(restarted);
+    }
+
+    /**
+     * Write the events to the CSV files, then drop the journal they replace
+     *
+     * journal.log.old is kept if any file could not be written, so the next
+     * start replays it again.
+     *
+     * @param generation Generation of the journal.log started when the
+     *        events were taken
+     */
+    private boolean fold(List<MainEvent> events, long generation) {
+        if (CSVHandlerCompliant.saveEvents(events, generation)) {
+            delete(new File(OLD_JOURNAL_FILE));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Fold the journal into the CSV files now and wait until it is done
+     *
+     * Afterwards the CSV files hold every event (e.g. before copying them
+     * into a backup).
+     *
+     * @return true if the files were written
+     */
+    @Override
+    public boolean flush() {
+        BackgroundSaver saver = fallback;
+        if (saver != null) return saver.flush();
+        awaitCompaction();
+        List<CompletableFuture<Long>> rotation = new ArrayList<>(1);
+        EventSnapshot snapshot = manager.snapshotAnd(() -> {
+            synchronized (this) {
+                if (!stopped) rotation.add(rotateAfterQueued());
+            }
+        });
+        if (rotation.isEmpty()) {
+            saver = fallback;
+            return saver != null && saver.flush();  // Failed meanwhile, or closed
+        }
+        Long generation = await(rotation.get(0));
+        saver = fallback;
+        if (saver != null) return saver.flush();  // Failed while rotating
+        return generation != null && fold(snapshot.getAllEvents(), generation);
+    }
+
+    /**
+     * Stop journaling and close the file
+     *
+     * Writes the records still queued and waits for a running compaction.
+     * Whatever is still in journal.log is replayed at the next start.
+     *
+     * @return true if every record reached journal.log (or, once the
+     *         journal failed, every event reached the CSV files)
+     */
+    @Override
+    public boolean close() {
+        if (fallback == null) {
+            manager.setChangeListener(null);
+            synchronized (EventJournal.class) {
+                if (opened == this) opened = null;
+            }
+        }
+        CompletableFuture<Boolean> closed = null;
+        synchronized (this) {
+            if (!stopped) {
+                closed = afterQueued(this::closeFile);
+                stopped = true;
+            }
+        }
+        Boolean written = closed == null ? Boolean.TRUE : await(closed);
+        awaitCompaction();
+        compactor.shutdown();
+        writerThread.shutdown();
+        BackgroundSaver saver = fallback;  // Also if the last records could not be written
+        if (saver != null) return saver.close();
+        return Boolean.TRUE.equals(written);
+    }
+
+    /**
+     * Close journal.log
+     *
+     * @return true if it closed cleanly
+     */
+    private boolean closeFile() {
+        if (writer == null) return true;  // Failed: the fallback reports
+        try {
+            writer.close();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error closing journal.log: " + e.getMessage());
+            return false;
+        } finally {
+            writer = null;
+        }
+    }
+
+    /**
+     * Stop journaling and delete the journal files
+     *
+     * For when the CSV files are about to be replaced as a whole (restoring
+     * a backup): the old changes must not be replayed over the new files.
+     * Open a new journal once the new events are loaded.
+     */
+    @Override
+    public void discard() {
+        BackgroundSaver saver = fallback;
+        if (saver != null) {
+            saver.discard();
+            synchronized (this) {
+                stopped = true;
+            }
+            awaitCompaction();
+            compactor.shutdown();
+            writerThread.shutdown();
+        } else {
+            close();
+        }
+        delete(new File(OLD_JOURNAL_FILE));
+        delete(new File(JOURNAL_FILE));
+    }
+
+    private void awaitCompaction() {
+        Future<?> running;
+        synchronized (this) {
+            running = compaction;
+        }
+        awaitCompaction(running);
+    }
+
+    private static void awaitCompaction(Future<?> running) {
+        if (running == null) return;
+        try {
+            running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Error compacting journal: " + e.getCause());
+        }
+    }
+
+    /**
+     * Wait for a task on the writer thread
+     *
+     * @return Its result, or null if it did not finish
+     */
+    private static <T> T await(Future<T> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Error writing journal: " + e.getCause());
+        }
+        return null;
+    }
+
+    // ----- Files -----
+
+    private static long csvGeneration() {
+        return AtomicFileSet.generation(CSVHandlerCompliant.COMMIT_FILE);
+    }
+
+    /**
+     * Read the generation from the first record of a journal file
+     *
+     * @return The generation, or 0 for a missing or empty file or one
+     *         written before journals had a generation
+     */
+    private static long generationOf(File file) throws IOException {
+        if (!file.exists()) return 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String first = reader.readLine();
+            if (first != null && first.startsWith("G,") && first.endsWith("," + END_OF_RECORD)) {
+                try {
+                    return Long.parseLong(first.substring(2, first.length() - 2));
+                } catch (NumberFormatException e) {
+                    // Damaged: replay stops at it
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * @return true if a journal file would be replayed and holds a record
+     *         other than its generation
+     */
+    private static boolean hasRecords(File file, long base) throws IOException {
+        if (!file.exists() || generationOf(file) < base) return false;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String first = reader.readLine();
+            if (first == null) return false;
+            return !first.startsWith("G,") || reader.readLine() != null;
+        }
+    }
+
+    /**
+     * Open a journal file for appending, as writer and channel
+     */
+    private void openForAppend(File file) throws IOException {
+        FileOutputStream out = new FileOutputStream(file, true);
+        channel = out.getChannel();
+        writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    private static boolean endsWithLineBreak(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.length() == 0) return true;
+            raf.seek(raf.length() - 1);
+            return raf.read() == '\n';
+        }
+    }
+
+    private static void delete(File file) {
+        if (file.exists() && !file.delete()) {
+            System.err.println("Could not delete " + file.getName());
+        }
+    }
+}
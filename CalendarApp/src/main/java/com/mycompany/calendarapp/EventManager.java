@@ -1,8 +1,15 @@
 package com.mycompany.calendarapp;
 
+import java.io.IOException;  // For page file read errors
+import java.io.UncheckedIOException;  // For page read errors
 import java.time.LocalDateTime;  // For date and time handling
+import java.time.YearMonth;  // For month buckets
 import java.util.ArrayList;  // For creating array lists
+import java.util.Collections;  // For read-only list views
+import java.util.Iterator;  // For lazily walking occurrences
 import java.util.List;  // List interface
+import java.util.concurrent.atomic.AtomicInteger;  // For thread-safe ID generation
+import java.util.function.Consumer;  // Changes made by update()
 
 /**
  * EventManager Class
@@ -18,16 +25,109 @@ import java.util.List;  // List interface
  * - Expand recurring events into their individual occurrences
  * 
  * Key Responsibilities:
- * - Maintaining the master list of all events
+ * - Maintaining the master list of all events, in the order they were added
  * - ID generation and management
  * - Event conflict detection
  * - Event retrieval and filtering
+ * - Keeping the interval index used for clash detection up to date
+ * - Keeping the reminder index used for notifications up to date
+ * - Keeping only some months in memory when loaded from calendar.pages
+ * 
+ * Paging (see EventPager):
+ * - When started with startPaging, only the recurring events and the
+ *   months around today are loaded; the windowed queries (occurrencesBetween,
+ *   getOccurrencesInMonth, findClashingEvents) and findEventById read the
+ *   other months from calendar.pages as they reach them, and drop the least
+ *   recently used ones again
+ * - Whole-calendar methods (getAllEvents, getAllEventsExpanded, getColumns,
+ *   findClashes) load every month first; snapshot() reads the months that
+ *   are not in memory straight into the snapshot, without keeping them
+ * - Loading and dropping pages are not changes: the listener does not hear
+ *   about them, but the version still moves on, because cached results may
+ *   point at the events that were dropped
+ * - getDueReminders only sees the months in memory, which always include
+ *   the months around today
+ * 
+ * Threads:
+ * - Changes (add, delete, clear and every setter of a stored event) are
+ *   made one at a time under the manager's lock, and each one moves the
+ *   version number on
+ * - update() makes several changes to one event as a single change, so
+ *   no snapshot or listener ever sees the event half edited
+ * - The live methods (getAllEvents, occurrencesBetween, ...) are meant for
+ *   the thread that changes the events, normally the JavaFX thread
+ * - Any other thread should call snapshot() and read from the returned
+ *   EventSnapshot, which never changes and needs no locking. Snapshots
+ *   share their read-only copies of the events that did not change in
+ *   between (each stored event keeps its copy until it changes)
+ * - Event IDs are handed out atomically, so any thread may create events
+ * - A ChangeListener (e.g. EventJournal) hears about every change while the
+ *   lock is still held, so it sees the changes in the order they were made
  */
 public class EventManager {
 
+    /**
+     * Hears about every change to the stored events
+     * 
+     * Called while the manager's lock is held, right after the change, so
+     * no other change can slip in between.
+     */
+    public interface ChangeListener {
+        /**
+         * An event was added, or any of its fields changed
+         * 
+         * @param event The event as it is now
+         */
+        void eventSaved(MainEvent event);
+
+        /**
+         * Many events were added at once (by addEvents)
+         * 
+         * The same as eventSaved for each one, which is what it does unless
+         * the listener can take them more cheaply as a batch.
+         * 
+         * @param events The events, in order
+         */
+        default void eventsSaved(List<? extends MainEvent> events) {
+            for (MainEvent event : events) {
+                eventSaved(event);
+            }
+        }
+
+        /**
+         * An event was removed (or moved to another ID)
+         * 
+         * @param eventId The ID it was stored under
+         */
+        void eventRemoved(int eventId);
+
+        /**
+         * Every event was removed
+         */
+        void eventsCleared();
+    }
+
     // Instance variables
-    private List<MainEvent> events = new ArrayList<>();  // The master list storing all events
-    private int nextEventId = 1;  // Counter for generating unique event IDs
+    private List<MainEvent> events = new ArrayList<>();  // The master list storing all events (null where deleted)
+    private int deleted;  // Deleted positions in events not compacted yet
+    private List<MainEvent> allEvents;  // Copy handed out by getAllEvents (null once the list changed)
+    private final IntObjectMap<MainEvent> eventsById = new IntObjectMap<>();  // ID -> event, for O(1) lookups
+    private final AtomicInteger nextEventId = new AtomicInteger(1);  // Counter for generating unique event IDs
+    private final EventIntervalIndex intervalIndex = new EventIntervalIndex();  // Time index for clash queries
+    private final ReminderIndex reminderIndex = new ReminderIndex();  // Events with a reminder, by next fire time
+    private final Object lock = new Object();  // Held by every change to the events
+    private volatile long version = 0;  // Moves on with every change
+    private volatile EventSnapshot snapshot;  // Last snapshot handed out (may be out of date)
+    private static final Object ALL_OCCURRENCES = new Object();  // Cache key for the full expansion
+    private final ExpansionCache expansionCache = new ExpansionCache();  // Expansions reused until the version moves
+    private boolean columnStoreEnabled = true;  // Whether getColumns may build the columnar store
+    private EventColumns columns;  // Columnar copy of the expansion (null until needed)
+    private long columnsVersion = -1;  // Version the columns were built at
+    private ChangeListener listener;  // Told about every change (null if nobody listens)
+    private volatile EventPager pager;  // Months of calendar.pages in memory (null when every event is)
+    private MainEvent updating;  // Event being changed by update() (null if none)
+    private boolean updatingTimes;  // update() changed its times or recurrence
+    private boolean updatingDetails;  // update() changed another detail
 
     /**
      * Generate a unique event ID
@@ -38,60 +138,426 @@ public class EventManager {
      * @return A unique integer ID for a new event
      */
     public int generateEventId() { 
-        return nextEventId++;  // Return current value, then increment
+        return nextEventId.getAndIncrement();  // Return current value, then increment
     }
 
     /**
      * Add an event to the manager
      * 
+     * An event whose ID is already stored is not added: two events with one
+     * ID would leave the ID index pointing at only one of them.
+     * 
      * @param event The event to add to the collection
+     * @return true if it was added, false if its ID is already in use
      */
-    public void addEvent(MainEvent event) { 
-        events.add(event);  // Add to the internal list
+    public boolean addEvent(MainEvent event) { 
+        synchronized (lock) {
+            pageInFor(event.getEventId());  // The ID may be on a page not in memory
+            if (eventsById.get(event.getEventId()) != null) {
+                return false;
+            }
+            event.frozen = null;  // It may have changed while it was not stored
+            event.slot = events.size();  // Remember its position for O(1) deletion
+            events.add(event);  // Add to the internal list
+            allEvents = null;
+            eventsById.put(event.getEventId(), event);
+            event.owner = this;  // So later changes reach the indexes
+            intervalIndex.insert(event);
+            reminderIndex.insert(event, LocalDateTime.now());
+            version++;
+            if (listener != null) listener.eventSaved(event);
+            return true;
+        }
     }
     
     /**
-     * Get all events stored in the manager
+     * Add many events at once
+     * 
+     * Same as calling addEvent for each one, but the lock is taken and the
+     * version moved on only once, and an empty interval index is built in
+     * one pass, which matters when loading large files. As with addEvent,
+     * an event whose ID is already stored (or comes earlier in the list,
+     * e.g. a file that repeats an ID) is left out; the number left out is
+     * reported on the console.
      * 
-     * Returns the raw list of events (recurring events not expanded).
+     * @param newEvents The events to add, in order
+     * @return Number of events added
+     */
+    public int addEvents(List<? extends MainEvent> newEvents) {
+        synchronized (lock) {
+            if (pager != null) {
+                for (MainEvent event : newEvents) {
+                    pageInFor(event.getEventId());  // The ID may be on a page not in memory
+                }
+            }
+            List<MainEvent> added = store(newEvents);
+            version++;
+            if (listener != null) listener.eventsSaved(added);
+            return added.size();
+        }
+    }
+    
+    /**
+     * Move every event of another manager into this one, in one step
+     *
+     * For restoring a backup read into a new manager (see
+     * EventStore.loadBackup): the events are taken over, not copied, and
+     * added with addEvents. When they need new IDs, one block of IDs is
+     * taken from the counter and handed out in order, so there is no
+     * per-event lookup or lock.
+     *
+     * @param staging The manager to take the events from (left empty)
+     * @param keepIds true to keep the events' IDs (only when none of them is
+     *                in use here, e.g. right after clear()); false to number
+     *                them after this manager's events
+     * @return Number of events moved
+     */
+    public int addAll(EventManager staging, boolean keepIds) {
+        List<MainEvent> moved = new ArrayList<>(staging.getAllEvents());
+        staging.clear();  // They belong to no manager now
+        if (keepIds) {
+            int maxId = 0;
+            for (MainEvent event : moved) {
+                maxId = Math.max(maxId, event.getEventId());
+            }
+            reserveEventId(maxId);
+        } else {
+            int first = nextEventId.getAndAdd(moved.size());
+            for (int i = 0; i < moved.size(); i++) {
+                moved.get(i).setEventId(first + i);
+            }
+        }
+        return addEvents(moved);
+    }
+
+    /**
+     * Get all events stored in the manager
+     *
+     * Returns the raw list of events (recurring events not expanded), in
+     * the order they were added. The list is a read-only copy taken under
+     * the lock, so it stays as it was when later events are added or
+     * deleted, and it can be read from any thread; the same copy is handed
+     * out until the list changes. Use addEvent, deleteEvent and clear to
+     * change the events so the manager's indexes stay in sync. When paging,
+     * every month is loaded first.
      * 
      * @return List of all events
      */
     public List<MainEvent> getAllEvents() { 
-        return events; 
+        pageInAll();
+        synchronized (lock) {
+            if (allEvents == null) {
+                compact();  // Close the gaps left by deleteEvent
+                allEvents = Collections.unmodifiableList(new ArrayList<>(events));
+            }
+            return allEvents;
+        }
+    }
+
+    /**
+     * Remove every event from the manager
+     * 
+     * Used before reloading events from file (e.g. when restoring a backup).
+     */
+    public void clear() {
+        synchronized (lock) {
+            for (MainEvent e : events) {
+                if (e != null) e.owner = null;
+            }
+            events.clear();
+            deleted = 0;
+            allEvents = null;
+            eventsById.clear();
+            intervalIndex.clear();
+            reminderIndex.clear();
+            if (pager != null) {
+                pager.close();  // The months not in memory are gone too
+                pager = null;
+            }
+            version++;
+            if (listener != null) listener.eventsCleared();
+        }
+    }
+
+    /**
+     * Called by an event stored here after its times or recurrence changed
+     * 
+     * Re-indexes the event so clash queries and reminders see its new
+     * position in time.
+     * 
+     * @param event The event that changed
+     */
+    void eventChanged(MainEvent event) {
+        synchronized (lock) {
+            event.frozen = null;  // The next snapshot copies it again
+            if (event == updating) {
+                updatingTimes = true;  // Re-indexed once update() is done
+                return;
+            }
+            if (pager != null) pager.pin(event.page);  // Its page on disk is out of date now
+            intervalIndex.insert(event);
+            reminderIndex.insert(event, LocalDateTime.now());
+            version++;
+            if (listener != null) listener.eventSaved(event);
+        }
+    }
+
+    /**
+     * Called by an event stored here after a detail that does not affect its
+     * times (title, location, reminder, ...) changed
+     * 
+     * @param event The event that changed
+     */
+    void eventDetailsChanged(MainEvent event) {
+        synchronized (lock) {
+            event.frozen = null;
+            if (event == updating) {
+                updatingDetails = true;
+                return;
+            }
+            if (pager != null) pager.pin(event.page);
+            reminderIndex.insert(event, LocalDateTime.now());  // The reminder may be the detail that changed
+            version++;
+            if (listener != null) listener.eventSaved(event);
+        }
+    }
+
+    /**
+     * Called by an event stored here after its ID changed
+     * 
+     * @param event The event that changed
+     * @param oldId The ID it was stored under before the change
+     * @return false if another stored event has the new ID; nothing is
+     *         changed then, and the event must take its old ID back
+     */
+    boolean eventIdChanged(MainEvent event, int oldId) {
+        synchronized (lock) {
+            pageInFor(event.getEventId());
+            MainEvent other = eventsById.get(event.getEventId());
+            if (other != null && other != event) {
+                return false;  // One ID, one event (see addEvent)
+            }
+            event.frozen = null;
+            if (pager != null) pager.pin(event.page);
+            if (eventsById.get(oldId) == event) {
+                eventsById.remove(oldId);
+            }
+            eventsById.put(event.getEventId(), event);
+            version++;
+            if (listener != null) {
+                listener.eventRemoved(oldId);
+                listener.eventSaved(event);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Change a stored event as one step
+     * 
+     * The change (any number of setters on the event) runs under the
+     * manager's lock, and counts as a single change: the indexes are
+     * updated, the version moves on and the listener hears about the event
+     * once, after all of it. Other threads never see the event half
+     * changed, e.g. with its new start but its old end. The change must
+     * not throw halfway: check the new values before calling this.
+     * 
+     * @param id The event's ID
+     * @param change Sets the new values on the event
+     * @return true if the event was found and changed, false otherwise
+     */
+    public boolean update(int id, Consumer<MainEvent> change) {
+        synchronized (lock) {
+            MainEvent event = findEventById(id);
+            if (event == null) return false;
+            updating = event;
+            updatingTimes = false;
+            updatingDetails = false;
+            try {
+                change.accept(event);
+            } finally {
+                updating = null;
+                if (updatingTimes || updatingDetails) {
+                    if (pager != null) pager.pin(event.page);
+                    if (updatingTimes) intervalIndex.insert(event);
+                    reminderIndex.insert(event, LocalDateTime.now());
+                    version++;
+                    if (listener != null) listener.eventSaved(event);
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Store a new object in place of a stored event with the same ID, at
+     * the same position in the list
+     * 
+     * For an event that turns out to be of another class once it is
+     * stored, e.g. a restored event whose recurrence is read after it (see
+     * CSVHandlerCompliant.loadBackup).
+     * 
+     * @param stored The stored event
+     * @param replacement The event to store instead (same ID, not stored)
+     * @return false if stored is not the event stored under its ID
+     */
+    boolean replaceEvent(MainEvent stored, MainEvent replacement) {
+        synchronized (lock) {
+            int id = stored.getEventId();
+            if (replacement.getEventId() != id || eventsById.get(id) != stored) {
+                return false;
+            }
+            replacement.frozen = null;
+            replacement.slot = stored.slot;
+            replacement.page = stored.page;
+            events.set(stored.slot, replacement);
+            eventsById.put(id, replacement);
+            replacement.owner = this;
+            stored.owner = null;
+            allEvents = null;
+            if (pager != null) pager.pin(replacement.page);
+            intervalIndex.remove(stored);
+            intervalIndex.insert(replacement);
+            reminderIndex.remove(stored);
+            reminderIndex.insert(replacement, LocalDateTime.now());
+            version++;
+            if (listener != null) listener.eventSaved(replacement);
+            return true;
+        }
+    }
+
+    /**
+     * Set the listener told about every change
+     * 
+     * @param listener The listener, or null to stop listening
+     */
+    public void setChangeListener(ChangeListener listener) {
+        synchronized (lock) {
+            this.listener = listener;
+        }
+    }
+
+    /**
+     * Get the current version number
+     * 
+     * The number moves on with every change to the stored events, so two
+     * equal readings mean nothing changed in between.
+     * 
+     * @return The current version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get a read-only snapshot of the current events
+     * 
+     * Safe to call from any thread. If nothing changed since the last
+     * snapshot, the same snapshot is returned without locking; otherwise a
+     * new one is built while changes are held off. It copies only the
+     * events that changed since they were last copied: the others are the
+     * same read-only copies the earlier snapshots hold. When paging, it
+     * holds every event, including the months not in memory.
+     * 
+     * @return A snapshot showing the events as they are now
+     */
+    public EventSnapshot snapshot() {
+        EventSnapshot current = snapshot;
+        if (current != null && current.getVersion() == version) {
+            return current;
+        }
+        synchronized (lock) {
+            current = snapshot;
+            if (current == null || current.getVersion() != version) {
+                compact();
+                List<MainEvent> all = new ArrayList<>(events.size());
+                for (MainEvent event : events) {
+                    MainEvent copy = event.frozen;
+                    if (copy == null) {
+                        copy = event.copy();
+                        event.frozen = copy;  // Shared by every snapshot until the event changes
+                    }
+                    all.add(copy);
+                }
+                if (pager != null) {
+                    // Months not in memory are read for the snapshot only (fresh events, owned by no one)
+                    for (int page : pager.missingPages()) {
+                        all.addAll(pager.read(page));
+                    }
+                }
+                current = new EventSnapshot(version, all);
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Take a snapshot and run an action before any further change is made
+     * 
+     * Used by EventJournal to start a new journal file at exactly the
+     * point the snapshot shows.
+     * 
+     * @param action Run while changes are still held off
+     * @return The snapshot
+     */
+    EventSnapshot snapshotAnd(Runnable action) {
+        synchronized (lock) {
+            EventSnapshot current = snapshot();
+            action.run();
+            return current;
+        }
     }
 
     /**
      * Find an event by its ID
      * 
-     * Searches through all events to find one with the matching ID.
+     * Looks the ID up in the ID index, so the cost does not grow with the
+     * number of events. When paging, the event's month is loaded if needed
+     * and kept in memory from then on, so the event can be changed safely.
      * 
      * @param id The event ID to search for
      * @return The MainEvent with that ID, or null if not found
      */
     public MainEvent findEventById(int id) {
-        // Loop through all events
-        for (MainEvent e : events) {
-            if (e.getEventId() == id) return e;  // Found it!
+        if (pager == null) {
+            return eventsById.get(id);
+        }
+        synchronized (lock) {
+            pageInFor(id);
+            MainEvent event = eventsById.get(id);
+            if (event != null && pager != null) pager.pin(event.page);
+            return event;
         }
-        return null;  // Not found
     }
 
     /**
      * Delete an event by its ID
      * 
-     * Finds and removes the event from the collection.
+     * Finds and removes the event from the collection. Its position in the
+     * list is only marked as deleted, so deleting is O(1) instead of shifting
+     * every later event down by one; the gaps are closed in one pass when the
+     * list is next read, and the other events keep their order.
      * 
      * @param id The ID of the event to delete
      * @return true if the event was found and deleted, false otherwise
      */
     public boolean deleteEvent(int id) {
-        MainEvent e = findEventById(id);  // First, find the event
-        if (e != null) {
-            events.remove(e);  // Remove it from the list
-            return true;  // Success
+        synchronized (lock) {
+            pageInFor(id);
+            MainEvent e = eventsById.remove(id);  // First, find the event
+            if (e != null) {
+                if (pager != null) pager.pin(e.page);  // Reading the page again would bring it back
+                unstore(e);  // Leave a gap instead of shifting the list
+                intervalIndex.remove(e);  // And from the time index
+                reminderIndex.remove(e);
+                e.owner = null;
+                version++;
+                if (listener != null) listener.eventRemoved(id);
+                return true;  // Success
+            }
+            return false;  // Event not found
         }
-        return false;  // Event not found
     }
 
     /**
@@ -103,36 +569,187 @@ public class EventManager {
      * @param id The value to set as the next ID to be generated
      */
     public void setNextEventId(int id) { 
-        this.nextEventId = id; 
+        nextEventId.set(id); 
+    }
+
+    /**
+     * Make sure an ID that is in use is never generated again
+     * 
+     * @param id An event ID in use
+     */
+    void reserveEventId(int id) {
+        nextEventId.accumulateAndGet(id + 1, Math::max);
     }
     
     /**
      * Get all events including expanded occurrences of recurring events
      * 
-     * This method is crucial for displaying events in calendars and checking
-     * for conflicts. Recurring events are expanded into their individual
-     * occurrences.
+     * Recurring events are expanded into their individual occurrences and
+     * the result is sorted by start time. The expansion is cached and reused
+     * until an event changes. Views that only show part of the calendar
+     * should use getOccurrencesInMonth or occurrencesBetween instead.
      * 
      * Example: A weekly meeting with 4 occurrences becomes 4 separate events.
      * 
-     * @return List of all events with recurring events expanded into individual occurrences
+     * @return Read-only list of all events with recurring events expanded into individual occurrences
      */
     public List<MainEvent> getAllEventsExpanded() {
-        List<MainEvent> expandedEvents = new ArrayList<>();  // Create new list for result
-        
-        // Go through each event in the collection
-        for (MainEvent event : events) {
-            if (event instanceof RecurringEvent) {
-                // This is a recurring event - expand it into multiple occurrences
-                RecurringEvent recurring = (RecurringEvent) event;  // Cast to RecurringEvent
-                expandedEvents.addAll(recurring.generateOccurrences());  // Add all its occurrences
-            } else {
-                // Normal event - add it as-is
-                expandedEvents.add(event);
+        return cachedExpansion(ALL_OCCURRENCES, LocalDateTime.MIN, LocalDateTime.MAX, null);
+    }
+
+    /**
+     * Get the occurrences that start in one month
+     * 
+     * The result is cached per month and reused until an event changes, so
+     * moving between the day, week and month views of the same month only
+     * expands the recurring events once.
+     * 
+     * @param month The month to list
+     * @return Read-only list of the occurrences starting in that month, sorted by start time
+     */
+    public List<MainEvent> getOccurrencesInMonth(YearMonth month) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        return cachedExpansion(month, from, to, from);
+    }
+
+    /**
+     * Get the expanded occurrences as primitive columns
+     * 
+     * The columns are built from getAllEventsExpanded (so rows are sorted by
+     * start time) and kept until an event changes. Statistics, date-range
+     * filters and the clash sweep use them to avoid touching every event
+     * object.
+     * 
+     * @return The columns, or null if the store is turned off or some event
+     *         time has seconds (the columns only keep whole minutes)
+     */
+    public EventColumns getColumns() {
+        if (!columnStoreEnabled) {
+            return null;
+        }
+        long current = version;
+        EventColumns built = columns;
+        if (built == null || columnsVersion != current) {
+            built = new EventColumns(getAllEventsExpanded());
+            columns = built;
+            columnsVersion = current;
+        }
+        return built.isExact() ? built : null;
+    }
+
+    /**
+     * Turn the columnar store on or off
+     * 
+     * When it is off, getColumns returns null and callers fall back to
+     * scanning event objects; the memory used by the columns is released.
+     * 
+     * @param enabled true to allow the columnar store
+     */
+    public void setColumnStoreEnabled(boolean enabled) {
+        columnStoreEnabled = enabled;
+        if (!enabled) {
+            columns = null;
+        }
+    }
+
+    /**
+     * Get the cache used by getAllEventsExpanded and getOccurrencesInMonth
+     * 
+     * Use it to change the memory limit or to read the hit and miss counts.
+     * 
+     * @return The expansion cache
+     */
+    public ExpansionCache getExpansionCache() {
+        return expansionCache;
+    }
+
+    /**
+     * Look up an expansion in the cache, building and storing it on a miss
+     * 
+     * @param startingFrom If not null, only occurrences starting at or after this time are kept
+     */
+    private List<MainEvent> cachedExpansion(Object key, LocalDateTime from, LocalDateTime to,
+                                            LocalDateTime startingFrom) {
+        List<MainEvent> cached = expansionCache.get(key, version);
+        if (cached != null) {
+            return cached;
+        }
+        pageIn(from, to);  // Before reading the version: loading pages moves it on
+        long builtAt = version;
+        List<MainEvent> result = new ArrayList<>();
+        Iterator<MainEvent> it = occurrencesBetween(from, to);
+        while (it.hasNext()) {
+            MainEvent occurrence = it.next();
+            if (startingFrom == null || !occurrence.getStartDateTime().isBefore(startingFrom)) {
+                result.add(occurrence);
             }
         }
-        
-        return expandedEvents;  // Return the expanded list
+        List<MainEvent> readOnly = Collections.unmodifiableList(result);
+        expansionCache.put(key, readOnly, builtAt);
+        return readOnly;
+    }
+
+    /**
+     * Lazily walk the event occurrences that fall in a time window
+     * 
+     * Only events whose time span reaches the window are looked at (found
+     * through the interval index), and recurring events are expanded one
+     * occurrence at a time as the iterator advances. Occurrences come out
+     * sorted by start time.
+     * 
+     * An occurrence is included when it starts before 'to' and either
+     * overlaps the window or starts inside it. Views that want "events
+     * starting on this day" still check the start date themselves.
+     * 
+     * @param from Start of the window (inclusive)
+     * @param to End of the window (exclusive)
+     * @return Iterator over the occurrences in the window, in start order
+     */
+    public Iterator<MainEvent> occurrencesBetween(LocalDateTime from, LocalDateTime to) {
+        pageIn(from, to);
+        List<MainEvent> candidates = new ArrayList<>();
+        intervalIndex.findSpanning(EventIntervalIndex.toEpochSecond(from),
+                                   EventIntervalIndex.toEpochSecond(to), candidates);
+        return new OccurrenceIterator(candidates, from, to);
+    }
+
+    /**
+     * Collect the event occurrences in a time window into a list
+     * 
+     * Convenience wrapper around occurrencesBetween for callers that need a
+     * List (for example the console CalendarView methods).
+     * 
+     * @param from Start of the window (inclusive)
+     * @param to End of the window (exclusive)
+     * @return List of the occurrences in the window, sorted by start time
+     */
+    public List<MainEvent> getOccurrencesBetween(LocalDateTime from, LocalDateTime to) {
+        List<MainEvent> result = new ArrayList<>();
+        Iterator<MainEvent> it = occurrencesBetween(from, to);
+        while (it.hasNext()) {
+            result.add(it.next());
+        }
+        return result;
+    }
+    
+    /**
+     * Get the events whose reminder is due
+     * 
+     * An event is due when its next occurrence starts after 'now' and no
+     * more than its reminder's minutes later (see NotificationManager).
+     * Only the events with a reminder that has come up are looked at (see
+     * ReminderIndex), so the cost does not grow with the size of the calendar.
+     * When paging, only the months in memory are looked at; they always
+     * include the months around today.
+     * 
+     * @param now The current time
+     * @return The due events, with recurring events as the due Occurrence
+     */
+    public List<MainEvent> getDueReminders(LocalDateTime now) {
+        synchronized (lock) {
+            return reminderIndex.due(now);
+        }
     }
     
     /**
@@ -145,74 +762,29 @@ public class EventManager {
      * - Validating event times before saving
      * 
      * For recurring events, all occurrences are checked individually.
+     * The interval index narrows the search to events whose time span reaches
+     * the new event, so the cost is O(log n + k) instead of a full scan.
      * 
      * @param newEvent The event to check for clashes
      * @return List of events that clash (overlap in time) with the new event
      */
     public List<MainEvent> findClashingEvents(MainEvent newEvent) {
         List<MainEvent> clashes = new ArrayList<>();  // List to store clashing events
-        LocalDateTime newStart = newEvent.getStartDateTime();  // When new event starts
-        LocalDateTime newEnd = newEvent.getEndDateTime();  // When new event ends
+        pageIn(newEvent.getStartDateTime(), newEvent.getEndDateTime());
         
-        // Check against all existing events
-        for (MainEvent existing : events) {
-            // Skip comparing an event with itself (important when updating events)
-            if (existing.getEventId() == newEvent.getEventId()) {
-                continue;  // Skip to next event
-            }
-            
-            if (existing instanceof RecurringEvent) {
-                // For recurring events, we need to check all occurrences
-                RecurringEvent recurring = (RecurringEvent) existing;
-                List<MainEvent> occurrences = recurring.generateOccurrences();  // Get all occurrences
-                
-                // Check each occurrence
-                for (MainEvent occurrence : occurrences) {
-                    if (eventsOverlap(newStart, newEnd, occurrence.getStartDateTime(), occurrence.getEndDateTime())) {
-                        clashes.add(existing);  // Found a clash!
-                        break; // Only add the recurring event once, even if multiple occurrences clash
-                    }
-                }
-            } else {
-                // For normal events, direct time comparison
-                if (eventsOverlap(newStart, newEnd, existing.getStartDateTime(), existing.getEndDateTime())) {
-                    clashes.add(existing);  // This event clashes
-                }
-            }
-        }
+        // The event's own ID is skipped (important when updating events)
+        intervalIndex.findOverlapping(newEvent.getStartDateTime(), newEvent.getEndDateTime(),
+                                      newEvent.getEventId(), clashes);
         
         return clashes;  // Return all clashing events
     }
     
-    /**
-     * Check if two time ranges overlap
-     * 
-     * Two events overlap if:
-     * - Event 1 starts before Event 2 ends, AND
-     * - Event 2 starts before Event 1 ends
-     * 
-     * Examples:
-     * - Event 1: 9:00-10:00, Event 2: 9:30-10:30 → OVERLAP (both conditions true)
-     * - Event 1: 9:00-10:00, Event 2: 10:00-11:00 → NO OVERLAP (start2 not before end1)
-     * - Event 1: 9:00-10:00, Event 2: 8:00-9:00 → NO OVERLAP (start1 not before end2)
-     * 
-     * @param start1 Start time of first event
-     * @param end1 End time of first event
-     * @param start2 Start time of second event
-     * @param end2 End time of second event
-     * @return true if the events overlap, false otherwise
-     */
-    private boolean eventsOverlap(LocalDateTime start1, LocalDateTime end1, 
-                                   LocalDateTime start2, LocalDateTime end2) {
-        // Events overlap if one starts before the other ends
-        return start1.isBefore(end2) && start2.isBefore(end1);
-    }
-    
     /**
      * Find all events that have clashes with any other events
      * 
      * This method scans the entire event collection and returns all events
-     * that have at least one scheduling conflict.
+     * that have at least one scheduling conflict. Every occurrence of a
+     * recurring event is taken into account, not just the first one.
      * 
      * Useful for:
      * - Showing users all their scheduling conflicts
@@ -222,19 +794,231 @@ public class EventManager {
      * @return List of events that have conflicts with other events
      */
     public List<MainEvent> findAllClashingEvents() {
-        List<MainEvent> clashing = new ArrayList<>();  // Store conflicting events
-        
-        // Check each event against all others
+        return findClashes().getClashingEvents();
+    }
+
+    /**
+     * Sweep the whole calendar for clashes
+     * 
+     * Gives the clashing events, every clashing pair and the clash groups in
+     * one O(m log m + k) pass (m occurrences, k clashing occurrence pairs).
+     * 
+     * @return The result of the sweep
+     */
+    public ClashSweep findClashes() {
+        List<MainEvent> stored = getAllEvents();  // Before the columns are read: the sweep refers to events by position
+        EventColumns cols = getColumns();
+        if (cols == null) {
+            return new ClashSweep(stored);
+        }
+
+        // Take the occurrence times straight from the columns
+        ClashSweep.Intervals intervals = new ClashSweep.Intervals(cols.size());
+        for (int row = 0; row < cols.size(); row++) {
+            MainEvent event = cols.getEvent(row);
+            MainEvent owner = event instanceof Occurrence ? ((Occurrence) event).getParent() : event;
+            intervals.add(cols.getStartMinute(row) * 60, cols.getEndMinute(row) * 60, owner.slot);
+        }
+        return new ClashSweep(stored, intervals);
+    }
+
+    // ----- Paging -----
+
+    /**
+     * Load a calendar a page at a time: the recurring events and the months
+     * around today now, the other months when they are needed
+     * 
+     * Also moves the ID counter past every event in the file.
+     * 
+     * @param file The open page file (kept open, and closed by clear())
+     * @return false if the manager already holds events or the file cannot
+     *         be read; nothing is added then and the file is not kept
+     */
+    boolean startPaging(EventPageFile file) {
+        synchronized (lock) {
+            if (eventsById.size() > 0 || pager != null) {
+                return false;
+            }
+            EventPager newPager = new EventPager(file, LocalDateTime.now());
+            List<MainEvent> loaded;
+            try {
+                loaded = new ArrayList<>(file.readSeries());
+                for (int page : newPager.hotPages()) {
+                    loaded.addAll(newPager.load(page));
+                }
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("Error reading " + EventPageFile.PAGE_FILE + ": " + e.getMessage());
+                return false;
+            }
+            pager = newPager;
+            admit(loaded);
+            int maxId = file.getMaxId();
+            for (MainEvent event : loaded) {
+                maxId = Math.max(maxId, event.getEventId());  // Recurring events are on no page
+            }
+            nextEventId.set(maxId + 1);
+            return true;
+        }
+    }
+
+    /**
+     * Check whether only some months are in memory
+     * 
+     * @return true if the manager was loaded with startPaging
+     */
+    public boolean isPaging() {
+        return pager != null;
+    }
+
+    /**
+     * Load the pages that can reach a time window, then drop the least
+     * recently used pages beyond the limit (nothing to do unless paging)
+     */
+    private void pageIn(LocalDateTime from, LocalDateTime to) {
+        if (pager == null) return;
+        synchronized (lock) {
+            if (pager == null) return;
+            long fromMinute = Math.floorDiv(EventIntervalIndex.toEpochSecond(from), 60);
+            long toMinute = Math.floorDiv(EventIntervalIndex.toEpochSecond(to) + 59, 60);
+            List<Integer> touched = new ArrayList<>();
+            List<MainEvent> added = new ArrayList<>();
+            for (int page : pager.missingPages(fromMinute, toMinute, touched)) {
+                added.addAll(pager.load(page));
+            }
+            for (int page : touched) {
+                pager.touch(page);
+            }
+            if (!added.isEmpty()) admit(added);
+            List<MainEvent> dropped = pager.dropExcess(touched);
+            if (!dropped.isEmpty()) dismiss(dropped);
+        }
+    }
+
+    /**
+     * Load every page that is not in memory
+     */
+    private void pageInAll() {
+        if (pager == null) return;
+        synchronized (lock) {
+            if (pager == null) return;
+            List<MainEvent> added = new ArrayList<>();
+            for (int page : pager.missingPages()) {
+                added.addAll(pager.load(page));
+            }
+            if (!added.isEmpty()) admit(added);
+        }
+    }
+
+    /**
+     * Load the page holding an event ID if it is not in memory
+     * (lock held by the caller)
+     */
+    private void pageInFor(int id) {
+        if (pager == null || eventsById.get(id) != null) return;
+        int page = pager.missingPageOf(id);
+        if (page >= 0) {
+            admit(pager.load(page));
+        }
+    }
+
+    /**
+     * Add events read from the page file (lock held by the caller)
+     * 
+     * Like addEvents, but the listener is not told: they were saved already.
+     */
+    private void admit(List<MainEvent> newEvents) {
+        store(newEvents);
+        version++;
+    }
+
+    /**
+     * Store a batch of events and index them (lock held by the caller)
+     * 
+     * An event whose ID is stored already, or comes earlier in the batch,
+     * is left out, as addEvent does; otherwise the ID index would point at
+     * only one of the two events while the list and files kept both.
+     * 
+     * @param newEvents The events, in order
+     * @return The events stored
+     */
+    private List<MainEvent> store(List<? extends MainEvent> newEvents) {
+        LocalDateTime now = LocalDateTime.now();
+        List<MainEvent> added = new ArrayList<>(newEvents.size());
+        int repeated = 0;  // Events left out
+        int firstRepeated = 0;  // ID of the first one
+        for (MainEvent event : newEvents) {
+            int id = event.getEventId();
+            if (eventsById.get(id) != null) {
+                if (repeated++ == 0) firstRepeated = id;
+                continue;
+            }
+            event.frozen = null;  // It may have changed while it was not stored
+            event.slot = events.size();
+            events.add(event);
+            eventsById.put(id, event);
+            event.owner = this;
+            if (event.getReminder() != null) {
+                reminderIndex.insert(event, now);
+            }
+            added.add(event);
+        }
+        allEvents = null;
+        intervalIndex.insertAll(added);  // Built in one pass when the batch is large
+        if (repeated > 0) {
+            System.err.println("Left out " + repeated + " event(s) whose ID was already in use"
+                               + " (first: " + firstRepeated + ")");
+        }
+        return added;
+    }
+
+    /**
+     * Remove the events of dropped pages (lock held by the caller)
+     * 
+     * Like deleteEvent, but the listener is not told: they are still saved.
+     */
+    private void dismiss(List<MainEvent> dropped) {
+        for (MainEvent e : dropped) {
+            if (e.owner != this) continue;  // Not stored here any more
+            eventsById.remove(e.getEventId());
+            unstore(e);
+            intervalIndex.remove(e);
+            reminderIndex.remove(e);
+            e.owner = null;
+        }
+        version++;
+    }
+
+    /**
+     * Mark a removed event's position in the list as deleted (lock held by
+     * the caller)
+     * 
+     * Once more than half of the list is gaps it is compacted straight away,
+     * so deleting many events never leaves the list mostly empty.
+     */
+    private void unstore(MainEvent e) {
+        events.set(e.slot, null);
+        deleted++;
+        allEvents = null;
+        if (deleted > events.size() / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Close the gaps left by deleted events, keeping the order of the others
+     * (lock held by the caller)
+     */
+    private void compact() {
+        if (deleted == 0) return;
+        int kept = 0;
         for (int i = 0; i < events.size(); i++) {
             MainEvent event = events.get(i);
-            List<MainEvent> clashes = findClashingEvents(event);  // Find its clashes
-            
-            // If it has clashes and isn't already in our list, add it
-            if (!clashes.isEmpty() && !clashing.contains(event)) {
-                clashing.add(event);
+            if (event != null) {
+                event.slot = kept;
+                events.set(kept++, event);
             }
         }
-        
-        return clashing;  // Return all events with conflicts
+        events.subList(kept, events.size()).clear();
+        deleted = 0;
     }
 }
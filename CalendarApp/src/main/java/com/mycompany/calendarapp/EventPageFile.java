@@ -0,0 +1,399 @@
+package com.mycompany.calendarapp;
+
+import java.io.Closeable;  // The open file is released when paging stops
+import java.io.File;  // For checking the file dates
+import java.io.IOException;  // For read and write errors
+import java.nio.ByteBuffer;  // For the header and page reads
+import java.nio.channels.FileChannel;  // Writes and reads the file
+import java.nio.file.StandardOpenOption;  // Opens the file for reading
+import java.time.LocalDateTime;  // For event times
+import java.time.YearMonth;  // Pages are months
+import java.time.ZoneOffset;  // Epoch minutes are counted in UTC
+import java.util.ArrayList;  // For grouping events into pages
+import java.util.Arrays;  // For searching the ID lists
+import java.util.Comparator;  // For sorting by start time
+import java.util.List;  // List interface
+import java.util.zip.CRC32C;  // Checksums of the pages and directory
+
+/**
+ * EventPageFile Class
+ *
+ * A copy of every event sorted by start time and cut into one page per
+ * month (calendar.pages), so EventManager can keep only some months in
+ * memory and read the others when a view or search reaches them (see
+ * EventPager).
+ *
+ * Layout (numbers in the header are big-endian):
+ * - Header: "CALP", format version (int), page count (int), event count
+ *   (int), directory position (long), directory length (int), CRC32C of
+ *   the directory (int)
+ * - The series block: every recurring event (they can reach any month, so
+ *   they are always kept in memory and never paged)
+ * - One block per month that has events, in month order, holding the other
+ *   events starting in that month, sorted by start time
+ * - The directory: the series block's position, length, checksum and event
+ *   count, then for each page its month, the latest end time of its events,
+ *   the same four block values, and the sorted IDs of its events
+ *
+ * Each block is encoded like calendar.snapshot (SnapshotFile.writeEvents)
+ * with its own checksum, so a page is read and checked on its own.
+ *
+ * How It Works:
+ * - write() is called with every save, after the snapshot, so the file is
+ *   newer than the CSV files it copies
+ * - openIfNewer() reads the directory and checks every block's checksum
+ *   once (reading bytes, not decoding events); a missing, older, damaged or
+ *   unknown-version file returns null so the caller loads everything
+ * - The file stays open while paging; a save replaces it by renaming a new
+ *   file over it, which leaves the open one readable
+ */
+public final class EventPageFile implements Closeable {
+
+    /** Version written in the header; other versions are not read */
+    public static final int FORMAT_VERSION = 1;
+
+    static final String PAGE_FILE = "calendar.pages";  // Next to the CSV files
+    private static final int MAGIC = 0x43414C50;  // "CALP"
+    private static final int HEADER_SIZE = 32;  // Magic, version, counts, directory position, length, checksum
+
+    private final FileChannel channel;  // Open for reading while paging
+    private final int eventCount;  // Events in the whole file
+    private final long seriesOffset;  // Series block
+    private final int seriesLength;
+    private final int seriesChecksum;
+    private final int seriesCount;
+    private final int[] months;  // Per page: year * 12 + month - 1
+    private final long[] maxEndMinutes;  // Per page: latest end of its events (epoch minutes)
+    private final long[] offsets;  // Per page: block position
+    private final int[] lengths;  // Per page: block length
+    private final int[] checksums;  // Per page: block CRC32C
+    private final int[][] ids;  // Per page: sorted event IDs
+    private final int maxId;  // Highest event ID on the pages
+
+    // ----- Writing -----
+
+    /**
+     * Write the page file for a list of events
+     *
+     * @param events Every event
+     * @return true if the file was written
+     */
+    public static boolean write(List<MainEvent> events) {
+        List<MainEvent> series = new ArrayList<>();
+        List<MainEvent> single = new ArrayList<>();
+        for (MainEvent e : events) {
+            (e instanceof RecurringEvent ? series : single).add(e);
+        }
+        single.sort(Comparator.comparing(MainEvent::getStartDateTime)
+                              .thenComparingInt(MainEvent::getEventId));
+
+        try (AtomicFile file = new AtomicFile(PAGE_FILE)) {
+            FileChannel channel = file.channel();
+            channel.position(HEADER_SIZE);  // The header is filled in last
+
+            ByteBuffer directory = ByteBuffer.allocate(64);  // Grown as needed
+            long position = HEADER_SIZE;
+            SnapshotFile.Output seriesBlock = new SnapshotFile.Output(channel);
+            SnapshotFile.writeEvents(seriesBlock, series);
+            long seriesLength = seriesBlock.finish();
+            directory = putBlock(directory, position, seriesLength, seriesBlock.crc, series.size());
+            position += seriesLength;
+
+            int pageCount = 0;
+            for (int first = 0; first < single.size(); ) {
+                int month = monthOf(single.get(first).getStartDateTime());
+                int end = first;
+                long maxEnd = Long.MIN_VALUE;
+                while (end < single.size() && monthOf(single.get(end).getStartDateTime()) == month) {
+                    maxEnd = Math.max(maxEnd, EventColumns.toEpochMinute(single.get(end).getEndDateTime()));
+                    end++;
+                }
+                List<MainEvent> page = single.subList(first, end);
+                SnapshotFile.Output block = new SnapshotFile.Output(channel);
+                SnapshotFile.writeEvents(block, page);
+                long length = block.finish();
+
+                directory = ensure(directory, 30);
+                putZigzag(directory, month);
+                putZigzag(directory, maxEnd);
+                directory = putBlock(directory, position, length, block.crc, page.size());
+                int[] pageIds = new int[page.size()];
+                for (int i = 0; i < pageIds.length; i++) {
+                    pageIds[i] = page.get(i).getEventId();
+                }
+                Arrays.sort(pageIds);
+                int previous = 0;
+                for (int id : pageIds) {
+                    directory = ensure(directory, 5);
+                    putVarint(directory, id - previous);  // IDs are stored as gaps
+                    previous = id;
+                }
+
+                position += length;
+                pageCount++;
+                first = end;
+            }
+
+            directory.flip();
+            CRC32C crc = new CRC32C();
+            crc.update(directory.duplicate());
+            int directoryLength = directory.remaining();
+            while (directory.hasRemaining()) {
+                channel.write(directory);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(pageCount).putInt(events.size())
+                  .putLong(position).putInt(directoryLength).putInt((int) crc.getValue());
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            file.commit();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving " + PAGE_FILE + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Add a block's position, length, checksum and event count to the directory
+     */
+    private static ByteBuffer putBlock(ByteBuffer directory, long position, long length, CRC32C crc, int count) {
+        directory = ensure(directory, 40);
+        putVarint(directory, position);
+        putVarint(directory, length);
+        putVarint(directory, crc.getValue());
+        putVarint(directory, count);
+        return directory;
+    }
+
+    private static ByteBuffer ensure(ByteBuffer buffer, int room) {
+        if (buffer.remaining() >= room) return buffer;
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + room));
+        buffer.flip();
+        return bigger.put(buffer);
+    }
+
+    private static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static void putZigzag(ByteBuffer buffer, long value) {
+        putVarint(buffer, (value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Page number of a time: months counted from year 0
+     */
+    static int monthOf(LocalDateTime dateTime) {
+        return dateTime.getYear() * 12 + dateTime.getMonthValue() - 1;
+    }
+
+    // ----- Reading -----
+
+    /**
+     * Open the page file if it is newer than every CSV file that exists
+     *
+     * @param csvFiles The CSV files the page file stands in for
+     * @return The open file, or null to load the CSV files instead
+     */
+    static EventPageFile openIfNewer(String... csvFiles) {
+        File file = new File(PAGE_FILE);
+        if (!file.exists()) return null;
+        long pagesTime = file.lastModified();
+        for (String csv : csvFiles) {
+            File f = new File(csv);
+            if (f.exists() && f.lastModified() >= pagesTime) {
+                return null;  // A CSV file was written after (or with) the page file
+            }
+        }
+
+        FileChannel channel = null;
+        try {
+            // NIO channels let the file be replaced while open, on Windows too
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            EventPageFile pages = new EventPageFile(channel);
+            pages.checkBlocks();
+            return pages;
+        } catch (IOException | RuntimeException e) {
+            System.err.println(PAGE_FILE + " is damaged or from another version; loading every event ("
+                               + e.getMessage() + ")");
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // Already reporting a problem with this file
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Read the header and directory
+     */
+    private EventPageFile(FileChannel channel) throws IOException {
+        this.channel = channel;
+        ByteBuffer header = read(0, HEADER_SIZE);
+        if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+            throw new IOException("unknown format");
+        }
+        int pageCount = header.getInt();
+        eventCount = header.getInt();
+        long directoryOffset = header.getLong();
+        int directoryLength = header.getInt();
+        int directoryChecksum = header.getInt();
+        if (pageCount < 0 || directoryLength < 0 || directoryOffset + directoryLength != channel.size()) {
+            throw new IOException("bad header");
+        }
+        ByteBuffer directory = read(directoryOffset, directoryLength);
+        CRC32C crc = new CRC32C();
+        crc.update(directory.duplicate());
+        if ((int) crc.getValue() != directoryChecksum) {
+            throw new IOException("directory checksum mismatch");
+        }
+
+        SnapshotFile.Input in = new SnapshotFile.Input(directory.array(), 0);
+        seriesOffset = in.varint();
+        seriesLength = (int) in.varint();
+        seriesChecksum = (int) in.varint();
+        seriesCount = (int) in.varint();
+
+        months = new int[pageCount];
+        maxEndMinutes = new long[pageCount];
+        offsets = new long[pageCount];
+        lengths = new int[pageCount];
+        checksums = new int[pageCount];
+        ids = new int[pageCount][];
+        int highest = 0;
+        for (int p = 0; p < pageCount; p++) {
+            months[p] = (int) in.zigzag();
+            maxEndMinutes[p] = in.zigzag();
+            offsets[p] = in.varint();
+            lengths[p] = (int) in.varint();
+            checksums[p] = (int) in.varint();
+            int[] pageIds = new int[(int) in.varint()];
+            int id = 0;
+            for (int i = 0; i < pageIds.length; i++) {
+                id += (int) in.varint();
+                pageIds[i] = id;
+            }
+            ids[p] = pageIds;
+            if (pageIds.length > 0) highest = Math.max(highest, pageIds[pageIds.length - 1]);
+        }
+        maxId = highest;
+    }
+
+    /**
+     * Check every block's checksum, so a page read later cannot fail on bad data
+     */
+    private void checkBlocks() throws IOException {
+        readBlock(seriesOffset, seriesLength, seriesChecksum);
+        for (int p = 0; p < months.length; p++) {
+            readBlock(offsets[p], lengths[p], checksums[p]);
+        }
+    }
+
+    /** @return Number of pages (months with events that are not recurring) */
+    int getPageCount() {
+        return months.length;
+    }
+
+    /** @return Number of events in the file */
+    int getEventCount() {
+        return eventCount;
+    }
+
+    /** @return Highest event ID on the pages, not counting recurring events (0 if there are none) */
+    int getMaxId() {
+        return maxId;
+    }
+
+    /** @return The month a page holds, as year * 12 + month - 1 */
+    int getMonth(int page) {
+        return months[page];
+    }
+
+    /** @return First minute of a page's month (epoch minutes) */
+    long getStartMinute(int page) {
+        YearMonth month = YearMonth.of(Math.floorDiv(months[page], 12), Math.floorMod(months[page], 12) + 1);
+        return month.atDay(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    /** @return Latest end of a page's events (epoch minutes) */
+    long getMaxEndMinute(int page) {
+        return maxEndMinutes[page];
+    }
+
+    /**
+     * Find the page holding an event
+     *
+     * @param eventId The event ID
+     * @return The page, or -1 if the ID is not on any page
+     */
+    int findPage(int eventId) {
+        for (int p = 0; p < ids.length; p++) {
+            if (Arrays.binarySearch(ids[p], eventId) >= 0) return p;
+        }
+        return -1;
+    }
+
+    /**
+     * Read the recurring events
+     *
+     * @return New event objects, in saved order
+     * @throws IOException If the block cannot be read or is damaged
+     */
+    List<MainEvent> readSeries() throws IOException {
+        ByteBuffer block = readBlock(seriesOffset, seriesLength, seriesChecksum);
+        return SnapshotFile.readEvents(new SnapshotFile.Input(block.array(), 0), seriesCount);
+    }
+
+    /**
+     * Read one page
+     *
+     * @param page The page number
+     * @return New event objects, sorted by start time
+     * @throws IOException If the block cannot be read or is damaged
+     */
+    List<MainEvent> readPage(int page) throws IOException {
+        ByteBuffer block = readBlock(offsets[page], lengths[page], checksums[page]);
+        return SnapshotFile.readEvents(new SnapshotFile.Input(block.array(), 0), ids[page].length);
+    }
+
+    private ByteBuffer readBlock(long offset, int length, int checksum) throws IOException {
+        ByteBuffer block = read(offset, length);
+        CRC32C crc = new CRC32C();
+        crc.update(block.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("checksum mismatch at " + offset);
+        }
+        return block;
+    }
+
+    private ByteBuffer read(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("file is shorter than its directory");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing " + PAGE_FILE + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.mycompany.calendarapp;
+
+import java.io.IOException;  // For page read errors
+import java.io.UncheckedIOException;  // A page that was checked at startup could not be read
+import java.time.LocalDateTime;  // For the hot window
+import java.util.ArrayList;  // For page lists
+import java.util.Iterator;  // For dropping pages in LRU order
+import java.util.LinkedHashMap;  // Resident pages in least recently used order
+import java.util.List;  // List interface
+import java.util.Map;  // Map interface
+
+/**
+ * EventPager Class
+ *
+ * Decides which months of a calendar are kept in memory when EventManager
+ * loads from calendar.pages (see EventPageFile) instead of loading every
+ * event.
+ *
+ * How It Works:
+ * - Recurring events are always in memory; the other events are paged by
+ *   the month they start in
+ * - The hot window (the months around today, -Dcalendar.paging.months,
+ *   default 6 either side) is loaded at startup and never dropped
+ * - Other pages are loaded when a query's time window reaches them and are
+ *   kept in least-recently-used order; beyond -Dcalendar.paging.pages
+ *   (default 24) the least recently used ones are dropped again
+ * - A page is pinned (never dropped) once one of its events was handed out
+ *   by findEventById or changed, so an event that is being edited, or a
+ *   change that is not saved yet, is never thrown away and read back stale
+ *
+ * Not thread-safe; EventManager only uses it with its lock held. The
+ * manager does the adding and removing; the pager only tracks pages.
+ */
+final class EventPager {
+
+    private final EventPageFile file;  // The open page file
+    private final long[] startMinutes;  // Per page: first minute of its month
+    private final boolean[] resident;  // Per page: its events are in the manager
+    private final boolean[] pinned;  // Per page: never dropped
+    private final List<List<MainEvent>> members = new ArrayList<>();  // Per page: events read from it (null if not resident)
+    private final Map<Integer, Boolean> recent = new LinkedHashMap<>(16, 0.75f, true);  // Droppable resident pages, LRU first
+    private final int maxPages;  // Droppable pages kept in memory
+
+    /**
+     * @param file The open page file (closed by close())
+     * @param now The current time, for the hot window
+     */
+    EventPager(EventPageFile file, LocalDateTime now) {
+        this.file = file;
+        int count = file.getPageCount();
+        startMinutes = new long[count];
+        resident = new boolean[count];
+        pinned = new boolean[count];
+        for (int p = 0; p < count; p++) {
+            startMinutes[p] = file.getStartMinute(p);
+            members.add(null);
+        }
+        maxPages = Math.max(0, Integer.getInteger("calendar.paging.pages", 24));
+
+        int months = Math.max(1, Integer.getInteger("calendar.paging.months", 6));
+        int thisMonth = EventPageFile.monthOf(now);
+        for (int p = 0; p < count; p++) {
+            if (Math.abs(file.getMonth(p) - thisMonth) <= months) {
+                pinned[p] = true;  // Hot window
+            }
+        }
+    }
+
+    /**
+     * Check whether calendars are loaded a page at a time
+     *
+     * Turned off with -Dcalendar.paging=false (every event is then loaded
+     * at startup, and calendar.pages is not written).
+     *
+     * @return true if paging is on
+     */
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("calendar.paging", "true"));
+    }
+
+    /** @return The page file */
+    EventPageFile getFile() {
+        return file;
+    }
+
+    /** @return The pages of the hot window */
+    List<Integer> hotPages() {
+        List<Integer> pages = new ArrayList<>();
+        for (int p = 0; p < pinned.length; p++) {
+            if (pinned[p]) pages.add(p);
+        }
+        return pages;
+    }
+
+    /**
+     * Find the pages not in memory that may hold events reaching a window
+     *
+     * @param fromMinute Start of the window (epoch minutes, rounded down)
+     * @param toMinute End of the window (epoch minutes, rounded up)
+     * @param touched Receives every page that reaches the window, resident or not
+     * @return The pages to load
+     */
+    List<Integer> missingPages(long fromMinute, long toMinute, List<Integer> touched) {
+        List<Integer> missing = new ArrayList<>();
+        for (int p = 0; p < startMinutes.length; p++) {
+            if (startMinutes[p] < toMinute && file.getMaxEndMinute(p) >= fromMinute) {
+                touched.add(p);
+                if (!resident[p]) missing.add(p);
+            }
+        }
+        return missing;
+    }
+
+    /** @return Every page not in memory */
+    List<Integer> missingPages() {
+        List<Integer> missing = new ArrayList<>();
+        for (int p = 0; p < resident.length; p++) {
+            if (!resident[p]) missing.add(p);
+        }
+        return missing;
+    }
+
+    /**
+     * Find the page not in memory that holds an event
+     *
+     * @param eventId The event ID
+     * @return The page, or -1 if no such page (the event is in memory, was
+     *         deleted or never existed)
+     */
+    int missingPageOf(int eventId) {
+        int page = file.findPage(eventId);
+        return page >= 0 && !resident[page] ? page : -1;
+    }
+
+    /**
+     * Read a page for the manager to add
+     *
+     * @param page The page number
+     * @return Its events, marked as belonging to the page
+     * @throws UncheckedIOException If the page cannot be read
+     */
+    List<MainEvent> load(int page) {
+        List<MainEvent> events = read(page);
+        for (MainEvent event : events) {
+            event.page = page;
+        }
+        resident[page] = true;
+        members.set(page, events);
+        if (!pinned[page]) recent.put(page, Boolean.TRUE);
+        return events;
+    }
+
+    /**
+     * Read a page without adding it (for snapshots of the whole calendar)
+     *
+     * @param page The page number
+     * @return New event objects that belong to nothing
+     * @throws UncheckedIOException If the page cannot be read
+     */
+    List<MainEvent> read(int page) {
+        try {
+            return file.readPage(page);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read page " + page + " of " + EventPageFile.PAGE_FILE, e);
+        }
+    }
+
+    /**
+     * Note that a query used a page, so it is dropped last
+     */
+    void touch(int page) {
+        recent.get(page);
+    }
+
+    /**
+     * Keep a page in memory for good
+     *
+     * @param page The page, or -1 (events that came from no page)
+     */
+    void pin(int page) {
+        if (page >= 0 && !pinned[page]) {
+            pinned[page] = true;
+            recent.remove(page);
+        }
+    }
+
+    /**
+     * Drop the least recently used pages beyond the limit
+     *
+     * @param keep Pages the current query needs (never dropped)
+     * @return The events of the dropped pages, for the manager to remove
+     */
+    List<MainEvent> dropExcess(List<Integer> keep) {
+        List<MainEvent> dropped = new ArrayList<>();
+        int excess = recent.size() - maxPages;
+        Iterator<Integer> it = recent.keySet().iterator();
+        while (excess > 0 && it.hasNext()) {
+            int page = it.next();
+            if (keep.contains(page)) continue;
+            it.remove();
+            dropped.addAll(members.get(page));
+            members.set(page, null);
+            resident[page] = false;
+            excess--;
+        }
+        return dropped;
+    }
+
+    /** @return Number of pages in memory */
+    int residentPages() {
+        int count = 0;
+        for (boolean r : resident) {
+            if (r) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Release the page file
+     */
+    void close() {
+        file.close();
+    }
+}
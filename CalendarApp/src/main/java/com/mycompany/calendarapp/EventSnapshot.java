@@ -0,0 +1,145 @@
+package com.mycompany.calendarapp;
+
+import java.time.LocalDateTime;  // For date and time handling
+import java.util.ArrayList;  // For creating array lists
+import java.util.Collections;  // For read-only list views
+import java.util.Iterator;  // For lazily walking occurrences
+import java.util.List;  // List interface
+
+/**
+ * EventSnapshot Class
+ *
+ * A frozen, read-only view of an EventManager's events at one moment.
+ * Every event in the snapshot is a copy, so later changes made through the
+ * EventManager (or to the original event objects) do not show up here.
+ * Copies of events that did not change are shared with earlier and later
+ * snapshots, so a snapshot after one edit copies one event.
+ *
+ * Purpose:
+ * - Let background work (saving, reminders, searches) read a consistent
+ *   set of events while the GUI keeps changing the live ones
+ * - Make reads safe from any thread without locking: nothing in a snapshot
+ *   is ever modified after it is built
+ *
+ * How It Works:
+ * - EventManager.snapshot() builds one when the events have changed since
+ *   the last snapshot, and hands out the same one otherwise
+ * - getVersion() tells which state of the manager the snapshot shows
+ * - The snapshot has its own ID map and interval index, built the first
+ *   time a lookup or window query needs them (saves and backups only read
+ *   getAllEvents and never pay for them); after that, lookups and window
+ *   queries cost the same as on the live manager
+ *
+ * The events returned by a snapshot must be treated as read-only.
+ */
+public class EventSnapshot {
+
+    private final long version;  // Manager version this snapshot was taken at
+    private final List<MainEvent> events;  // Copies of the events, read-only
+    private IntObjectMap<MainEvent> eventsById;  // ID -> copy (null until first needed)
+    private EventIntervalIndex intervalIndex;  // Time index over the copies (null until first needed)
+
+    /**
+     * Constructor - Wrap copies of the events in a new snapshot
+     *
+     * EventManager.snapshot makes the copies (or reuses them) while the
+     * events cannot change.
+     *
+     * @param version The manager version being captured
+     * @param copies Read-only copies of the manager's events, owned by the
+     *        snapshot from now on
+     */
+    EventSnapshot(long version, List<MainEvent> copies) {
+        this.version = version;
+        this.events = Collections.unmodifiableList(copies);
+    }
+
+    private synchronized IntObjectMap<MainEvent> eventsById() {
+        if (eventsById == null) {
+            IntObjectMap<MainEvent> byId = new IntObjectMap<>(events.size());
+            for (MainEvent event : events) {
+                byId.put(event.getEventId(), event);
+            }
+            eventsById = byId;
+        }
+        return eventsById;
+    }
+
+    private synchronized EventIntervalIndex intervalIndex() {
+        if (intervalIndex == null) {
+            EventIntervalIndex index = new EventIntervalIndex();
+            index.insertAll(events);  // Built in one pass
+            intervalIndex = index;
+        }
+        return intervalIndex;
+    }
+
+    /**
+     * Get the manager version this snapshot shows
+     *
+     * @return The value of EventManager.getVersion() when the snapshot was taken
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get all events in the snapshot (recurring events not expanded)
+     *
+     * @return Read-only list of the events
+     */
+    public List<MainEvent> getAllEvents() {
+        return events;
+    }
+
+    /**
+     * Find an event by its ID
+     *
+     * @param id The event ID to search for
+     * @return The event with that ID, or null if not found
+     */
+    public MainEvent findEventById(int id) {
+        return eventsById().get(id);
+    }
+
+    /**
+     * Lazily walk the event occurrences that fall in a time window
+     *
+     * Same rules as EventManager.occurrencesBetween.
+     *
+     * @param from Start of the window (inclusive)
+     * @param to End of the window (exclusive)
+     * @return Iterator over the occurrences in the window, in start order
+     */
+    public Iterator<MainEvent> occurrencesBetween(LocalDateTime from, LocalDateTime to) {
+        List<MainEvent> candidates = new ArrayList<>();
+        intervalIndex().findSpanning(EventIntervalIndex.toEpochSecond(from),
+                                   EventIntervalIndex.toEpochSecond(to), candidates);
+        return new OccurrenceIterator(candidates, from, to);
+    }
+
+    /**
+     * Collect the event occurrences in a time window into a list
+     *
+     * @param from Start of the window (inclusive)
+     * @param to End of the window (exclusive)
+     * @return List of the occurrences in the window, sorted by start time
+     */
+    public List<MainEvent> getOccurrencesBetween(LocalDateTime from, LocalDateTime to) {
+        List<MainEvent> result = new ArrayList<>();
+        Iterator<MainEvent> it = occurrencesBetween(from, to);
+        while (it.hasNext()) {
+            result.add(it.next());
+        }
+        return result;
+    }
+
+    /**
+     * Sweep the snapshot for clashes
+     *
+     * @return The clashing events, pairs and groups
+     */
+    public ClashSweep findClashes() {
+        return new ClashSweep(events);
+    }
+}
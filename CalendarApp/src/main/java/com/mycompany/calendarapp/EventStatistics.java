@@ -4,6 +4,7 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.time.format.TextStyle;
 import java.util.*;
 
@@ -188,20 +189,251 @@ public class EventStatistics {
             return "No events to analyze.";
         }
 
+        return formatReport(getTotalEvents(events), getUpcomingEventsCount(events), getPastEventsCount(events),
+                            getRecurringEvents(events), getEventsWithReminders(events),
+                            getBusiestDayOfWeek(events), getBusiestHour(events), getEventsByDayOfWeek(events),
+                            getAverageEventsPerWeek(events), getAverageEventDuration(events),
+                            getEventsByMonth(events), getLongestEvent(events));
+    }
+
+    /**
+     * Generate the same report from the columnar store
+     *
+     * Gives exactly the same text as the List version for the same events,
+     * but scans primitive columns instead of event objects.
+     */
+    public static String generateStatisticsReport(EventColumns columns) {
+        if (columns.size() == 0) {
+            return "No events to analyze.";
+        }
+
+        return formatReport(getTotalEvents(columns), getUpcomingEventsCount(columns), getPastEventsCount(columns),
+                            getRecurringEvents(columns), getEventsWithReminders(columns),
+                            getBusiestDayOfWeek(columns), getBusiestHour(columns), getEventsByDayOfWeek(columns),
+                            getAverageEventsPerWeek(columns), getAverageEventDuration(columns),
+                            getEventsByMonth(columns), getLongestEvent(columns));
+    }
+
+    // ----- Columnar versions (same results as the List versions above) -----
+
+    /**
+     * Get the busiest day of the week based on event count
+     */
+    public static Map.Entry<DayOfWeek, Integer> getBusiestDayOfWeek(EventColumns columns) {
+        Map<DayOfWeek, Integer> dayCount = new HashMap<>();
+        int[] counts = countByDayOfWeek(columns);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            dayCount.put(day, counts[day.ordinal()]);
+        }
+        
+        return dayCount.entrySet().stream()
+            .max(Map.Entry.comparingByValue())
+            .orElse(null);
+    }
+
+    /**
+     * Get busiest hour of the day (0-23)
+     */
+    public static Map.Entry<Integer, Integer> getBusiestHour(EventColumns columns) {
+        int[] counts = new int[24];
+        for (int row = 0; row < columns.size(); row++) {
+            counts[(int) (Math.floorMod(columns.getStartMinute(row), MINUTES_PER_DAY) / 60)]++;
+        }
+
+        Map<Integer, Integer> hourCount = new HashMap<>();
+        for (int hour = 0; hour < 24; hour++) {
+            hourCount.put(hour, counts[hour]);
+        }
+        
+        return hourCount.entrySet().stream()
+            .max(Map.Entry.comparingByValue())
+            .orElse(null);
+    }
+
+    /**
+     * Get event distribution by month
+     */
+    public static Map<String, Integer> getEventsByMonth(EventColumns columns) {
+        Map<String, Integer> monthCount = new LinkedHashMap<>();
+
+        // Rows usually arrive in date order, so the month name is only
+        // rebuilt when a row falls outside the month seen last
+        long monthFirstDay = 1;
+        long monthEndDay = 0;
+        String monthYear = null;
+        for (int row = 0; row < columns.size(); row++) {
+            long day = Math.floorDiv(columns.getStartMinute(row), MINUTES_PER_DAY);
+            if (day < monthFirstDay || day >= monthEndDay) {
+                LocalDate first = LocalDate.ofEpochDay(day).withDayOfMonth(1);
+                monthFirstDay = first.toEpochDay();
+                monthEndDay = first.plusMonths(1).toEpochDay();
+                monthYear = first.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH)
+                          + " " + first.getYear();
+            }
+            monthCount.put(monthYear, monthCount.getOrDefault(monthYear, 0) + 1);
+        }
+        
+        return monthCount;
+    }
+
+    /**
+     * Get average events per week
+     */
+    public static double getAverageEventsPerWeek(EventColumns columns) {
+        if (columns.size() == 0) return 0.0;
+
+        long earliest = Long.MAX_VALUE;
+        long latest = Long.MIN_VALUE;
+        for (int row = 0; row < columns.size(); row++) {
+            long day = Math.floorDiv(columns.getStartMinute(row), MINUTES_PER_DAY);
+            earliest = Math.min(earliest, day);
+            latest = Math.max(latest, day);
+        }
+        
+        long totalDays = latest - earliest;
+        if (totalDays == 0) totalDays = 1;
+        
+        double weeks = totalDays / 7.0;
+        if (weeks < 1) weeks = 1;
+        
+        return columns.size() / weeks;
+    }
+
+    /**
+     * Get total events count
+     */
+    public static int getTotalEvents(EventColumns columns) {
+        return columns.size();
+    }
+
+    /**
+     * Get events with reminders count
+     */
+    public static int getEventsWithReminders(EventColumns columns) {
+        int count = 0;
+        for (int row = 0; row < columns.size(); row++) {
+            if (columns.hasReminder(row)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Get recurring events count
+     */
+    public static int getRecurringEvents(EventColumns columns) {
+        int count = 0;
+        for (int row = 0; row < columns.size(); row++) {
+            if (columns.isRecurring(row)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Get upcoming events (future events)
+     */
+    public static int getUpcomingEventsCount(EventColumns columns) {
+        LocalDateTime now = LocalDateTime.now();
+        long nowSecond = now.toEpochSecond(ZoneOffset.UTC);
+        int count = 0;
+        for (int row = 0; row < columns.size(); row++) {
+            if (columns.getStartMinute(row) * 60 > nowSecond) count++;  // start.isAfter(now)
+        }
+        return count;
+    }
+
+    /**
+     * Get past events count
+     */
+    public static int getPastEventsCount(EventColumns columns) {
+        LocalDateTime now = LocalDateTime.now();
+        long nowSecond = now.toEpochSecond(ZoneOffset.UTC);
+        boolean midSecond = now.getNano() > 0;
+        int count = 0;
+        for (int row = 0; row < columns.size(); row++) {
+            long endSecond = columns.getEndMinute(row) * 60;
+            if (endSecond < nowSecond || (endSecond == nowSecond && midSecond)) count++;  // end.isBefore(now)
+        }
+        return count;
+    }
+
+    /**
+     * Get average event duration in minutes
+     */
+    public static double getAverageEventDuration(EventColumns columns) {
+        if (columns.size() == 0) return 0.0;
+
+        long totalMinutes = 0;
+        for (int row = 0; row < columns.size(); row++) {
+            totalMinutes += columns.getEndMinute(row) - columns.getStartMinute(row);
+        }
+        
+        return totalMinutes / (double) columns.size();
+    }
+
+    /**
+     * Get longest event (the first one if several are equally long)
+     */
+    public static MainEvent getLongestEvent(EventColumns columns) {
+        int longest = -1;
+        long longestMinutes = 0;
+        for (int row = 0; row < columns.size(); row++) {
+            long minutes = columns.getEndMinute(row) - columns.getStartMinute(row);
+            if (longest < 0 || minutes > longestMinutes) {
+                longest = row;
+                longestMinutes = minutes;
+            }
+        }
+        return longest < 0 ? null : columns.getEvent(longest);
+    }
+
+    /**
+     * Get events per day of week distribution
+     */
+    public static Map<DayOfWeek, Integer> getEventsByDayOfWeek(EventColumns columns) {
+        Map<DayOfWeek, Integer> dayCount = new LinkedHashMap<>();
+        int[] counts = countByDayOfWeek(columns);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            dayCount.put(day, counts[day.ordinal()]);
+        }
+        return dayCount;
+    }
+
+    private static final long MINUTES_PER_DAY = 1440;
+
+    /**
+     * Count rows per day of week (index = DayOfWeek.ordinal())
+     */
+    private static int[] countByDayOfWeek(EventColumns columns) {
+        int[] counts = new int[7];
+        for (int row = 0; row < columns.size(); row++) {
+            long day = Math.floorDiv(columns.getStartMinute(row), MINUTES_PER_DAY);
+            counts[Math.floorMod(day + 3, 7)]++;  // 1970-01-01 was a Thursday
+        }
+        return counts;
+    }
+
+    /**
+     * Lay out the report text (shared by both report versions)
+     */
+    private static String formatReport(int total, int upcoming, int past, int recurring, int withReminders,
+                                       Map.Entry<DayOfWeek, Integer> busiestDay,
+                                       Map.Entry<Integer, Integer> busiestHour,
+                                       Map<DayOfWeek, Integer> dayDist,
+                                       double averagePerWeek, double averageDuration,
+                                       Map<String, Integer> monthDist, MainEvent longest) {
         StringBuilder report = new StringBuilder();
         report.append("📊 EVENT STATISTICS REPORT\n");
         report.append("=" .repeat(60)).append("\n\n");
         
         // Basic counts
         report.append("📈 OVERVIEW:\n");
-        report.append(String.format("   Total Events: %d\n", getTotalEvents(events)));
-        report.append(String.format("   Upcoming Events: %d\n", getUpcomingEventsCount(events)));
-        report.append(String.format("   Past Events: %d\n", getPastEventsCount(events)));
-        report.append(String.format("   Recurring Events: %d\n", getRecurringEvents(events)));
-        report.append(String.format("   Events with Reminders: %d\n\n", getEventsWithReminders(events)));
+        report.append(String.format("   Total Events: %d\n", total));
+        report.append(String.format("   Upcoming Events: %d\n", upcoming));
+        report.append(String.format("   Past Events: %d\n", past));
+        report.append(String.format("   Recurring Events: %d\n", recurring));
+        report.append(String.format("   Events with Reminders: %d\n\n", withReminders));
         
         // Busiest day
-        Map.Entry<DayOfWeek, Integer> busiestDay = getBusiestDayOfWeek(events);
         if (busiestDay != null) {
             report.append("🗓️ BUSIEST DAY OF WEEK:\n");
             report.append(String.format("   %s (%d events)\n\n",
@@ -210,7 +442,6 @@ public class EventStatistics {
         }
         
         // Busiest hour
-        Map.Entry<Integer, Integer> busiestHour = getBusiestHour(events);
         if (busiestHour != null) {
             report.append("⏰ BUSIEST HOUR OF DAY:\n");
             report.append(String.format("   %02d:00 (%d events)\n\n",
@@ -219,7 +450,6 @@ public class EventStatistics {
         
         // Day of week distribution
         report.append("📅 EVENTS BY DAY OF WEEK:\n");
-        Map<DayOfWeek, Integer> dayDist = getEventsByDayOfWeek(events);
         for (Map.Entry<DayOfWeek, Integer> entry : dayDist.entrySet()) {
             report.append(String.format("   %-10s: %3d events %s\n",
                 entry.getKey().getDisplayName(TextStyle.SHORT, Locale.ENGLISH),
@@ -230,19 +460,17 @@ public class EventStatistics {
         
         // Average stats
         report.append("📊 AVERAGES:\n");
-        report.append(String.format("   Average Events per Week: %.2f\n", getAverageEventsPerWeek(events)));
-        report.append(String.format("   Average Event Duration: %.1f minutes\n\n", getAverageEventDuration(events)));
+        report.append(String.format("   Average Events per Week: %.2f\n", averagePerWeek));
+        report.append(String.format("   Average Event Duration: %.1f minutes\n\n", averageDuration));
         
         // Monthly distribution
         report.append("📆 EVENTS BY MONTH:\n");
-        Map<String, Integer> monthDist = getEventsByMonth(events);
         for (Map.Entry<String, Integer> entry : monthDist.entrySet()) {
             report.append(String.format("   %-10s: %3d events\n", entry.getKey(), entry.getValue()));
         }
         report.append("\n");
         
         // Longest event
-        MainEvent longest = getLongestEvent(events);
         if (longest != null) {
             long duration = java.time.temporal.ChronoUnit.MINUTES.between(
                 longest.getStartDateTime(), longest.getEndDateTime());
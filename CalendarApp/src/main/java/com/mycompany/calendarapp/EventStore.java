@@ -0,0 +1,197 @@
+package com.mycompany.calendarapp;
+
+import java.io.IOException;  // A backup could not be read
+import java.util.List;  // List interface
+import java.util.function.Consumer;  // Receives scanned events and save errors
+
+/**
+ * EventStore Interface
+ *
+ * Where the events are kept between runs. The screens only talk to an
+ * EventStore, so the file format can be changed per installation (with
+ * -Dcalendar.store=NAME) without touching them.
+ *
+ * Purpose:
+ * - Load all events into an EventManager at startup
+ * - Replace the stored events with a list of events
+ * - Save each change as it happens (see Session)
+ * - Walk the stored events one at a time without loading them all
+ *
+ * Implementations:
+ * - "csv": event.csv, recurrent.csv, additional.csv and reminders.csv
+ *   (CsvEventStore, the default)
+ * - "legacy-csv": the single events.csv file (LegacyCsvEventStore)
+ *
+ * Errors are reported on the console and through the return values, as the
+ * CSV handlers always have; no method throws for a missing or unreadable file
+ * (only loadBackup throws, for an unreadable backup).
+ */
+public interface EventStore {
+
+    /** Names accepted by create(), default first */
+    List<String> NAMES = List.of("csv", "legacy-csv");
+
+    /**
+     * Saves the changes made to an EventManager as they happen
+     */
+    interface Session {
+        /**
+         * Bring the store up to date with every change made so far and wait
+         * until it is on disk (e.g. before the files are copied into a backup)
+         *
+         * @return true if the store holds the current events
+         */
+        boolean flush();
+
+        /**
+         * Save any outstanding changes, then stop watching the manager
+         *
+         * @return true if every change was saved
+         */
+        boolean close();
+
+        /**
+         * Stop watching the manager without saving outstanding changes
+         *
+         * For when the stored files are about to be replaced as a whole
+         * (restoring a backup).
+         */
+        void discard();
+
+        /**
+         * Be told when changes can no longer be saved the usual way (e.g.
+         * the journal cannot be written and every change now rewrites the
+         * store's files)
+         *
+         * The handler may be called on any thread, with the manager's lock
+         * held, so it should only pass the message on. Sessions that never
+         * change how they save ignore it.
+         *
+         * @param handler Receives a message for the user (null for none)
+         */
+        default void setErrorHandler(Consumer<String> handler) {
+        }
+    }
+
+    /**
+     * Get the name used to pick this store
+     *
+     * @return The name, one of NAMES
+     */
+    String getName();
+
+    /**
+     * Get the files that hold the events, once a Session has been flushed
+     *
+     * Copying these files (and nothing else) is a complete backup. The file
+     * listing the events comes first, so a backup written in this order can
+     * be streamed by loadBackup: the events are read first, and the other
+     * files applied to them by ID.
+     *
+     * @return File names, relative to the working directory, in backup order
+     */
+    List<String> getFiles();
+
+    /**
+     * Add the stored events to a manager and move its ID counter past them
+     *
+     * Includes changes a Session saved but has not yet written to the main
+     * files.
+     *
+     * @param manager The EventManager to fill (normally empty)
+     */
+    void load(EventManager manager);
+
+    /**
+     * Replace the stored events
+     *
+     * May be called from any thread, but not for two lists at once.
+     *
+     * @param events The events to store
+     * @return true if every file was written
+     */
+    boolean save(List<MainEvent> events);
+
+    /**
+     * Hand every stored event to an action, one at a time, without keeping
+     * them (or building an EventManager)
+     *
+     * The events are new objects that belong to no manager.
+     *
+     * @param action Called once per event, in stored order
+     * @return Number of events handed to the action
+     */
+    int scan(Consumer<? super MainEvent> action);
+
+    /**
+     * Add the events held in a backup of this store's files to a manager
+     *
+     * The sections are parsed as they are read; no stored file is touched,
+     * so a restore can check the whole backup this way before it changes
+     * anything (see EventManager.addAll).
+     *
+     * @param backup The backup's sections (e.g. BackupFile.source)
+     * @param manager The EventManager to fill (normally a new, empty one)
+     * @throws IOException If the backup cannot be read or parsed
+     */
+    void loadBackup(BackupFile.Source backup, EventManager manager) throws IOException;
+
+    /**
+     * Start saving every change made to a manager
+     *
+     * Call right after load(); a store may first tidy up its files (e.g.
+     * fold a damaged journal into them, see EventJournal).
+     *
+     * @param manager The loaded EventManager
+     * @return The session, to flush and close
+     */
+    Session open(EventManager manager);
+
+    /**
+     * Create a store by name
+     *
+     * @param name One of NAMES
+     * @return A new store
+     * @throws IllegalArgumentException If there is no store with that name
+     */
+    static EventStore create(String name) {
+        switch (name) {
+            case "csv":
+                return new CsvEventStore();
+            case "legacy-csv":
+                return new LegacyCsvEventStore();
+            default:
+                throw new IllegalArgumentException("Unknown event store '" + name + "', expected one of " + NAMES);
+        }
+    }
+
+    /**
+     * Create the store chosen for this installation
+     *
+     * Reads -Dcalendar.store (default "csv"); an unknown name is reported
+     * and the default is used.
+     *
+     * @return A new store
+     */
+    static EventStore fromSystemProperty() {
+        return fromSystemProperty(NAMES.get(0));
+    }
+
+    /**
+     * Create the store chosen for this installation, with a default of the
+     * caller's own
+     *
+     * @param defaultName The store used when -Dcalendar.store is not set or
+     *                    names no store (one of NAMES)
+     * @return A new store
+     */
+    static EventStore fromSystemProperty(String defaultName) {
+        String name = System.getProperty("calendar.store", defaultName);
+        try {
+            return create(name);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage() + "; using " + defaultName);
+            return create(defaultName);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.mycompany.calendarapp;
+
+import java.util.Iterator;  // For evicting old entries
+import java.util.LinkedHashMap;  // Keeps entries in least-recently-used order
+import java.util.List;  // List interface
+import java.util.Map;  // Map interface
+
+/**
+ * ExpansionCache Class
+ *
+ * Remembers expanded occurrence lists (the whole calendar, single months)
+ * so that opening one screen after another does not expand every
+ * recurring event again.
+ *
+ * Purpose:
+ * - Reuse expansions as long as the events have not changed
+ * - Keep the memory used by cached expansions under a set limit
+ * - Count hits and misses so the cache can be checked under real use
+ *
+ * How It Works:
+ * - Every entry is stamped with the EventManager version it was built at;
+ *   when the manager's version moves on, all entries are dropped at once
+ * - The size of an entry is the number of occurrences in it plus one (so
+ *   empty months still count); when the total goes over the limit, the
+ *   least recently used entries are dropped
+ * - Lists are stored read-only, because the same list is handed to every caller
+ */
+public class ExpansionCache {
+
+    /** Default limit: number of cached occurrences across all entries */
+    public static final int DEFAULT_LIMIT = 100_000;
+
+    private final LinkedHashMap<Object, List<MainEvent>> entries = new LinkedHashMap<>(16, 0.75f, true);  // In LRU order
+    private long version = -1;  // Manager version the entries belong to
+    private int limit = DEFAULT_LIMIT;  // Maximum cached occurrences
+    private int cachedOccurrences = 0;  // Occurrences currently held
+    private long hits = 0;  // Lookups answered from the cache
+    private long misses = 0;  // Lookups that had to expand
+
+    /**
+     * Look up an entry
+     *
+     * @param key What was expanded (e.g. a YearMonth)
+     * @param currentVersion The manager's current version
+     * @return The cached list, or null if it has to be built
+     */
+    synchronized List<MainEvent> get(Object key, long currentVersion) {
+        if (currentVersion != version) {
+            dropAll();
+            version = currentVersion;
+        }
+        List<MainEvent> list = entries.get(key);
+        if (list != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return list;
+    }
+
+    /**
+     * Store an entry built at a given version
+     *
+     * Entries bigger than the whole limit are not stored.
+     *
+     * @param key What was expanded
+     * @param list The read-only expansion
+     * @param builtAtVersion The manager version the list was built from
+     */
+    synchronized void put(Object key, List<MainEvent> list, long builtAtVersion) {
+        if (builtAtVersion != version || weight(list) > limit) {
+            return;  // Out of date already, or too big to keep
+        }
+        List<MainEvent> old = entries.put(key, list);
+        if (old != null) {
+            cachedOccurrences -= weight(old);
+        }
+        cachedOccurrences += weight(list);
+        trim();
+    }
+
+    /**
+     * Get the memory limit
+     *
+     * @return Maximum number of occurrences kept across all entries
+     */
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Set the memory limit
+     *
+     * Lowering the limit drops least recently used entries right away.
+     * A limit of 0 turns caching off.
+     *
+     * @param limit Maximum number of occurrences kept across all entries
+     */
+    public synchronized void setLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Cache limit cannot be negative: " + limit);
+        }
+        this.limit = limit;
+        trim();
+    }
+
+    /**
+     * Get the number of lookups answered from the cache
+     *
+     * @return Hit count since creation (or the last resetStatistics)
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of lookups that had to expand events
+     *
+     * @return Miss count since creation (or the last resetStatistics)
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get the number of occurrences held right now
+     *
+     * @return Total size of the cached lists (each entry counts one extra)
+     */
+    public synchronized int getCachedOccurrences() {
+        return cachedOccurrences;
+    }
+
+    /**
+     * Set the hit and miss counters back to zero
+     */
+    public synchronized void resetStatistics() {
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Drop every cached entry
+     */
+    public synchronized void clear() {
+        dropAll();
+    }
+
+    private void dropAll() {
+        entries.clear();
+        cachedOccurrences = 0;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<Object, List<MainEvent>>> it = entries.entrySet().iterator();
+        while (cachedOccurrences > limit && it.hasNext()) {
+            cachedOccurrences -= weight(it.next().getValue());
+            it.remove();
+        }
+    }
+
+    private static int weight(List<MainEvent> list) {
+        return list.size() + 1;
+    }
+}
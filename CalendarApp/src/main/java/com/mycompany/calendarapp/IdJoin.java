@@ -0,0 +1,311 @@
+package com.mycompany.calendarapp;
+
+import java.io.Closeable;  // Cursors hold the file open
+import java.io.File;  // The side file
+import java.io.FileInputStream;  // Opens the file at a row
+import java.io.IOException;  // For read errors
+import java.io.InputStreamReader;  // Decodes the file
+import java.io.Reader;  // Character source for the tokenizer
+import java.nio.charset.Charset;  // The file's encoding
+import java.util.concurrent.CompletableFuture;  // Work started on the common pool
+
+/**
+ * IdJoin Class
+ *
+ * A side file (recurrent.csv, additional.csv, reminders.csv) joined to
+ * event.csv by event ID while event.csv is being read. The side file's ID
+ * is its first column.
+ *
+ * How It Works:
+ * - A side file written by CSVHandlerCompliant.saveEvents lists its IDs in
+ *   increasing order, so it is streamed: each Cursor reads it row by row
+ *   alongside the event.csv rows, moving forward as the event IDs go up (a
+ *   merge join). Only the rows that match are turned into objects, and no
+ *   row is kept once the cursor has moved past it
+ * - When event.csv is read in parallel chunks, each chunk has its own
+ *   cursor, which starts at the row start (found once, on the common pool)
+ *   closest below the chunk's first ID instead of at the top of the file.
+ *   A cursor also jumps back that way if event.csv goes back to a lower ID
+ * - A side file that may be out of order (see hashed()) is read on the
+ *   common pool into an IntObjectMap instead (a hash join; a later row for
+ *   the same ID wins, as it always has)
+ *
+ * A streamed file that turns out to be out of order, or to repeat an ID, is
+ * noticed by the cursor that reads past it (foundOutOfOrder()); the rows
+ * joined so far cannot be trusted, so the caller reads event.csv again
+ * with the file hashed.
+ *
+ * Each Cursor is used by one thread; make one per chunk of event.csv and
+ * close it when the chunk is done.
+ *
+ * @param <T> The row type
+ */
+final class IdJoin<T> {
+
+    private static final long SEEK_SPACING = 256L * 1024;  // Bytes between the rows a cursor can start at
+
+    private final File file;  // The side file
+    private final Charset charset;  // Its encoding
+    private final ChunkedCsvReader.RowMapper<T> parser;  // Turns a matching row into its object
+    private final boolean exists;  // false if there is no file (nothing joins)
+    private final CompletableFuture<IntObjectMap<T>> byId;  // Rows by ID (null when streaming)
+    private final CompletableFuture<SeekIndex> index;  // Where cursors can start (null: at the top)
+    private volatile boolean outOfOrder;  // A cursor saw an ID that was not above the one before
+
+    private IdJoin(File file, Charset charset, ChunkedCsvReader.RowMapper<T> parser,
+                   boolean hashed, boolean seekable) {
+        this.file = file;
+        this.charset = charset;
+        this.parser = parser;
+        this.exists = file.exists();
+        this.byId = exists && hashed ? CompletableFuture.supplyAsync(this::readAll) : null;
+        this.index = exists && !hashed && seekable ? CompletableFuture.supplyAsync(this::readIndex) : null;
+    }
+
+    /**
+     * Join a side file that is in ID order by streaming it
+     *
+     * @param file The side file (need not exist)
+     * @param charset Its encoding
+     * @param parser Turns a matching row into its object (null to leave it out)
+     * @param seekable true if cursors will start in the middle of event.csv
+     *                 (it is read in parallel chunks), so they should be able
+     *                 to start in the middle of this file too
+     * @return The join
+     */
+    static <T> IdJoin<T> streamed(File file, Charset charset, ChunkedCsvReader.RowMapper<T> parser,
+                                  boolean seekable) {
+        return new IdJoin<>(file, charset, parser, false, seekable && ChunkedCsvReader.isAsciiCompatible(charset));
+    }
+
+    /**
+     * Join a side file that may be out of order through a hash map
+     *
+     * @param file The side file (need not exist)
+     * @param charset Its encoding
+     * @param parser Turns a row into its object (null to leave it out)
+     * @return The join (the file is read on the common pool from now on)
+     */
+    static <T> IdJoin<T> hashed(File file, Charset charset, ChunkedCsvReader.RowMapper<T> parser) {
+        return new IdJoin<>(file, charset, parser, true, false);
+    }
+
+    /** @return The same file joined through a hash map (this join if it already is) */
+    IdJoin<T> hashed() {
+        return byId != null || !exists ? this : hashed(file, charset, parser);
+    }
+
+    /** @return true if a cursor found this streamed file out of ID order */
+    boolean foundOutOfOrder() {
+        return outOfOrder;
+    }
+
+    /** @return A new cursor for one thread */
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Read the whole file into a map for a hash join
+     */
+    private IntObjectMap<T> readAll() {
+        IntObjectMap<T> rows = new IntObjectMap<>();
+        try (Reader reader = open(0)) {
+            new CsvTokenizer(reader).skipHeader().forEachRow(row -> {
+                T value = parser.map(row);
+                if (value != null) {
+                    rows.put(row.getInt(0), value);
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error loading " + file.getName() + ": " + e.getMessage());
+        }
+        return rows;
+    }
+
+    /**
+     * Find the first ID after rows spread through the file
+     */
+    private SeekIndex readIndex() {
+        try {
+            long[] bounds = ChunkedCsvReader.rowStarts(file, SEEK_SPACING);
+            long[] starts = new long[bounds.length];
+            int[] firstIds = new int[bounds.length];
+            int count = 0;
+            // The top of the file (bounds[0]) is where cursors start without an entry
+            for (int i = 1; i + 1 < bounds.length; i++) {
+                if (bounds[i] == bounds[i + 1]) continue;  // No row starts between them
+                try (Reader reader = open(bounds[i])) {
+                    CsvTokenizer.Row row = new CsvTokenizer(reader, 256).next();
+                    if (row == null) break;  // Only the header (or blank lines) left
+                    starts[count] = bounds[i];
+                    firstIds[count] = row.getInt(0);
+                    if (count > 0 && firstIds[count] <= firstIds[count - 1]) {
+                        outOfOrder = true;  // Cursors would start in the wrong places
+                    }
+                    count++;
+                }
+            }
+            return new SeekIndex(starts, firstIds, count);
+        } catch (IOException e) {
+            System.err.println("Error indexing " + file.getName() + ": " + e.getMessage());
+            return new SeekIndex(new long[0], new int[0], 0);  // Cursors start at the top
+        }
+    }
+
+    /**
+     * Open the file for reading from a byte offset
+     *
+     * @param offset A row start (0 for the header)
+     */
+    private Reader open(long offset) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            in.getChannel().position(offset);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new InputStreamReader(in, charset);
+    }
+
+    /**
+     * Row starts a cursor can read from, and the first ID read at each
+     */
+    private static final class SeekIndex {
+        final long[] starts;  // Byte offsets, increasing
+        final int[] firstIds;  // ID of the first row read from each offset
+        final int count;  // Number of offsets in use
+
+        SeekIndex(long[] starts, int[] firstIds, int count) {
+            this.starts = starts;
+            this.firstIds = firstIds;
+            this.count = count;
+        }
+
+        /**
+         * @return The last offset whose first ID is not above id (-1 if none)
+         */
+        int find(int id) {
+            int lo = 0;
+            int hi = count;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (firstIds[mid] <= id) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo - 1;
+        }
+    }
+
+    /**
+     * Cursor Class
+     *
+     * Finds rows for a stream of event IDs, cheapest when they increase.
+     */
+    final class Cursor implements Closeable {
+        private Reader reader;  // The open file (null before the first find)
+        private CsvTokenizer rows;  // Tokenizes it
+        private CsvTokenizer.Row row;  // Current row (null at the end of the file)
+        private int rowId;  // ID of the current row
+        private int start;  // Index entry the reader started at (-1: the top)
+        private int lastId = Integer.MIN_VALUE;  // Last ID asked for
+
+        private Cursor() {
+        }
+
+        /**
+         * Find the row for an event ID
+         *
+         * @param id The event ID
+         * @return The row, or null if the side file has none
+         */
+        T find(int id) {
+            if (byId != null) {
+                return byId.join().get(id);
+            }
+            if (!exists) {
+                return null;
+            }
+            if (rows == null || id < lastId || isFarBehind(id)) {
+                seek(id);  // First use, event.csv went back, or a jump over whole parts of the file
+            }
+            lastId = id;
+            while (row != null && rowId < id) {
+                advance();  // Merge: move forward to the first row not below id
+            }
+            return row != null && rowId == id ? parser.map(row) : null;
+        }
+
+        /**
+         * Check whether id is more than one index entry past the current row,
+         * so starting again there beats reading up to it
+         */
+        private boolean isFarBehind(int id) {
+            if (index == null || row == null) return false;
+            SeekIndex seek = index.join();
+            int target = seek.find(id);
+            return target > start + 1 && rowId < seek.firstIds[target];
+        }
+
+        /**
+         * Start reading again at the last indexed row that is not above id
+         */
+        private void seek(int id) {
+            close();
+            start = index != null ? index.join().find(id) : -1;
+            long offset = start >= 0 ? index.join().starts[start] : 0;
+            try {
+                reader = open(offset);
+                rows = new CsvTokenizer(reader);
+                if (offset == 0) {
+                    rows.skipHeader();
+                }
+            } catch (IOException e) {
+                System.err.println("Error loading " + file.getName() + ": " + e.getMessage());
+                rows = new CsvTokenizer(new char[0], 0, 0);  // Nothing joins from here
+            }
+            rowId = Integer.MIN_VALUE;
+            advance();
+        }
+
+        /**
+         * Move to the next row, checking that the IDs go up
+         */
+        private void advance() {
+            try {
+                row = rows.next();
+            } catch (IOException e) {
+                System.err.println("Error loading " + file.getName() + ": " + e.getMessage());
+                row = null;  // Treated as the end of the file
+            }
+            if (row != null) {
+                int previous = rowId;
+                rowId = row.getInt(0);
+                if (rowId <= previous) {
+                    outOfOrder = true;
+                }
+            }
+        }
+
+        /**
+         * Close the file (the cursor opens it again if used after this)
+         */
+        @Override
+        public void close() {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    // Only read from; nothing was lost
+                }
+                reader = null;
+            }
+            rows = null;
+            row = null;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.mycompany.calendarapp;
+
+import java.util.Arrays;  // For filling arrays
+
+/**
+ * IntObjectMap Class
+ *
+ * A hash map from int keys to objects that stores the keys in a plain int[]
+ * array, so lookups never box the key into an Integer.
+ *
+ * Purpose:
+ * - Look up events (and the rows joined to them while loading) by event ID
+ * - Avoid the per-entry objects and Integer keys that HashMap creates
+ *
+ * How It Works:
+ * - Open addressing with linear probing: a key lives in the first free slot
+ *   at or after its hash position
+ * - Removal shifts later entries of the same probe run back into the hole,
+ *   so no "deleted" markers are needed and lookups stay short
+ * - The table doubles when it becomes more than half full
+ *
+ * Null values are not allowed (a null slot means "empty").
+ *
+ * @param <V> The type of value stored for each key
+ */
+public class IntObjectMap<V> {
+
+    private int[] keys;  // Keys, valid where values[i] != null
+    private Object[] values;  // Values, null marks an empty slot
+    private int mask;  // Table length - 1 (length is a power of two)
+    private int size;  // Number of entries
+
+    /**
+     * Constructor - Creates an empty map with room for a few entries
+     */
+    public IntObjectMap() {
+        this(16);
+    }
+
+    /**
+     * Constructor - Creates an empty map sized for an expected number of entries
+     *
+     * @param expectedSize How many entries the map will probably hold
+     */
+    public IntObjectMap(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Get the value stored for a key
+     *
+     * @param key The key to look up
+     * @return The value, or null if the key is not present
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) return (V) values[i];
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Check whether a key is present
+     *
+     * @param key The key to look for
+     * @return true if the map holds a value for the key
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Store a value for a key, replacing any previous value
+     *
+     * @param key The key
+     * @param value The value (must not be null)
+     * @return The previous value, or null if the key was not present
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("IntObjectMap does not store null values");
+        }
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > values.length) {
+            resize(values.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Remove the value stored for a key
+     *
+     * @param key The key to remove
+     * @return The removed value, or null if the key was not present
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                deleteAt(i);
+                size--;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Get the number of entries
+     *
+     * @return How many keys the map holds
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove every entry
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Empty slot i, then move later entries of the probe run back so every
+     * remaining key can still be reached from its hash position
+     */
+    private void deleteAt(int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == null) break;
+            int home = slot(keys[i]);
+            // Move the entry if its home is not inside (hole, i]
+            boolean reachable = hole <= i ? (hole < home && home <= i) : (hole < home || home <= i);
+            if (!reachable) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        values[hole] = null;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] != null) {
+                int i = slot(oldKeys[j]);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * Home slot of a key (Fibonacci hashing spreads sequential IDs)
+     */
+    private int slot(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,54 @@
+package com.mycompany.calendarapp;
+
+import java.io.IOException;  // A backup could not be read
+import java.util.List;  // List interface
+import java.util.function.Consumer;  // Receives scanned events
+
+/**
+ * LegacyCsvEventStore Class
+ *
+ * The EventStore for the original single-file format (events.csv, read and
+ * written by CSVHandler). The format has no additional fields, so location,
+ * category and priority are not kept.
+ *
+ * Changes are saved by rewriting events.csv in the background
+ * (BackgroundSaver); the journal's files belong to CsvEventStore, so it is
+ * not used here.
+ */
+public class LegacyCsvEventStore implements EventStore {
+
+    @Override
+    public String getName() {
+        return "legacy-csv";
+    }
+
+    @Override
+    public List<String> getFiles() {
+        return List.of(CSVHandler.FILE_NAME);
+    }
+
+    @Override
+    public void load(EventManager manager) {
+        CSVHandler.loadEvents(manager);
+    }
+
+    @Override
+    public void loadBackup(BackupFile.Source backup, EventManager manager) throws IOException {
+        CSVHandler.loadBackup(backup, manager);
+    }
+
+    @Override
+    public boolean save(List<MainEvent> events) {
+        return CSVHandler.saveEvents(events);
+    }
+
+    @Override
+    public int scan(Consumer<? super MainEvent> action) {
+        return CSVHandler.scanEvents(action);
+    }
+
+    @Override
+    public Session open(EventManager manager) {
+        return new BackgroundSaver(manager, this);
+    }
+}
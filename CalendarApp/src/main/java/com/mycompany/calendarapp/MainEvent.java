@@ -37,6 +37,14 @@ public class MainEvent {
     private String category;  // Event category/type
     private String priority;  // Importance: HIGH, MEDIUM, or LOW
 
+    // The EventManager holding this event (null when not stored in one).
+    // Notified when the event's times change so its indexes stay correct.
+    EventManager owner;
+    int slot;  // Position in the owner's event list (used for O(1) deletion)
+    int page = -1;  // Page of calendar.pages it was read from (-1 if none, see EventPager)
+    LocalDateTime savedReminderFire;  // Next reminder time read from reminders.csv (used once, by ReminderIndex)
+    MainEvent frozen;  // Read-only copy held by snapshots (null once the event changed; see EventManager.snapshot)
+
     /**
      * Constructor - Creates a new MainEvent
      * 
@@ -76,15 +84,74 @@ public class MainEvent {
     public String getPriority() { return priority; }
 
     // Setter methods - Allow modification of private fields
-    public void setEventId(int eventId) { this.eventId = eventId; }
-    public void setTitle(String title) { this.title = title; }
-    public void setDescription(String description) { this.description = description; }
-    public void setStartDateTime(LocalDateTime startDateTime) { this.startDateTime = startDateTime; }
-    public void setEndDateTime(LocalDateTime endDateTime) { this.endDateTime = endDateTime; }
-    public void setReminder(Reminder reminder) { this.reminder = reminder; }
-    public void setLocation(String location) { this.location = location; }
-    public void setCategory(String category) { this.category = category; }
-    public void setPriority(String priority) { this.priority = priority; }
+    public void setEventId(int eventId) {
+        int oldId = this.eventId;
+        this.eventId = eventId;
+        if (owner != null && !owner.eventIdChanged(this, oldId)) {
+            this.eventId = oldId;  // Another event in the same manager has that ID
+            throw new IllegalArgumentException("Event ID " + eventId + " is already in use");
+        }
+    }
+    public void setTitle(String title) { this.title = title; notifyDetailsChanged(); }
+    public void setDescription(String description) { this.description = description; notifyDetailsChanged(); }
+    public void setStartDateTime(LocalDateTime startDateTime) { this.startDateTime = startDateTime; notifyChanged(); }
+    public void setEndDateTime(LocalDateTime endDateTime) { this.endDateTime = endDateTime; notifyChanged(); }
+    public void setReminder(Reminder reminder) { this.reminder = reminder; notifyDetailsChanged(); }
+    public void setLocation(String location) { this.location = location; notifyDetailsChanged(); }
+    public void setCategory(String category) { this.category = category; notifyDetailsChanged(); }
+    public void setPriority(String priority) { this.priority = priority; notifyDetailsChanged(); }
+
+    /**
+     * Tell the owning EventManager that this event changed
+     * 
+     * Called by setters that affect when the event happens.
+     */
+    void notifyChanged() {
+        EventManager manager = owner;
+        if (manager != null) {
+            manager.eventChanged(this);
+        }
+    }
+
+    /**
+     * Tell the owning EventManager that a detail (title, location, ...) changed
+     * 
+     * The event stays where it is in the time index, but snapshots taken
+     * before the change are out of date.
+     */
+    void notifyDetailsChanged() {
+        EventManager manager = owner;
+        if (manager != null) {
+            manager.eventDetailsChanged(this);
+        }
+    }
+
+    /**
+     * Create an independent copy of this event
+     * 
+     * The copy has the same ID, times and details (the reminder is copied
+     * too) but is not stored in any EventManager, so changing one never
+     * affects the other. Used for snapshots that other threads read.
+     * 
+     * @return A copy of this event
+     */
+    public MainEvent copy() {
+        MainEvent copy = new MainEvent(eventId, title, description, startDateTime, endDateTime);
+        copyDetailsTo(copy);
+        return copy;
+    }
+
+    /**
+     * Copy the optional fields (reminder, location, category, priority) onto another event
+     * 
+     * @param target The event receiving the values
+     */
+    void copyDetailsTo(MainEvent target) {
+        target.reminder = reminder != null ? new Reminder(reminder.getMinutesBefore()) : null;
+        target.location = location;
+        target.category = category;
+        target.priority = priority;
+    }
 
     /**
      * toString method - Creates a readable string representation
@@ -96,11 +163,11 @@ public class MainEvent {
     @Override
     public String toString() {
         return "MainEvent{" +
-                "eventId=" + eventId +
-                ", title='" + title + '\'' +
-                ", description='" + description + '\'' +
-                ", startDateTime=" + startDateTime +
-                ", endDateTime=" + endDateTime +
+                "eventId=" + getEventId() +
+                ", title='" + getTitle() + '\'' +
+                ", description='" + getDescription() + '\'' +
+                ", startDateTime=" + getStartDateTime() +
+                ", endDateTime=" + getEndDateTime() +
                 '}';
     }
 }
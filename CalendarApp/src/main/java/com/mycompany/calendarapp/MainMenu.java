@@ -2,17 +2,31 @@ package com.mycompany.calendarapp;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Scanner;
 
 public class MainMenu {
 
+    /** The console's store unless -Dcalendar.store names another: its events.csv, as it always was */
+    static final String DEFAULT_STORE = "legacy-csv";
+
+    /**
+     * Create the console's store (-Dcalendar.store; an unknown name falls
+     * back to DEFAULT_STORE)
+     */
+    static EventStore openStore() {
+        return EventStore.fromSystemProperty(DEFAULT_STORE);
+    }
+
     public static void main(String[] args) {
 
         Scanner input = new Scanner(System.in);
         EventManager manager = new EventManager();
-        CSVHandler.loadEvents(manager);
+        EventStore store = openStore();
+        store.load(manager);
 
         DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
         CalendarView calendarView = new CalendarView();
@@ -50,7 +64,7 @@ public class MainMenu {
                     break;
 
                 case 5:
-                    CSVHandler.saveEvents(manager);
+                    store.save(manager.getAllEvents());
                     System.out.println("Saved! Goodbye!");
                     System.exit(0);
                     break;
@@ -142,21 +156,36 @@ public class MainMenu {
                         System.out.println("Event not found!");
                         break;
                     }
+                    // Everything is asked for first, then changed in one step (see EventManager.update)
                     System.out.print("New title: ");
-                    eventToUpdate.setTitle(input.nextLine());
+                    String newTitle = input.nextLine();
                     System.out.print("New description: ");
-                    eventToUpdate.setDescription(input.nextLine());
+                    String newDescription = input.nextLine();
                     System.out.print("New start (yyyy-MM-dd HH:mm): ");
-                    eventToUpdate.setStartDateTime(LocalDateTime.parse(input.nextLine(), dateTimeFormatter));
+                    LocalDateTime newStart = LocalDateTime.parse(input.nextLine(), dateTimeFormatter);
                     System.out.print("New end (yyyy-MM-dd HH:mm): ");
-                    eventToUpdate.setEndDateTime(LocalDateTime.parse(input.nextLine(), dateTimeFormatter));
-                    if (eventToUpdate instanceof RecurringEvent re) {
+                    LocalDateTime newEnd = LocalDateTime.parse(input.nextLine(), dateTimeFormatter);
+                    String newType = null;
+                    int newOccurrences = 0;
+                    if (eventToUpdate instanceof RecurringEvent) {
                         System.out.print("New recurrence type: ");
-                        re.setRecurrenceType(input.nextLine());
+                        newType = input.nextLine();
                         System.out.print("New number of occurrences: ");
-                        re.setOccurrences(input.nextInt());
+                        newOccurrences = input.nextInt();
                         input.nextLine();
                     }
+                    String type = newType;
+                    int occurrences = newOccurrences;
+                    manager.update(updateId, updated -> {
+                        updated.setTitle(newTitle);
+                        updated.setDescription(newDescription);
+                        updated.setStartDateTime(newStart);
+                        updated.setEndDateTime(newEnd);
+                        if (updated instanceof RecurringEvent re) {
+                            re.setRecurrenceType(type);
+                            re.setOccurrences(occurrences);
+                        }
+                    });
                     System.out.println("Event updated!");
                     break;
 
@@ -192,19 +221,18 @@ public class MainMenu {
             input.nextLine();
             System.out.println();
 
-            List<MainEvent> allEvents = manager.getAllEvents();
-
+            // Each view asks the manager for its own days only (see occurrencesFrom)
             switch (choice) {
                 case 1:
                     System.out.print("Enter date (yyyy-MM-dd): ");
                     LocalDate date = LocalDate.parse(input.nextLine());
-                    calendarView.displayDailyList(allEvents, date);
+                    calendarView.displayDailyList(occurrencesFrom(manager, date, 1), date);
                     break;
 
                 case 2:
                     System.out.print("Enter date within the week (yyyy-MM-dd): ");
                     LocalDate weekDate = LocalDate.parse(input.nextLine());
-                    calendarView.displayWeeklyList(allEvents, weekDate);
+                    calendarView.displayWeeklyList(occurrencesFrom(manager, sundayOf(weekDate), 7), weekDate);
                     break;
 
                 case 3:
@@ -213,13 +241,13 @@ public class MainMenu {
                     System.out.print("Enter month (1-12): ");
                     int month = input.nextInt();
                     input.nextLine();
-                    calendarView.displayMonthlyList(allEvents, year, month);
+                    calendarView.displayMonthlyList(manager.getOccurrencesInMonth(YearMonth.of(year, month)), year, month);
                     break;
 
                 case 4:
                     System.out.print("Enter date within the week (yyyy-MM-dd): ");
                     LocalDate week = LocalDate.parse(input.nextLine());
-                    calendarView.displayWeeklyView(allEvents, week);
+                    calendarView.displayWeeklyView(occurrencesFrom(manager, sundayOf(week), 7), week);
                     break;
 
                 case 5:
@@ -228,7 +256,7 @@ public class MainMenu {
                     System.out.print("Enter month (1-12): ");
                     int m = input.nextInt();
                     input.nextLine();
-                    calendarView.displayMonthlyView(allEvents, y, m);
+                    calendarView.displayMonthlyView(manager.getOccurrencesInMonth(YearMonth.of(y, m)), y, m);
                     break;
 
                 case 6:
@@ -253,13 +281,11 @@ public class MainMenu {
             input.nextLine();
             System.out.println();
 
-            List<MainEvent> allEvents = manager.getAllEvents();
-
             switch (choice) {
                 case 1:
                     System.out.print("Enter date (yyyy-MM-dd): ");
                     LocalDate date = LocalDate.parse(input.nextLine());
-                    searchEvent.searchByDate(allEvents, date);
+                    searchEvent.searchByDate(occurrencesFrom(manager, date, 1), date);
                     break;
 
                 case 2:
@@ -267,13 +293,14 @@ public class MainMenu {
                     LocalDate startDate = LocalDate.parse(input.nextLine());
                     System.out.print("Enter end date (yyyy-MM-dd): ");
                     LocalDate endDate = LocalDate.parse(input.nextLine());
-                    searchEvent.searchByDateRange(allEvents, startDate, endDate);
+                    long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+                    searchEvent.searchByDateRange(occurrencesFrom(manager, startDate, (int) Math.max(0, days)), startDate, endDate);
                     break;
                 
                 case 3:
                     System.out.print("Enter event title: ");
                     String title = input.nextLine();
-                    searchEvent.searchByEventName(allEvents, title);
+                    searchEvent.searchByEventName(manager.getAllEvents(), title);  // Titles are not indexed
                     break;
 
                 case 4:
@@ -426,4 +453,23 @@ public class MainMenu {
         event.setReminder(null);
         System.out.println("Reminder removed from '" + event.getTitle() + "'");
     }
+
+    /**
+     * Get the occurrences in a run of whole days, found through the
+     * manager's interval index instead of by scanning every event
+     *
+     * @param first The first day
+     * @param days How many days
+     * @return The occurrences in those days (recurring events expanded), by start time
+     */
+    private static List<MainEvent> occurrencesFrom(EventManager manager, LocalDate first, int days) {
+        return manager.getOccurrencesBetween(first.atStartOfDay(), first.plusDays(days).atStartOfDay());
+    }
+
+    /**
+     * Get the Sunday that starts a date's week (as CalendarView counts weeks)
+     */
+    private static LocalDate sundayOf(LocalDate date) {
+        return date.minusDays(date.getDayOfWeek().getValue() % 7);
+    }
 }
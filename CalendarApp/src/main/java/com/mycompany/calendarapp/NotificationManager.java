@@ -14,6 +14,8 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 
 public class NotificationManager {
@@ -26,27 +28,24 @@ public class NotificationManager {
      */
     public static List<MainEvent> getUpcomingReminders(EventManager manager) {
         LocalDateTime now = LocalDateTime.now();
-        List<MainEvent> upcomingEvents = new ArrayList<>();
-
-        // Find events that should trigger notifications
-        for (MainEvent event : manager.getAllEventsExpanded()) {
-            if (event.getStartDateTime().isAfter(now)) {
-                // Check if event is within reminder time
-                if (event.getReminder() != null) {
-                    long minutesUntilEvent = ChronoUnit.MINUTES.between(now, event.getStartDateTime());
-                    if (minutesUntilEvent <= event.getReminder().getMinutesBefore() && minutesUntilEvent >= 0) {
-                        upcomingEvents.add(event);
-                    }
-                } else {
-                    // Default: show events happening within next 2 hours
-                    long minutesUntilEvent = ChronoUnit.MINUTES.between(now, event.getStartDateTime());
-                    if (minutesUntilEvent >= 0 && minutesUntilEvent <= 120) {
-                        upcomingEvents.add(event);
-                    }
+
+        // Events with a reminder come from the manager's reminder index, so
+        // the rest of the calendar is never looked at for them
+        List<MainEvent> upcomingEvents = new ArrayList<>(manager.getDueReminders(now));
+
+        // Default: show events without a reminder happening within next 2 hours
+        Iterator<MainEvent> candidates = manager.occurrencesBetween(now, now.plusMinutes(121));
+        while (candidates.hasNext()) {
+            MainEvent event = candidates.next();
+            if (event.getReminder() == null && event.getStartDateTime().isAfter(now)) {
+                long minutesUntilEvent = ChronoUnit.MINUTES.between(now, event.getStartDateTime());
+                if (minutesUntilEvent <= 120) {
+                    upcomingEvents.add(event);
                 }
             }
         }
 
+        upcomingEvents.sort(Comparator.comparing(MainEvent::getStartDateTime));  // Soonest first, as before
         return upcomingEvents;
     }
 
@@ -0,0 +1,131 @@
+package com.mycompany.calendarapp;
+
+import java.time.LocalDateTime;  // For date and time handling
+
+/**
+ * Occurrence Class
+ *
+ * One occurrence of a recurring event, as a lightweight view of its parent.
+ * It stores the parent event, the occurrence number and the occurrence's
+ * times, which are worked out once when it is made; every other field is
+ * read from the parent.
+ *
+ * Purpose:
+ * - Expand recurring events without copying them once per occurrence
+ * - Keep the parent's reminder, location, category and priority on every
+ *   occurrence (copies used to lose them)
+ *
+ * How It Works:
+ * - The constructor uses RecurringEvent.occurrenceAt, so any occurrence is
+ *   found directly instead of stepping through the earlier ones, and sorting
+ *   or sweeping occurrences by time never works the times out again
+ * - The times are those of the parent when the occurrence was made; the
+ *   manager expands the parent again after it changes (see ExpansionCache)
+ * - The title ("Meeting (Occurrence 3)") is only built when it is asked
+ *   for, and reused until the parent's title changes
+ * - Occurrences are read-only: change the recurring event itself instead
+ *
+ * An Occurrence is a MainEvent, so every view and search that handles
+ * normal events handles occurrences too. It is not a RecurringEvent.
+ */
+public class Occurrence extends MainEvent {
+
+    private final RecurringEvent parent;  // The recurring event this occurrence belongs to
+    private final int index;  // Zero-based occurrence number
+    private String label;  // Cached title, built on first use
+    private String labelSource;  // Parent title the cached label was built from
+
+    /**
+     * Constructor - Creates a view of one occurrence
+     *
+     * @param parent The recurring event
+     * @param index Zero-based occurrence number
+     * @throws IndexOutOfBoundsException if the parent has no occurrence with that number
+     */
+    public Occurrence(RecurringEvent parent, int index) {
+        // Only the times are kept here; the other fields are read from the parent
+        super(parent.getEventId(), null, null, parent.occurrenceAt(index), parent.occurrenceEndAt(index));
+        this.parent = parent;
+        this.index = index;
+    }
+
+    /**
+     * Get the recurring event this occurrence belongs to
+     *
+     * @return The parent event
+     */
+    public RecurringEvent getParent() {
+        return parent;
+    }
+
+    /**
+     * Get the occurrence number
+     *
+     * @return Zero-based occurrence number (0 is the first occurrence)
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    // Getter methods - Read through to the parent (the times are the ones stored by the constructor)
+    @Override
+    public int getEventId() { return parent.getEventId(); }
+
+    @Override
+    public String getTitle() {
+        String source = parent.getTitle();
+        if (label == null || source != labelSource) {
+            label = source + " (Occurrence " + (index + 1) + ")";  // Add occurrence number to title
+            labelSource = source;
+        }
+        return label;
+    }
+
+    @Override
+    public String getDescription() { return parent.getDescription(); }
+    @Override
+    public Reminder getReminder() { return parent.getReminder(); }
+    @Override
+    public String getLocation() { return parent.getLocation(); }
+    @Override
+    public String getCategory() { return parent.getCategory(); }
+    @Override
+    public String getPriority() { return parent.getPriority(); }
+
+    // Setter methods - Occurrences are read-only views
+    @Override
+    public void setEventId(int eventId) { throw readOnly(); }
+    @Override
+    public void setTitle(String title) { throw readOnly(); }
+    @Override
+    public void setDescription(String description) { throw readOnly(); }
+    @Override
+    public void setStartDateTime(LocalDateTime startDateTime) { throw readOnly(); }
+    @Override
+    public void setEndDateTime(LocalDateTime endDateTime) { throw readOnly(); }
+    @Override
+    public void setReminder(Reminder reminder) { throw readOnly(); }
+    @Override
+    public void setLocation(String location) { throw readOnly(); }
+    @Override
+    public void setCategory(String category) { throw readOnly(); }
+    @Override
+    public void setPriority(String priority) { throw readOnly(); }
+
+    /**
+     * Create a standalone MainEvent with this occurrence's current values
+     *
+     * @return A copy that no longer follows the parent
+     */
+    @Override
+    public MainEvent copy() {
+        MainEvent copy = new MainEvent(getEventId(), getTitle(), getDescription(),
+                                       getStartDateTime(), getEndDateTime());
+        parent.copyDetailsTo(copy);
+        return copy;
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Occurrences are read-only; change the recurring event instead");
+    }
+}
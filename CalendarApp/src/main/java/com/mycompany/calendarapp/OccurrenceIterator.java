@@ -0,0 +1,129 @@
+package com.mycompany.calendarapp;
+
+import java.time.LocalDateTime;  // For date and time handling
+import java.util.Iterator;  // Iterator interface
+import java.util.List;  // List interface
+import java.util.NoSuchElementException;  // Thrown when the iterator is exhausted
+import java.util.PriorityQueue;  // For merging occurrences in time order
+
+/**
+ * OccurrenceIterator Class
+ *
+ * Lazily walks every event occurrence that falls in a time window, in order
+ * of start time. Normal events are returned as they are; recurring events
+ * are expanded one occurrence at a time, only while the occurrences are
+ * inside the window.
+ *
+ * Purpose:
+ * - Let calendar views show a day, week or month without expanding every
+ *   recurring event in the calendar
+ * - Keep memory use proportional to the window instead of the whole calendar
+ *
+ * How It Works:
+ * - The EventManager's interval index supplies only the events whose time
+ *   span reaches the window
+ * - Each of those events gets a cursor positioned directly at its first
+ *   occurrence in the window (RecurringEvent.occurrenceIndexRange), so
+ *   earlier occurrences are never generated
+ * - A priority queue merges the cursors so occurrences come out sorted
+ *
+ * An occurrence belongs to the window [from, to) when it starts before the
+ * window ends and either overlaps the window or starts inside it (so
+ * zero-length events at the window start are included).
+ */
+public class OccurrenceIterator implements Iterator<MainEvent> {
+
+    /**
+     * Position inside one event's occurrences
+     */
+    private static final class Cursor {
+        final MainEvent event;  // The stored event
+        final RecurringEvent recurring;  // Same event if recurring, otherwise null
+        final int limit;  // One past the last occurrence inside the window
+        final long order;  // Tie-breaker: candidates arrive in start order
+        int index;  // Current occurrence number
+        LocalDateTime start;  // Start of the current occurrence
+        long startSecond;  // Same, as epoch seconds
+
+        Cursor(MainEvent event, int first, int limit, long order) {
+            this.event = event;
+            this.recurring = event instanceof RecurringEvent ? (RecurringEvent) event : null;
+            this.limit = limit;
+            this.order = order;
+            this.index = first;
+            this.start = recurring != null ? recurring.occurrenceAt(first) : event.getStartDateTime();
+            this.startSecond = EventIntervalIndex.toEpochSecond(start);
+        }
+
+        /** Move to the next occurrence; returns false when the window is finished */
+        boolean advance() {
+            if (++index >= limit) {
+                return false;
+            }
+            start = recurring.getNextOccurrence(start);
+            startSecond = EventIntervalIndex.toEpochSecond(start);
+            return true;
+        }
+
+        /** Build the MainEvent handed out for the current occurrence */
+        MainEvent current() {
+            return recurring == null ? event : recurring.createOccurrence(index);
+        }
+    }
+
+    private final PriorityQueue<Cursor> queue;  // Cursors ordered by current occurrence start
+
+    /**
+     * Constructor - Creates an iterator over the given candidate events
+     *
+     * @param candidates Events whose span reaches the window, in start order
+     * @param from Start of the window (inclusive)
+     * @param to End of the window (exclusive)
+     */
+    OccurrenceIterator(List<MainEvent> candidates, LocalDateTime from, LocalDateTime to) {
+        this.queue = new PriorityQueue<>(Math.max(1, candidates.size()), (a, b) -> {
+            if (a.startSecond != b.startSecond) return Long.compare(a.startSecond, b.startSecond);
+            return Long.compare(a.order, b.order);
+        });
+
+        long order = 0;
+        for (MainEvent event : candidates) {
+            int first;
+            int limit;
+            if (event instanceof RecurringEvent) {
+                // Jump straight to the occurrences inside the window
+                int[] range = ((RecurringEvent) event).occurrenceIndexRange(from, to);
+                first = range[0];
+                limit = range[1];
+            } else {
+                LocalDateTime start = event.getStartDateTime();
+                boolean inside = start.isBefore(to) && (!start.isBefore(from) || event.getEndDateTime().isAfter(from));
+                first = 0;
+                limit = inside ? 1 : 0;
+            }
+            if (first < limit) {
+                queue.add(new Cursor(event, first, limit, order));
+            }
+            order++;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !queue.isEmpty();
+    }
+
+    @Override
+    public MainEvent next() {
+        Cursor cursor = queue.poll();
+        if (cursor == null) {
+            throw new NoSuchElementException();
+        }
+        MainEvent occurrence = cursor.current();
+
+        if (cursor.advance()) {
+            queue.add(cursor);
+        }
+        return occurrence;
+    }
+}
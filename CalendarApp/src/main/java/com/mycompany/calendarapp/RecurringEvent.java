@@ -1,8 +1,10 @@
 package com.mycompany.calendarapp;
 
 import java.time.LocalDateTime;  // For date and time
+import java.time.YearMonth;  // For month lengths in monthly recurrences
+import java.time.ZoneOffset;  // For comparing times as epoch seconds
 import java.time.temporal.ChronoUnit;  // For adding days/weeks/months
-import java.util.ArrayList;  // For storing lists
+import java.util.AbstractList;  // For the lazy occurrence list
 import java.util.List;  // List interface
 
 /**
@@ -15,6 +17,8 @@ import java.util.List;  // List interface
  * - Represent events that repeat (daily, weekly, or monthly)
  * - Generate all occurrences of a recurring event
  * - Calculate when the next occurrence will happen
+ * - Jump straight to any occurrence (or the ones in a time range) without
+ *   generating the ones before it
  * 
  * Examples:
  * - Daily standup meeting (recurs daily, 20 times)
@@ -58,8 +62,9 @@ public class RecurringEvent extends MainEvent {
     // Setter methods
     public void setRecurrenceType(String recurrenceType) { 
         this.recurrenceType = recurrenceType.toUpperCase();  // Always store uppercase
+        notifyChanged();
     }
-    public void setOccurrences(int occurrences) { this.occurrences = occurrences; }
+    public void setOccurrences(int occurrences) { this.occurrences = occurrences; notifyChanged(); }
 
     /**
      * Calculate the next occurrence after a given date/time
@@ -85,10 +90,191 @@ public class RecurringEvent extends MainEvent {
         }
     }
     
+    /**
+     * Get the start time of one occurrence without walking the earlier ones
+     * 
+     * Gives exactly the same time as calling getNextOccurrence i times from
+     * the first start, including the month-end behaviour of MONTHLY events:
+     * once a step lands on a shorter month (e.g. Jan 31 -> Feb 28), later
+     * occurrences stay on the clamped day (Mar 28, Apr 28, ...).
+     * 
+     * @param i Zero-based occurrence number (0 is the first occurrence)
+     * @return When occurrence i starts
+     * @throws IndexOutOfBoundsException if i is not between 0 and getOccurrences() - 1
+     */
+    public LocalDateTime occurrenceAt(int i) {
+        if (i < 0 || i >= occurrences) {
+            throw new IndexOutOfBoundsException("Occurrence " + i + " of " + occurrences);
+        }
+        return startOf(i);
+    }
+
+    /**
+     * Get the end time of one occurrence
+     * 
+     * The first occurrence keeps the event's own end time; later ones last
+     * the same whole number of minutes (as in generateOccurrences).
+     * 
+     * @param i Zero-based occurrence number
+     * @return When occurrence i ends
+     * @throws IndexOutOfBoundsException if i is not between 0 and getOccurrences() - 1
+     */
+    public LocalDateTime occurrenceEndAt(int i) {
+        LocalDateTime start = occurrenceAt(i);
+        return i == 0 ? getEndDateTime() : start.plusMinutes(durationMinutes());
+    }
+
+    /**
+     * Find the first occurrence starting at or after a given time
+     * 
+     * @param time The time to search from
+     * @return Start of the first occurrence at or after 'time', or null if the series ends before it
+     */
+    public LocalDateTime firstOccurrenceOnOrAfter(LocalDateTime time) {
+        int i = indexOnOrAfter(time, false);
+        return i < occurrences ? startOf(i) : null;
+    }
+
+    /**
+     * Find which occurrences fall in the window [from, to)
+     * 
+     * An occurrence is in the window when it starts before 'to' and either
+     * starts at or after 'from' or is still running after 'from' (the same
+     * rule EventManager.occurrencesBetween uses). The matching occurrences
+     * always form one run of consecutive occurrence numbers.
+     * 
+     * Example: a daily event with 10 occurrences starting on the 1st, window
+     * from the 4th to the 6th → {3, 5} (the occurrences on the 4th and 5th).
+     * 
+     * @param from Start of the window (inclusive)
+     * @param to End of the window (exclusive)
+     * @return Two numbers {first, last + 1}; equal when no occurrence is in the window
+     */
+    public int[] occurrenceIndexRange(LocalDateTime from, LocalDateTime to) {
+        if (occurrences <= 0) {
+            return new int[] {0, 0};
+        }
+
+        int first;
+        LocalDateTime start = getStartDateTime();
+        if (!start.isBefore(from) || getEndDateTime().isAfter(from)) {
+            first = 0;  // The first occurrence keeps its own end, so it is checked on its own
+        } else {
+            long duration = durationMinutes();
+            // Later occurrences are still running after 'from' once they start after from - duration
+            first = duration > 0 ? indexOnOrAfter(from.minusMinutes(duration), true)
+                                 : indexOnOrAfter(from, false);
+            first = Math.max(1, first);
+        }
+
+        int end = indexOnOrAfter(to, false);  // First occurrence starting at or after 'to'
+        return new int[] {first, Math.max(first, end)};
+    }
+
+    /**
+     * Get the end time of the last occurrence
+     * 
+     * @return When the series is over, or null if it has no occurrences
+     */
+    public LocalDateTime lastOccurrenceEnd() {
+        return occurrences > 0 ? occurrenceEndAt(occurrences - 1) : null;
+    }
+
+    /**
+     * Find the first occurrence number whose start is at or after (or, when
+     * strict, after) a given time; getOccurrences() if there is none
+     * 
+     * The answer is estimated with arithmetic and then corrected by at most
+     * a couple of steps, so the cost does not depend on the number of occurrences.
+     */
+    int indexOnOrAfter(LocalDateTime time, boolean strict) {
+        LocalDateTime start = getStartDateTime();
+        long estimate;
+        switch (recurrenceType) {
+            case "DAILY":
+                estimate = Math.floorDiv(secondsBetween(start, time) - 1, 86_400L);
+                break;
+            case "WEEKLY":
+                estimate = Math.floorDiv(secondsBetween(start, time) - 1, 7 * 86_400L);
+                break;
+            case "MONTHLY":
+                // Occurrence i always falls in the i-th month after the first one
+                estimate = (time.getYear() - (long) start.getYear()) * 12
+                         + (time.getMonthValue() - start.getMonthValue()) - 1;
+                break;
+            default:
+                // Unknown type: every occurrence starts at the same time
+                return reaches(start, time, strict) ? 0 : occurrences;
+        }
+
+        // The estimate is never past the answer, and at most two steps before it
+        int i = (int) Math.max(0, Math.min(estimate, occurrences));
+        while (i < occurrences && !reaches(startOf(i), time, strict)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Start of occurrence i (no range check)
+     */
+    private LocalDateTime startOf(int i) {
+        LocalDateTime start = getStartDateTime();
+        switch (recurrenceType) {
+            case "DAILY":
+                return start.plusDays(i);
+            case "WEEKLY":
+                return start.plusWeeks(i);
+            case "MONTHLY":
+                return monthlyStart(start, i);
+            default:
+                return start;  // Unknown type repeats the same time
+        }
+    }
+
+    /**
+     * Start of MONTHLY occurrence i
+     * 
+     * Adding one month at a time clamps the day to the length of every month
+     * passed through, so the day of occurrence i is the first day capped by
+     * the shortest month among months 1..i. Any 24 consecutive months
+     * contain a 28-day February, so at most 24 month lengths are looked at.
+     */
+    private static LocalDateTime monthlyStart(LocalDateTime start, int i) {
+        int day = start.getDayOfMonth();
+        YearMonth month = YearMonth.from(start);
+        if (day > 28) {
+            for (int k = 1; k <= Math.min(i, 24) && day > 28; k++) {
+                day = Math.min(day, month.plusMonths(k).lengthOfMonth());
+            }
+        }
+        YearMonth target = month.plusMonths(i);
+        return LocalDateTime.of(target.atDay(Math.min(day, target.lengthOfMonth())), start.toLocalTime());
+    }
+
+    /**
+     * Length of later occurrences in whole minutes (as in generateOccurrences)
+     */
+    private long durationMinutes() {
+        return ChronoUnit.MINUTES.between(getStartDateTime(), getEndDateTime());
+    }
+
+    private static long secondsBetween(LocalDateTime from, LocalDateTime to) {
+        return to.toEpochSecond(ZoneOffset.UTC) - from.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static boolean reaches(LocalDateTime occurrenceStart, LocalDateTime time, boolean strict) {
+        return strict ? occurrenceStart.isAfter(time) : !occurrenceStart.isBefore(time);
+    }
+    
     /**
      * Generate all occurrences of this recurring event
      * 
-     * This method creates individual MainEvent objects for each occurrence.
+     * Returns a list of lightweight Occurrence views, one per occurrence.
+     * Nothing is computed up front: an occurrence is created when the list
+     * element is read, and its times are worked out when they are asked for.
+     * Each occurrence carries this event's reminder, location, category and
+     * priority.
      * Useful for:
      * - Displaying all occurrences in a calendar
      * - Checking for conflicts with other events
@@ -97,33 +283,45 @@ public class RecurringEvent extends MainEvent {
      * @return List of MainEvent objects, one for each occurrence
      */
     public List<MainEvent> generateOccurrences() {
-        List<MainEvent> occurrencesList = new ArrayList<>();  // Create empty list
-        
-        // Start with the first occurrence's times
-        LocalDateTime currentStart = this.getStartDateTime();
-        LocalDateTime currentEnd = this.getEndDateTime();
-        
-        // Calculate how long the event lasts (in minutes)
-        long duration = ChronoUnit.MINUTES.between(currentStart, currentEnd);
-        
-        // Generate each occurrence
-        for (int i = 0; i < occurrences; i++) {
-            // Create a new event for this occurrence
-            MainEvent occurrence = new MainEvent(
-                this.getEventId(),  // Same ID as parent recurring event
-                this.getTitle() + " (Occurrence " + (i + 1) + ")",  // Add occurrence number to title
-                this.getDescription(),  // Same description
-                currentStart,  // Start time for this occurrence
-                currentEnd  // End time for this occurrence
-            );
-            occurrencesList.add(occurrence);  // Add to the list
-            
-            // Calculate the next occurrence's times
-            currentStart = getNextOccurrence(currentStart);
-            currentEnd = currentStart.plus(duration, ChronoUnit.MINUTES);  // Maintain same duration
-        }
-        
-        return occurrencesList;  // Return the complete list
+        final int count = Math.max(0, occurrences);  // Size is fixed when the list is made
+        return new AbstractList<MainEvent>() {
+            @Override
+            public MainEvent get(int index) {
+                if (index < 0 || index >= count) {
+                    throw new IndexOutOfBoundsException("Occurrence " + index + " of " + count);
+                }
+                return createOccurrence(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Create the MainEvent that represents one occurrence
+     * 
+     * @param index Zero-based occurrence number
+     * @return An Occurrence view of this event
+     */
+    MainEvent createOccurrence(int index) {
+        return new Occurrence(this, index);
+    }
+
+    /**
+     * Create an independent copy of this recurring event
+     * 
+     * @return A copy with the same times, recurrence and details
+     */
+    @Override
+    public RecurringEvent copy() {
+        RecurringEvent copy = new RecurringEvent(getEventId(), getTitle(), getDescription(),
+                                                 getStartDateTime(), getEndDateTime(),
+                                                 recurrenceType, occurrences);
+        copyDetailsTo(copy);
+        return copy;
     }
 
     /**
@@ -0,0 +1,97 @@
+package com.mycompany.calendarapp;
+
+import java.io.*;  // For file input/output
+import java.nio.charset.StandardCharsets;  // For UTF-8 character encoding
+import java.time.LocalDateTime;  // For the next fire times
+import java.util.List;  // For working with lists of objects
+
+/**
+ * ReminderFileHandler Class
+ *
+ * This class handles the saving and loading of event reminders, which are
+ * not part of the core event data, in reminders.csv.
+ *
+ * Purpose:
+ * - Keep reminders across restarts
+ * - Store when each reminder fires next, so the reminder index
+ *   (ReminderIndex) can be filled at startup without working through any
+ *   recurrence rules
+ *
+ * File Format: eventId,minutesBefore,nextFire
+ * - Only events with a reminder have a row, in eventId order
+ * - nextFire is the reminder time of the first occurrence starting after
+ *   the save (ISO date-time), or empty if the event has no later occurrence
+ */
+public class ReminderFileHandler {
+
+    // Constants
+    static final String REMINDER_CSV = "reminders.csv";  // The CSV file name for storing reminders
+
+    /**
+     * Save the reminders of a list of events to reminders.csv, as one file
+     * of a set replaced together (see CSVHandlerCompliant.saveEvents)
+     *
+     * @param events The events whose reminders need to be saved
+     * @param files The set the file is replaced in
+     * @return true if the file was written
+     */
+    static boolean saveReminders(List<MainEvent> events, AtomicFileSet files) {
+        LocalDateTime now = LocalDateTime.now();  // The next fire times are worked out from here
+        // The data goes to reminders.csv.tmp and is renamed into place with the other files
+        try (BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(files.add(REMINDER_CSV), StandardCharsets.UTF_8))) {
+
+            // Write the CSV header row (column names)
+            writer.write("eventId,minutesBefore,nextFire");
+            writer.newLine();
+
+            char[] date = new char[DateTimeCodec.MAX_LENGTH];  // Reused for every date written
+            for (MainEvent event : events) {
+                Reminder reminder = event.getReminder();
+                if (reminder == null) continue;  // Events without a reminder have no row
+
+                writer.write(Integer.toString(event.getEventId()));
+                writer.write(',');
+                writer.write(Integer.toString(reminder.getMinutesBefore()));
+                writer.write(',');
+                LocalDateTime nextFire = ReminderIndex.nextFire(event, now);
+                if (nextFire != null) {
+                    writer.write(date, 0, DateTimeCodec.writeIso(nextFire, date, 0));
+                }
+                writer.newLine();
+            }
+
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Error saving reminders: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Read one row of reminders.csv (header skipped)
+     *
+     * @return The row, or null if it is incomplete
+     */
+    static ReminderRow parseRow(CsvTokenizer.Row row) {
+        if (row.size() < 3) return null;  // Ensure we have all required fields
+        LocalDateTime nextFire = row.isEmpty(2) ? null : row.getDateTime(2);
+        return new ReminderRow(row.getInt(0), row.getInt(1), nextFire);
+    }
+
+    /**
+     * One row of reminders.csv
+     */
+    static final class ReminderRow {
+        final int eventId;  // Column 1: Event ID
+        final int minutesBefore;  // Column 2: Reminder time in minutes
+        final LocalDateTime nextFire;  // Column 3: Next fire time (null if none)
+
+        ReminderRow(int eventId, int minutesBefore, LocalDateTime nextFire) {
+            this.eventId = eventId;
+            this.minutesBefore = minutesBefore;
+            this.nextFire = nextFire;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.mycompany.calendarapp;
+
+import java.time.LocalDateTime;  // For date and time handling
+import java.time.temporal.ChronoUnit;  // For minute differences
+import java.util.ArrayList;  // For the due list
+import java.util.IdentityHashMap;  // Event -> its entry
+import java.util.List;  // List interface
+import java.util.Map;  // Map interface
+import java.util.TreeSet;  // Entries ordered by fire time
+
+/**
+ * ReminderIndex Class
+ *
+ * The events that have a reminder, ordered by when their next reminder
+ * fires, so the due reminders are found without looking at the other events
+ * (EventManager keeps it up to date, like the interval index).
+ *
+ * How It Works:
+ * - Each event with a reminder has one entry, keyed by the next occurrence
+ *   starting after the time it was indexed, minus the reminder (and one
+ *   extra minute, so the key is never later than the minute-rounded check
+ *   NotificationManager has always used)
+ * - Events loaded from reminders.csv arrive with that time already worked
+ *   out (MainEvent.savedReminderFire), so startup does not look at their
+ *   recurrence rules at all
+ * - due() only looks at entries whose key has passed: an entry whose
+ *   occurrence has started moves on to the event's next occurrence (or is
+ *   dropped when the series is over), the others are due
+ *
+ * Not thread-safe; EventManager only uses it with its lock held.
+ */
+final class ReminderIndex {
+
+    private final TreeSet<Entry> entries = new TreeSet<>();  // Ordered by fire time
+    private final Map<MainEvent, Entry> byEvent = new IdentityHashMap<>();  // Event -> its entry, for removal
+    private long nextSeq;  // Breaks ties between equal fire times
+
+    /**
+     * Index an event, or re-index it after a change
+     *
+     * @param event The event (events without a reminder are only removed)
+     * @param now The current time
+     */
+    void insert(MainEvent event, LocalDateTime now) {
+        remove(event);
+        Reminder reminder = event.getReminder();
+        LocalDateTime saved = event.savedReminderFire;
+        event.savedReminderFire = null;  // Only good for the first indexing after a load
+        if (reminder == null) {
+            return;
+        }
+        LocalDateTime start = saved != null ? saved.plusMinutes(reminder.getMinutesBefore())
+                                            : nextStartAfter(event, now);
+        if (start != null) {
+            add(event, start, reminder.getMinutesBefore());
+        }
+    }
+
+    /**
+     * Stop tracking an event
+     *
+     * @param event The event
+     */
+    void remove(MainEvent event) {
+        Entry entry = byEvent.remove(event);
+        if (entry != null) {
+            entries.remove(entry);
+        }
+    }
+
+    /**
+     * Forget every event
+     */
+    void clear() {
+        entries.clear();
+        byEvent.clear();
+    }
+
+    /** @return Number of events with an upcoming reminder */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Find the reminders that are due
+     *
+     * A reminder is due when its occurrence starts after now and no more
+     * than the reminder's minutes from now (whole minutes, rounded down).
+     * Entries left behind by time passing are moved on as they are found.
+     *
+     * @param now The current time
+     * @return The due events (an Occurrence for each due occurrence of a
+     *         recurring event), in order of fire time
+     */
+    List<MainEvent> due(LocalDateTime now) {
+        long nowSecond = EventIntervalIndex.toEpochSecond(now);
+        List<Entry> passed = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.fireSecond > nowSecond) break;
+            passed.add(entry);
+        }
+
+        List<MainEvent> due = new ArrayList<>();
+        for (Entry entry : passed) {
+            MainEvent event = entry.event;
+            LocalDateTime start = entry.start;
+            if (!start.isAfter(now)) {
+                // This occurrence has started: move on to the next one
+                remove(event);
+                start = nextStartAfter(event, now);
+                if (start == null) continue;  // The series is over
+                add(event, start, entry.minutesBefore);
+            }
+            addDue(event, start, now, entry.minutesBefore, due);
+        }
+        return due;
+    }
+
+    /**
+     * Get the saved form of an event's next reminder
+     *
+     * @param event The event
+     * @param now The current time
+     * @return When the reminder for the next occurrence starting after now
+     *         fires, or null if the event has no reminder or no such occurrence
+     */
+    static LocalDateTime nextFire(MainEvent event, LocalDateTime now) {
+        Reminder reminder = event.getReminder();
+        if (reminder == null) return null;
+        LocalDateTime start = nextStartAfter(event, now);
+        return start != null ? start.minusMinutes(reminder.getMinutesBefore()) : null;
+    }
+
+    /**
+     * First occurrence of an event starting strictly after a time
+     *
+     * @return Its start, or null if there is none
+     */
+    private static LocalDateTime nextStartAfter(MainEvent event, LocalDateTime now) {
+        if (event instanceof RecurringEvent) {
+            RecurringEvent recurring = (RecurringEvent) event;
+            int i = recurring.indexOnOrAfter(now, true);
+            return i < recurring.getOccurrences() ? recurring.occurrenceAt(i) : null;
+        }
+        LocalDateTime start = event.getStartDateTime();
+        return start.isAfter(now) ? start : null;
+    }
+
+    /**
+     * Add an event to the due list if the occurrence at 'start' is due,
+     * followed by any later occurrences that are also due (a long reminder
+     * on a short series can cover several)
+     */
+    private static void addDue(MainEvent event, LocalDateTime start, LocalDateTime now,
+                               int minutesBefore, List<MainEvent> due) {
+        if (!(event instanceof RecurringEvent)) {
+            if (ChronoUnit.MINUTES.between(now, start) <= minutesBefore) {
+                due.add(event);
+            }
+            return;
+        }
+        RecurringEvent recurring = (RecurringEvent) event;
+        for (int i = recurring.indexOnOrAfter(start, false); i < recurring.getOccurrences(); i++) {
+            if (ChronoUnit.MINUTES.between(now, recurring.occurrenceAt(i)) > minutesBefore) break;
+            due.add(recurring.createOccurrence(i));
+        }
+    }
+
+    private void add(MainEvent event, LocalDateTime start, int minutesBefore) {
+        long fire = EventIntervalIndex.toEpochSecond(start) - (minutesBefore + 1L) * 60;
+        Entry entry = new Entry(event, start, minutesBefore, fire, nextSeq++);
+        entries.add(entry);
+        byEvent.put(event, entry);
+    }
+
+    /**
+     * One event's next reminder
+     */
+    private static final class Entry implements Comparable<Entry> {
+        final MainEvent event;  // The stored event
+        final LocalDateTime start;  // Start of the occurrence the reminder is for
+        final int minutesBefore;  // The reminder, as it was when indexed
+        final long fireSecond;  // Key: no later than when the reminder is due (epoch seconds)
+        final long seq;  // Insertion order, for ties
+
+        Entry(MainEvent event, LocalDateTime start, int minutesBefore, long fireSecond, long seq) {
+            this.event = event;
+            this.start = start;
+            this.minutesBefore = minutesBefore;
+            this.fireSecond = fireSecond;
+            this.seq = seq;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int c = Long.compare(fireSecond, other.fireSecond);
+            return c != 0 ? c : Long.compare(seq, other.seq);
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package com.mycompany.calendarapp;
+
+import java.io.File;  // The snapshot and CSV files
+import java.io.IOException;  // For read and write errors
+import java.nio.ByteBuffer;  // For the header and write buffer
+import java.nio.channels.FileChannel;  // Writes the file
+import java.nio.channels.WritableByteChannel;  // Where encoded events go
+import java.nio.charset.StandardCharsets;  // Strings are stored as UTF-8
+import java.nio.file.Files;  // For reading the snapshot
+import java.time.LocalDateTime;  // For event times
+import java.time.ZoneOffset;  // Epoch minutes are counted in UTC
+import java.util.ArrayList;  // For the string table and results
+import java.util.HashMap;  // String -> table index
+import java.util.List;  // List interface
+import java.util.Map;  // Map interface
+import java.util.zip.CRC32C;  // Checksum of the payload
+
+/**
+ * SnapshotFile Class
+ *
+ * A compact binary copy of every event, written next to the CSV files
+ * (calendar.snapshot) so startup can skip parsing text.
+ *
+ * Purpose:
+ * - Load a large calendar much faster than from event.csv, recurrent.csv
+ *   and additional.csv
+ * - Keep the CSV files as the readable, portable copy: the snapshot is
+ *   only used while it is newer than all of them
+ *
+ * Layout (numbers in the header are big-endian):
+ * - Header: "CALS", format version (int), event count (int),
+ *   payload length (long), CRC32C of the payload (int)
+ * - Payload: the string table (count, then each string as a length and
+ *   UTF-8 bytes), followed by one record per event
+ * - Event record: id, flags, title, description, location, category and
+ *   priority as string numbers (0 = null), start as the difference from
+ *   the previous event's start in epoch minutes, length in minutes, then
+ *   seconds/nanos if the times are not whole minutes, recurrence type and
+ *   occurrences if recurring, and the reminder's minutes if it has one
+ *
+ * All counts, IDs and string numbers are unsigned varints (7 bits per
+ * byte); times and other signed values are zigzag varints, so small
+ * values of either sign take one or two bytes.
+ *
+ * How It Works:
+ * - write() collects every distinct string first, writes the payload to a
+ *   temporary file through one buffer while computing the checksum, then
+ *   fills in the header and renames the file into place (see AtomicFile)
+ * - readIfNewer() reads the whole file in one go and decodes it; a missing,
+ *   older, damaged or unknown-version snapshot returns null so the caller
+ *   reads the CSV files instead
+ */
+public final class SnapshotFile {
+
+    /** Version written in the header; other versions are not read */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final String SNAPSHOT_FILE = "calendar.snapshot";  // Next to the CSV files
+    private static final int MAGIC = 0x43414C53;  // "CALS"
+    private static final int HEADER_SIZE = 24;  // Magic, version, count, length, checksum
+    private static final int BUFFER_SIZE = 64 * 1024;  // Bytes written per block
+
+    private static final int RECURRING = 1;  // Flag: RecurringEvent
+    private static final int REMINDER = 2;  // Flag: has a reminder
+    private static final int SUB_MINUTE = 4;  // Flag: start or end has seconds or nanos
+
+    private SnapshotFile() {
+    }
+
+    // ----- Writing -----
+
+    /**
+     * Write a snapshot of a list of events
+     *
+     * @param events The events, in the order they should load
+     * @return true if the snapshot was written
+     */
+    public static boolean write(List<MainEvent> events) {
+        try (AtomicFile file = new AtomicFile(SNAPSHOT_FILE)) {
+            FileChannel channel = file.channel();
+            channel.position(HEADER_SIZE);  // The header is filled in last
+            Output out = new Output(channel);
+            writeEvents(out, events);
+            long length = out.finish();
+
+            // Header, now that the length and checksum are known
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(events.size())
+                  .putLong(length).putInt((int) out.crc.getValue());
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            file.commit();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving " + SNAPSHOT_FILE + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Encode a list of events: the string table, then one record per event
+     *
+     * Also used for the pages of calendar.pages (see EventPageFile).
+     *
+     * @param out Where the encoded events go
+     * @param events The events, in the order they should load
+     * @throws IOException If writing fails
+     */
+    static void writeEvents(Output out, List<MainEvent> events) throws IOException {
+        // 1. String table
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (MainEvent e : events) {
+            code(e.getTitle(), codes, strings);
+            code(e.getDescription(), codes, strings);
+            code(e.getLocation(), codes, strings);
+            code(e.getCategory(), codes, strings);
+            code(e.getPriority(), codes, strings);
+            if (e instanceof RecurringEvent) {
+                code(((RecurringEvent) e).getRecurrenceType(), codes, strings);
+            }
+        }
+
+        out.varint(strings.size());
+        for (String s : strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.varint(bytes.length);
+            out.bytes(bytes);
+        }
+
+        // 2. Event records
+        long previousStart = 0;
+        for (MainEvent e : events) {
+            LocalDateTime start = e.getStartDateTime();
+            LocalDateTime end = e.getEndDateTime();
+            long startMinute = EventColumns.toEpochMinute(start);
+            long endMinute = EventColumns.toEpochMinute(end);
+            boolean subMinute = subMinuteNanos(start) != 0 || subMinuteNanos(end) != 0;
+            RecurringEvent recurring = e instanceof RecurringEvent ? (RecurringEvent) e : null;
+
+            int flags = 0;
+            if (recurring != null) flags |= RECURRING;
+            if (e.getReminder() != null) flags |= REMINDER;
+            if (subMinute) flags |= SUB_MINUTE;
+
+            out.varint(e.getEventId());
+            out.varint(flags);
+            out.varint(ref(e.getTitle(), codes));
+            out.varint(ref(e.getDescription(), codes));
+            out.varint(ref(e.getLocation(), codes));
+            out.varint(ref(e.getCategory(), codes));
+            out.varint(ref(e.getPriority(), codes));
+            out.zigzag(startMinute - previousStart);
+            out.zigzag(endMinute - startMinute);
+            if (subMinute) {
+                out.zigzag(subMinuteNanos(start));
+                out.zigzag(subMinuteNanos(end));
+            }
+            if (recurring != null) {
+                out.varint(ref(recurring.getRecurrenceType(), codes));
+                out.zigzag(recurring.getOccurrences());
+            }
+            if (e.getReminder() != null) {
+                out.zigzag(e.getReminder().getMinutesBefore());
+            }
+            previousStart = startMinute;
+        }
+    }
+
+    private static void code(String value, Map<String, Integer> codes, List<String> strings) {
+        if (value != null && !codes.containsKey(value)) {
+            codes.put(value, strings.size());
+            strings.add(value);
+        }
+    }
+
+    /**
+     * String number as stored (0 = null, otherwise table index + 1)
+     */
+    private static int ref(String value, Map<String, Integer> codes) {
+        return value == null ? 0 : codes.get(value) + 1;
+    }
+
+    /**
+     * Seconds and nanos past the whole minute, in nanoseconds
+     */
+    private static long subMinuteNanos(LocalDateTime dateTime) {
+        return dateTime.getSecond() * 1_000_000_000L + dateTime.getNano();
+    }
+
+    /**
+     * Buffered writer that keeps the length and checksum of what it wrote
+     */
+    static final class Output {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        final CRC32C crc = new CRC32C();  // Checksum of everything written
+        private long length;  // Bytes written so far
+
+        /**
+         * @param channel Written from its current position
+         */
+        Output(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        void varint(long value) throws IOException {
+            if (buffer.remaining() < 10) flush();
+            while ((value & ~0x7FL) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        void zigzag(long value) throws IOException {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        void bytes(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (!buffer.hasRemaining()) flush();
+                int n = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, n);
+                offset += n;
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.array(), 0, buffer.limit());
+            length += buffer.limit();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        /** @return Number of bytes written */
+        long finish() throws IOException {
+            flush();
+            return length;
+        }
+    }
+
+    // ----- Reading -----
+
+    /**
+     * Read the snapshot if it is newer than every CSV file that exists
+     *
+     * @param csvFiles The CSV files the snapshot stands in for
+     * @return The events in saved order, or null to read the CSV files instead
+     */
+    public static List<MainEvent> readIfNewer(String... csvFiles) {
+        File file = new File(SNAPSHOT_FILE);
+        if (!file.exists()) return null;
+        long snapshotTime = file.lastModified();
+        for (String csv : csvFiles) {
+            File f = new File(csv);
+            if (f.exists() && f.lastModified() >= snapshotTime) {
+                return null;  // A CSV file was written after (or with) the snapshot
+            }
+        }
+
+        try {
+            byte[] data = Files.readAllBytes(file.toPath());
+            List<MainEvent> events = decode(data);
+            if (events == null) {
+                System.err.println(SNAPSHOT_FILE + " is damaged or from another version; reading the CSV files");
+            }
+            return events;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error loading " + SNAPSHOT_FILE + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Check the header and checksum, then decode every event
+     *
+     * @return The events, or null if the header or checksum does not match
+     */
+    private static List<MainEvent> decode(byte[] data) {
+        if (data.length < HEADER_SIZE) return null;
+        ByteBuffer header = ByteBuffer.wrap(data, 0, HEADER_SIZE);
+        if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) return null;
+        int count = header.getInt();
+        long length = header.getLong();
+        int checksum = header.getInt();
+        if (count < 0 || length != data.length - HEADER_SIZE) return null;
+        CRC32C crc = new CRC32C();
+        crc.update(data, HEADER_SIZE, (int) length);
+        if ((int) crc.getValue() != checksum) return null;
+
+        return readEvents(new Input(data, HEADER_SIZE), count);
+    }
+
+    /**
+     * Decode events written by writeEvents
+     *
+     * @param in Positioned at the string table
+     * @param count Number of events to read
+     * @return The events, in written order
+     */
+    static List<MainEvent> readEvents(Input in, int count) {
+        byte[] data = in.data;
+        String[] strings = new String[(int) in.varint() + 1];  // strings[0] stays null
+        for (int i = 1; i < strings.length; i++) {
+            int n = (int) in.varint();
+            strings[i] = new String(data, in.pos, n, StandardCharsets.UTF_8);
+            in.pos += n;
+        }
+
+        List<MainEvent> events = new ArrayList<>(count);
+        long previousStart = 0;
+        for (int i = 0; i < count; i++) {
+            int id = (int) in.varint();
+            int flags = (int) in.varint();
+            String title = strings[(int) in.varint()];
+            String description = strings[(int) in.varint()];
+            String location = strings[(int) in.varint()];
+            String category = strings[(int) in.varint()];
+            String priority = strings[(int) in.varint()];
+            long startMinute = previousStart + in.zigzag();
+            long endMinute = startMinute + in.zigzag();
+            long startNanos = 0;
+            long endNanos = 0;
+            if ((flags & SUB_MINUTE) != 0) {
+                startNanos = in.zigzag();
+                endNanos = in.zigzag();
+            }
+            LocalDateTime start = toDateTime(startMinute, startNanos);
+            LocalDateTime end = toDateTime(endMinute, endNanos);
+
+            MainEvent event;
+            if ((flags & RECURRING) != 0) {
+                String recurrenceType = strings[(int) in.varint()];
+                int occurrences = (int) in.zigzag();
+                event = new RecurringEvent(id, title, description, start, end, recurrenceType, occurrences);
+            } else {
+                event = new MainEvent(id, title, description, start, end);
+            }
+            if ((flags & REMINDER) != 0) {
+                event.setReminder(new Reminder((int) in.zigzag()));
+            }
+            event.setLocation(location);
+            event.setCategory(category);
+            event.setPriority(priority);
+            events.add(event);
+            previousStart = startMinute;
+        }
+        return events;
+    }
+
+    private static LocalDateTime toDateTime(long epochMinute, long subMinuteNanos) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60 + subMinuteNanos / 1_000_000_000L,
+                                           (int) (subMinuteNanos % 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    /**
+     * Varint reader over the file's bytes
+     */
+    static final class Input {
+        private final byte[] data;
+        private int pos;
+
+        Input(byte[] data, int pos) {
+            this.data = data;
+            this.pos = pos;
+        }
+
+        long varint() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        long zigzag() {
+            long v = varint();
+            return (v >>> 1) ^ -(v & 1);
+        }
+    }
+}
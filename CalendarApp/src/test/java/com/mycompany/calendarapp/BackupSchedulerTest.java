@@ -0,0 +1,187 @@
+package com.mycompany.calendarapp;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;  // Undamaged backups
+import static org.junit.jupiter.api.Assertions.assertEquals;  // Titles and counts
+import static org.junit.jupiter.api.Assertions.assertFalse;  // Full backups
+import static org.junit.jupiter.api.Assertions.assertNotEquals;  // Changes after a backup
+import static org.junit.jupiter.api.Assertions.assertThrows;  // Refused backups
+import static org.junit.jupiter.api.Assertions.assertTrue;  // Conditions
+import java.io.File;  // Backups and their directory
+import java.io.IOException;  // Restore errors
+import java.io.UncheckedIOException;  // Failed backups
+import java.nio.file.Files;  // For deleting the backups directory
+import java.nio.file.Path;  // Walked files
+import java.time.Clock;  // Time of the automatic backups
+import java.time.Duration;  // Hours between them
+import java.time.Instant;  // The clock's time
+import java.time.LocalDateTime;  // When the schedule starts
+import java.time.ZoneId;  // Local days and months
+import java.util.Comparator;  // Deletes the directory's contents first
+import java.util.List;  // Catalog entries
+import java.util.concurrent.CompletionException;  // Failed backups, as join() throws them
+import java.util.stream.Stream;  // Walked files
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * BackupSchedulerTest Class
+ *
+ * Backups taken through a BackupScheduler stay restorable: a backup that a
+ * differential backup was taken against is never replaced, and every kept
+ * backup restores the events it was taken of, while automatic backups are
+ * pruned to the retention policy. Its catalog entry carries the
+ * checksum of the file as written.
+ */
+class BackupSchedulerTest {
+
+    private static final File DIRECTORY = new File("backups-test");
+
+    private EventManager manager;
+    private BackupScheduler scheduler;
+
+    @BeforeEach
+    void createScheduler() throws IOException {
+        deleteDirectory();
+        manager = TestCalendars.build(200, 3);
+        scheduler = new BackupScheduler(manager, DIRECTORY);
+    }
+
+    @AfterEach
+    void deleteBackups() throws IOException {
+        scheduler.close();
+        deleteDirectory();
+    }
+
+    @Test
+    void backupNeededByADifferentialBackupIsNotReplaced() throws IOException {
+        File m1 = new File(DIRECTORY, "M1" + BackupFile.EXTENSION);
+        File a = new File(DIRECTORY, "A" + BackupFile.EXTENSION);
+        assertTrue(backup(m1).isFull());
+        manager.findEventById(1).setTitle("Changed for A");
+        BackupChain.Manifest diff = backup(a);
+        assertFalse(diff.isFull(), "A was taken against M1");
+        long m1Modified = m1.lastModified();
+
+        manager.findEventById(2).setTitle("Changed after A");
+        CompletionException refused = assertThrows(CompletionException.class,
+                                                   () -> scheduler.backup(m1.getPath()).join());
+        assertTrue(refused.getCause() instanceof UncheckedIOException);
+        assertEquals(m1Modified, m1.lastModified(), "M1 was left alone");
+
+        EventManager restored = new EventManager();
+        BackupChain.load(a, restored);
+        assertEquals("Changed for A", restored.findEventById(1).getTitle());
+        assertNotEquals("Changed after A", restored.findEventById(2).getTitle());
+        assertEquals(200, restored.getAllEvents().size());
+    }
+
+    @Test
+    void backupNobodyNeedsCanBeReplaced() throws IOException {
+        File m1 = new File(DIRECTORY, "M1" + BackupFile.EXTENSION);
+        backup(m1);
+        manager.findEventById(1).setTitle("Replaced");
+        backup(m1);
+
+        EventManager restored = new EventManager();
+        BackupChain.load(m1, restored);
+        TestCalendars.assertSameEvents("restore of a replaced backup", manager, restored);
+    }
+
+    @Test
+    void catalogChecksumIsTheFilesAndIsVerified() throws IOException {
+        File m1 = new File(DIRECTORY, "M1" + BackupFile.EXTENSION);
+        BackupChain.Manifest written = backup(m1);
+        assertTrue(written.hasFileChecksum());
+        BackupCatalog.Entry entry = scheduler.getCatalog().find(m1);
+        assertEquals(BackupCatalog.checksum(m1), entry.getChecksum(), "the checksum computed while writing");
+        assertDoesNotThrow(() -> scheduler.getCatalog().verify(m1));
+
+        // Damage one byte, keeping the size and time the catalog knows
+        long modified = m1.lastModified();
+        byte[] bytes = Files.readAllBytes(m1.toPath());
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(m1.toPath(), bytes);
+        assertTrue(m1.setLastModified(modified));
+        assertThrows(IOException.class, () -> scheduler.getCatalog().verify(m1));
+    }
+
+    @Test
+    void refreshedCatalogDropsDeletedBackups() throws IOException {
+        File m1 = new File(DIRECTORY, "M1" + BackupFile.EXTENSION);
+        File m2 = new File(DIRECTORY, "M2" + BackupFile.EXTENSION);
+        backup(m1);
+        backup(m2);
+        Files.delete(m1.toPath());
+
+        List<BackupCatalog.Entry> entries = scheduler.refreshCatalog().join();
+        assertEquals(1, entries.size());
+        assertEquals(m2.getName(), entries.get(0).getFile());
+    }
+
+    @Test
+    void ninetyDaysOfHourlyBackupsArePrunedToThePolicy() throws IOException {
+        SettableClock clock = new SettableClock(TestCalendars.FIRST_DAY.plusMinutes(30));
+        scheduler.close();
+        scheduler = new BackupScheduler(manager, DIRECTORY, clock);
+        for (int hour = 0; hour < 90 * 24; hour++) {
+            manager.findEventById(1 + hour % 200).setTitle("Hour " + hour);
+            scheduler.backupAutomatically();
+            assertEquals(null, scheduler.getLastError());
+            clock.advanceHours(1);
+        }
+
+        File[] kept = DIRECTORY.listFiles((dir, name) -> name.endsWith(BackupFile.EXTENSION));
+        // 24 hourly, 7 daily and 12 monthly backups, some of them the same ones
+        assertTrue(kept.length <= 24 + 7 + 12, kept.length + " backups kept");
+        for (File backup : kept) {
+            assertDoesNotThrow(() -> BackupChain.read(backup), backup.getName() + " can be restored");
+        }
+        EventManager restored = new EventManager();
+        BackupChain.load(scheduler.getLastBackup(), restored);
+        TestCalendars.assertSameEvents("restore of the last automatic backup", manager, restored);
+    }
+
+    /**
+     * Clock that only moves when told to
+     */
+    private static final class SettableClock extends Clock {
+        private Instant now;
+
+        SettableClock(LocalDateTime start) {
+            now = start.atZone(ZoneId.systemDefault()).toInstant();
+        }
+
+        void advanceHours(int hours) {
+            now = now.plus(Duration.ofHours(hours));
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private BackupChain.Manifest backup(File file) {
+        return scheduler.backup(file.getPath()).join();
+    }
+
+    private static void deleteDirectory() throws IOException {
+        if (!DIRECTORY.exists()) return;
+        try (Stream<Path> walk = Files.walk(DIRECTORY.toPath())) {
+            for (Path path : (Iterable<Path>) walk.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
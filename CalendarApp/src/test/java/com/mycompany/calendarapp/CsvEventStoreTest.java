@@ -0,0 +1,223 @@
+package com.mycompany.calendarapp;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;  // File contents
+import static org.junit.jupiter.api.Assertions.assertEquals;  // Generations
+import static org.junit.jupiter.api.Assertions.assertFalse;  // Failed saves
+import static org.junit.jupiter.api.Assertions.assertNull;  // Deleted events
+import static org.junit.jupiter.api.Assertions.assertTrue;  // Conditions
+import java.io.File;  // Data files
+import java.io.IOException;  // File reads
+import java.nio.charset.Charset;  // event.csv's encoding
+import java.nio.file.Files;  // For reading and writing whole files
+import java.nio.file.StandardOpenOption;  // Appends rows
+import java.util.ArrayList;  // Reversed file lists
+import java.util.Collections;  // Reverses file rows
+import java.util.List;  // List interface
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * CsvEventStoreTest Class
+ *
+ * Checks what the csv store does beyond the common EventStore contract
+ * (see EventStoreConformanceTest): its snapshot copy, that the four CSV
+ * files change together even when a save fails or is cut short, that
+ * they are joined back together however they are read (or restored from
+ * a backup), and that an event.csv repeating an ID loads each ID once.
+ *
+ * A file is made unwritable by creating a directory where its temporary
+ * file ("name.tmp", see AtomicFile) would go.
+ */
+class CsvEventStoreTest {
+
+    private static final List<String> CSV_FILES = List.of(CSVHandlerCompliant.EVENT_FILE, CSVHandlerCompliant.RECURRENT_FILE,
+                                                          AdditionalFieldsHandler.ADDITIONAL_CSV,
+                                                          ReminderFileHandler.REMINDER_CSV);
+
+    private final CsvEventStore store = new CsvEventStore();
+
+    @BeforeEach
+    void deleteFilesBefore() {
+        TestCalendars.deleteDataFiles();
+    }
+
+    @AfterEach
+    void deleteFilesAfter() {
+        TestCalendars.deleteDataFiles();
+    }
+
+    @Test
+    void failedSaveLeavesTheSnapshotAlone() throws IOException {
+        assertTrue(store.save(TestCalendars.build(500, 1).getAllEvents()));
+        File snapshot = new File("calendar.snapshot");
+        byte[] before = Files.readAllBytes(snapshot.toPath());
+
+        assertTrue(new File(ReminderFileHandler.REMINDER_CSV + ".tmp").mkdir());
+        assertFalse(store.save(TestCalendars.build(200, 2).getAllEvents()), "save() with an unwritable file");
+        assertArrayEquals(before, Files.readAllBytes(snapshot.toPath()), "calendar.snapshot after a failed save");
+    }
+
+    @Test
+    void failedSaveKeepsEveryOldFile() {
+        EventManager first = TestCalendars.build(500, 1);
+        assertTrue(store.save(first.getAllEvents()));
+        new File("calendar.snapshot").delete();  // So load() reads the CSV files
+
+        assertTrue(new File(ReminderFileHandler.REMINDER_CSV + ".tmp").mkdir());
+        assertFalse(store.save(TestCalendars.build(200, 2).getAllEvents()));
+        EventManager loaded = new EventManager();
+        store.load(loaded);
+        TestCalendars.assertSameEvents("load() after a failed save", first, loaded);
+        assertEquals(1, AtomicFileSet.generation(CSVHandlerCompliant.COMMIT_FILE), "generation after a failed save");
+    }
+
+    @Test
+    void loadFinishesRenamesCutShort() throws IOException {
+        EventManager second = TestCalendars.build(300, 2);
+        byte[][] secondFiles = savedFiles(second);
+        assertTrue(store.save(TestCalendars.build(500, 1).getAllEvents()));
+
+        // The second save crashed after its marker and its first rename
+        writeTemporaryFiles(secondFiles);
+        Files.writeString(new File(CSVHandlerCompliant.COMMIT_FILE).toPath(),
+                          "generation,7\n" + String.join("\n", CSV_FILES) + "\n");
+        AtomicFile.moveIntoPlace(AtomicFile.tempFile(CSV_FILES.get(0)),
+                                 new File(CSV_FILES.get(0)).toPath().toAbsolutePath());
+
+        EventManager loaded = new EventManager();
+        store.load(loaded);
+        TestCalendars.assertSameEvents("load() after an interrupted save", second, loaded);
+        assertEquals(7, AtomicFileSet.generation(CSVHandlerCompliant.COMMIT_FILE));
+        assertEquals("generation,7", Files.readString(new File(CSVHandlerCompliant.COMMIT_FILE).toPath()).trim(),
+                     "marker after the renames were finished");
+    }
+
+    @Test
+    void loadIgnoresFilesOfASaveCutShortBeforeItsMarker() throws IOException {
+        byte[][] secondFiles = savedFiles(TestCalendars.build(300, 2));
+        EventManager first = TestCalendars.build(500, 1);
+        assertTrue(store.save(first.getAllEvents()));
+
+        writeTemporaryFiles(secondFiles);  // Written, but never committed
+        EventManager loaded = new EventManager();
+        store.load(loaded);
+        TestCalendars.assertSameEvents("load() after a save cut short before its marker", first, loaded);
+    }
+
+    @Test
+    void largeCalendarIsJoinedInParallelChunks() {
+        EventManager saved = TestCalendars.build(60_000, 4);
+        assertTrue(store.save(saved.getAllEvents()));
+        new File("calendar.snapshot").delete();  // So load() reads the CSV files
+        assertTrue(ChunkedCsvReader.readsInParallel(new File(CSVHandlerCompliant.EVENT_FILE), Charset.defaultCharset()),
+                   "event.csv is big enough to be read in chunks");
+
+        EventManager loaded = new EventManager();
+        store.load(loaded);
+        TestCalendars.assertSameEvents("load() of a large calendar", saved, loaded);
+        TestCalendars.assertSameDetails("load() of a large calendar", saved, loaded);
+    }
+
+    @Test
+    void sideFilesOutOfIdOrderAreStillJoined() throws IOException {
+        EventManager saved = TestCalendars.build(500, 1);
+        assertTrue(store.save(saved.getAllEvents()));
+        new File("calendar.snapshot").delete();
+
+        // recurrent.csv still looks as the save wrote it, reminders.csv looks edited since
+        File recurrent = new File(CSVHandlerCompliant.RECURRENT_FILE);
+        long committed = new File(CSVHandlerCompliant.COMMIT_FILE).lastModified();
+        reverseRows(recurrent);
+        assertTrue(recurrent.setLastModified(committed));
+        File reminders = new File(ReminderFileHandler.REMINDER_CSV);
+        reverseRows(reminders);
+        assertTrue(reminders.setLastModified(committed + 2_000));
+
+        EventManager loaded = new EventManager();
+        store.load(loaded);
+        TestCalendars.assertSameEvents("load() of files out of eventId order", saved, loaded);
+        TestCalendars.assertSameDetails("load() of files out of eventId order", saved, loaded);
+    }
+
+    @Test
+    void backupIsRestoredWhateverItsSectionOrder() throws IOException {
+        EventManager saved = TestCalendars.build(500, 5);
+        assertTrue(store.save(saved.getAllEvents()));
+        List<String> reversed = new ArrayList<>(store.getFiles());
+        Collections.reverse(reversed);
+        File backup = new File("csv-test" + BackupFile.EXTENSION);
+        try {
+            for (List<String> order : List.of(store.getFiles(), reversed)) {
+                BackupFile.write(backup.getPath(), order);
+                EventManager restored = new EventManager();
+                store.loadBackup(BackupFile.source(backup), restored);
+                String what = "loadBackup() with event.csv " + (order == reversed ? "last" : "first");
+                TestCalendars.assertSameEvents(what, saved, restored);
+                TestCalendars.assertSameDetails(what, saved, restored);
+                assertEquals(501, restored.generateEventId(), what + ": ID counter");
+            }
+        } finally {
+            backup.delete();
+        }
+    }
+
+    @Test
+    void repeatedIdIsLoadedOnce() throws IOException {
+        EventManager saved = TestCalendars.build(500, 1);
+        assertTrue(store.save(saved.getAllEvents()));
+        new File("calendar.snapshot").delete();
+        MainEvent first = saved.findEventById(7);
+        String repeat = "7,Repeated row,Same ID as an earlier row,"
+                        + DateTimeCodec.formatIso(first.getStartDateTime()) + ","
+                        + DateTimeCodec.formatIso(first.getEndDateTime()) + System.lineSeparator();
+        Files.write(new File(CSVHandlerCompliant.EVENT_FILE).toPath(), repeat.getBytes(Charset.defaultCharset()),
+                    StandardOpenOption.APPEND);
+
+        EventManager loaded = new EventManager();
+        store.load(loaded);
+        TestCalendars.assertSameEvents("load() of an event.csv repeating an ID", saved, loaded);
+        assertEquals(first.getTitle(), loaded.findEventById(7).getTitle(), "the first row for the ID is kept");
+
+        assertTrue(loaded.deleteEvent(7));
+        assertNull(loaded.findEventById(7));
+        assertEquals(499, loaded.getAllEvents().size(), "no second copy left behind");
+        assertEquals(0, loaded.getAllEvents().stream().filter(event -> event.getEventId() == 7).count());
+    }
+
+    /**
+     * Reverse the rows of a CSV file, leaving its header first
+     */
+    private static void reverseRows(File file) throws IOException {
+        List<String> lines = Files.readAllLines(file.toPath());
+        Collections.reverse(lines.subList(1, lines.size()));
+        Files.write(file.toPath(), lines);
+    }
+
+    /**
+     * Save a calendar, then take the contents of its CSV files and delete
+     * every data file
+     */
+    private byte[][] savedFiles(EventManager manager) throws IOException {
+        assertTrue(store.save(manager.getAllEvents()));
+        byte[][] contents = new byte[CSV_FILES.size()][];
+        for (int i = 0; i < contents.length; i++) {
+            contents[i] = Files.readAllBytes(new File(CSV_FILES.get(i)).toPath());
+        }
+        TestCalendars.deleteDataFiles();
+        return contents;
+    }
+
+    /**
+     * Write CSV contents to the temporary files a save uses, later than
+     * the snapshot of the saved files (as a real save would be)
+     */
+    private static void writeTemporaryFiles(byte[][] contents) throws IOException {
+        long later = new File("calendar.snapshot").lastModified() + 2_000;
+        for (int i = 0; i < contents.length; i++) {
+            File temp = AtomicFile.tempFile(CSV_FILES.get(i));
+            Files.write(temp.toPath(), contents[i]);
+            temp.setLastModified(later);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.mycompany.calendarapp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;  // Titles and counts
+import static org.junit.jupiter.api.Assertions.assertFalse;  // Deleted files
+import static org.junit.jupiter.api.Assertions.assertNull;  // Deleted events
+import static org.junit.jupiter.api.Assertions.assertTrue;  // Conditions
+import java.io.File;  // The journal files
+import java.io.IOException;  // File writes
+import java.nio.file.Files;  // For writing journal files by hand
+import java.util.ArrayList;  // Reported errors
+import java.util.List;  // List interface
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * EventJournalTest Class
+ *
+ * Round trips through the csv store's journal: changes saved by a journal
+ * session are loaded again, a journal is never replayed over CSV files
+ * saved after it, and no change is lost when the journal cannot be written.
+ */
+class EventJournalTest {
+
+    private final CsvEventStore store = new CsvEventStore();
+
+    @BeforeEach
+    void deleteFilesBefore() {
+        TestCalendars.deleteDataFiles();
+    }
+
+    @AfterEach
+    void deleteFilesAfter() {
+        System.clearProperty("calendar.journal");
+        TestCalendars.deleteDataFiles();
+    }
+
+    @Test
+    void journaledChangesAreLoadedWithoutAFold() {
+        store.save(TestCalendars.build(100, 1).getAllEvents());
+        EventManager live = load();
+        EventStore.Session session = store.open(live);
+        assertTrue(session instanceof EventJournal);
+
+        live.findEventById(1).setTitle("Journaled");
+        live.deleteEvent(2);
+        live.update(3, event -> {
+            event.setLocation(null);
+            event.setCategory("");
+            event.setPriority(null);
+        });
+        live.findEventById(4).setLocation("");
+        assertTrue(session.close());
+        assertTrue(new File("journal.log").length() > 0, "the changes are in journal.log");
+
+        EventManager loaded = load();
+        assertEquals("Journaled", loaded.findEventById(1).getTitle());
+        assertNull(loaded.findEventById(2));
+        TestCalendars.assertSameEvents("load() after a journal session", live, loaded);
+        TestCalendars.assertSameDetails("load() after a journal session", live, loaded);
+    }
+
+    @Test
+    void saveWithoutTheJournalIsNotUndoneByIt() {
+        store.save(TestCalendars.build(100, 1).getAllEvents());
+
+        // Run 1: journaled
+        EventManager first = load();
+        EventStore.Session journal = store.open(first);
+        first.findEventById(1).setTitle("journaled");
+        journal.close();
+
+        // Run 2: the journal is turned off, so every change rewrites the CSV files
+        System.setProperty("calendar.journal", "false");
+        EventManager second = load();
+        assertEquals("journaled", second.findEventById(1).getTitle());
+        EventStore.Session saver = store.open(second);
+        assertFalse(saver instanceof EventJournal);
+        second.findEventById(1).setTitle("edited-without-journal");
+        assertTrue(saver.close());
+
+        // Run 3
+        System.clearProperty("calendar.journal");
+        EventManager third = load();
+        assertEquals("edited-without-journal", third.findEventById(1).getTitle());
+        TestCalendars.assertSameEvents("load() after a save outside the journal", second, third);
+    }
+
+    @Test
+    void replaySkipsAJournalOlderThanTheCsvFiles() throws IOException {
+        store.save(TestCalendars.build(10, 1).getAllEvents());
+        long generation = AtomicFileSet.generation(CSVHandlerCompliant.COMMIT_FILE);
+        writeJournal("journal.log", generation - 1, "D,1,#");
+        writeJournal("journal.log.old", generation, "D,2,#");
+
+        EventManager loaded = load();
+        assertTrue(loaded.findEventById(1) != null, "a record older than the CSV files was replayed");
+        assertNull(loaded.findEventById(2), "a record of the CSV files' generation was not replayed");
+    }
+
+    @Test
+    void openDeletesAJournalOlderThanTheCsvFiles() throws IOException {
+        store.save(TestCalendars.build(10, 1).getAllEvents());
+        long generation = AtomicFileSet.generation(CSVHandlerCompliant.COMMIT_FILE);
+        writeJournal("journal.log", generation - 1, "D,1,#");
+
+        EventManager live = load();
+        EventStore.Session session = store.open(live);
+        live.findEventById(3).setTitle("After open");
+        session.close();
+
+        EventManager loaded = load();
+        assertTrue(loaded.findEventById(1) != null);
+        assertEquals("After open", loaded.findEventById(3).getTitle());
+    }
+
+    @Test
+    void changesAfterAFoldAreKept() {
+        store.save(TestCalendars.build(100, 1).getAllEvents());
+        EventManager live = load();
+        EventStore.Session session = store.open(live);
+        live.findEventById(1).setTitle("Before the fold");
+        assertTrue(session.flush());
+        assertFalse(new File("journal.log.old").exists());
+        live.findEventById(2).setTitle("After the fold");
+        session.close();
+
+        EventManager fromCsv = new EventManager();
+        CSVHandlerCompliant.loadEvents(fromCsv);
+        assertEquals("Before the fold", fromCsv.findEventById(1).getTitle(), "the fold wrote the CSV files");
+        EventManager loaded = load();
+        assertEquals("After the fold", loaded.findEventById(2).getTitle(), "journal.log was replayed over the fold");
+        TestCalendars.assertSameEvents("load() after a fold", live, loaded);
+    }
+
+    @Test
+    void changesQueuedAcrossACompactionAreKeptInOrder() {
+        store.save(TestCalendars.build(100, 1).getAllEvents());
+        EventManager live = load();
+        EventStore.Session session = store.open(live);
+
+        // Enough records for a compaction, with each event changed many times
+        for (int i = 0; i < EventJournal.COMPACT_AFTER_RECORDS + 2_000; i++) {
+            live.findEventById(1 + i % 50).setTitle("Change " + i);
+        }
+        live.deleteEvent(60);
+        assertTrue(session.close(), "close() wrote every queued record");
+        assertFalse(new File("journal.log.old").exists(), "the compaction finished");
+
+        EventManager loaded = load();
+        assertEquals("Change " + (EventJournal.COMPACT_AFTER_RECORDS + 1_999), loaded.findEventById(50).getTitle());
+        assertNull(loaded.findEventById(60));
+        TestCalendars.assertSameEvents("load() after a compaction", live, loaded);
+    }
+
+    private EventManager load() {
+        EventManager manager = new EventManager();
+        store.load(manager);
+        return manager;
+    }
+
+    private static void writeJournal(String name, long generation, String record) throws IOException {
+        Files.writeString(new File(name).toPath(), "G," + generation + ",#\n" + record + "\n");
+    }
+
+    @Test
+    void failedWriteFallsBackToSavingEverything() {
+        store.save(TestCalendars.build(100, 1).getAllEvents());
+        EventManager live = load();
+        EventJournal journal = (EventJournal) store.open(live);
+        List<String> errors = new ArrayList<>();
+        journal.setErrorHandler(errors::add);
+
+        live.findEventById(1).setTitle("Before the failure");
+        journal.failed(new IOException("disk full"));
+        assertEquals(1, errors.size(), "the error handler was told");
+        live.findEventById(2).setTitle("After the failure");
+        live.deleteEvent(3);
+        assertTrue(journal.close(), "close() after the fallback saved every event");
+
+        assertFalse(new File("journal.log").exists(), "the full save replaced the journal");
+        EventManager loaded = load();
+        assertEquals("Before the failure", loaded.findEventById(1).getTitle());
+        assertEquals("After the failure", loaded.findEventById(2).getTitle());
+        assertNull(loaded.findEventById(3));
+        TestCalendars.assertSameEvents("load() after the journal failed", live, loaded);
+    }
+}
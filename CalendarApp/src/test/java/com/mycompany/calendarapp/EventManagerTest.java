@@ -0,0 +1,154 @@
+package com.mycompany.calendarapp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;  // Titles, times and counts
+import static org.junit.jupiter.api.Assertions.assertFalse;  // Missing events
+import static org.junit.jupiter.api.Assertions.assertNotSame;  // Copies made again
+import static org.junit.jupiter.api.Assertions.assertSame;  // Copies shared
+import static org.junit.jupiter.api.Assertions.assertThrows;  // Refused ID changes
+import static org.junit.jupiter.api.Assertions.assertTrue;  // Conditions
+import java.time.LocalDateTime;  // Event times
+import java.util.ArrayList;  // Events heard by the listener
+import java.util.List;  // List interface
+import org.junit.jupiter.api.Test;
+
+/**
+ * EventManagerTest Class
+ *
+ * Changes to an EventManager as other threads and listeners see them:
+ * update() is a single change, and snapshots show each version exactly
+ * while sharing the copies of events that did not change. Deleting keeps
+ * the other events in the order they were added, a list from getAllEvents
+ * is not changed by later adds and deletes, and an ID is only ever stored
+ * once.
+ */
+class EventManagerTest {
+
+    @Test
+    void updateIsOneChange() {
+        EventManager manager = TestCalendars.build(50, 2);
+        LocalDateTime start = manager.findEventById(7).getStartDateTime().plusDays(3);
+        List<String> heard = new ArrayList<>();
+        manager.setChangeListener(new RecordingListener(heard));
+        long version = manager.getVersion();
+
+        assertTrue(manager.update(7, e -> {
+            e.setTitle("Moved");
+            e.setStartDateTime(start);
+            e.setEndDateTime(start.plusHours(1));
+        }));
+
+        assertEquals(version + 1, manager.getVersion(), "the version moved on once");
+        assertEquals(List.of("Moved@" + start), heard, "the listener heard the finished event once");
+        assertTrue(manager.getOccurrencesBetween(start, start.plusMinutes(1)).stream()
+                          .anyMatch(occurrence -> occurrence.getEventId() == 7), "re-indexed at its new start");
+        assertFalse(manager.update(1000, e -> e.setTitle("Nobody")));
+    }
+
+    @Test
+    void snapshotsShareUnchangedEvents() {
+        EventManager manager = TestCalendars.build(50, 2);
+        EventSnapshot before = manager.snapshot();
+        String title = manager.findEventById(1).getTitle();
+
+        manager.findEventById(1).setTitle("Changed");
+        EventSnapshot after = manager.snapshot();
+
+        assertSame(before.findEventById(2), after.findEventById(2), "an unchanged event is copied once");
+        assertNotSame(before.findEventById(1), after.findEventById(1));
+        assertEquals(title, before.findEventById(1).getTitle(), "the earlier snapshot still shows its version");
+        assertEquals("Changed", after.findEventById(1).getTitle());
+        assertEquals(manager.getAllEvents().size(), after.getAllEvents().size());
+    }
+
+    @Test
+    void deleteKeepsTheOrderOfTheOtherEvents() {
+        EventManager manager = TestCalendars.build(50, 2);
+        List<Integer> expected = new ArrayList<>();
+        for (MainEvent event : manager.getAllEvents()) {
+            if (event.getEventId() % 3 != 0) expected.add(event.getEventId());
+        }
+        for (int id = 3; id <= 50; id += 3) {
+            assertTrue(manager.deleteEvent(id));
+        }
+        manager.addEvent(new MainEvent(manager.generateEventId(), "Last", "Added after the deletes",
+                                       TestCalendars.FIRST_DAY, TestCalendars.FIRST_DAY.plusHours(1)));
+        expected.add(51);
+
+        List<Integer> ids = new ArrayList<>();
+        for (MainEvent event : manager.getAllEvents()) {
+            ids.add(event.getEventId());
+        }
+        assertEquals(expected, ids);
+        assertEquals(expected.size(), manager.snapshot().getAllEvents().size());
+        assertEquals(0, manager.findClashes().getClashingEvents().stream()
+                               .filter(event -> event.getEventId() % 3 == 0).count(), "deleted events take part in no clash");
+    }
+
+    @Test
+    void listFromGetAllEventsStaysAsItWas() {
+        EventManager manager = TestCalendars.build(10, 2);
+        List<MainEvent> before = manager.getAllEvents();
+        List<MainEvent> copy = new ArrayList<>(before);
+
+        assertTrue(manager.deleteEvent(4));
+        manager.addEvent(new MainEvent(manager.generateEventId(), "Added", "Added after the list was taken",
+                                       TestCalendars.FIRST_DAY, TestCalendars.FIRST_DAY.plusHours(1)));
+        for (int id = 1; id <= 8; id++) {
+            manager.deleteEvent(id);  // Enough gaps to compact the manager's own list
+        }
+
+        assertEquals(copy, before, "no gaps, shifts or new events in a list already handed out");
+        assertEquals(3, manager.getAllEvents().size());
+        assertSame(manager.getAllEvents(), manager.getAllEvents(), "the same copy until the events change");
+    }
+
+    @Test
+    void addEventRejectsAnIdInUse() {
+        EventManager manager = TestCalendars.build(10, 2);
+        MainEvent stored = manager.findEventById(4);
+        MainEvent duplicate = new MainEvent(4, "Duplicate", "Same ID as a stored event",
+                                            TestCalendars.FIRST_DAY, TestCalendars.FIRST_DAY.plusHours(1));
+
+        assertFalse(manager.addEvent(duplicate));
+        assertSame(stored, manager.findEventById(4));
+        assertEquals(10, manager.getAllEvents().size());
+        assertTrue(manager.deleteEvent(4));
+        assertTrue(manager.addEvent(duplicate), "the ID is free once its event is deleted");
+
+        MainEvent five = manager.findEventById(5);
+        assertThrows(IllegalArgumentException.class, () -> five.setEventId(4));
+        assertEquals(5, five.getEventId(), "the refused ID is not kept");
+        assertSame(duplicate, manager.findEventById(4));
+        assertEquals(1, manager.addEvents(List.of(five, new MainEvent(11, "New", "Not stored yet",
+                                                                      TestCalendars.FIRST_DAY,
+                                                                      TestCalendars.FIRST_DAY.plusHours(1)))),
+                     "addEvents leaves out an event stored already");
+        assertEquals(11, manager.getAllEvents().size());
+    }
+
+    /**
+     * Listener that writes down each saved event as title@start
+     */
+    private static final class RecordingListener implements EventManager.ChangeListener {
+        private final List<String> heard;
+
+        RecordingListener(List<String> heard) {
+            this.heard = heard;
+        }
+
+        @Override
+        public void eventSaved(MainEvent event) {
+            heard.add(event.getTitle() + "@" + event.getStartDateTime());
+        }
+
+        @Override
+        public void eventRemoved(int eventId) {
+            heard.add("removed " + eventId);
+        }
+
+        @Override
+        public void eventsCleared() {
+            heard.add("cleared");
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.mycompany.calendarapp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;  // Counts
+import static org.junit.jupiter.api.Assertions.assertFalse;  // Files not written
+import static org.junit.jupiter.api.Assertions.assertTrue;  // Conditions
+import java.io.File;  // For checking the data files
+import java.util.ArrayList;  // Scanned events
+import java.util.List;  // List interface
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * EventStoreConformanceTest Class
+ *
+ * What every EventStore must keep, checked for each store in
+ * EventStore.NAMES:
+ * - Loading and scanning with no files gives no events
+ * - save() then load() gives back every event and moves the ID counter
+ *   past them; scan() gives the same events
+ * - A second save() replaces the first instead of adding to it
+ * - Changes made through a Session are all there after close() and a
+ *   fresh load()
+ * - Every file in getFiles() exists after a save
+ *
+ * And that the console menu still loads and saves the events.csv that
+ * earlier versions of it wrote through CSVHandler.
+ */
+class EventStoreConformanceTest {
+
+    private static final int EVENTS = 2_000;  // Size of the checked calendar
+
+    @BeforeEach
+    void deleteFilesBefore() {
+        TestCalendars.deleteDataFiles();
+    }
+
+    @AfterEach
+    void deleteFilesAfter() {
+        TestCalendars.deleteDataFiles();
+    }
+
+    @Test
+    void emptyStoreHasNoEvents() {
+        for (String name : EventStore.NAMES) {
+            EventStore store = EventStore.create(name);
+            EventManager loaded = new EventManager();
+            store.load(loaded);
+            assertEquals(0, loaded.getAllEvents().size(), name + ": load() with no files");
+            assertEquals(0, store.scan(event -> { }), name + ": scan() with no files");
+        }
+    }
+
+    @Test
+    void saveThenLoadGivesBackEveryEvent() {
+        for (String name : EventStore.NAMES) {
+            TestCalendars.deleteDataFiles();
+            EventStore store = EventStore.create(name);
+            EventManager original = TestCalendars.build(EVENTS, 1);
+            assertTrue(store.save(original.getAllEvents()), name + ": save() reported a failure");
+            for (String file : store.getFiles()) {
+                assertTrue(new File(file).exists(), name + ": getFiles() lists " + file + ", which save() did not write");
+            }
+
+            EventManager loaded = new EventManager();
+            store.load(loaded);
+            TestCalendars.assertSameEvents(name + " load()", original, loaded);
+            assertTrue(loaded.generateEventId() > EVENTS, name + ": load() left the ID counter behind the loaded IDs");
+
+            List<MainEvent> scanned = new ArrayList<>();
+            assertEquals(EVENTS, store.scan(scanned::add), name + ": scan() count");
+            EventManager fromScan = new EventManager();
+            fromScan.addEvents(scanned);
+            TestCalendars.assertSameEvents(name + " scan()", original, fromScan);
+        }
+    }
+
+    @Test
+    void secondSaveReplacesTheFirst() {
+        for (String name : EventStore.NAMES) {
+            TestCalendars.deleteDataFiles();
+            EventStore store = EventStore.create(name);
+            store.save(TestCalendars.build(EVENTS, 1).getAllEvents());
+            EventManager smaller = TestCalendars.build(EVENTS / 4, 2);
+            store.save(smaller.getAllEvents());
+
+            EventManager loaded = new EventManager();
+            store.load(loaded);
+            TestCalendars.assertSameEvents(name + " load() after a second, smaller save()", smaller, loaded);
+        }
+    }
+
+    @Test
+    void sessionChangesSurviveReload() {
+        for (String name : EventStore.NAMES) {
+            TestCalendars.deleteDataFiles();
+            EventStore store = EventStore.create(name);
+            store.save(TestCalendars.build(EVENTS, 1).getAllEvents());
+            EventManager live = new EventManager();
+            store.load(live);
+            EventStore.Session session = store.open(live);
+
+            List<MainEvent> events = live.getAllEvents();
+            MainEvent added = new MainEvent(live.generateEventId(), "Added", "Added through a session",
+                                            TestCalendars.FIRST_DAY.plusDays(3).withHour(9),
+                                            TestCalendars.FIRST_DAY.plusDays(3).withHour(10));
+            added.setReminder(new Reminder(30));
+            live.addEvent(added);
+            events.get(0).setTitle("Renamed");
+            events.get(1).setStartDateTime(events.get(1).getStartDateTime().plusHours(1));
+            events.get(1).setEndDateTime(events.get(1).getEndDateTime().plusHours(1));
+            events.get(2).setReminder(new Reminder(45));
+            events.get(3).setReminder(null);
+            live.deleteEvent(events.get(4).getEventId());
+
+            assertTrue(session.close(), name + ": Session.close() reported a failure");
+            EventManager loaded = new EventManager();
+            store.load(loaded);
+            TestCalendars.assertSameEvents(name + " load() after Session changes", live, loaded);
+        }
+    }
+
+    @Test
+    void consoleKeepsUsingItsEventsCsv() {
+        // events.csv as the console menu wrote it before there were stores
+        EventManager original = TestCalendars.build(EVENTS / 4, 3);
+        assertTrue(CSVHandler.saveEvents(original.getAllEvents()));
+
+        EventStore store = MainMenu.openStore();
+        EventManager loaded = new EventManager();
+        store.load(loaded);
+        TestCalendars.assertSameEvents("console load() of an existing events.csv", original, loaded);
+
+        loaded.findEventById(1).setTitle("Changed in the console");
+        assertTrue(store.save(loaded.getAllEvents()));
+        assertFalse(new File(CSVHandlerCompliant.EVENT_FILE).exists(), "the console saved to another file");
+        EventManager reloaded = new EventManager();
+        CSVHandler.loadEvents(reloaded);
+        assertEquals("Changed in the console", reloaded.findEventById(1).getTitle());
+    }
+}
@@ -0,0 +1,107 @@
+package com.mycompany.calendarapp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;  // Ranges and times
+import java.time.LocalDateTime;  // Occurrence times
+import java.time.temporal.ChronoUnit;  // Occurrence lengths
+import java.util.List;  // Occurrence lists
+import org.junit.jupiter.api.Test;
+
+/**
+ * RecurringEventTest Class
+ *
+ * The arithmetic that finds occurrences without stepping through a series
+ * (occurrenceAt, occurrenceIndexRange) against plain stepping: one day,
+ * week or month at a time, for every window over the whole series.
+ */
+class RecurringEventTest {
+
+    @Test
+    void occurrenceIndexRangeMatchesSteppingThroughTheSeries() {
+        LocalDateTime[] starts = {
+            LocalDateTime.of(2025, 1, 31, 9, 0),  // Monthly days clamp to shorter months
+            LocalDateTime.of(2024, 2, 29, 23, 30),  // Leap day, and an occurrence past midnight
+            LocalDateTime.of(2025, 3, 15, 0, 0)
+        };
+        long[] lengths = {0, 45, 26 * 60};  // Zero length, short, and longer than a day
+        for (String type : new String[] {"DAILY", "WEEKLY", "MONTHLY"}) {
+            for (LocalDateTime start : starts) {
+                for (long minutes : lengths) {
+                    checkRanges(new RecurringEvent(1, "Series", type + " from " + start + " for " + minutes + " min",
+                                                   start, start.plusMinutes(minutes), type, 30));
+                }
+            }
+        }
+    }
+
+    @Test
+    void occurrencesHaveTheirOwnTimesAndTheParentsDetails() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 31, 9, 0);
+        RecurringEvent series = new RecurringEvent(1, "Rent", "Monthly", start, start.plusHours(1), "MONTHLY", 4);
+        series.setLocation("Bank");
+
+        List<MainEvent> occurrences = series.generateOccurrences();
+        assertEquals(LocalDateTime.of(2025, 2, 28, 9, 0), occurrences.get(1).getStartDateTime());
+        assertEquals(LocalDateTime.of(2025, 3, 28, 10, 0), occurrences.get(2).getEndDateTime(),
+                     "the day stays clamped after February");
+        assertEquals("Rent (Occurrence 2)", occurrences.get(1).getTitle());
+
+        series.setLocation("Online");
+        assertEquals("Online", occurrences.get(1).getLocation(), "details are read from the parent");
+    }
+
+    /**
+     * Compare occurrenceIndexRange with stepping for windows starting every
+     * 7 hours and lasting from 0 hours to 40 days
+     */
+    private static void checkRanges(RecurringEvent series) {
+        int n = series.getOccurrences();
+        LocalDateTime[] start = new LocalDateTime[n];
+        LocalDateTime[] end = new LocalDateTime[n];
+        long minutes = ChronoUnit.MINUTES.between(series.getStartDateTime(), series.getEndDateTime());
+        LocalDateTime step = series.getStartDateTime();
+        for (int i = 0; i < n; i++) {
+            start[i] = step;
+            end[i] = i == 0 ? series.getEndDateTime() : step.plusMinutes(minutes);
+            assertEquals(start[i], series.occurrenceAt(i), series.getDescription() + ": start of " + i);
+            assertEquals(end[i], series.occurrenceEndAt(i), series.getDescription() + ": end of " + i);
+            step = next(step, series.getRecurrenceType());
+        }
+
+        LocalDateTime last = end[n - 1].plusDays(2);
+        for (LocalDateTime from = start[0].minusDays(2); from.isBefore(last); from = from.plusHours(7)) {
+            for (long hours : new long[] {0, 1, 5, 24, 24 * 7, 24 * 40}) {
+                LocalDateTime to = from.plusHours(hours);
+                int first = n;
+                int after = n;
+                for (int i = 0; i < n; i++) {
+                    boolean inWindow = start[i].isBefore(to) && (!start[i].isBefore(from) || end[i].isAfter(from));
+                    if (inWindow && first == n) first = i;
+                    if (!inWindow && first < n && after == n) after = i;
+                }
+                int[] range = series.occurrenceIndexRange(from, to);
+                String window = series.getDescription() + ": window " + from + " to " + to;
+                if (first == n) {
+                    assertEquals(range[0], range[1], window + " is empty");
+                } else {
+                    assertEquals(first, range[0], window + ", first");
+                    assertEquals(after, range[1], window + ", end");
+                }
+            }
+        }
+    }
+
+    /**
+     * The next start, one day, week or month on (months added one at a
+     * time, so the day is clamped by every shorter month passed through)
+     */
+    private static LocalDateTime next(LocalDateTime start, String type) {
+        switch (type) {
+            case "DAILY":
+                return start.plusDays(1);
+            case "WEEKLY":
+                return start.plusWeeks(1);
+            default:
+                return start.plusMonths(1);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.mycompany.calendarapp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;  // Event comparisons
+import static org.junit.jupiter.api.Assertions.assertNotNull;  // Missing events
+import java.io.File;  // For removing the data files
+import java.time.LocalDateTime;  // Event times
+import java.util.SplittableRandom;  // Repeatable random calendars
+
+/**
+ * TestCalendars Class
+ *
+ * Shared pieces of the tests: repeatable made-up calendars, removal of the
+ * stores' data files, and event comparison.
+ *
+ * The stores read and write their files in the working directory, which the
+ * build points at target/test-data; every test that saves deletes them
+ * before and after it runs.
+ */
+final class TestCalendars {
+
+    /** First day of every generated calendar */
+    static final LocalDateTime FIRST_DAY = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    /** Files any store, its snapshot, page file or journal may leave behind */
+    static final String[] DATA_FILES = {"event.csv", "recurrent.csv", "additional.csv", "reminders.csv",
+                                        "calendar.snapshot", "calendar.pages", "calendar.commit", "journal.log",
+                                        "journal.log.old", "events.csv"};
+
+    private static final String[] RECURRENCE_TYPES = {"DAILY", "WEEKLY", "MONTHLY"};
+    // Details include unset (null) and empty values, which the stores must keep apart
+    private static final String[] CATEGORIES = {"Work", "Personal", "Study", null};
+    private static final String[] LOCATIONS = {"Room A", "Online", "", null};
+    private static final String[] PRIORITIES = {"HIGH", "MEDIUM", "LOW", null};
+
+    private TestCalendars() {
+    }
+
+    /**
+     * Build a calendar where about one event in five repeats, one in three
+     * has a reminder, and some details are null or empty
+     *
+     * @param size Number of stored events
+     * @param seed Random seed (the same seed gives the same calendar)
+     * @return A manager holding the events
+     */
+    static EventManager build(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        EventManager manager = new EventManager();
+        int slots = Math.max(30, size / 8) * 24 * 4;  // 15-minute slots, about 8 events a day
+
+        for (int i = 0; i < size; i++) {
+            int id = manager.generateEventId();
+            LocalDateTime start = FIRST_DAY.plusMinutes(15L * random.nextInt(slots));
+            LocalDateTime end = start.plusMinutes(15L * (1 + random.nextInt(12)));
+            MainEvent event;
+            if (random.nextInt(5) == 0) {
+                event = new RecurringEvent(id, "Repeat " + i, "Generated event " + i, start, end,
+                                           RECURRENCE_TYPES[random.nextInt(RECURRENCE_TYPES.length)],
+                                           2 + random.nextInt(11));
+            } else {
+                event = new MainEvent(id, "Event " + i, "Generated event " + i, start, end);
+            }
+            event.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            event.setLocation(LOCATIONS[random.nextInt(LOCATIONS.length)]);
+            event.setPriority(PRIORITIES[random.nextInt(PRIORITIES.length)]);
+            if (random.nextInt(3) == 0) {
+                event.setReminder(new Reminder(15));
+            }
+            manager.addEvent(event);
+        }
+        return manager;
+    }
+
+    /**
+     * Remove every data file a store may have written
+     */
+    static void deleteDataFiles() {
+        for (String name : DATA_FILES) {
+            new File(name).delete();
+            new File(name + ".tmp").delete();
+        }
+    }
+
+    /**
+     * Check that two managers hold the same events (the fields every store
+     * keeps: location, category and priority are not in the legacy format)
+     *
+     * @param what What is being compared, for the failure message
+     * @param expected The events that were stored
+     * @param actual The events that were read back
+     */
+    static void assertSameEvents(String what, EventManager expected, EventManager actual) {
+        assertEquals(expected.getAllEvents().size(), actual.getAllEvents().size(), what + ": number of events");
+        for (MainEvent event : expected.getAllEvents()) {
+            MainEvent other = actual.findEventById(event.getEventId());
+            assertNotNull(other, what + ": event " + event.getEventId() + " is missing");
+            String id = what + ": event " + event.getEventId();
+            assertEquals(event.getTitle(), other.getTitle(), id + " title");
+            assertEquals(event.getDescription(), other.getDescription(), id + " description");
+            assertEquals(event.getStartDateTime(), other.getStartDateTime(), id + " start");
+            assertEquals(event.getEndDateTime(), other.getEndDateTime(), id + " end");
+            assertEquals(event instanceof RecurringEvent, other instanceof RecurringEvent, id + " recurrence");
+            if (event instanceof RecurringEvent) {
+                RecurringEvent e = (RecurringEvent) event;
+                RecurringEvent o = (RecurringEvent) other;
+                assertEquals(e.getRecurrenceType(), o.getRecurrenceType(), id + " recurrence type");
+                assertEquals(e.getOccurrences(), o.getOccurrences(), id + " occurrences");
+            }
+            assertEquals(minutesBefore(event), minutesBefore(other), id + " reminder");
+        }
+    }
+
+    /**
+     * Check that two managers' events have the same location, category and
+     * priority, null and empty values included (for the stores that keep
+     * them, unlike the legacy format)
+     *
+     * @param what What is being compared, for the failure message
+     * @param expected The events that were stored
+     * @param actual The events that were read back
+     */
+    static void assertSameDetails(String what, EventManager expected, EventManager actual) {
+        for (MainEvent event : expected.getAllEvents()) {
+            MainEvent other = actual.findEventById(event.getEventId());
+            assertNotNull(other, what + ": event " + event.getEventId() + " is missing");
+            String id = what + ": event " + event.getEventId();
+            assertEquals(event.getLocation(), other.getLocation(), id + " location");
+            assertEquals(event.getCategory(), other.getCategory(), id + " category");
+            assertEquals(event.getPriority(), other.getPriority(), id + " priority");
+        }
+    }
+
+    private static Integer minutesBefore(MainEvent event) {
+        Reminder reminder = event.getReminder();
+        return reminder != null ? Integer.valueOf(reminder.getMinutesBefore()) : null;
+    }
+}
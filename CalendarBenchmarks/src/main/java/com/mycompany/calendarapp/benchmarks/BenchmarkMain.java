@@ -0,0 +1,25 @@
+package com.mycompany.calendarapp.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkMain Class
+ *
+ * Entry point of benchmarks.jar. Takes the usual JMH command line (benchmark
+ * regex, -p, -f, -wi, ...) and always adds the GC profiler, so every result
+ * comes with its allocation rate (gc.alloc.rate and gc.alloc.rate.norm).
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,63 @@
+package com.mycompany.calendarapp.benchmarks;
+
+import com.mycompany.calendarapp.EventManager;  // The calendar under test
+import com.mycompany.calendarapp.MainEvent;  // Probe and touched events
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * CalendarState Class
+ *
+ * The shared benchmark fixture: one synthetic calendar per parameter
+ * combination, built once per trial.
+ *
+ * Parameters:
+ * - events: number of stored events (1k, 100k, 1M)
+ * - recurringPercent: share of events that repeat
+ * - columnStore: whether EventManager may use its columnar store (run with
+ *   -p columnStore=true,false to compare both scan paths)
+ */
+@State(Scope.Benchmark)
+public class CalendarState {
+
+    /** Seed for every generated calendar, so runs are comparable */
+    public static final long SEED = 42L;
+
+    @Param({"1000", "100000", "1000000"})
+    public int events;
+
+    @Param({"0", "10", "50"})
+    public int recurringPercent;
+
+    @Param({"true"})
+    public boolean columnStore;
+
+    public EventManager manager;  // The calendar
+    public MainEvent probe;  // A one-hour event in the middle of the calendar, not stored
+
+    private MainEvent touched;  // Stored event whose description touch() changes
+    private int touches;  // Number of touch() calls so far
+
+    @Setup(Level.Trial)
+    public void build() {
+        manager = SyntheticCalendar.build(events, recurringPercent, SEED);
+        manager.setColumnStoreEnabled(columnStore);
+        probe = new MainEvent(-1, "Probe", "Clash probe",
+                              SyntheticCalendar.FIRST_DAY.plusDays(SyntheticCalendar.spanDays(events) / 2).withHour(10),
+                              SyntheticCalendar.FIRST_DAY.plusDays(SyntheticCalendar.spanDays(events) / 2).withHour(11));
+        touched = manager.getAllEvents().get(0);
+    }
+
+    /**
+     * Change one stored event's description
+     *
+     * Moves the manager's version on, so the next call has to rebuild the
+     * expansion cache and the columns instead of reusing them.
+     */
+    public void touch() {
+        touched.setDescription("Touched " + (++touches));
+    }
+}
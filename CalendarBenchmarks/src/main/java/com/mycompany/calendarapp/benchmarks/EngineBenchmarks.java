@@ -0,0 +1,114 @@
+package com.mycompany.calendarapp.benchmarks;
+
+import com.mycompany.calendarapp.AdvancedSearch;  // The advanced-search filter
+import com.mycompany.calendarapp.ClashSweep;  // Result of the whole-calendar sweep
+import com.mycompany.calendarapp.EventColumns;  // Columnar store for the statistics scan
+import com.mycompany.calendarapp.EventStatistics;  // The statistics report
+import com.mycompany.calendarapp.MainEvent;  // Event results
+import java.time.LocalDate;  // Search date range
+import java.time.LocalTime;  // Search time range
+import java.util.List;  // List interface
+import java.util.concurrent.TimeUnit;  // Output units
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * EngineBenchmarks Class
+ *
+ * Benchmarks for the in-memory calendar engine: clash detection, occurrence
+ * expansion, statistics and the advanced search.
+ *
+ * "Cached" benchmarks run against an unchanged calendar, so they measure the
+ * steady state the GUI sees between edits. "AfterChange" benchmarks touch one
+ * event first, so every call pays for rebuilding the expansion (and columns).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class EngineBenchmarks {
+
+    // ----- Clash detection -----
+
+    @Benchmark
+    public List<MainEvent> findClashingEvents(CalendarState state) {
+        return state.manager.findClashingEvents(state.probe);
+    }
+
+    @Benchmark
+    public List<MainEvent> findAllClashingEventsCached(CalendarState state) {
+        return state.manager.findAllClashingEvents();
+    }
+
+    @Benchmark
+    public List<MainEvent> findAllClashingEventsAfterChange(CalendarState state) {
+        state.touch();
+        return state.manager.findAllClashingEvents();
+    }
+
+    @Benchmark
+    public ClashSweep findClashesAfterChange(CalendarState state) {
+        state.touch();
+        return state.manager.findClashes();
+    }
+
+    // ----- Expansion -----
+
+    @Benchmark
+    public List<MainEvent> getAllEventsExpandedCached(CalendarState state) {
+        return state.manager.getAllEventsExpanded();
+    }
+
+    @Benchmark
+    public List<MainEvent> getAllEventsExpandedAfterChange(CalendarState state) {
+        state.touch();
+        return state.manager.getAllEventsExpanded();
+    }
+
+    // ----- Statistics -----
+
+    @Benchmark
+    public String statisticsReport(CalendarState state) {
+        EventColumns columns = state.manager.getColumns();
+        if (columns != null) {
+            return EventStatistics.generateStatisticsReport(columns);
+        }
+        return EventStatistics.generateStatisticsReport(state.manager.getAllEventsExpanded());
+    }
+
+    @Benchmark
+    public String statisticsReportFromObjects(CalendarState state) {
+        return EventStatistics.generateStatisticsReport(state.manager.getAllEventsExpanded());
+    }
+
+    // ----- Advanced search -----
+
+    /**
+     * One month, working hours, one category and a title word: a typical
+     * narrow search from the Advanced Search dialog
+     */
+    @Benchmark
+    public List<MainEvent> advancedSearchNarrow(CalendarState state) {
+        LocalDate from = SyntheticCalendar.FIRST_DAY.toLocalDate()
+                             .plusDays(SyntheticCalendar.spanDays(state.events) / 2);
+        return AdvancedSearch.filter(state.manager, "meeting", null, from, from.plusMonths(1),
+                                     LocalTime.of(9, 0), LocalTime.of(17, 0), false,
+                                     null, "Work", null);
+    }
+
+    /**
+     * No dates and only a priority and reminder filter, so every occurrence
+     * is looked at
+     */
+    @Benchmark
+    public List<MainEvent> advancedSearchWholeCalendar(CalendarState state) {
+        return AdvancedSearch.filter(state.manager, null, null, null, null,
+                                     null, null, true, null, null, "High");
+    }
+}
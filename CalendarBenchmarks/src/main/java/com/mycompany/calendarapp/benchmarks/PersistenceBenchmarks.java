@@ -0,0 +1,109 @@
+package com.mycompany.calendarapp.benchmarks;
+
+import com.mycompany.calendarapp.AdditionalFieldsHandler;  // additional.csv
+import com.mycompany.calendarapp.CSVHandlerCompliant;  // event.csv and recurrent.csv
+import com.mycompany.calendarapp.EventManager;  // Loaded and saved calendars
+import java.io.File;  // For checking and removing the data files
+import java.util.concurrent.TimeUnit;  // Output units
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PersistenceBenchmarks Class
+ *
+ * Benchmarks for the CSV files: saving a calendar, loading it back, and
+ * loading additional.csv on its own. Saving also writes calendar.snapshot;
+ * useSnapshot=false deletes it so loadEvents reads the CSV files. With
+ * paging=true saving also writes calendar.pages, and loadEvents only loads
+ * the months around today from it (see EventPager).
+ *
+ * The CSV handlers always use event.csv, recurrent.csv, additional.csv,
+ * calendar.snapshot and calendar.pages in the working directory, so these benchmarks write their files there. They
+ * refuse to start if any of the files already exists (so a real calendar is
+ * never overwritten) and delete them when the trial ends. Run the benchmark
+ * jar from an empty directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PersistenceBenchmarks {
+
+    private static final String[] DATA_FILES = {"event.csv", "recurrent.csv", "additional.csv", "reminders.csv",
+                                                "calendar.snapshot", "calendar.pages", "calendar.commit"};
+    private static final String SNAPSHOT_FILE = "calendar.snapshot";
+
+    @Param({"1000", "100000", "1000000"})
+    public int events;
+
+    @Param({"0", "10", "50"})
+    public int recurringPercent;
+
+    @Param({"true", "false"})
+    public boolean useSnapshot;
+
+    @Param({"false", "true"})
+    public boolean paging;
+
+    private EventManager manager;  // The calendar that is saved, and receives additional.csv
+    private EventManager lastLoaded;  // Last calendar loadEvents returned
+
+    @Setup(Level.Trial)
+    public void writeFiles() {
+        for (String name : DATA_FILES) {
+            if (new File(name).exists()) {
+                throw new IllegalStateException(name + " already exists in "
+                        + new File("").getAbsolutePath() + "; run the benchmarks from an empty directory");
+            }
+        }
+        System.setProperty("calendar.paging", Boolean.toString(paging));
+        manager = SyntheticCalendar.build(events, recurringPercent, CalendarState.SEED);
+        CSVHandlerCompliant.saveEvents(manager);
+        if (!useSnapshot) {
+            new File(SNAPSHOT_FILE).delete();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() {
+        for (String name : DATA_FILES) {
+            new File(name).delete();
+        }
+    }
+
+    @Benchmark
+    public EventManager saveEvents() {
+        CSVHandlerCompliant.saveEvents(manager);
+        return manager;
+    }
+
+    @Benchmark
+    public EventManager loadEvents() {
+        if (lastLoaded != null && lastLoaded.isPaging()) {
+            lastLoaded.clear();  // Closes its calendar.pages (cheap: only some months are in memory)
+        }
+        EventManager loaded = new EventManager();
+        lastLoaded = loaded;
+        CSVHandlerCompliant.loadEvents(loaded);
+        return loaded;
+    }
+
+    @Benchmark
+    public EventManager loadAdditionalFields() {
+        AdditionalFieldsHandler.loadAdditionalFields(manager);
+        return manager;
+    }
+}
@@ -0,0 +1,125 @@
+package com.mycompany.calendarapp.benchmarks;
+
+import com.mycompany.calendarapp.EventManager;  // Loaded and saved calendars
+import com.mycompany.calendarapp.EventStore;  // The stores being measured
+import com.mycompany.calendarapp.MainEvent;  // The event changed per session call
+import java.io.File;  // For checking and removing the data files
+import java.util.concurrent.TimeUnit;  // Output units
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * StoreBenchmarks Class
+ *
+ * The same throughput benchmarks for every EventStore (pick them with
+ * -p store=csv,legacy-csv): a full save, a full load, a streaming scan, and
+ * one change saved through an open Session (what the JavaFX thread pays for
+ * each edit).
+ *
+ * What the stores must keep is checked by EventStoreConformanceTest in
+ * CalendarApp's tests, which "mvn install" runs before this jar can be
+ * built. Like PersistenceBenchmarks, the files are written to the working
+ * directory; the trial refuses to start if any already exists and deletes
+ * them when it ends, so run the benchmark jar from an empty directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class StoreBenchmarks {
+
+    /** Files any store, its snapshot, page file or journal may leave behind */
+    private static final String[] DATA_FILES = {"event.csv", "recurrent.csv", "additional.csv", "reminders.csv",
+                                                "calendar.snapshot", "calendar.pages", "calendar.commit", "journal.log",
+                                                "journal.log.old", "events.csv"};
+
+    @Param({"csv", "legacy-csv"})
+    public String store;
+
+    @Param({"1000", "100000", "1000000"})
+    public int events;
+
+    @Param({"10"})
+    public int recurringPercent;
+
+    private EventStore eventStore;  // The store being measured
+    private EventManager manager;  // The calendar that is saved
+    private EventManager live;  // Loaded copy that the session benchmark changes
+    private EventStore.Session session;  // Open on 'live' (null outside sessionChange trials)
+    private MainEvent changed;  // Event renamed by sessionChange
+    private int changes;  // Number of sessionChange calls so far
+    private EventManager lastLoaded;  // Last calendar load returned
+
+    @Setup(Level.Trial)
+    public void writeFiles() {
+        for (String name : DATA_FILES) {
+            if (new File(name).exists()) {
+                throw new IllegalStateException(name + " already exists in "
+                        + new File("").getAbsolutePath() + "; run the benchmarks from an empty directory");
+            }
+        }
+        eventStore = EventStore.create(store);
+        manager = SyntheticCalendar.build(events, recurringPercent, CalendarState.SEED);
+        eventStore.save(manager.getAllEvents());
+        live = new EventManager();
+        eventStore.load(live);
+        changed = live.getAllEvents().get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() {
+        if (session != null) {
+            session.discard();
+            session = null;
+        }
+        for (String name : DATA_FILES) {
+            new File(name).delete();
+        }
+    }
+
+    @Benchmark
+    public boolean save() {
+        return eventStore.save(manager.getAllEvents());
+    }
+
+    @Benchmark
+    public EventManager load() {
+        if (lastLoaded != null && lastLoaded.isPaging()) {
+            lastLoaded.clear();  // Closes its calendar.pages (cheap: only some months are in memory)
+        }
+        EventManager loaded = new EventManager();
+        lastLoaded = loaded;
+        eventStore.load(loaded);
+        return loaded;
+    }
+
+    @Benchmark
+    public long scan() {
+        long[] minutes = new long[1];
+        eventStore.scan(event -> minutes[0] += event.getStartDateTime().getMinute());
+        return minutes[0];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public EventStore.Session sessionChange() {
+        if (session == null) {
+            session = eventStore.open(live);  // Opened on first use, so the other benchmarks run without it
+        }
+        changed.setTitle("Changed " + changes++);
+        return session;
+    }
+}
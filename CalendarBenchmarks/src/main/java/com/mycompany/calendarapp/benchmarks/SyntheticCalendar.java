@@ -0,0 +1,89 @@
+package com.mycompany.calendarapp.benchmarks;
+
+import com.mycompany.calendarapp.EventManager;  // The calendar being filled
+import com.mycompany.calendarapp.MainEvent;  // Normal events
+import com.mycompany.calendarapp.RecurringEvent;  // Recurring events
+import com.mycompany.calendarapp.Reminder;  // Event reminders
+import java.time.LocalDateTime;  // For date and time handling
+import java.util.SplittableRandom;  // Fast seeded random numbers
+
+/**
+ * SyntheticCalendar Class
+ *
+ * Builds repeatable, made-up calendars for the benchmarks.
+ *
+ * Shape of the data:
+ * - About EVENTS_PER_DAY events a day, so bigger calendars cover more years
+ *   instead of piling more clashes onto the same days
+ * - Starts on a 15-minute grid, 15 minutes to 3 hours long
+ * - A chosen percentage of events repeat DAILY, WEEKLY or MONTHLY, 2-12 times
+ * - Every event has a category and priority, most have a location, about a
+ *   third have a reminder
+ * - The same seed always gives the same calendar
+ */
+public final class SyntheticCalendar {
+
+    /** Average number of events starting on each day */
+    public static final int EVENTS_PER_DAY = 8;
+
+    /** First day of every generated calendar */
+    public static final LocalDateTime FIRST_DAY = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final String[] RECURRENCE_TYPES = {"DAILY", "WEEKLY", "MONTHLY"};
+    private static final String[] CATEGORIES = {"Work", "Personal", "Study", "Health", "Social"};
+    private static final String[] PRIORITIES = {"High", "Medium", "Low"};
+    private static final String[] LOCATIONS = {"Room A", "Room B", "Library", "Cafe", "Online", null};
+    private static final String[] WORDS = {"Meeting", "Review", "Lecture", "Gym", "Lunch", "Sync", "Demo", "Call"};
+
+    private SyntheticCalendar() {
+    }
+
+    /**
+     * Build a calendar
+     *
+     * @param size Number of stored events (recurring events count once)
+     * @param recurringPercent Percentage of events that repeat (0-100)
+     * @param seed Random seed
+     * @return A manager holding the events
+     */
+    public static EventManager build(int size, int recurringPercent, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        EventManager manager = new EventManager();
+        int slotsInSpan = spanDays(size) * 24 * 4;  // 15-minute slots
+
+        for (int i = 0; i < size; i++) {
+            int id = manager.generateEventId();
+            LocalDateTime start = FIRST_DAY.plusMinutes(15L * random.nextInt(slotsInSpan));
+            LocalDateTime end = start.plusMinutes(15L * (1 + random.nextInt(12)));
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + i;
+            String description = "Generated event " + i;
+
+            MainEvent event;
+            if (random.nextInt(100) < recurringPercent) {
+                event = new RecurringEvent(id, title, description, start, end,
+                                           RECURRENCE_TYPES[random.nextInt(RECURRENCE_TYPES.length)],
+                                           2 + random.nextInt(11));
+            } else {
+                event = new MainEvent(id, title, description, start, end);
+            }
+            event.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            event.setPriority(PRIORITIES[random.nextInt(PRIORITIES.length)]);
+            event.setLocation(LOCATIONS[random.nextInt(LOCATIONS.length)]);
+            if (random.nextInt(3) == 0) {
+                event.setReminder(new Reminder(15));
+            }
+            manager.addEvent(event);
+        }
+        return manager;
+    }
+
+    /**
+     * Number of days a calendar of the given size covers
+     *
+     * @param size Number of stored events
+     * @return Days from FIRST_DAY that event starts are spread over
+     */
+    public static int spanDays(int size) {
+        return Math.max(30, size / EVENTS_PER_DAY);
+    }
+}